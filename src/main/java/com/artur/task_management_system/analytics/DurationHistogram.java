@@ -0,0 +1,86 @@
+package com.artur.task_management_system.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Потоковая гистограмма неотрицательных длительностей с логарифмическими корзинами.
+ *
+ * Значения меньше 64 хранятся точно, остальные попадают в корзины, на которые делится каждый
+ * диапазон [2^k, 2^(k+1)): 64 корзины на диапазон, поэтому относительная ошибка перцентиля не больше 1/64.
+ * Память зависит только от наибольшего значения (не больше нескольких тысяч счетчиков), а не от их количества.
+ */
+public class DurationHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private long[] counts = new long[SUB_BUCKET_COUNT * 2];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Добавляет значение. Отрицательные значения считаются нулем.
+     *
+     * @param value длительность
+     */
+    public void record(long value) {
+        long normalized = Math.max(value, 0);
+        int index = bucketIndex(normalized);
+        if (index >= counts.length){
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index]++;
+        totalCount++;
+        min = Math.min(min, normalized);
+        max = Math.max(max, normalized);
+    }
+
+    /**
+     * Значение перцентиля: верхняя граница корзины, в которую попадает значение с рангом ceil(p * count),
+     * но не больше максимального значения.
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return значение перцентиля или 0, если значений нет
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++){
+            seen += counts[index];
+            if (seen >= rank){
+                return Math.max(min, Math.min(bucketUpperBound(index), max));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    private static int bucketIndex(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        if (highestBit < SUB_BUCKET_BITS){
+            return (int) value;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT){
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
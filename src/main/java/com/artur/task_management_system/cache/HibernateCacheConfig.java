@@ -0,0 +1,65 @@
+package com.artur.task_management_system.cache;
+
+import com.artur.task_management_system.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс конфигурации кэша второго уровня Hibernate.
+ * Регионы создаются заранее, чтобы задать им размер и время жизни записей.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    private static final List<String> USER_REGIONS = List.of(
+            User.CACHE_REGION,
+            User.NATURAL_ID_CACHE_REGION,
+            User.CREATED_TASKS_CACHE_REGION,
+            User.ASSIGNED_TASKS_CACHE_REGION
+    );
+
+    @Value("${artur.cache.user.max-size}")
+    private long userMaxSize;
+
+    @Value("${artur.cache.user.ttl}")
+    private Duration userTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : USER_REGIONS){
+            if (cacheManager.getCache(region) == null){
+                cacheManager.createCache(region, regionConfiguration(userMaxSize, userTtl));
+            }
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                new javax.cache.expiry.Duration(TimeUnit.MILLISECONDS, ttl.toMillis())));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,109 @@
+package com.artur.task_management_system.cache;
+
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.service.CacheInvalidationListener;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Удаляет записи кэша второго уровня по уведомлениям шины инвалидации.
+ *
+ * Hibernate сам поддерживает кэш узла, на котором выполнено изменение, поэтому слушатель
+ * получает только изменения, сделанные на других узлах. Изменения, сделанные SQL запросами в обход Hibernate,
+ * их автор удаляет из кэша своего узла методами {@link #evictUser} и {@link #evictTaskCollections}.
+ */
+@Component
+@AllArgsConstructor
+public class SecondLevelCacheInvalidationListener implements CacheInvalidationListener {
+    private static final String CREATED_TASKS_ROLE = User.class.getName() + ".createdTasks";
+    private static final String ASSIGNED_TASKS_ROLE = User.class.getName() + ".assignedTasks";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Для пользователя удаляются его запись и коллекции задач, для TASK_LIST - коллекции задач пользователя
+     * из уведомления. Изменение самой задачи кэш второго уровня не затрагивает: задачи не кэшируются,
+     * а изменения состава коллекций публикуются как TASK_LIST для каждого затронутого пользователя.
+     */
+    @Override
+    public void onInvalidation(CacheEntityType entityType, Long id, int version) {
+        if (entityType == CacheEntityType.USER){
+            evictUser(id, null);
+        }else if (entityType == CacheEntityType.TASK_LIST){
+            evictTaskCollections(id);
+        }
+    }
+
+    /**
+     * Удаляет запись натурального идентификатора пользователя по email до изменения.
+     */
+    @Override
+    public void onNaturalIdChange(CacheEntityType entityType, Long id, String previousNaturalId) {
+        if (entityType == CacheEntityType.USER){
+            evictNaturalId(previousNaturalId);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        getCache().evictAllRegions();
+    }
+
+    @Override
+    public boolean isRemoteOnly() {
+        return true;
+    }
+
+    /**
+     * Удаляет из кэша узла пользователя, его коллекции задач и, если email известен, его натуральный идентификатор.
+     *
+     * @param userId идентификатор пользователя
+     * @param email email пользователя или null
+     */
+    public void evictUser(Long userId, String email) {
+        getCache().evictEntityData(User.class, userId);
+        evictTaskCollections(userId);
+        if (email != null){
+            evictNaturalId(email);
+        }
+    }
+
+    /**
+     * Удаляет из кэша узла коллекции созданных и назначенных задач пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void evictTaskCollections(Long userId) {
+        Cache cache = getCache();
+        cache.evictCollectionData(CREATED_TASKS_ROLE, userId);
+        cache.evictCollectionData(ASSIGNED_TASKS_ROLE, userId);
+    }
+
+    private void evictNaturalId(String email) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        EntityPersister persister = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(User.class);
+        NaturalIdDataAccess access = persister.getNaturalIdCacheAccessStrategy();
+        if (access == null){
+            return;
+        }
+        try (Session session = sessionFactory.openSession()){
+            access.evict(access.generateCacheKey(email, persister,
+                    session.unwrap(SharedSessionContractImplementor.class)));
+        }
+    }
+
+    private Cache getCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
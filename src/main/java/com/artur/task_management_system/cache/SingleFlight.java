@@ -0,0 +1,80 @@
+package com.artur.task_management_system.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых загрузок.
+ *
+ * Первый вызов с ключом выполняет загрузку, вызовы с тем же ключом, пришедшие до ее завершения,
+ * ждут и получают тот же результат или то же исключение. Результат не сохраняется после завершения загрузки.
+ *
+ * Метрика singleflight.loads с тегом result=executed считает выполненные загрузки,
+ * с тегом result=shared - сэкономленные.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedLoads;
+    private final Counter sharedLoads;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executedLoads = Counter.builder("singleflight.loads")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.sharedLoads = Counter.builder("singleflight.loads")
+                .tag("name", name)
+                .tag("result", "shared")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет загрузку или присоединяется к уже выполняемой загрузке с тем же ключом.
+     *
+     * @param key ключ загрузки
+     * @param loader загрузка, выполняется в потоке первого вызова
+     * @return результат загрузки
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null){
+            sharedLoads.increment();
+            return await(running);
+        }
+
+        executedLoads.increment();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
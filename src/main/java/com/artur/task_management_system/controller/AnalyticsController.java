@@ -0,0 +1,74 @@
+package com.artur.task_management_system.controller;
+
+import com.artur.task_management_system.model.StatusTimeReport;
+import com.artur.task_management_system.model.attributes.StatusTimeGroupBy;
+import com.artur.task_management_system.service.TaskAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Контроллер для аналитики по задачам.
+ */
+@Tag(name = "Analytics")
+@RestController
+@RequestMapping(path = "api/analytics")
+@AllArgsConstructor
+public class AnalyticsController {
+    private final TaskAnalyticsService taskAnalyticsService;
+
+    /**
+     * Получение перцентилей времени в статусах за период.
+     *
+     * @param from начало периода
+     * @param to конец периода, не включается
+     * @param groupBy группировка по приоритету или пользователю
+     * @return перцентили по группам
+     */
+    @GetMapping("/status-times")
+    @Operation(
+            summary = "Get status time percentiles",
+            description = "Computes p50/p90/p99 and max of time spent in each status (cycle time is IN_PROCESS) " +
+                    "and of LEAD_TIME (creation to completion) for status transitions in [from, to). " +
+                    "Time in a status is attributed to the user who moved the task out of it. " +
+                    "Percentiles are approximate with relative error below 2%",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful computation of percentiles",
+                            content = @Content(schema = @Schema(implementation = StatusTimeReport.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request. (Wrong or too long period)",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<StatusTimeReport> getStatusTimeReport(
+            @Parameter(description = "Period start", required = true, example = "2024-01-01T00:00:00")
+            @RequestParam("from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @Parameter(description = "Period end, exclusive", required = true, example = "2024-02-01T00:00:00")
+            @RequestParam("to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @Parameter(description = "Grouping of results (PRIORITY/USER)", required = false, example = "PRIORITY")
+            @RequestParam(value = "groupBy", required = false, defaultValue = "PRIORITY")
+            StatusTimeGroupBy groupBy) {
+        StatusTimeReport report = taskAnalyticsService.getStatusTimeReport(from, to, groupBy);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+}
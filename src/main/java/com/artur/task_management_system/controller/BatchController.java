@@ -0,0 +1,60 @@
+package com.artur.task_management_system.controller;
+
+import com.artur.task_management_system.dto.BatchOperationResultDTO;
+import com.artur.task_management_system.dto.BatchRequestDTO;
+import com.artur.task_management_system.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Контроллер для пакетного выполнения операций над задачами.
+ */
+@Tag(name = "Batch")
+@RestController
+@AllArgsConstructor
+@RequestMapping(path = "api/batch")
+public class BatchController {
+    private final BatchService batchService;
+
+    /**
+     * Выполнение нескольких операций над задачами одним запросом.
+     *
+     * @param batchRequest операции и режим выполнения
+     * @return результаты операций в порядке запроса
+     */
+    @PostMapping
+    @Operation(
+            summary = "Execute batch of operations",
+            description = "Executes task operations in order on behalf of logged-in user. " +
+                    "Operation can use ID of a task from an earlier operation by taskRef. " +
+                    "Atomic batch is rolled back entirely if any operation fails",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch executed. Status of every operation " +
+                            "is reported in its result",
+                            content = @Content(array = @ArraySchema(
+                                    schema = @Schema(implementation = BatchOperationResultDTO.class)))),
+                    @ApiResponse(responseCode = "400", description = "Bad request",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<List<BatchOperationResultDTO>> executeBatch(@Valid @RequestBody BatchRequestDTO batchRequest) {
+        List<BatchOperationResultDTO> results = batchService.executeBatch(batchRequest);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+}
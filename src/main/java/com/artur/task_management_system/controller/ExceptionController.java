@@ -5,6 +5,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import lombok.AllArgsConstructor;
 import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -50,6 +51,25 @@ public class ExceptionController {
         return new ResponseEntity<>(exc.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(LoginBlockedException.class)
+    public ResponseEntity<?> handleLoginBlockedException(LoginBlockedException exc) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exc.getRetryAfterSeconds()));
+        return new ResponseEntity<>(exc.getMessage(), headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<?> handlePasswordHashingOverloadedException(PasswordHashingOverloadedException exc) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(exc.getMessage(), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<?> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException exc) {
+        return new ResponseEntity<>(exc.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<?> handleMissingServletRequestParameterException(MissingServletRequestParameterException exc){
         return new ResponseEntity<>(exc.getMessage(), HttpStatus.BAD_REQUEST);
@@ -59,8 +79,9 @@ public class ExceptionController {
     public ResponseEntity<?> handleExpiredJwtException(ExpiredJwtException exc){
         return new ResponseEntity<>(exc.getMessage(), HttpStatus.UNAUTHORIZED);
     }
-    @ExceptionHandler(PropertyReferenceException.class)
-    public ResponseEntity<?> handlePropertyReferenceException(PropertyReferenceException exc){
+
+    @ExceptionHandler({PropertyReferenceException.class, SortFieldNotAllowedException.class})
+    public ResponseEntity<?> handlePropertyReferenceException(RuntimeException exc){
         return new ResponseEntity<>(exc.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
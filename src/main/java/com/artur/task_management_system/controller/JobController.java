@@ -0,0 +1,88 @@
+package com.artur.task_management_system.controller;
+
+import com.artur.task_management_system.dto.BackgroundJobViewDTO;
+import com.artur.task_management_system.dto.mappers.BackgroundJobMapper;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.service.BackgroundJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Контроллер для отслеживания и отмены длительных заданий.
+ */
+@Tag(name = "Jobs")
+@RestController
+@RequestMapping(path = "api/jobs")
+@AllArgsConstructor
+public class JobController {
+    private final BackgroundJobMapper backgroundJobMapper = Mappers.getMapper(BackgroundJobMapper.class);
+
+    private final BackgroundJobService backgroundJobService;
+
+    /**
+     * Получает состояние задания. Доступно без аутентификации, так как задание может пережить
+     * своего владельца (например, удаление пользователя).
+     *
+     * @param jobId идентификатор задания
+     * @return задание в формате {@link BackgroundJobViewDTO} с HTTP статусом 200 OK
+     */
+    @GetMapping("/{jobId}")
+    @Operation(
+            summary = "Get Job By ID",
+            description = "Fetches status and progress of a background job. Doesn't require authentication",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of job",
+                            content = @Content(schema = @Schema(implementation = BackgroundJobViewDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Job not found",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<BackgroundJobViewDTO> getJobById(
+            @Parameter(description = "ID of the job to retrieve", required = true)
+            @PathVariable("jobId")
+            UUID jobId){
+        BackgroundJob job = backgroundJobService.getJob(jobId);
+        return new ResponseEntity<>(backgroundJobMapper.backgroundJobToViewDTO(job), HttpStatus.OK);
+    }
+
+    /**
+     * Запрашивает отмену задания текущего пользователя.
+     *
+     * @param jobId идентификатор задания
+     * @return задание в формате {@link BackgroundJobViewDTO} с HTTP статусом 202 Accepted
+     */
+    @DeleteMapping("/{jobId}")
+    @Operation(
+            summary = "Cancel Job",
+            description = "Requests cancellation of a job of the logged in user. A running job stops " +
+                    "at its next checkpoint",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Cancellation accepted",
+                            content = @Content(schema = @Schema(implementation = BackgroundJobViewDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Job is finished or can't be cancelled",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized/Not yours job",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "404", description = "Job not found",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<BackgroundJobViewDTO> cancelJob(
+            @Parameter(description = "ID of the job to cancel", required = true)
+            @PathVariable("jobId")
+            UUID jobId){
+        BackgroundJob job = backgroundJobService.cancelJob(jobId);
+        return new ResponseEntity<>(backgroundJobMapper.backgroundJobToViewDTO(job), HttpStatus.ACCEPTED);
+    }
+}
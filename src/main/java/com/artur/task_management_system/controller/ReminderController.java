@@ -0,0 +1,74 @@
+package com.artur.task_management_system.controller;
+
+import com.artur.task_management_system.dto.ReminderSettingsDTO;
+import com.artur.task_management_system.service.TaskReminderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для настроек напоминаний о сроках задач.
+ */
+@Tag(name = "Reminders")
+@RestController
+@RequestMapping(path = "api/reminders")
+@AllArgsConstructor
+public class ReminderController {
+    private final TaskReminderService taskReminderService;
+
+    /**
+     * Получает настройки напоминаний текущего пользователя.
+     *
+     * @return настройки напоминаний с HTTP статусом 200 OK
+     */
+    @GetMapping("/settings")
+    @Operation(
+            summary = "Get my reminder settings",
+            description = "Retrieve how many minutes before the deadline of authored and assigned tasks " +
+                    "the logged in user receives reminder emails",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of settings",
+                            content = @Content(schema = @Schema(implementation = ReminderSettingsDTO.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<ReminderSettingsDTO> getReminderSettings() {
+        ReminderSettingsDTO settingsDTO = new ReminderSettingsDTO(taskReminderService.getMyReminderOffsets());
+        return new ResponseEntity<>(settingsDTO, HttpStatus.OK);
+    }
+
+    /**
+     * Изменяет настройки напоминаний текущего пользователя.
+     *
+     * @param settingsDTO новые настройки
+     * @return сохраненные настройки с HTTP статусом 200 OK
+     */
+    @PutMapping("/settings")
+    @Operation(
+            summary = "Update my reminder settings",
+            description = "Sets how many minutes before the task deadline reminder emails are sent. " +
+                    "Settings apply to tasks created or changed afterwards",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful update of settings",
+                            content = @Content(schema = @Schema(implementation = ReminderSettingsDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request. (Wrong offsets)",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<ReminderSettingsDTO> updateReminderSettings(
+            @Valid @RequestBody ReminderSettingsDTO settingsDTO) {
+        ReminderSettingsDTO updatedDTO = new ReminderSettingsDTO(
+                taskReminderService.updateMyReminderOffsets(settingsDTO.getOffsetsMinutes()));
+        return new ResponseEntity<>(updatedDTO, HttpStatus.OK);
+    }
+}
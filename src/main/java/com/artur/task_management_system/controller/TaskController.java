@@ -2,13 +2,26 @@ package com.artur.task_management_system.controller;
 
 import com.artur.task_management_system.dto.TaskCommentCreationDTO;
 import com.artur.task_management_system.dto.TaskCreationDTO;
+import com.artur.task_management_system.dto.TaskHistoryEntryViewDTO;
 import com.artur.task_management_system.dto.UserViewDTO;
+import com.artur.task_management_system.model.BatchLookupResponse;
+import com.artur.task_management_system.model.KeysetPageResponse;
 import com.artur.task_management_system.model.PageResponse;
+import com.artur.task_management_system.model.SyncResponse;
 import com.artur.task_management_system.model.Task;
 import com.artur.task_management_system.model.TaskComment;
+import com.artur.task_management_system.model.TaskHistoryEntry;
+import com.artur.task_management_system.model.attributes.FirstPageEndpoint;
 import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.service.FirstPageCache;
+import com.artur.task_management_system.service.IdempotencyService;
 import com.artur.task_management_system.service.TaskCommentService;
+import com.artur.task_management_system.service.ResponseCoalescer;
+import com.artur.task_management_system.service.TaskEventStreamService;
+import com.artur.task_management_system.service.TaskHistoryService;
 import com.artur.task_management_system.service.TaskService;
+import com.artur.task_management_system.service.TaskSyncService;
+import com.artur.task_management_system.service.TaskViewCache;
 import com.artur.task_management_system.dto.TaskViewDTO;
 import com.artur.task_management_system.dto.mappers.TaskMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,11 +35,16 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Контроллер для управления задачами.
@@ -40,6 +58,13 @@ public class TaskController {
 
     private final TaskService taskService;
     private final TaskCommentService taskCommentService;
+    private final TaskSyncService taskSyncService;
+    private final TaskViewCache taskViewCache;
+    private final ResponseCoalescer responseCoalescer;
+    private final FirstPageCache firstPageCache;
+    private final TaskEventStreamService taskEventStreamService;
+    private final TaskHistoryService taskHistoryService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Получение списка всех задач.
@@ -59,12 +84,12 @@ public class TaskController {
                             "with metadata about offsets",
                             content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<PageResponse<TaskViewDTO>> getAllTasks(
+    public ResponseEntity<byte[]> getAllTasks(
             @Parameter(description = "Page number for pagination", example = "0", required = true)
             @RequestParam(value = "pageNumber")
             Integer pageNumber,
@@ -73,23 +98,28 @@ public class TaskController {
             @RequestParam(value = "pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "title", required = false)
+            @Parameter(description = "Field to sort by (id, creationDate, deadLineDate, priority, status)",
+                    example = "deadLineDate", required = false)
             @RequestParam(value = "field", required = false)
             String field,
 
             @Parameter(description = "Sorting direction ('Asc' or 'Desc')", example = "Asc", required = false)
             @RequestParam(value = "direction", required = false)
             String directionStr) {
-        Page<Task> tasks = taskService.getAllTasks(pageNumber, pageSize, field, directionStr);
-        List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
-        PageResponse<TaskViewDTO> pageResponse = new PageResponse<>(
-                taskViewDTOs,
-                tasks.getTotalElements(),
-                tasks.getSize(),
-                tasks.getNumber() + 1,
-                tasks.getTotalPages()
-        );
-        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+        String key = coalescingKey("tasks", pageNumber, pageSize, field, directionStr);
+        byte[] response = firstPageCache.getPage(FirstPageEndpoint.TASKS, pageNumber, pageSize, field, directionStr,
+                () -> responseCoalescer.coalesce(key, () -> {
+                    Page<Task> tasks = taskService.getAllTasks(pageNumber, pageSize, field, directionStr);
+                    List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
+                    return new PageResponse<>(
+                            taskViewDTOs,
+                            tasks.getTotalElements(),
+                            tasks.getSize(),
+                            tasks.getNumber() + 1,
+                            tasks.getTotalPages()
+                    );
+                }));
+        return jsonResponse(response);
     }
 
     /**
@@ -109,12 +139,12 @@ public class TaskController {
                     @ApiResponse(responseCode = "200", description = "Successful retrieval of task list",
                             content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<PageResponse<TaskViewDTO>> getMyAuthoredTasks(
+    public ResponseEntity<byte[]> getMyAuthoredTasks(
             @Parameter(description = "Page number for pagination", example = "0", required = true)
             @RequestParam(value = "pageNumber")
             Integer pageNumber,
@@ -123,23 +153,28 @@ public class TaskController {
             @RequestParam(value = "pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "title", required = false)
+            @Parameter(description = "Field to sort by (id, creationDate, deadLineDate, priority, status)",
+                    example = "deadLineDate", required = false)
             @RequestParam(value = "field", required = false)
             String field,
 
             @Parameter(description = "Sorting direction ('Asc' or 'Desc')", example = "Asc", required = false)
             @RequestParam(value = "direction", required = false)
             String directionStr) {
-        Page<Task> tasks = taskService.getAuthoredTasks(pageNumber, pageSize, field, directionStr);
-        List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
-        PageResponse<TaskViewDTO> pageResponse = new PageResponse<>(
-                taskViewDTOs,
-                tasks.getTotalElements(),
-                tasks.getSize(),
-                tasks.getNumber()+1,
-                tasks.getTotalPages()
-        );
-        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+        String key = coalescingKey("myAuthored", pageNumber, pageSize, field, directionStr);
+        byte[] response = firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, pageNumber, pageSize, field, directionStr,
+                () -> responseCoalescer.coalesceForLoggedInUser(key, () -> {
+                    Page<Task> tasks = taskService.getAuthoredTasks(pageNumber, pageSize, field, directionStr);
+                    List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
+                    return new PageResponse<>(
+                            taskViewDTOs,
+                            tasks.getTotalElements(),
+                            tasks.getSize(),
+                            tasks.getNumber()+1,
+                            tasks.getTotalPages()
+                    );
+                }));
+        return jsonResponse(response);
     }
 
     /**
@@ -159,12 +194,12 @@ public class TaskController {
                     @ApiResponse(responseCode = "200", description = "Successful retrieval of task list",
                             content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<PageResponse<TaskViewDTO>> getMyAssignedTasks(
+    public ResponseEntity<byte[]> getMyAssignedTasks(
             @Parameter(description = "Page number for pagination", example = "0", required = true)
             @RequestParam(value = "pageNumber")
             Integer pageNumber,
@@ -173,23 +208,137 @@ public class TaskController {
             @RequestParam(value = "pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "title", required = false)
+            @Parameter(description = "Field to sort by (id, creationDate, deadLineDate, priority, status)",
+                    example = "deadLineDate", required = false)
             @RequestParam(value = "field", required = false)
             String field,
 
             @Parameter(description = "Sorting direction ('Asc' or 'Desc')", example = "Asc", required = false)
             @RequestParam(value = "direction", required = false)
             String directionStr) {
-        Page<Task> tasks = taskService.getAssignedTasks(pageNumber, pageSize, field, directionStr);
-        List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
-        PageResponse<TaskViewDTO> pageResponse = new PageResponse<>(
+        String key = coalescingKey("myAssigned", pageNumber, pageSize, field, directionStr);
+        byte[] response = firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, pageNumber, pageSize, field, directionStr,
+                () -> responseCoalescer.coalesceForLoggedInUser(key, () -> {
+                    Page<Task> tasks = taskService.getAssignedTasks(pageNumber, pageSize, field, directionStr);
+                    List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
+                    return new PageResponse<>(
+                            taskViewDTOs,
+                            tasks.getTotalElements(),
+                            tasks.getSize(),
+                            tasks.getNumber()+1,
+                            tasks.getTotalPages()
+                    );
+                }));
+        return jsonResponse(response);
+    }
+
+    /**
+     * Получение "входящих" задач текущего пользователя: созданных им и назначенных ему.
+     *
+     * @param cursor курсор следующей страницы, полученный с предыдущей страницы
+     * @param pageSize размер страницы для пагинации
+     * @return список задач, упорядоченный по сроку выполнения и приоритету, с курсором следующей страницы
+     */
+    @GetMapping("/inbox")
+    @Operation(
+            summary = "Get inbox of logged-in user",
+            description = "Retrieve tasks authored by or assigned to logged-in user ordered by deadline and priority. " +
+                    "Keyset pagination: pass nextCursor of previous page to get the next one",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of task list" +
+                            " with cursor of the next page",
+                            content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
+                    @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
+                            description = "Bad request. (Wrong page size/Wrong cursor value)"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<byte[]> getMyInbox(
+            @Parameter(description = "Cursor of the page, omit for the first page", required = false)
+            @RequestParam(value = "cursor", required = false)
+            String cursor,
+
+            @Parameter(description = "Size of the page for pagination", example = "10", required = true)
+            @RequestParam(value = "pageSize")
+            Integer pageSize) {
+        String key = coalescingKey("inbox", cursor, pageSize);
+        byte[] response = responseCoalescer.coalesceForLoggedInUser(key, () -> {
+            KeysetPageResponse<Task> tasks = taskService.getInboxTasks(cursor, pageSize);
+            List<TaskViewDTO> taskViewDTOs = tasks.getContent().stream().map(taskMapper::taskToTaskViewDTO).toList();
+            return new KeysetPageResponse<>(
+                    taskViewDTOs,
+                    tasks.getPageSize(),
+                    tasks.getNextCursor()
+            );
+        });
+        return jsonResponse(response);
+    }
+
+    /**
+     * Поток изменений задач текущего пользователя.
+     *
+     * @param lastEventId идентификатор последнего полученного события
+     * @return поток событий Server-Sent Events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream changes of tasks of logged-in user",
+            description = "Server-Sent Events stream of events of tasks authored by or assigned to logged-in user. " +
+                    "Event name is event type, data is the event. Reconnect with Last-Event-ID header to receive " +
+                    "missed events. On RESYNC event reload task lists",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream opened"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public SseEmitter streamMyTaskEvents(
+            @Parameter(description = "ID of the last received event", required = false)
+            @RequestHeader(value = "Last-Event-ID", required = false)
+            String lastEventId) {
+        return taskEventStreamService.subscribe(lastEventId);
+    }
+
+    /**
+     * Получение изменений задач текущего пользователя после токена синхронизации.
+     *
+     * @param syncToken токен синхронизации из предыдущего ответа
+     * @param limit максимальное количество изменений в порции
+     * @return измененные задачи, идентификаторы удаленных задач и новый токен синхронизации
+     */
+    @GetMapping("/sync")
+    @Operation(
+            summary = "Get changes of tasks since sync token",
+            description = "Retrieve tasks authored by or assigned to logged-in user that changed since syncToken " +
+                    "and IDs of deleted tasks. Without syncToken returns all tasks of logged-in user. " +
+                    "Repeat the request with returned syncToken while hasMore is true",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of changes",
+                            content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
+                    @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
+                            description = "Bad request. (Wrong limit/Wrong sync token value)"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<SyncResponse<TaskViewDTO>> getMyTaskChanges(
+            @Parameter(description = "Sync token of previous response, omit for the first sync", required = false)
+            @RequestParam(value = "syncToken", required = false)
+            String syncToken,
+
+            @Parameter(description = "Maximum number of changes in response", example = "500", required = false)
+            @RequestParam(value = "limit", required = false)
+            Integer limit) {
+        SyncResponse<Task> changes = taskSyncService.getChanges(syncToken, limit);
+        List<TaskViewDTO> taskViewDTOs = changes.getChanged().stream().map(taskMapper::taskToTaskViewDTO).toList();
+        SyncResponse<TaskViewDTO> syncResponse = new SyncResponse<>(
                 taskViewDTOs,
-                tasks.getTotalElements(),
-                tasks.getSize(),
-                tasks.getNumber()+1,
-                tasks.getTotalPages()
+                changes.getDeletedIds(),
+                changes.getSyncToken(),
+                changes.isHasMore()
         );
-        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+        return new ResponseEntity<>(syncResponse, HttpStatus.OK);
     }
 
     /**
@@ -210,12 +359,12 @@ public class TaskController {
                     @ApiResponse(responseCode = "200", description = "Successful retrieval of task list",
                             content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<PageResponse<TaskViewDTO>> getAllTasksByAuthorId(
+    public ResponseEntity<byte[]> getAllTasksByAuthorId(
             @Parameter(description = "Id of author whose tasks to get", example = "1", required = true)
             @PathVariable("authorId") Long authorId,
 
@@ -227,23 +376,27 @@ public class TaskController {
             @RequestParam(value = "pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "title", required = false)
+            @Parameter(description = "Field to sort by (id, creationDate, deadLineDate, priority, status)",
+                    example = "deadLineDate", required = false)
             @RequestParam(value = "field", required = false)
             String field,
 
             @Parameter(description = "Sorting direction ('asc' or 'desc')", example = "asc", required = false)
             @RequestParam(value = "direction", required = false)
             String directionStr) {
-        Page<Task> tasks = taskService.getAllTasksByAuthorId(authorId, pageNumber, pageSize, field, directionStr);
-        List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
-        PageResponse<TaskViewDTO> pageResponse = new PageResponse<>(
-                taskViewDTOs,
-                tasks.getTotalElements(),
-                tasks.getSize(),
-                tasks.getNumber()+1,
-                tasks.getTotalPages()
-        );
-        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+        String key = coalescingKey("author", authorId, pageNumber, pageSize, field, directionStr);
+        byte[] response = responseCoalescer.coalesce(key, () -> {
+            Page<Task> tasks = taskService.getAllTasksByAuthorId(authorId, pageNumber, pageSize, field, directionStr);
+            List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
+            return new PageResponse<>(
+                    taskViewDTOs,
+                    tasks.getTotalElements(),
+                    tasks.getSize(),
+                    tasks.getNumber()+1,
+                    tasks.getTotalPages()
+            );
+        });
+        return jsonResponse(response);
     }
 
 
@@ -266,12 +419,12 @@ public class TaskController {
                             " with metadata about offsets",
                             content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<PageResponse<TaskViewDTO>> getAllTasksByPerformId(
+    public ResponseEntity<byte[]> getAllTasksByPerformId(
             @Parameter(description = "Id of performer whose task to get", example = "1", required = true)
             @PathVariable("performerId") Long performerId,
 
@@ -283,23 +436,27 @@ public class TaskController {
             @RequestParam(value = "pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort by", example = "title", required = false)
+            @Parameter(description = "Field to sort by (id, creationDate, deadLineDate, priority, status)",
+                    example = "deadLineDate", required = false)
             @RequestParam(value = "field", required = false)
             String field,
 
             @Parameter(description = "Sorting direction ('asc' or 'desc')", example = "asc", required = false)
             @RequestParam(value = "direction", required = false)
             String directionStr) {
-        Page<Task> tasks = taskService.getAllTasksByPerformerId(performerId, pageNumber, pageSize, field, directionStr);
-        List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
-        PageResponse<TaskViewDTO> pageResponse = new PageResponse<>(
-                taskViewDTOs,
-                tasks.getTotalElements(),
-                tasks.getSize(),
-                tasks.getNumber()+1,
-                tasks.getTotalPages()
-        );
-        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+        String key = coalescingKey("performer", performerId, pageNumber, pageSize, field, directionStr);
+        byte[] response = responseCoalescer.coalesce(key, () -> {
+            Page<Task> tasks = taskService.getAllTasksByPerformerId(performerId, pageNumber, pageSize, field, directionStr);
+            List<TaskViewDTO> taskViewDTOs = tasks.stream().map(taskMapper::taskToTaskViewDTO).toList();
+            return new PageResponse<>(
+                    taskViewDTOs,
+                    tasks.getTotalElements(),
+                    tasks.getSize(),
+                    tasks.getNumber()+1,
+                    tasks.getTotalPages()
+            );
+        });
+        return jsonResponse(response);
     }
 
     /**
@@ -321,13 +478,89 @@ public class TaskController {
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<TaskViewDTO> getTaskById(
+    public ResponseEntity<byte[]> getTaskById(
             @Parameter(description = "ID of task to retrieve", example = "1", required = true)
             @PathVariable("taskId")
             Long taskId) {
-        Task task = taskService.getTaskById(taskId);
-        TaskViewDTO taskViewDTO = taskMapper.taskToTaskViewDTO(task);
-        return new ResponseEntity<>(taskViewDTO, HttpStatus.OK);
+        byte[] taskView = taskViewCache.getTaskView(taskId);
+        return jsonResponse(taskView);
+    }
+
+    /**
+     * Получение истории изменений задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @param pageNumber номер страницы для пагинации
+     * @param pageSize размер страницы для пагинации
+     * @return изменения задачи, новые первыми, с метаинформацией об офсетах
+     */
+    @GetMapping("/{taskId}/history")
+    @Operation(
+            summary = "Get task change history",
+            description = "Retrieve a paginated list of task changes, newest first. Each entry contains only " +
+                    "changed fields as \"field\": [old value, new value]. History of deleted tasks is kept",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of task history " +
+                            "with metadata about offsets",
+                            content = @Content(schema = @Schema(implementation = TaskHistoryEntryViewDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request. (Wrong pagination)",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "404", description = "Task not found",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<PageResponse<TaskHistoryEntryViewDTO>> getTaskHistory(
+            @Parameter(description = "ID of task", example = "1", required = true)
+            @PathVariable("taskId")
+            Long taskId,
+
+            @Parameter(description = "Page number for pagination", example = "0", required = true)
+            @RequestParam("pageNumber")
+            Integer pageNumber,
+
+            @Parameter(description = "Number of records per page for pagination", example = "10", required = true)
+            @RequestParam("pageSize")
+            Integer pageSize) {
+        Page<TaskHistoryEntry> history = taskHistoryService.getTaskHistory(taskId, pageNumber, pageSize);
+        PageResponse<TaskHistoryEntryViewDTO> pageResponse = new PageResponse<>(
+                history.stream().map(taskMapper::taskHistoryEntryToViewDTO).toList(),
+                history.getTotalElements(),
+                history.getSize(),
+                history.getNumber()+1,
+                history.getTotalPages()
+        );
+        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+    }
+
+    /**
+     * Получение задач по списку идентификаторов.
+     *
+     * @param taskIds идентификаторы задач
+     * @return найденные задачи и список ненайденных идентификаторов
+     */
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Get tasks by ids",
+            description = "Fetches up to 500 tasks by ids in a single request. Ids that are not found " +
+                    "are reported in missingIds",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of tasks",
+                            content = @Content(schema = @Schema(implementation = TaskViewDTO.class))),
+                    @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
+                            description = "Bad request. (Empty or too long list of ids)"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<BatchLookupResponse<TaskViewDTO>> getTasksByIds(
+            @Parameter(description = "Comma separated IDs of tasks to retrieve", example = "1,2,3", required = true)
+            @RequestParam("ids")
+            List<Long> taskIds) {
+        BatchLookupResponse<Task> tasks = taskService.getTasksByIds(taskIds);
+        List<TaskViewDTO> taskViewDTOs = tasks.getContent().stream().map(taskMapper::taskToTaskViewDTO).toList();
+        return new ResponseEntity<>(new BatchLookupResponse<>(taskViewDTOs, tasks.getMissingIds()), HttpStatus.OK);
     }
 
     /**
@@ -355,7 +588,9 @@ public class TaskController {
 
     /**
      * Создание новой задачи.
+     * Повтор запроса с тем же Idempotency-Key возвращает идентификатор уже созданной задачи.
      *
+     * @param idempotencyKey ключ идемпотентности
      * @param taskDTO данные для создания задачи
      * @return идентификатор созданной задачи
      */
@@ -370,11 +605,20 @@ public class TaskController {
                     @ApiResponse(responseCode = "400", description = "Bad request",
                             content = @Content(schema = @Schema(implementation = Void.class))),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "422", description = "Idempotency key was used for another request",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public ResponseEntity<Long> addTask(@Valid @RequestBody TaskCreationDTO taskDTO) {
-        Long task_id = taskService.addTask(taskDTO);
+    public ResponseEntity<Long> addTask(
+            @Parameter(description = "Key to safely retry the request", example = "5f1c9a6e-3b7d-4e2a-9c61-0d8e4b2f7a13",
+                    required = false)
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            String idempotencyKey,
+
+            @Valid @RequestBody TaskCreationDTO taskDTO) {
+        Long task_id = idempotencyService.execute(idempotencyKey, "POST api/tasks", taskDTO, Long.class,
+                () -> taskService.addTask(taskDTO));
         return new ResponseEntity<>(task_id, HttpStatus.OK);
     }
 
@@ -460,7 +704,9 @@ public class TaskController {
 
     /**
      * Оставление комментария к задаче.
+     * Повтор запроса с тем же Idempotency-Key не создает второй комментарий.
      *
+     * @param idempotencyKey ключ идемпотентности
      * @param taskId идентификатор задачи
      * @param taskCommentDTO данные для комментария
      */
@@ -472,15 +718,47 @@ public class TaskController {
                     @ApiResponse(responseCode = "200", description = "Successful update of status of task"),
                     @ApiResponse(responseCode = "400", description = "Bad request"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized"),
-                    @ApiResponse(responseCode = "404", description = "Task not found")
+                    @ApiResponse(responseCode = "404", description = "Task not found"),
+                    @ApiResponse(responseCode = "422", description = "Idempotency key was used for another request")
             }
     )
     public void commentTask(
+            @Parameter(description = "Key to safely retry the request", example = "5f1c9a6e-3b7d-4e2a-9c61-0d8e4b2f7a13",
+                    required = false)
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            String idempotencyKey,
+
             @Parameter(description = "ID of task to live comment at", example = "1", required = true)
             @PathVariable("taskId") Long taskId,
 
             @Valid @RequestBody TaskCommentCreationDTO taskCommentDTO) {
-        TaskComment taskComment = taskCommentService.addTaskComment(taskCommentDTO);
-        taskService.commentTask(taskId, taskComment);
+        idempotencyService.execute(idempotencyKey, "POST api/tasks/" + taskId + "/comment", taskCommentDTO,
+                Void.class, () -> {
+                    TaskComment taskComment = taskCommentService.addTaskComment(taskCommentDTO);
+                    taskService.commentTask(taskId, taskComment);
+                    return null;
+                });
+    }
+
+    /**
+     * Составляет ключ объединения запросов из эндпоинта и параметров запроса.
+     *
+     * @param parts эндпоинт и параметры запроса
+     * @return ключ объединения запросов
+     */
+    private String coalescingKey(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining(":"));
+    }
+
+    /**
+     * Оборачивает готовый JSON в ответ.
+     *
+     * @param json сериализованный ответ
+     * @return ответ с типом содержимого application/json
+     */
+    private ResponseEntity<byte[]> jsonResponse(byte[] json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(json, headers, HttpStatus.OK);
     }
 }
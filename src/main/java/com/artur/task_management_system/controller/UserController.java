@@ -1,12 +1,17 @@
 package com.artur.task_management_system.controller;
 
+import com.artur.task_management_system.dto.BackgroundJobViewDTO;
 import com.artur.task_management_system.dto.UserCreationDTO;
 import com.artur.task_management_system.dto.UserViewDTO;
+import com.artur.task_management_system.dto.mappers.BackgroundJobMapper;
 import com.artur.task_management_system.dto.mappers.UserMapper;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.BatchLookupResponse;
 import com.artur.task_management_system.model.PageResponse;
 import com.artur.task_management_system.model.User;
 import com.artur.task_management_system.service.UserService;
 import com.artur.task_management_system.service.UserConfirmationService;
+import com.artur.task_management_system.service.UserDeletionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -34,9 +39,11 @@ import java.util.Objects;
 public class UserController {
     private final String PASSWORD_NOT_MATCHING_MSG = "Passwords %s and %s are not matching";
     private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+    private final BackgroundJobMapper backgroundJobMapper = Mappers.getMapper(BackgroundJobMapper.class);
 
     private final UserService userService;
     private final UserConfirmationService userConfirmationService;
+    private final UserDeletionService userDeletionService;
 
     /**
      * Получает список всех пользователей с возможностью пагинации и сортировки.
@@ -56,7 +63,7 @@ public class UserController {
                             " with metadata about offsets",
                             content = @Content(schema = @Schema(implementation = UserViewDTO.class))),
                     @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
-                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value)"),
+                            description = "Bad request. (Pagination can't be null/Wrong sorting direction value/Sorting field not allowed)"),
                     @ApiResponse(responseCode = "403", description = "Unauthorized",
                             content = @Content(schema = @Schema(implementation = Void.class)))
             }
@@ -70,7 +77,7 @@ public class UserController {
             @RequestParam("pageSize")
             Integer pageSize,
 
-            @Parameter(description = "Field to sort results by", required = false, example = "id")
+            @Parameter(description = "Field to sort results by (id, email, name)", required = false, example = "id")
             @RequestParam(value = "field", required = false)
             String field,
 
@@ -118,19 +125,55 @@ public class UserController {
     }
 
     /**
-     * Удаляет текущего залогиненного пользователя.
+     * Получает пользователей по списку ID.
+     *
+     * @param userIds ID пользователей для получения информации
+     * @return найденные пользователи в формате {@link UserViewDTO} и список ненайденных ID с HTTP статусом 200 OK
+     */
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Get Users By IDs",
+            description = "Fetches up to 500 users by ids in a single request. Ids that are not found " +
+                    "are reported in missingIds",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of users",
+                            content = @Content(schema = @Schema(implementation = UserViewDTO.class))),
+                    @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = Void.class)),
+                            description = "Bad request. (Empty or too long list of ids)"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<BatchLookupResponse<UserViewDTO>> getUsersByIds(
+            @Parameter(description = "Comma separated IDs of users to retrieve", required = true, example = "1,2,3")
+            @RequestParam("ids")
+            List<Long> userIds){
+        BatchLookupResponse<User> users = userService.getUsersByIds(userIds);
+        List<UserViewDTO> userViewDTOs = users.getContent().stream().map(userMapper::userToUserViewDTO).toList();
+        return new ResponseEntity<>(new BatchLookupResponse<>(userViewDTOs, users.getMissingIds()), HttpStatus.OK);
+    }
+
+    /**
+     * Запрашивает удаление текущего залогиненного пользователя.
+     * Пользователь сразу отключается, а его данные удаляются длительным заданием.
+     *
+     * @return задание удаления в формате {@link BackgroundJobViewDTO} с HTTP статусом 202 Accepted
      */
     @DeleteMapping
     @Operation(
             summary = "Delete Logged-In User",
-            description = "Deletes the currently logged-in user.",
+            description = "Disables the currently logged-in user and deletes the user with all created tasks " +
+                    "in background. Progress is available at api/jobs/{jobId}",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "User deleted successfully"),
-                    @ApiResponse(responseCode = "403", description = "Unauthorized")
+                    @ApiResponse(responseCode = "202", description = "User deletion accepted",
+                            content = @Content(schema = @Schema(implementation = BackgroundJobViewDTO.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
             }
     )
-    public void deleteLoggedInUser(){
-        userService.deleteLoggedInUser();
+    public ResponseEntity<BackgroundJobViewDTO> deleteLoggedInUser(){
+        BackgroundJob job = userDeletionService.requestLoggedInUserDeletion();
+        return new ResponseEntity<>(backgroundJobMapper.backgroundJobToViewDTO(job), HttpStatus.ACCEPTED);
     }
 
     /**
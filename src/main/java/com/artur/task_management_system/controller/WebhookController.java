@@ -0,0 +1,185 @@
+package com.artur.task_management_system.controller;
+
+import com.artur.task_management_system.dto.WebhookDeadLetterViewDTO;
+import com.artur.task_management_system.dto.WebhookSubscriptionCreationDTO;
+import com.artur.task_management_system.dto.WebhookSubscriptionViewDTO;
+import com.artur.task_management_system.dto.mappers.WebhookMapper;
+import com.artur.task_management_system.model.PageResponse;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookSubscription;
+import com.artur.task_management_system.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для управления подписками на webhook.
+ */
+@Tag(name = "Webhooks")
+@RestController
+@RequestMapping(path = "api/webhooks")
+@AllArgsConstructor
+public class WebhookController {
+    private final WebhookMapper webhookMapper = Mappers.getMapper(WebhookMapper.class);
+
+    private final WebhookService webhookService;
+
+    /**
+     * Создает подписку текущего пользователя на события задач.
+     *
+     * @param subscriptionDTO параметры подписки
+     * @return созданная подписка с секретом подписи с HTTP статусом 200 OK
+     */
+    @PostMapping
+    @Operation(
+            summary = "Create webhook subscription",
+            description = "Subscribes the logged in user to events of tasks the user authored or is assigned to. " +
+                    "Events are delivered as POST requests with body {subscriptionId, events: [...]} signed " +
+                    "with HMAC-SHA256 of \"<X-Webhook-Timestamp>.<body>\" in X-Webhook-Signature header. " +
+                    "The secret is returned only in this response",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful creation of subscription",
+                            content = @Content(schema = @Schema(implementation = WebhookSubscriptionViewDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request. (Wrong url/Too many subscriptions)",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<WebhookSubscriptionViewDTO> addSubscription(
+            @Valid @RequestBody WebhookSubscriptionCreationDTO subscriptionDTO) {
+        WebhookSubscription subscription = webhookService.addSubscription(subscriptionDTO);
+        WebhookSubscriptionViewDTO subscriptionViewDTO = webhookMapper.subscriptionToViewDTO(subscription);
+        subscriptionViewDTO.setSecret(subscription.getSecret());
+        return new ResponseEntity<>(subscriptionViewDTO, HttpStatus.OK);
+    }
+
+    /**
+     * Получает подписки текущего пользователя.
+     *
+     * @return подписки в формате {@link WebhookSubscriptionViewDTO} с HTTP статусом 200 OK
+     */
+    @GetMapping
+    @Operation(
+            summary = "Get my webhook subscriptions",
+            description = "Retrieve webhook subscriptions of the logged in user",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of subscriptions",
+                            content = @Content(schema = @Schema(implementation = WebhookSubscriptionViewDTO.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<List<WebhookSubscriptionViewDTO>> getMySubscriptions() {
+        List<WebhookSubscriptionViewDTO> subscriptionViewDTOs = webhookService.getMySubscriptions().stream()
+                .map(webhookMapper::subscriptionToViewDTO)
+                .toList();
+        return new ResponseEntity<>(subscriptionViewDTOs, HttpStatus.OK);
+    }
+
+    /**
+     * Удаляет подписку текущего пользователя.
+     *
+     * @param subscriptionId идентификатор подписки
+     */
+    @DeleteMapping("/{subscriptionId}")
+    @Operation(
+            summary = "Delete webhook subscription",
+            description = "Deletes subscription with its pending and undelivered events",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful deletion of subscription"),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized/Not yours subscription"),
+                    @ApiResponse(responseCode = "404", description = "Subscription not found")
+            }
+    )
+    public void deleteSubscription(
+            @Parameter(description = "ID of subscription to delete", example = "1", required = true)
+            @PathVariable("subscriptionId")
+            Long subscriptionId) {
+        webhookService.deleteSubscription(subscriptionId);
+    }
+
+    /**
+     * Получает события, которые не удалось доставить по подписке.
+     *
+     * @param subscriptionId идентификатор подписки
+     * @param pageNumber номер страницы для пагинации
+     * @param pageSize количество записей на странице для пагинации
+     * @return недоставленные события и метаинформация по офсетам с HTTP статусом 200 OK
+     */
+    @GetMapping("/{subscriptionId}/dead-letters")
+    @Operation(
+            summary = "Get undelivered events of webhook subscription",
+            description = "Retrieve a paginated list of events that were not delivered after all retries",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval of undelivered events",
+                            content = @Content(schema = @Schema(implementation = WebhookDeadLetterViewDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request. (Wrong pagination)",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized/Not yours subscription",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "404", description = "Subscription not found",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<PageResponse<WebhookDeadLetterViewDTO>> getDeadLetters(
+            @Parameter(description = "ID of subscription", example = "1", required = true)
+            @PathVariable("subscriptionId")
+            Long subscriptionId,
+
+            @Parameter(description = "Page number for pagination", required = true, example = "0")
+            @RequestParam("pageNumber")
+            Integer pageNumber,
+
+            @Parameter(description = "Number of records per page for pagination", required = true, example = "10")
+            @RequestParam("pageSize")
+            Integer pageSize) {
+        Page<WebhookDeadLetter> deadLetters = webhookService.getDeadLetters(subscriptionId, pageNumber, pageSize);
+        PageResponse<WebhookDeadLetterViewDTO> pageResponse = new PageResponse<>(
+                deadLetters.stream().map(webhookMapper::deadLetterToViewDTO).toList(),
+                deadLetters.getTotalElements(),
+                deadLetters.getSize(),
+                deadLetters.getNumber()+1,
+                deadLetters.getTotalPages()
+        );
+        return new ResponseEntity<>(pageResponse, HttpStatus.OK);
+    }
+
+    /**
+     * Возвращает недоставленные события подписки в очередь доставки.
+     *
+     * @param subscriptionId идентификатор подписки
+     * @return количество событий, поставленных в очередь, с HTTP статусом 200 OK
+     */
+    @PostMapping("/{subscriptionId}/dead-letters/redeliver")
+    @Operation(
+            summary = "Redeliver undelivered events of webhook subscription",
+            description = "Moves undelivered events back to the delivery queue with reset retry counter",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Events queued. Return number of queued events",
+                            content = @Content(schema = @Schema(implementation = Integer.class))),
+                    @ApiResponse(responseCode = "403", description = "Unauthorized/Not yours subscription",
+                            content = @Content(schema = @Schema(implementation = Void.class))),
+                    @ApiResponse(responseCode = "404", description = "Subscription not found",
+                            content = @Content(schema = @Schema(implementation = Void.class)))
+            }
+    )
+    public ResponseEntity<Integer> redeliverDeadLetters(
+            @Parameter(description = "ID of subscription", example = "1", required = true)
+            @PathVariable("subscriptionId")
+            Long subscriptionId) {
+        return new ResponseEntity<>(webhookService.redeliverDeadLetters(subscriptionId), HttpStatus.OK);
+    }
+}
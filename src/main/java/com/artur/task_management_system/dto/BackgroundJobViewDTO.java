@@ -0,0 +1,50 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.BackgroundJobStatus;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Background Job View DTO",
+                description = "Data Transfer Object for background job progress view"
+        )
+)
+public class BackgroundJobViewDTO {
+    @Schema(description = "The ID of the job")
+    private UUID id;
+
+    @Schema(description = "Type of the job", example = "user-deletion")
+    private String type;
+
+    @Schema(description = "Status of the job")
+    private BackgroundJobStatus status;
+
+    @Schema(description = "Amount of processed work")
+    private long processed;
+
+    @Schema(description = "Total amount of work, if known")
+    private Long total;
+
+    @Schema(description = "Whether cancellation of the job was requested")
+    private boolean cancelRequested;
+
+    @Schema(description = "The date and time when the job was created", format = "date-time")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "The date and time when the job was started", format = "date-time")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "The date and time when the job was finished", format = "date-time")
+    private LocalDateTime finishedAt;
+}
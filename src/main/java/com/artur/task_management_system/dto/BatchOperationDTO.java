@@ -0,0 +1,48 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.BatchOperationType;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Batch Operation DTO",
+                description = "Data Transfer Object for single operation of batch request"
+        )
+)
+public class BatchOperationDTO {
+    @Schema(description = "Name of the operation that later operations can use in taskRef")
+    private String ref;
+
+    @Schema(description = "Type of the operation")
+    @NotNull(message = "Operation type is mandatory")
+    private BatchOperationType operation;
+
+    @Schema(description = "ID of the task the operation applies to")
+    private Long taskId;
+
+    @Schema(description = "Ref of an earlier operation whose task ID to use instead of taskId")
+    private String taskRef;
+
+    @Schema(description = "ID of the performer for ASSIGN_TASK_PERFORMER")
+    private Long performerId;
+
+    @Schema(description = "New status for UPDATE_TASK_STATUS",
+            allowableValues = {"IN_PROCESS", "NEW", "COMPLETED"})
+    private TaskStatus status;
+
+    @Schema(description = "Task data for CREATE_TASK and UPDATE_TASK")
+    private TaskCreationDTO task;
+
+    @Schema(description = "Comment data for COMMENT_TASK")
+    private TaskCommentCreationDTO comment;
+}
@@ -0,0 +1,35 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.BatchOperationType;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Batch Operation Result DTO",
+                description = "Data Transfer Object for result of single operation of batch request"
+        )
+)
+public class BatchOperationResultDTO {
+    @Schema(description = "Ref of the operation")
+    private String ref;
+
+    @Schema(description = "Type of the operation")
+    private BatchOperationType operation;
+
+    @Schema(description = "HTTP status the operation would have as a separate request")
+    private int status;
+
+    @Schema(description = "ID of the created comment for COMMENT_TASK, otherwise ID of the task")
+    private Long id;
+
+    @Schema(description = "Error message if the operation failed")
+    private String error;
+}
@@ -0,0 +1,34 @@
+package com.artur.task_management_system.dto;
+
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Batch Request DTO",
+                description = "Data Transfer Object for batch of operations"
+        )
+)
+public class BatchRequestDTO {
+    @Schema(description = "Run all operations in one transaction. " +
+            "If any operation fails, all operations are rolled back")
+    private boolean atomic;
+
+    @Schema(description = "Operations executed in the given order")
+    @NotEmpty(message = "Operations are mandatory")
+    @Size(max = 50, message = "Batch can contain at most 50 operations")
+    private List<@Valid BatchOperationDTO> operations = new ArrayList<>();
+}
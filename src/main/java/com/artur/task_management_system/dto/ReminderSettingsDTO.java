@@ -0,0 +1,33 @@
+package com.artur.task_management_system.dto;
+
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Reminder Settings DTO",
+                description = "Data Transfer Object for deadline reminder settings"
+        )
+)
+public class ReminderSettingsDTO {
+    @Schema(description = "How many minutes before the task deadline reminders are sent. Empty list disables reminders",
+            example = "[1440, 60]")
+    @NotNull(message = "Offsets are mandatory")
+    @Size(max = 5, message = "No more than 5 reminders are allowed")
+    private List<@NotNull @Min(value = 1, message = "Offset must be at least 1 minute")
+            @Max(value = 43200, message = "Offset must be at most 30 days") Integer> offsetsMinutes = new ArrayList<>();
+}
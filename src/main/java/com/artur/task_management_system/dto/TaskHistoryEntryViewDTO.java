@@ -0,0 +1,41 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Task History Entry View DTO",
+                description = "Data Transfer Object for Task change history view"
+        )
+)
+public class TaskHistoryEntryViewDTO {
+    @Schema(description = "The ID of the history entry")
+    private Long id;
+
+    @Schema(description = "The ID of the user who made the change")
+    private Long actorId;
+
+    @Schema(description = "The type of the change",
+            allowableValues = {"TASK_CREATED", "TASK_UPDATED", "STATUS_CHANGED", "PERFORMER_ASSIGNED",
+                    "COMMENT_ADDED", "TASK_DELETED"})
+    private TaskEventType changeType;
+
+    @Schema(description = "Changed fields as \"field\": [old value, new value]",
+            example = "{\"status\": [\"NEW\", \"IN_PROCESS\"]}")
+    private Map<String, Object> changes;
+
+    @Schema(description = "The date and time of the change", format = "date-time")
+    private LocalDateTime changedAt;
+}
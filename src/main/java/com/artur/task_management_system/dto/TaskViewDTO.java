@@ -24,6 +24,9 @@ import java.util.Set;
         )
 )
 public class TaskViewDTO {
+    @Schema(description = "The ID of the task")
+    private Long id;
+
     @Schema(description = "The title of the task")
     private String title;
 
@@ -44,6 +47,9 @@ public class TaskViewDTO {
     @Schema(description = "The deadline for completing the task")
     private LocalDateTime deadLineDate;
 
+    @Schema(description = "Whether the deadline passed before the task was completed")
+    private boolean overdue;
+
     @Schema(description = "The user who created this task")
     private User author;
 
@@ -21,6 +21,9 @@ import java.util.Set;
         )
 )
 public class UserViewDTO {
+    @Schema(description = "User ID")
+    private Long id;
+
     @Schema(description = "User email address")
     private String email;
 
@@ -0,0 +1,36 @@
+package com.artur.task_management_system.dto;
+
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Webhook Dead Letter View DTO",
+                description = "Data Transfer Object for undelivered webhook event view"
+        )
+)
+public class WebhookDeadLetterViewDTO {
+    @Schema(description = "The ID of the dead letter")
+    private Long id;
+
+    @Schema(description = "The ID of the undelivered task event")
+    private Long eventId;
+
+    @Schema(description = "Number of delivery attempts made")
+    private int attempts;
+
+    @Schema(description = "Error of the last delivery attempt")
+    private String lastError;
+
+    @Schema(description = "The date and time when delivery was given up", format = "date-time")
+    private LocalDateTime failedAt;
+}
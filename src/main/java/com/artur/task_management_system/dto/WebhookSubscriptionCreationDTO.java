@@ -0,0 +1,43 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.WebhookScope;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Webhook Subscription Creation DTO",
+                description = "Data Transfer Object for Webhook Subscription creation"
+        )
+)
+public class WebhookSubscriptionCreationDTO {
+    @Schema(description = "URL that receives POST requests with batches of task events",
+            example = "https://partner.example.com/hooks/tasks")
+    @NotBlank(message = "Url is mandatory")
+    @Size(max = 2048, message = "Url is too long")
+    @Pattern(regexp = "https?://\\S+", message = "Url has to be absolute http(s) url")
+    private String url;
+
+    @Schema(description = "Tasks to receive events for: authored by or assigned to the logged in user",
+            allowableValues = {"AUTHORED", "ASSIGNED"})
+    @NotNull(message = "Scope is mandatory")
+    private WebhookScope scope;
+
+    @Schema(description = "Types of events to receive. Empty set means all types")
+    private Set<TaskEventType> eventTypes = new HashSet<>();
+}
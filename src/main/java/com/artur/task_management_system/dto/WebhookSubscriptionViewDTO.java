@@ -0,0 +1,44 @@
+package com.artur.task_management_system.dto;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.WebhookScope;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@OpenAPIDefinition(
+        info = @Info(
+                title = "Webhook Subscription View DTO",
+                description = "Data Transfer Object for Webhook Subscription view"
+        )
+)
+public class WebhookSubscriptionViewDTO {
+    @Schema(description = "The ID of the subscription")
+    private Long id;
+
+    @Schema(description = "URL that receives task events")
+    private String url;
+
+    @Schema(description = "Tasks to receive events for", allowableValues = {"AUTHORED", "ASSIGNED"})
+    private WebhookScope scope;
+
+    @Schema(description = "Types of events to receive. Empty set means all types")
+    private Set<TaskEventType> eventTypes;
+
+    @Schema(description = "Secret for HMAC-SHA256 signature of request bodies. Returned only on creation")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String secret;
+
+    @Schema(description = "The date and time when the subscription was created", format = "date-time")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.artur.task_management_system.dto.mappers;
+
+import com.artur.task_management_system.dto.BackgroundJobViewDTO;
+import com.artur.task_management_system.model.BackgroundJob;
+import org.mapstruct.Mapper;
+
+@Mapper
+public interface BackgroundJobMapper {
+    BackgroundJobViewDTO backgroundJobToViewDTO(BackgroundJob backgroundJob);
+}
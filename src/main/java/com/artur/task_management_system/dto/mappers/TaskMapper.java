@@ -1,10 +1,13 @@
 package com.artur.task_management_system.dto.mappers;
 
+import com.artur.task_management_system.dto.TaskHistoryEntryViewDTO;
 import com.artur.task_management_system.dto.TaskViewDTO;
 import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskHistoryEntry;
 import org.mapstruct.Mapper;
 
 @Mapper
 public interface TaskMapper {
     TaskViewDTO taskToTaskViewDTO(Task task);
+    TaskHistoryEntryViewDTO taskHistoryEntryToViewDTO(TaskHistoryEntry taskHistoryEntry);
 }
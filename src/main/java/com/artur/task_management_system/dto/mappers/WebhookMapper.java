@@ -0,0 +1,15 @@
+package com.artur.task_management_system.dto.mappers;
+
+import com.artur.task_management_system.dto.WebhookDeadLetterViewDTO;
+import com.artur.task_management_system.dto.WebhookSubscriptionViewDTO;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookSubscription;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface WebhookMapper {
+    @Mapping(target = "secret", ignore = true)
+    WebhookSubscriptionViewDTO subscriptionToViewDTO(WebhookSubscription subscription);
+    WebhookDeadLetterViewDTO deadLetterToViewDTO(WebhookDeadLetter deadLetter);
+}
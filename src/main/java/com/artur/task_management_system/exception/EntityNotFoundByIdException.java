@@ -1,8 +1,14 @@
 package com.artur.task_management_system.exception;
 
+import java.util.UUID;
+
 public class EntityNotFoundByIdException extends RuntimeException{
 
     public EntityNotFoundByIdException(String entity, Long id){
         super(String.format("%s not found by id %d", entity, id));
     }
+
+    public EntityNotFoundByIdException(String entity, UUID id){
+        super(String.format("%s not found by id %s", entity, id));
+    }
 }
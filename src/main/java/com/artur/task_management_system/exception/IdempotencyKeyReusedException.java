@@ -0,0 +1,7 @@
+package com.artur.task_management_system.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String idempotencyKey){
+        super(String.format("Idempotency key %s was already used for a different request", idempotencyKey));
+    }
+}
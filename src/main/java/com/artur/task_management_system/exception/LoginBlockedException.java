@@ -0,0 +1,13 @@
+package com.artur.task_management_system.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginBlockedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginBlockedException(long retryAfterSeconds){
+        super(String.format("Too many failed login attempts, retry after %d seconds", retryAfterSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.artur.task_management_system.exception;
+
+public class PasswordHashingOverloadedException extends RuntimeException {
+    public PasswordHashingOverloadedException(){
+        super("Server is busy checking passwords, retry later");
+    }
+}
@@ -0,0 +1,7 @@
+package com.artur.task_management_system.exception;
+
+public class SortFieldNotAllowedException extends RuntimeException{
+    public SortFieldNotAllowedException(String entity, String field){
+        super(String.format("Sorting %s by field %s is not allowed", entity, field));
+    }
+}
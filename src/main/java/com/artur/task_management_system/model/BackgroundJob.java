@@ -0,0 +1,81 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.BackgroundJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Длительное задание, выполняемое вне потока запроса.
+ *
+ * Идентификатор случайный, так как состояние задания доступно по нему без аутентификации.
+ * В checkpoint обработчик сохраняет позицию, с которой задание продолжается после перезапуска.
+ * attempts - количество неудачных попыток выполнения, nextAttemptAt - время, раньше которого
+ * задание после неудачной попытки не запускается заново.
+ * Строку одновременно изменяют выполняющий узел (прогресс) и запрос отмены (cancelRequested),
+ * поэтому обновляются только измененные столбцы.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@DynamicUpdate
+@Table(name = "background_job_table", indexes = {
+        @Index(name = "background_job_status_idx", columnList = "status"),
+        @Index(name = "background_job_owner_idx", columnList = "owner_id, type")
+})
+public class BackgroundJob {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String type;
+
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BackgroundJobStatus status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, Object> parameters = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, Object> checkpoint = new HashMap<>();
+
+    private long processed;
+
+    private Long total;
+
+    private boolean cancelRequested;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,50 @@
+package com.artur.task_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Результат получения сущностей по списку идентификаторов.
+ * Ненайденные идентификаторы возвращаются в missingIds, не прерывая запрос.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchLookupResponse<T> {
+    private List<T> content;
+    private List<Long> missingIds;
+
+    /**
+     * Собирает ответ в порядке запрошенных идентификаторов.
+     *
+     * @param ids запрошенные идентификаторы без повторов
+     * @param found найденные сущности
+     * @param idGetter функция получения идентификатора сущности
+     * @return ответ с найденными сущностями и ненайденными идентификаторами
+     */
+    public static <T> BatchLookupResponse<T> of(Collection<Long> ids, Collection<T> found,
+                                                Function<T, Long> idGetter) {
+        Map<Long, T> foundById = new HashMap<>();
+        for (T entity : found){
+            foundById.put(idGetter.apply(entity), entity);
+        }
+
+        List<T> content = new ArrayList<>(foundById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids){
+            T entity = foundById.get(id);
+            if (entity != null){
+                content.add(entity);
+            }else{
+                missingIds.add(id);
+            }
+        }
+        return new BatchLookupResponse<>(content, missingIds);
+    }
+}
@@ -10,15 +10,22 @@ import org.springframework.data.annotation.LastModifiedDate;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Токен для активации аккаунта по почте.
+ * Хранится в столбце типа uuid. Подтвержденные и истекшие токены удаляются фоновым заданием.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "confirmation_token_table")
+@Table(name = "confirmation_token_table", indexes = {
+        @Index(name = "confirmation_token_token_idx", columnList = "token", unique = true),
+        @Index(name = "confirmation_token_expires_at_idx", columnList = "expires_at"),
+        @Index(name = "confirmation_token_confirmed_at_idx", columnList = "confirmed_at"),
+        @Index(name = "confirmation_token_user_idx", columnList = "user_id")
+})
 public class ConfirmationToken {
     @Id
     @SequenceGenerator(
@@ -33,7 +40,7 @@ public class ConfirmationToken {
     private Long id;
 
     @Column(nullable = false)
-    private String token;
+    private UUID token;
 
     @Column(nullable = false)
     @CreatedDate
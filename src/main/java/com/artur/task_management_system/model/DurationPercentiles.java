@@ -0,0 +1,16 @@
+package com.artur.task_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DurationPercentiles {
+    private long count;
+    private long p50Ms;
+    private long p90Ms;
+    private long p99Ms;
+    private long maxMs;
+}
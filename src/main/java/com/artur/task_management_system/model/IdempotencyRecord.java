@@ -0,0 +1,67 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Результат запроса, выполненного с заголовком Idempotency-Key.
+ * Ключ уникален в пределах пользователя. Вместе с ответом хранится отпечаток запроса, чтобы тот же ключ
+ * нельзя было использовать для другого запроса. Записи удаляются фоновым заданием после истечения срока.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_key_table", indexes = {
+        @Index(name = "idempotency_key_user_key_idx", columnList = "user_id, idempotency_key", unique = true),
+        @Index(name = "idempotency_key_expires_at_idx", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+    @Id
+    @SequenceGenerator(
+            name = "idempotency_key_id",
+            sequenceName = "idempotency_key_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "idempotency_key_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IdempotencyRecord)) return false;
+        IdempotencyRecord idempotencyRecord = (IdempotencyRecord) o;
+        return Objects.equals(id, idempotencyRecord.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,62 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.JobRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Выполнение фонового задания на одном из узлов.
+ * Для задания, разделенного на части, каждая часть записывается отдельно, shardIndex и shardCount
+ * пусты для неразделенного задания.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "job_run_table", indexes = {
+        @Index(name = "job_run_job_name_idx", columnList = "job_name, started_at"),
+        @Index(name = "job_run_started_at_idx", columnList = "started_at")
+})
+public class JobRun {
+    @Id
+    @SequenceGenerator(
+            name = "job_run_id",
+            sequenceName = "job_run_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "job_run_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private String jobName;
+
+    private Integer shardIndex;
+
+    private Integer shardCount;
+
+    @Column(nullable = false)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobRunStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private Long durationMs;
+
+    @Column(length = 1000)
+    private String error;
+}
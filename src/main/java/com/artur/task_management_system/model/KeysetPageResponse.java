@@ -0,0 +1,23 @@
+package com.artur.task_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница результатов с keyset пагинацией.
+ * Для получения следующей страницы в запрос передается nextCursor.
+ * Если nextCursor = null, страница последняя.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class KeysetPageResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+}
@@ -0,0 +1,56 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие задачи в таблице outbox.
+ * Записывается в транзакции, изменяющей задачу, и публикуется подписчикам после ее фиксации.
+ * txid - идентификатор транзакции PostgreSQL, записавшей событие; события публикуются в порядке (txid, id).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_event_table", indexes = {
+        @Index(name = "outbox_event_position_idx", columnList = "txid, id"),
+        @Index(name = "outbox_event_published_at_idx", columnList = "published_at")
+})
+public class OutboxEvent {
+    @Id
+    @SequenceGenerator(
+            name = "outbox_event_id",
+            sequenceName = "outbox_event_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "outbox_event_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskEventType eventType;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    private Long actorId;
+
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(nullable = false)
+    private Long txid;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+}
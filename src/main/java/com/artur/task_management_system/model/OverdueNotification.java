@@ -0,0 +1,42 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Задача, отмеченная просроченной, в очереди на письмо автору.
+ * Очередь заполняется в той же транзакции, что и отметка, и разбирается по авторам: одно письмо на автора.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "overdue_notification_table", indexes = {
+        @Index(name = "overdue_notification_author_idx", columnList = "author_id")
+})
+public class OverdueNotification {
+    @Id
+    @SequenceGenerator(
+            name = "overdue_notification_id",
+            sequenceName = "overdue_notification_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "overdue_notification_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.artur.task_management_system.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Просроченная задача для письма автору.
+ */
+public record OverdueTaskNotice(Long taskId, String taskTitle, LocalDateTime deadLineDate,
+                                Long authorId, String email, String name) {
+}
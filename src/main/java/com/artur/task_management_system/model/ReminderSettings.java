@@ -0,0 +1,29 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки напоминаний пользователя: за сколько минут до срока задачи отправлять напоминания.
+ * Пользователи без настроек получают напоминания по умолчанию.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "reminder_settings_table")
+public class ReminderSettings {
+    @Id
+    private Long userId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private List<Integer> offsetsMinutes = new ArrayList<>();
+}
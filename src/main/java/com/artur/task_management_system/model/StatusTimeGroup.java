@@ -0,0 +1,19 @@
+package com.artur.task_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Перцентили времени в статусах для одной группы (приоритета или пользователя).
+ * Ключи metrics - статусы и LEAD_TIME (время от создания до завершения задачи).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusTimeGroup {
+    private String key;
+    private Map<String, DurationPercentiles> metrics;
+}
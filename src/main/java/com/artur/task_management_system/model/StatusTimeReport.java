@@ -0,0 +1,19 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.StatusTimeGroupBy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusTimeReport {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private StatusTimeGroupBy groupBy;
+    private List<StatusTimeGroup> groups;
+}
@@ -0,0 +1,24 @@
+package com.artur.task_management_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Порция изменений для синхронизации.
+ * Для получения следующей порции в запрос передается syncToken.
+ * Если hasMore = false, клиент получил все изменения на момент запроса.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SyncResponse<T> {
+    private List<T> changed;
+    private List<Long> deletedIds;
+    private String syncToken;
+    private boolean hasMore;
+}
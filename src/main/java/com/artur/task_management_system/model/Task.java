@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -19,7 +21,15 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "task_table")
+@BatchSize(size = 100)
+@Table(name = "task_table", indexes = {
+        @Index(name = "task_creation_date_idx", columnList = "creation_date, id"),
+        @Index(name = "task_dead_line_date_idx", columnList = "dead_line_date, id"),
+        @Index(name = "task_priority_idx", columnList = "priority, id"),
+        @Index(name = "task_status_idx", columnList = "status, id"),
+        @Index(name = "task_author_idx", columnList = "author_id, id"),
+        @Index(name = "task_author_dead_line_date_idx", columnList = "author_id, dead_line_date, id")
+})
 public class Task {
     @Id
     @SequenceGenerator(
@@ -50,20 +60,28 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime creationDate;
 
+    private LocalDateTime statusChangedAt;
+
     @Column(nullable = false)
     private LocalDateTime deadLineDate;
 
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean overdue;
+
     @ManyToOne(cascade = CascadeType.DETACH, optional = false)
     @JoinColumn(name = "author_id")
     @JsonBackReference
     private User author;
 
     @ManyToMany(mappedBy = "assignedTasks")
+    @BatchSize(size = 100)
     @JsonBackReference
     private Set<User> performers = new HashSet<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "task_id")
+    @BatchSize(size = 100)
     @JsonManagedReference
     private Set<TaskComment> comments = new HashSet<>();
 
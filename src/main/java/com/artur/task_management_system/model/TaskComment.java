@@ -16,7 +16,9 @@ import java.util.Objects;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "task_comment_table")
+@Table(name = "task_comment_table", indexes = {
+        @Index(name = "task_comment_from_idx", columnList = "from_id")
+})
 public class TaskComment {
     @Id
     @SequenceGenerator(
@@ -0,0 +1,69 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Событие задачи, доставляемое подписчикам.
+ * payload содержит состояние задачи на момент события (taskId, authorId, performerIds, title, status,
+ * priority, deadLineDate) и поля, специфичные для типа события.
+ * Позиция события в потоке - пара (txid, id).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskEvent {
+    private Long id;
+    private Long txid;
+    private TaskEventType type;
+    private Long taskId;
+    private Long actorId;
+    private LocalDateTime createdAt;
+    private Map<String, Object> payload;
+
+    /**
+     * Автор задачи на момент события.
+     */
+    @JsonIgnore
+    public Long getAuthorId() {
+        return payload.get("authorId") instanceof Number authorId ? authorId.longValue() : null;
+    }
+
+    /**
+     * Исполнители задачи на момент события.
+     */
+    @JsonIgnore
+    public Set<Long> getPerformerIds() {
+        Set<Long> performerIds = new HashSet<>();
+        if (payload.get("performerIds") instanceof Collection<?> ids){
+            for (Object id : ids){
+                if (id instanceof Number number){
+                    performerIds.add(number.longValue());
+                }
+            }
+        }
+        return performerIds;
+    }
+
+    /**
+     * Участники задачи на момент события: автор и исполнители.
+     */
+    @JsonIgnore
+    public Set<Long> getParticipantIds() {
+        Set<Long> participantIds = getPerformerIds();
+        Long authorId = getAuthorId();
+        if (authorId != null){
+            participantIds.add(authorId);
+        }
+        return participantIds;
+    }
+}
@@ -0,0 +1,54 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Запись истории изменений задачи. Таблица только пополняется и не ссылается на задачу,
+ * поэтому история удаленной задачи сохраняется.
+ * changes содержит только измененные поля в виде "поле": [старое значение, новое значение].
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_history_table", indexes = {
+        @Index(name = "task_history_task_changed_idx", columnList = "task_id, changed_at, id")
+})
+public class TaskHistoryEntry {
+    @Id
+    @SequenceGenerator(
+            name = "task_history_id",
+            sequenceName = "task_history_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "task_history_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    private Long actorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskEventType changeType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, Object> changes;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,48 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Напоминание пользователю о сроке задачи за offsetMinutes минут до него.
+ * Строка удаляется, когда напоминание отправлено, поэтому таблица содержит только неотправленные напоминания.
+ * Захваченное для отправки напоминание переносится на время повторной попытки.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_reminder_table", indexes = {
+        @Index(name = "task_reminder_remind_at_idx", columnList = "remind_at, id"),
+        @Index(name = "task_reminder_task_idx", columnList = "task_id"),
+        @Index(name = "task_reminder_user_idx", columnList = "user_id")
+})
+public class TaskReminder {
+    @Id
+    @SequenceGenerator(
+            name = "task_reminder_id",
+            sequenceName = "task_reminder_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "task_reminder_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer offsetMinutes;
+
+    @Column(nullable = false)
+    private LocalDateTime remindAt;
+}
@@ -0,0 +1,10 @@
+package com.artur.task_management_system.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Данные для письма с напоминанием о сроке задачи.
+ */
+public record TaskReminderNotice(Long reminderId, Long taskId, String taskTitle, LocalDateTime deadLineDate,
+                                 String email, String name) {
+}
@@ -0,0 +1,63 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskPriority;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Переход задачи между статусами.
+ * durationMs - время, проведенное задачей в статусе fromStatus, leadTimeMs - время от создания задачи
+ * до завершения, заполняется только для перехода в COMPLETED.
+ * priority - приоритет задачи на момент перехода.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_status_transition_table", indexes = {
+        @Index(name = "task_status_transition_at_idx", columnList = "transitioned_at"),
+        @Index(name = "task_status_transition_task_idx", columnList = "task_id, id")
+})
+public class TaskStatusTransition {
+    @Id
+    @SequenceGenerator(
+            name = "task_status_transition_id",
+            sequenceName = "task_status_transition_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "task_status_transition_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus toStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    private Long actorId;
+
+    @Column(nullable = false)
+    private LocalDateTime transitionedAt;
+
+    @Column(nullable = false)
+    private Long durationMs;
+
+    private Long leadTimeMs;
+}
@@ -0,0 +1,11 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskPriority;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+
+/**
+ * Поля перехода статуса, нужные для аналитики. Читается потоком без загрузки сущностей в контекст.
+ */
+public record TaskStatusTransitionSample(TaskStatus fromStatus, TaskStatus toStatus, TaskPriority priority,
+                                         Long actorId, Long durationMs, Long leadTimeMs) {
+}
@@ -0,0 +1,48 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее изменение задачи для синхронизации офлайн клиентов.
+ * На каждую задачу хранится одна строка, которая перезаписывается при каждом изменении.
+ * Позиция изменения - пара (txid, changeSeq): идентификатор транзакции PostgreSQL и номер из последовательности
+ * task_change_seq. Для удаленных задач строка остается с deleted = true.
+ * visibleUserIds - автор и исполнители задачи на момент изменения. По ним триггер обновляет строки
+ * {@link TaskSyncUserState}, из которых пользователи читают изменения.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_sync_table", indexes = {
+        @Index(name = "task_sync_position_idx", columnList = "txid, change_seq")
+})
+public class TaskSyncState {
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private Long[] visibleUserIds;
+
+    @Column(nullable = false)
+    private Long txid;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,49 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Последнее изменение задачи для одного пользователя. Строки заполняются триггером task_sync_user_trigger
+ * по изменениям {@link TaskSyncState}: пользователи из visibleUserIds получают строку с позицией изменения,
+ * а строки пользователей, потерявших доступ к задаче, становятся удалениями (visible = false) с позицией того
+ * изменения, при котором доступ был потерян. Более поздние изменения задачи их не затрагивают, поэтому
+ * удаление задачи выдается пользователю один раз.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(TaskSyncUserState.Key.class)
+@Table(name = "task_sync_user_table", indexes = {
+        @Index(name = "task_sync_user_position_idx", columnList = "user_id, txid, change_seq"),
+        @Index(name = "task_sync_user_task_idx", columnList = "task_id")
+})
+public class TaskSyncUserState {
+    @Id
+    private Long userId;
+
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long txid;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Boolean visible;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long taskId;
+    }
+}
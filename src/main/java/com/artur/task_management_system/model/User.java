@@ -7,6 +7,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,8 +25,18 @@ import java.util.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "user_table")
+@BatchSize(size = 100)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
+@Table(name = "user_table", indexes = {
+        @Index(name = "user_name_idx", columnList = "name, id")
+})
 public class User implements UserDetails {
+    public static final String CACHE_REGION = "user";
+    public static final String NATURAL_ID_CACHE_REGION = "user-natural-id";
+    public static final String CREATED_TASKS_CACHE_REGION = "user-created-tasks";
+    public static final String ASSIGNED_TASKS_CACHE_REGION = "user-assigned-tasks";
+
     @Id
     @SequenceGenerator(
             name = "user_id",
@@ -34,6 +49,7 @@ public class User implements UserDetails {
     )
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -43,8 +59,15 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String name;
 
+    /**
+     * Кэш коллекций хранит только идентификаторы задач. Сами задачи не кэшируются, потому что меняются
+     * значительно чаще пользователей; при попадании в кэш они загружаются по первичному ключу
+     * пакетами из {@link Task} @BatchSize, то есть одним запросом на сто задач, без чтения task_performers.
+     */
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_id")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CREATED_TASKS_CACHE_REGION)
     @JsonManagedReference
     private Set<Task> createdTasks = new HashSet<>();
 
@@ -52,7 +75,13 @@ public class User implements UserDetails {
     @JoinTable(
             name = "task_performers",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "task_id"))
+            inverseJoinColumns = @JoinColumn(name = "task_id"),
+            indexes = {
+                    @Index(name = "task_performers_user_idx", columnList = "user_id, task_id"),
+                    @Index(name = "task_performers_task_idx", columnList = "task_id, user_id")
+            })
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ASSIGNED_TASKS_CACHE_REGION)
     @JsonManagedReference
     private Set<Task> assignedTasks = new HashSet<>();
 
@@ -105,6 +134,10 @@ public class User implements UserDetails {
         createdTasks.add(task);
     }
 
+    public void removeCreatedTask(Task task){
+        createdTasks.remove(task);
+    }
+
     public void addAssignedTask(Task task){
         assignedTasks.add(task);
     }
@@ -0,0 +1,54 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие, которое не удалось доставить по подписке за максимальное число попыток.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "webhook_dead_letter_table", indexes = {
+        @Index(name = "webhook_dead_letter_subscription_idx", columnList = "subscription_id, id")
+})
+public class WebhookDeadLetter {
+    @Id
+    @SequenceGenerator(
+            name = "webhook_dead_letter_id",
+            sequenceName = "webhook_dead_letter_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "webhook_dead_letter_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "subscription_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private WebhookSubscription subscription;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,60 @@
+package com.artur.task_management_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ожидающая доставки пара (подписка, событие).
+ * Строка удаляется после успешной доставки или переносится в {@link WebhookDeadLetter}
+ * после исчерпания попыток. nextAttemptAt - время следующей попытки, на время доставки сдвигается вперед.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "webhook_delivery_table", indexes = {
+        @Index(name = "webhook_delivery_next_attempt_idx", columnList = "next_attempt_at"),
+        @Index(name = "webhook_delivery_subscription_idx", columnList = "subscription_id")
+})
+public class WebhookDelivery {
+    @Id
+    @SequenceGenerator(
+            name = "webhook_delivery_id",
+            sequenceName = "webhook_delivery_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "webhook_delivery_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "subscription_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private WebhookSubscription subscription;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,96 @@
+package com.artur.task_management_system.model;
+
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.WebhookScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Подписка пользователя на события задач по webhook.
+ * scope определяет задачи: созданные владельцем или назначенные ему. Пустой eventTypes означает все типы событий.
+ * secret используется для подписи тела запроса (HMAC-SHA256).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "webhook_subscription_table", indexes = {
+        @Index(name = "webhook_subscription_owner_idx", columnList = "owner_id")
+})
+public class WebhookSubscription {
+    @Id
+    @SequenceGenerator(
+            name = "webhook_subscription_id",
+            sequenceName = "webhook_subscription_id",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            generator = "webhook_subscription_id",
+            strategy = GenerationType.SEQUENCE
+    )
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "owner_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User owner;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(nullable = false)
+    private String secret;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookScope scope;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Set<TaskEventType> eventTypes = new HashSet<>();
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Проверяет, относится ли событие к подписке.
+     *
+     * @param event событие задачи
+     * @return true, если событие нужно доставить по подписке
+     */
+    public boolean matches(TaskEvent event) {
+        if (!eventTypes.isEmpty() && !eventTypes.contains(event.getType())){
+            return false;
+        }
+        return switch (scope){
+            case AUTHORED -> Objects.equals(event.getAuthorId(), owner.getId());
+            case ASSIGNED -> event.getPerformerIds().contains(owner.getId());
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WebhookSubscription)) return false;
+        WebhookSubscription subscription = (WebhookSubscription) o;
+        return Objects.equals(id, subscription.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
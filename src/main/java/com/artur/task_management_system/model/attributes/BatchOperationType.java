@@ -0,0 +1,5 @@
+package com.artur.task_management_system.model.attributes;
+
+public enum BatchOperationType {
+    CREATE_TASK, UPDATE_TASK, UPDATE_TASK_STATUS, ASSIGN_TASK_PERFORMER, COMMENT_TASK, DELETE_TASK
+}
@@ -0,0 +1,9 @@
+package com.artur.task_management_system.model.attributes;
+
+/**
+ * Тип сущности в уведомлениях об изменениях.
+ * TASK_LIST означает изменение списков задач пользователя, идентификатор - идентификатор пользователя.
+ */
+public enum CacheEntityType {
+    TASK, USER, TASK_LIST
+}
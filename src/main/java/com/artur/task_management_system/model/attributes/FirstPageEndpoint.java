@@ -0,0 +1,17 @@
+package com.artur.task_management_system.model.attributes;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum FirstPageEndpoint {
+    TASKS(false),
+    MY_AUTHORED(true),
+    MY_ASSIGNED(true);
+
+    /**
+     * Зависит ли страница от текущего пользователя.
+     */
+    private final boolean userSpecific;
+}
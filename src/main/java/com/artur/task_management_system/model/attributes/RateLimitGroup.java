@@ -0,0 +1,9 @@
+package com.artur.task_management_system.model.attributes;
+
+/**
+ * Группа эндпоинтов с общим ограничением частоты запросов.
+ * BULK - пакетные запросы, синхронизация и аналитика, каждый из которых читает много строк.
+ */
+public enum RateLimitGroup {
+    AUTH, READS, WRITES, BULK
+}
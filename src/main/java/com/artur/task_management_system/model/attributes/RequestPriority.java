@@ -0,0 +1,9 @@
+package com.artur.task_management_system.model.attributes;
+
+/**
+ * Приоритет запроса при ограничении числа одновременных запросов.
+ * Запросы с низким приоритетом отклоняются первыми, когда сервер близок к пределу.
+ */
+public enum RequestPriority {
+    CRITICAL, NORMAL, LOW
+}
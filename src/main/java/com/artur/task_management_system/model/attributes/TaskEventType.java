@@ -0,0 +1,5 @@
+package com.artur.task_management_system.model.attributes;
+
+public enum TaskEventType {
+    TASK_CREATED, TASK_UPDATED, STATUS_CHANGED, PERFORMER_ASSIGNED, COMMENT_ADDED, TASK_DELETED
+}
@@ -0,0 +1,5 @@
+package com.artur.task_management_system.model.attributes;
+
+public enum WebhookScope {
+    AUTHORED, ASSIGNED
+}
@@ -0,0 +1,31 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.attributes.BackgroundJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, UUID> {
+    List<BackgroundJob> findAllByStatusIn(Collection<BackgroundJobStatus> statuses);
+
+    Optional<BackgroundJob> findFirstByTypeAndOwnerIdAndStatusIn(String type, Long ownerId,
+                                                                  Collection<BackgroundJobStatus> statuses);
+
+    @Query("SELECT j.cancelRequested FROM BackgroundJob j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") UUID id);
+
+    @Modifying
+    @Query("DELETE FROM BackgroundJob j WHERE j.status IN :statuses AND j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("statuses") Collection<BackgroundJobStatus> statuses,
+                             @Param("before") LocalDateTime before);
+}
@@ -2,13 +2,46 @@ package com.artur.task_management_system.repository;
 
 import com.artur.task_management_system.model.ConfirmationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface ConfirmationTokenRepository extends JpaRepository<ConfirmationToken, Long> {
-    Optional<ConfirmationToken> findByToken(String token);
+    Optional<ConfirmationToken> findByToken(UUID token);
 
-    void deleteByUserId(Long userId);
+    /**
+     * Удаляет порцию токенов, истекших до указанного момента. Порция выбирается по индексу expires_at.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM confirmation_token_table
+            WHERE id IN (
+                SELECT id FROM confirmation_token_table
+                WHERE expires_at < :before
+                ORDER BY expires_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )""", nativeQuery = true)
+    int deleteExpiredBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Удаляет порцию токенов, подтвержденных до указанного момента. Порция выбирается по индексу confirmed_at.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM confirmation_token_table
+            WHERE id IN (
+                SELECT id FROM confirmation_token_table
+                WHERE confirmed_at < :before
+                ORDER BY confirmed_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )""", nativeQuery = true)
+    int deleteConfirmedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
@@ -0,0 +1,31 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Удаляет порцию записей, истекших до указанного момента. Порция выбирается по индексу expires_at.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotency_key_table
+            WHERE id IN (
+                SELECT id FROM idempotency_key_table
+                WHERE expires_at < :before
+                ORDER BY expires_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )""", nativeQuery = true)
+    int deleteExpiredBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,17 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.startedAt < :before")
+    int deleteStartedBefore(@Param("before") LocalDateTime before);
+}
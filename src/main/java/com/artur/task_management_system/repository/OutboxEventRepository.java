@@ -0,0 +1,79 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Записывает событие в текущей транзакции.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO outbox_event_table (id, event_type, task_id, actor_id, payload, txid, created_at)
+            VALUES (nextval('outbox_event_id'), :eventType, :taskId, :actorId, CAST(:payload AS jsonb),
+                    pg_current_xact_id()::text::bigint, clock_timestamp())""", nativeQuery = true)
+    void insertEvent(@Param("eventType") String eventType,
+                     @Param("taskId") Long taskId,
+                     @Param("actorId") Long actorId,
+                     @Param("payload") String payload);
+
+    /**
+     * Захватывает блокировку публикации до конца текущей транзакции.
+     * Публикует события только один узел, чтобы сохранить порядок.
+     * Ключ - 64-битный хэш имени, как у блокировок заданий.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtextextended(:name, 0))", nativeQuery = true)
+    boolean tryLockRelay(@Param("name") String name);
+
+    /**
+     * Неопубликованные события в порядке (txid, id).
+     * Возвращаются только события транзакций, которые старше всех еще не завершенных транзакций,
+     * поэтому позже зафиксированное событие не может оказаться перед уже опубликованным.
+     */
+    @Query(value = """
+            SELECT e.* FROM outbox_event_table e
+            WHERE e.published_at IS NULL
+              AND e.txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY e.txid, e.id
+            LIMIT :limit""", nativeQuery = true)
+    List<OutboxEvent> findUnpublishedBatch(@Param("limit") int limit);
+
+    /**
+     * События после позиции (txid, id), включая опубликованные, с тем же ограничением по завершенным транзакциям.
+     */
+    @Query(value = """
+            SELECT e.* FROM outbox_event_table e
+            WHERE (e.txid, e.id) > (:txid, :id)
+              AND e.txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY e.txid, e.id
+            LIMIT :limit""", nativeQuery = true)
+    List<OutboxEvent> findEventsAfter(@Param("txid") long txid,
+                                      @Param("id") long id,
+                                      @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT e.* FROM outbox_event_table e
+            WHERE e.txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY e.txid DESC, e.id DESC
+            LIMIT 1""", nativeQuery = true)
+    Optional<OutboxEvent> findLastEvent();
+
+    @Modifying
+    @Query(value = "UPDATE outbox_event_table SET published_at = clock_timestamp() WHERE id IN (:ids)",
+            nativeQuery = true)
+    void markPublished(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event_table WHERE published_at < :before", nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
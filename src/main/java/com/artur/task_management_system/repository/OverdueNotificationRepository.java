@@ -0,0 +1,25 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.OverdueNotification;
+import com.artur.task_management_system.model.OverdueTaskNotice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OverdueNotificationRepository extends JpaRepository<OverdueNotification, Long> {
+    /**
+     * Незавершенные задачи для письма авторам. Удаленные и завершенные с момента отметки задачи пропускаются.
+     */
+    @Query("""
+            SELECT new com.artur.task_management_system.model.OverdueTaskNotice(
+                t.id, t.title, t.deadLineDate, a.id, a.email, a.name)
+            FROM Task t JOIN t.author a
+            WHERE t.id IN :taskIds AND t.status <> com.artur.task_management_system.model.attributes.TaskStatus.COMPLETED
+            ORDER BY a.id, t.deadLineDate, t.id""")
+    List<OverdueTaskNotice> findNotices(@Param("taskIds") Collection<Long> taskIds);
+}
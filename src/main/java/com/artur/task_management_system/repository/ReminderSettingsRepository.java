@@ -0,0 +1,9 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.ReminderSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderSettingsRepository extends JpaRepository<ReminderSettings, Long> {
+}
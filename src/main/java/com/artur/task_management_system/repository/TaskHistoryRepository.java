@@ -0,0 +1,12 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.TaskHistoryEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistoryEntry, Long> {
+    Page<TaskHistoryEntry> findAllByTaskId(Long taskId, Pageable pageable);
+}
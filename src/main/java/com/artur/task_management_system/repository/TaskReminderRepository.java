@@ -0,0 +1,39 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.TaskReminder;
+import com.artur.task_management_system.model.TaskReminderNotice;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskReminderRepository extends JpaRepository<TaskReminder, Long> {
+    List<TaskReminder> findAllByTaskId(Long taskId);
+
+    /**
+     * Следующие напоминания до момента until после позиции (remindAt, id) в порядке срабатывания.
+     * Использует индекс task_reminder_remind_at_idx.
+     */
+    @Query("""
+            SELECT r FROM TaskReminder r
+            WHERE r.remindAt < :until
+              AND (r.remindAt > :afterRemindAt OR (r.remindAt = :afterRemindAt AND r.id > :afterId))
+            ORDER BY r.remindAt, r.id""")
+    List<TaskReminder> findNextReminders(@Param("afterRemindAt") LocalDateTime afterRemindAt,
+                                         @Param("afterId") Long afterId,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable pageable);
+
+    @Query("""
+            SELECT new com.artur.task_management_system.model.TaskReminderNotice(
+                r.id, t.id, t.title, t.deadLineDate, u.email, u.name)
+            FROM TaskReminder r, Task t, User u
+            WHERE r.id IN :ids AND t.id = r.taskId AND u.id = r.userId""")
+    List<TaskReminderNotice> findNotices(@Param("ids") Collection<Long> ids);
+}
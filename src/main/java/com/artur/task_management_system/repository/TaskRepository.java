@@ -1,17 +1,73 @@
 package com.artur.task_management_system.repository;
 
 import com.artur.task_management_system.model.Task;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findAllByAuthorId(Long authorId, Pageable pageable);
 
+    /**
+     * Загружает задачу для изменения исполнителей. Версия задачи увеличивается при фиксации транзакции:
+     * Task.performers - обратная сторона связи, и ее изменение само версию не меняет.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT t FROM Task t WHERE t.id = :taskId")
+    Optional<Task> findForPerformerChangeById(@Param("taskId") Long taskId);
+
     @Query("SELECT t FROM Task t JOIN t.performers p WHERE p.id = :performerId")
     Page<Task> findAllByPerformerId(@Param("performerId") Long performerId, Pageable pageable);
+
+    /**
+     * Первая страница "входящих" задач пользователя: созданные им и назначенные ему.
+     * Порядок: срок выполнения, приоритет (HIGH, MEDIUM, LOW), id.
+     */
+    @Query(value = """
+            SELECT i.* FROM (
+                SELECT t.* FROM task_table t WHERE t.author_id = :userId
+                UNION
+                SELECT t.* FROM task_table t
+                JOIN task_performers p ON p.task_id = t.id
+                WHERE p.user_id = :userId
+            ) i
+            ORDER BY i.dead_line_date,
+                     CASE i.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END,
+                     i.id
+            LIMIT :limit""", nativeQuery = true)
+    List<Task> findInboxFirstPage(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Следующая страница "входящих" задач пользователя после позиции курсора.
+     */
+    @Query(value = """
+            SELECT i.* FROM (
+                SELECT t.* FROM task_table t WHERE t.author_id = :userId
+                UNION
+                SELECT t.* FROM task_table t
+                JOIN task_performers p ON p.task_id = t.id
+                WHERE p.user_id = :userId
+            ) i
+            WHERE (i.dead_line_date,
+                   CASE i.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END,
+                   i.id) > (:deadLineDate, :priorityRank, :taskId)
+            ORDER BY i.dead_line_date,
+                     CASE i.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END,
+                     i.id
+            LIMIT :limit""", nativeQuery = true)
+    List<Task> findInboxPageAfter(@Param("userId") Long userId,
+                                  @Param("deadLineDate") LocalDateTime deadLineDate,
+                                  @Param("priorityRank") int priorityRank,
+                                  @Param("taskId") Long taskId,
+                                  @Param("limit") int limit);
 }
@@ -0,0 +1,29 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.TaskStatusTransition;
+import com.artur.task_management_system.model.TaskStatusTransitionSample;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface TaskStatusTransitionRepository extends JpaRepository<TaskStatusTransition, Long> {
+    /**
+     * Переходы за период [from, to) потоком. Должен вызываться в транзакции, поток нужно закрыть.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.artur.task_management_system.model.TaskStatusTransitionSample(
+                t.fromStatus, t.toStatus, t.priority, t.actorId, t.durationMs, t.leadTimeMs)
+            FROM TaskStatusTransition t
+            WHERE t.transitionedAt >= :from AND t.transitionedAt < :to""")
+    Stream<TaskStatusTransitionSample> streamSamples(@Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+}
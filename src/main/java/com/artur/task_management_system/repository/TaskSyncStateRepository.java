@@ -0,0 +1,39 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.TaskSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskSyncStateRepository extends JpaRepository<TaskSyncState, Long> {
+    /**
+     * Обновление существующей строки синхронизации. Строки пользователей в task_sync_user_table
+     * обновляет триггер. Используется также в SQL запросах удаления пользователя и отметки просроченных задач.
+     */
+    String UPSERT_SQL = """
+            ON CONFLICT (task_id) DO UPDATE
+            SET author_id = EXCLUDED.author_id,
+                visible_user_ids = EXCLUDED.visible_user_ids,
+                txid = EXCLUDED.txid,
+                change_seq = EXCLUDED.change_seq,
+                deleted = EXCLUDED.deleted,
+                changed_at = EXCLUDED.changed_at""";
+
+    /**
+     * Записывает изменение задачи с новой позицией в текущей транзакции.
+     * Список пользователей передается литералом массива PostgreSQL, например {1,2}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_sync_table (task_id, author_id, visible_user_ids, txid, change_seq, deleted, changed_at)
+            VALUES (:taskId, :authorId, CAST(:visibleUserIds AS bigint[]),
+                    pg_current_xact_id()::text::bigint, nextval('task_change_seq'), :deleted, clock_timestamp())
+            """ + UPSERT_SQL, nativeQuery = true)
+    void recordChange(@Param("taskId") Long taskId,
+                      @Param("authorId") Long authorId,
+                      @Param("visibleUserIds") String visibleUserIds,
+                      @Param("deleted") boolean deleted);
+}
@@ -0,0 +1,30 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.TaskSyncUserState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskSyncUserStateRepository extends JpaRepository<TaskSyncUserState, TaskSyncUserState.Key> {
+    /**
+     * Изменения задач пользователя после позиции (txid, changeSeq) в порядке позиций,
+     * читаемые по индексу (user_id, txid, change_seq).
+     * Возвращаются только изменения транзакций, которые старше всех еще не завершенных транзакций,
+     * поэтому позже зафиксированные изменения не могут оказаться перед уже выданной позицией.
+     */
+    @Query(value = """
+            SELECT s.* FROM task_sync_user_table s
+            WHERE s.user_id = :userId
+              AND (s.txid, s.change_seq) > (:txid, :changeSeq)
+              AND s.txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY s.txid, s.change_seq
+            LIMIT :limit""", nativeQuery = true)
+    List<TaskSyncUserState> findChangesAfter(@Param("userId") Long userId,
+                                             @Param("txid") long txid,
+                                             @Param("changeSeq") long changeSeq,
+                                             @Param("limit") int limit);
+}
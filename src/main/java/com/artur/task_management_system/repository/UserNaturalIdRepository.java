@@ -0,0 +1,15 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    /**
+     * Ищет пользователя по email через кэш натуральных идентификаторов.
+     *
+     * @param email email пользователя
+     * @return пользователь или пустой Optional
+     */
+    Optional<User> findByEmail(String email);
+}
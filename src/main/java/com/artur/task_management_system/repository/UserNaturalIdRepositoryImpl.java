@@ -0,0 +1,25 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по натуральному идентификатору.
+ * В отличие от запроса по полю, загрузка по натуральному идентификатору использует
+ * кэш натуральных идентификаторов и кэш второго уровня User.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
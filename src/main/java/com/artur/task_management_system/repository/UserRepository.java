@@ -4,11 +4,7 @@ import com.artur.task_management_system.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     boolean existsByEmail(String email);
-
-    Optional<User> findByEmail(String email);
 }
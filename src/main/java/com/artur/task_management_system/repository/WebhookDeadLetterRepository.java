@@ -0,0 +1,34 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookDeadLetterRepository extends JpaRepository<WebhookDeadLetter, Long> {
+    Page<WebhookDeadLetter> findAllBySubscriptionId(Long subscriptionId, Pageable pageable);
+
+    /**
+     * Переносит недоставленные события подписки обратно в очередь доставки с обнулением попыток.
+     *
+     * @return число перенесенных событий
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM webhook_dead_letter_table WHERE subscription_id = :subscriptionId
+                RETURNING id, subscription_id, event_id, payload
+            )
+            INSERT INTO webhook_delivery_table
+                (id, subscription_id, event_id, payload, attempts, next_attempt_at, created_at)
+            SELECT nextval('webhook_delivery_id'), m.subscription_id, m.event_id, m.payload, 0,
+                   clock_timestamp(), clock_timestamp()
+            FROM moved m
+            ORDER BY m.id""", nativeQuery = true)
+    int requeueBySubscriptionId(@Param("subscriptionId") Long subscriptionId);
+}
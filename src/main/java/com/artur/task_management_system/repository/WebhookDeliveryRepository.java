@@ -0,0 +1,41 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.WebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+    /**
+     * Блокирует доставки, время попытки которых наступило.
+     * Строки, заблокированные другим узлом, пропускаются.
+     */
+    @Query(value = """
+            SELECT d.* FROM webhook_delivery_table d
+            WHERE d.next_attempt_at <= :now
+            ORDER BY d.next_attempt_at, d.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<WebhookDelivery> lockDueDeliveries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :nextAttemptAt WHERE d.id IN :ids")
+    void reschedule(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("""
+            UPDATE WebhookDelivery d
+            SET d.attempts = :attempts, d.nextAttemptAt = :nextAttemptAt, d.lastError = :lastError
+            WHERE d.id = :id""")
+    void scheduleRetry(@Param("id") Long id,
+                       @Param("attempts") int attempts,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                       @Param("lastError") String lastError);
+}
@@ -0,0 +1,20 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+    List<WebhookSubscription> findAllByOwnerIdOrderById(Long ownerId);
+
+    long countByOwnerId(Long ownerId);
+
+    @Query("SELECT s FROM WebhookSubscription s WHERE s.owner.id IN :ownerIds")
+    List<WebhookSubscription> findAllByOwnerIds(@Param("ownerIds") Collection<Long> ownerIds);
+}
@@ -0,0 +1,41 @@
+package com.artur.task_management_system.scheduling;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Выполняемое задание с точки зрения обработчика.
+ */
+public interface BackgroundJobContext {
+    UUID getJobId();
+
+    Long getOwnerId();
+
+    Map<String, Object> getParameters();
+
+    /**
+     * @return последняя сохраненная позиция, пустая при первом запуске
+     */
+    Map<String, Object> getCheckpoint();
+
+    /**
+     * Сохраняет общий объем работы для отображения прогресса.
+     *
+     * @param total общий объем работы
+     */
+    void setTotal(long total);
+
+    /**
+     * Сохраняет позицию и прирост выполненной работы. Вызванный в транзакции обработчика, сохраняет их
+     * вместе с этой транзакцией, так что позиция всегда соответствует зафиксированной работе.
+     *
+     * @param checkpoint новая позиция
+     * @param processed объем работы, выполненной после предыдущей позиции
+     */
+    void checkpoint(Map<String, Object> checkpoint, long processed);
+
+    /**
+     * @return true, если запрошена отмена задания
+     */
+    boolean isCancellationRequested();
+}
@@ -0,0 +1,30 @@
+package com.artur.task_management_system.scheduling;
+
+/**
+ * Обработчик заданий одного типа.
+ *
+ * Задание может быть прервано остановкой узла в любой момент и запущено заново на любом узле,
+ * поэтому обработчик должен продолжать работу с последней сохраненной позиции и быть идемпотентным
+ * для работы, выполненной после нее.
+ */
+public interface BackgroundJobHandler {
+    /**
+     * @return тип заданий, которые выполняет обработчик
+     */
+    String getType();
+
+    /**
+     * @return true, если задание можно отменить
+     */
+    default boolean isCancellable() {
+        return true;
+    }
+
+    /**
+     * Выполняет задание. Отмененное задание должно завершиться без исключения.
+     * После исключения задание запускается заново с последней сохраненной позиции, пока не исчерпаны попытки.
+     *
+     * @param context задание и его сохраненная позиция
+     */
+    void run(BackgroundJobContext context);
+}
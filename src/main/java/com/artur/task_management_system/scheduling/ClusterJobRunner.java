@@ -0,0 +1,174 @@
+package com.artur.task_management_system.scheduling;
+
+import com.artur.task_management_system.model.JobRun;
+import com.artur.task_management_system.model.attributes.JobRunStatus;
+import com.artur.task_management_system.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Запуск фоновых заданий, согласованный между узлами.
+ *
+ * Методы вызываются из обычных @Scheduled методов на каждом узле. Задание выполняется только на узле,
+ * захватившем его блокировку, остальные узлы пропускают запуск. Задание, разделенное на части,
+ * выполняется по частям: узел проходит все части, начиная со своей, и выполняет те, блокировку которых
+ * удалось захватить, так что части выполняются параллельно на разных узлах.
+ * Блокировка исключает только одновременное выполнение: часть, уже выполненная другим узлом в этом цикле,
+ * может быть выполнена еще раз, поэтому задания должны быть идемпотентными.
+ * Каждое выполнение записывается в job_run_table с длительностью и результатом.
+ */
+@Slf4j
+@Component
+public class ClusterJobRunner {
+    private static final String HISTORY_CLEANUP_JOB = "job-run-history-cleanup";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobLockProvider jobLockProvider;
+    private final JobRunRepository jobRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Duration historyRetention;
+
+    public ClusterJobRunner(JobLockProvider jobLockProvider,
+                            JobRunRepository jobRunRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${artur.jobs.node-id:}") String nodeId,
+                            @Value("${artur.jobs.history-retention}") Duration historyRetention) {
+        this.jobLockProvider = jobLockProvider;
+        this.jobRunRepository = jobRunRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.historyRetention = historyRetention;
+    }
+
+    /**
+     * Выполняет задание, если его не выполняет другой узел.
+     *
+     * @param jobName имя задания
+     * @param job задание
+     * @return true, если задание выполнялось на этом узле
+     */
+    public boolean runExclusive(String jobName, Runnable job) {
+        return run(jobName, jobName, null, job);
+    }
+
+    /**
+     * Выполняет экземпляр задания, если этот экземпляр не выполняет другой узел.
+     * Разные экземпляры одного задания выполняются независимо, а в метриках учитываются под общим именем.
+     *
+     * @param jobName имя задания
+     * @param key ключ экземпляра задания
+     * @param job задание
+     * @return true, если задание выполнялось на этом узле
+     */
+    public boolean runExclusive(String jobName, String key, Runnable job) {
+        return run(jobName, jobName + "#" + key, null, job);
+    }
+
+    /**
+     * Выполняет части задания, не занятые другими узлами.
+     *
+     * @param jobName имя задания
+     * @param shardCount количество частей
+     * @param job задание для одной части
+     * @return количество частей, выполненных на этом узле
+     */
+    public int runSharded(String jobName, int shardCount, Consumer<JobShard> job) {
+        int executed = 0;
+        int firstShard = Math.floorMod(nodeId.hashCode(), shardCount);
+        for (int offset = 0; offset < shardCount; offset++){
+            JobShard shard = new JobShard((firstShard + offset) % shardCount, shardCount);
+            String lockName = jobName + "#" + shard.index() + "/" + shardCount;
+            if (run(jobName, lockName, shard, () -> job.accept(shard))){
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Удаляет записи о выполнениях старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${artur.jobs.cleanup-delay}")
+    public void deleteOldRuns() {
+        runExclusive(HISTORY_CLEANUP_JOB, () -> transactionTemplate.executeWithoutResult(status ->
+                jobRunRepository.deleteStartedBefore(LocalDateTime.now().minus(historyRetention))));
+    }
+
+    private boolean run(String jobName, String lockName, JobShard shard, Runnable job) {
+        Optional<JobLock> lock = jobLockProvider.tryLock(lockName);
+        if (lock.isEmpty()){
+            log.debug("Job {} is running on another node", lockName);
+            return false;
+        }
+        try (JobLock ignored = lock.get()){
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            JobRunStatus status = JobRunStatus.SUCCEEDED;
+            String error = null;
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                status = JobRunStatus.FAILED;
+                error = truncate(String.valueOf(e));
+                log.error("Job {} failed", lockName, e);
+            }
+            long durationNanos = System.nanoTime() - start;
+            Timer.builder("scheduled.job.duration")
+                    .description("Duration of cluster scheduled jobs")
+                    .tag("job", jobName)
+                    .tag("status", status.name())
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            record(new JobRun(null, jobName,
+                    shard == null ? null : shard.index(), shard == null ? null : shard.count(),
+                    nodeId, status, startedAt, LocalDateTime.now(),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), error));
+        }
+        return true;
+    }
+
+    private void record(JobRun jobRun) {
+        try {
+            jobRunRepository.save(jobRun);
+        } catch (DataAccessException e) {
+            log.warn("Failed to record run of job {}", jobRun.getJobName(), e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,196 @@
+package com.artur.task_management_system.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Иерархическое колесо таймеров.
+ *
+ * Уровень 0 делится на slotCount ячеек по одному тику, каждая ячейка уровня L охватывает slotCount^L тиков.
+ * Таймер кладется на самый нижний уровень, который его вмещает, и спускается на нижние уровни, когда колесо
+ * доходит до его ячейки. Постановка и отмена таймера - O(1), продвижение на тик - O(число уровней + сработавших).
+ * Таймер никогда не срабатывает раньше своего срока и срабатывает не позже, чем через тик после него.
+ * Методы синхронизированы.
+ *
+ * @param <K> ключ таймера; повторная постановка с тем же ключом заменяет таймер
+ */
+public class HierarchicalTimingWheel<K> {
+    private final long tickMillis;
+    private final int slotCount;
+    private final long[] slotSpans;
+    private final List<List<Set<K>>> levels;
+    private final Map<K, Timer> timers = new HashMap<>();
+    private final Set<K> expired = new LinkedHashSet<>();
+    private long currentTick;
+
+    /**
+     * @param tick длительность тика
+     * @param slotCount количество ячеек на уровне
+     * @param levelCount количество уровней
+     * @param nowMillis текущее время в миллисекундах
+     */
+    public HierarchicalTimingWheel(Duration tick, int slotCount, int levelCount, long nowMillis) {
+        if (tick.toMillis() < 1 || slotCount < 2 || levelCount < 1){
+            throw new IllegalArgumentException(String.format(
+                    "Wrong timing wheel parameters: tick %s, %d slots, %d levels", tick, slotCount, levelCount));
+        }
+        this.tickMillis = tick.toMillis();
+        this.slotCount = slotCount;
+        this.slotSpans = new long[levelCount];
+        this.levels = new ArrayList<>(levelCount);
+        long span = 1;
+        for (int level = 0; level < levelCount; level++){
+            slotSpans[level] = span;
+            List<Set<K>> slots = new ArrayList<>(slotCount);
+            for (int slot = 0; slot < slotCount; slot++){
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+            span = Math.multiplyExact(span, slotCount);
+        }
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Ставит таймер. Если таймер с таким ключом уже есть, он заменяется.
+     * Таймер со сроком в прошлом сработает при следующем продвижении колеса.
+     *
+     * @param key ключ таймера
+     * @param deadlineMillis срок в миллисекундах
+     * @return false, если срок дальше горизонта колеса и таймер не поставлен
+     */
+    public synchronized boolean schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        int topLevel = slotSpans.length - 1;
+        if (tick / slotSpans[topLevel] - currentTick / slotSpans[topLevel] >= slotCount){
+            return false;
+        }
+        Timer timer = new Timer(tick);
+        timers.put(key, timer);
+        place(key, timer);
+        return true;
+    }
+
+    /**
+     * Отменяет таймер.
+     *
+     * @param key ключ таймера
+     * @return true, если таймер был поставлен и еще не сработал
+     */
+    public synchronized boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null){
+            return false;
+        }
+        if (timer.level < 0){
+            expired.remove(key);
+        }else{
+            levels.get(timer.level).get(timer.slot).remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до текущего времени.
+     *
+     * @param nowMillis текущее время в миллисекундах
+     * @return ключи сработавших таймеров
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> due = new ArrayList<>();
+        while (currentTick < targetTick){
+            if (timers.size() == expired.size()){
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for (int level = slotSpans.length - 1; level > 0; level--){
+                if (currentTick % slotSpans[level] == 0){
+                    cascade(level, slotIndex(level, currentTick));
+                }
+            }
+            Set<K> slot = levels.get(0).get(slotIndex(0, currentTick));
+            for (K key : slot){
+                timers.remove(key);
+                due.add(key);
+            }
+            slot.clear();
+        }
+        for (K key : expired){
+            timers.remove(key);
+            due.add(key);
+        }
+        expired.clear();
+        return due;
+    }
+
+    /**
+     * @return количество поставленных таймеров
+     */
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Горизонт колеса: любой срок ближе этого принимается {@link #schedule}.
+     *
+     * @return горизонт в миллисекундах
+     */
+    public long horizonMillis() {
+        return (slotCount - 1) * slotSpans[slotSpans.length - 1] * tickMillis;
+    }
+
+    private void cascade(int level, int slotIndex) {
+        Set<K> slot = levels.get(level).get(slotIndex);
+        if (slot.isEmpty()){
+            return;
+        }
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (K key : keys){
+            place(key, timers.get(key));
+        }
+    }
+
+    /**
+     * Кладет таймер на самый нижний уровень, где его ячейка не дальше slotCount - 1 ячеек от текущей.
+     * Поэтому таймер не может попасть в ячейку, которую колесо пройдет раньше его срока.
+     */
+    private void place(K key, Timer timer) {
+        if (timer.tick <= currentTick){
+            timer.level = -1;
+            expired.add(key);
+            return;
+        }
+        for (int level = 0; level < slotSpans.length; level++){
+            if (timer.tick / slotSpans[level] - currentTick / slotSpans[level] < slotCount){
+                timer.level = level;
+                timer.slot = slotIndex(level, timer.tick);
+                levels.get(level).get(timer.slot).add(key);
+                return;
+            }
+        }
+        throw new IllegalStateException(String.format("Timer tick %d is beyond the wheel horizon", timer.tick));
+    }
+
+    private int slotIndex(int level, long tick) {
+        return (int) ((tick / slotSpans[level]) % slotCount);
+    }
+
+    private static final class Timer {
+        private final long tick;
+        private int level;
+        private int slot;
+
+        private Timer(long tick) {
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.artur.task_management_system.scheduling;
+
+/**
+ * Захваченная блокировка задания. Освобождается при закрытии.
+ */
+public interface JobLock extends AutoCloseable {
+    @Override
+    void close();
+}
@@ -0,0 +1,16 @@
+package com.artur.task_management_system.scheduling;
+
+import java.util.Optional;
+
+/**
+ * Поставщик блокировок заданий, общих для всех узлов.
+ */
+public interface JobLockProvider {
+    /**
+     * Пытается захватить блокировку без ожидания.
+     *
+     * @param lockName имя блокировки
+     * @return захваченная блокировка или пустой Optional, если ее держит другой узел или поток
+     */
+    Optional<JobLock> tryLock(String lockName);
+}
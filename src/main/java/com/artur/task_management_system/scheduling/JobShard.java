@@ -0,0 +1,43 @@
+package com.artur.task_management_system.scheduling;
+
+/**
+ * Часть работы задания, разделенного между узлами по диапазонам идентификаторов.
+ *
+ * @param index номер части от 0
+ * @param count количество частей
+ */
+public record JobShard(int index, int count) {
+    /**
+     * Единственная часть, охватывающая все идентификаторы.
+     */
+    public static final JobShard ALL = new JobShard(0, 1);
+
+    public JobShard {
+        if (count < 1 || index < 0 || index >= count){
+            throw new IllegalArgumentException(String.format("Wrong job shard %d of %d", index, count));
+        }
+    }
+
+    /**
+     * Делит диапазон [minId, maxId] на count равных частей и возвращает часть с номером index.
+     *
+     * @param minId наименьший идентификатор
+     * @param maxId наибольший идентификатор
+     * @return полуинтервал [fromId, toId) части, пустой, если minId больше maxId
+     */
+    public IdRange range(long minId, long maxId) {
+        if (minId > maxId){
+            return new IdRange(minId, minId);
+        }
+        long size = Math.ceilDiv(maxId - minId + 1, count);
+        long fromId = Math.min(minId + size * index, maxId + 1);
+        long toId = Math.min(fromId + size, maxId + 1);
+        return new IdRange(fromId, toId);
+    }
+
+    /**
+     * Полуинтервал идентификаторов [fromId, toId).
+     */
+    public record IdRange(long fromId, long toId) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.artur.task_management_system.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Блокировки заданий на advisory lock PostgreSQL уровня сессии.
+ *
+ * Ключ блокировки - 64-битный хэш имени. Все блокировки узла держатся на одном отдельном соединении вне пула,
+ * поэтому выполняющиеся задания занимают в пуле только соединения для своей работы. Advisory lock повторно
+ * захватывается той же сессией, поэтому занятые на узле имена хранятся отдельно и второй раз не выдаются.
+ * Если узел падает, PostgreSQL освобождает блокировки вместе с соединением, поэтому внешний координатор не нужен.
+ * После ошибки соединение закрывается вместе со всеми блокировками и открывается заново при следующем захвате.
+ */
+@Slf4j
+@Component
+public class PostgresAdvisoryJobLockProvider implements JobLockProvider {
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended(?, 0))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended(?, 0))";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Set<String> heldLocks = new HashSet<>();
+    private Connection lockConnection;
+
+    public PostgresAdvisoryJobLockProvider(DataSourceProperties dataSourceProperties) {
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    public synchronized Optional<JobLock> tryLock(String lockName) {
+        if (heldLocks.contains(lockName)){
+            return Optional.empty();
+        }
+        try {
+            if (!execute(getLockConnection(), LOCK_SQL, lockName)){
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to acquire job lock {}", lockName, e);
+            discardConnection();
+            return Optional.empty();
+        }
+        heldLocks.add(lockName);
+        return Optional.of(() -> release(lockName));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        discardConnection();
+    }
+
+    private synchronized void release(String lockName) {
+        if (!heldLocks.remove(lockName)){
+            return;
+        }
+        try {
+            if (!execute(lockConnection, UNLOCK_SQL, lockName)){
+                log.warn("Job lock {} was not held on release", lockName);
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to release job lock {}", lockName, e);
+            discardConnection();
+        }
+    }
+
+    private Connection getLockConnection() throws SQLException {
+        if (lockConnection == null){
+            lockConnection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword());
+        }
+        return lockConnection;
+    }
+
+    private boolean execute(Connection connection, String sql, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)){
+            statement.setString(1, lockName);
+            try (ResultSet resultSet = statement.executeQuery()){
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Закрывает соединение блокировок. Блокировки на нем освобождаются PostgreSQL, поэтому занятые имена
+     * забываются. abort прерывает зависшее соединение, close освобождает ресурсы драйвера.
+     */
+    private void discardConnection() {
+        heldLocks.clear();
+        if (lockConnection == null){
+            return;
+        }
+        Connection connection = lockConnection;
+        lockConnection = null;
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException e) {
+            log.warn("Failed to abort job lock connection", e);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close job lock connection", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.model.attributes.RequestPriority;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный предел числа одновременных запросов (градиентный алгоритм).
+ *
+ * Для каждого завершенного запроса время ответа сравнивается со средним временем за длинное окно.
+ * Пока ответы не медленнее среднего больше чем в tolerance раз, предел растет на sqrt(limit);
+ * когда ответы замедляются, например из-за очереди к пулу соединений, предел уменьшается пропорционально
+ * замедлению, но не больше чем вдвое за шаг. Изменение сглаживается коэффициентом smoothing.
+ * Если одновременно выполнялось меньше половины предела, запрос ничего не говорит о перегрузке
+ * и предел не меняется. После падения времени ответа среднее постепенно снижается, чтобы предел снова рос.
+ *
+ * Запрос с приоритетом получает разрешение, только пока число выполняющихся запросов меньше его доли предела,
+ * поэтому при росте нагрузки первыми отклоняются запросы с низким приоритетом.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double RTT_RECOVERY_RATIO = 2.0;
+    private static final double RTT_RECOVERY_DECAY = 0.95;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Double> shares;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final int longWindow;
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double tolerance, int longWindow, double normalShare, double lowShare) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit){
+            throw new IllegalStateException(String.format("Invalid concurrency limits: min %d, initial %d, max %d",
+                    minLimit, initialLimit, maxLimit));
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindow = longWindow;
+        this.shares = new EnumMap<>(RequestPriority.class);
+        shares.put(RequestPriority.CRITICAL, 1.0);
+        shares.put(RequestPriority.NORMAL, normalShare);
+        shares.put(RequestPriority.LOW, lowShare);
+    }
+
+    /**
+     * Выдает разрешение на выполнение запроса.
+     *
+     * @param priority приоритет запроса
+     * @return разрешение или пустой Optional, если запрос нужно отклонить
+     */
+    public Optional<Permit> tryAcquire(RequestPriority priority) {
+        int maxInFlight = Math.max(1, (int) (limit * shares.get(priority)));
+        while (true){
+            int current = inFlight.get();
+            if (current >= maxInFlight){
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)){
+                return Optional.of(new Permit(System.nanoTime(), current + 1));
+            }
+        }
+    }
+
+    /**
+     * Возвращает разрешение после завершения запроса и учитывает время его выполнения.
+     *
+     * @param permit разрешение, выданное tryAcquire
+     */
+    public void release(Permit permit) {
+        inFlight.decrementAndGet();
+        onSample(System.nanoTime() - permit.startNanos(), permit.inFlight());
+    }
+
+    /**
+     * Пересчитывает предел по времени выполнения запроса.
+     *
+     * @param rttNanos время выполнения запроса
+     * @param inFlightAtStart число выполнявшихся запросов в момент его начала, включая его самого
+     */
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(1, rttNanos);
+        samples++;
+        longRttNanos += (rtt - longRttNanos) / Math.min(samples, longWindow);
+        if (longRttNanos / rtt > RTT_RECOVERY_RATIO){
+            longRttNanos *= RTT_RECOVERY_DECAY;
+        }
+        double current = limit;
+        if (inFlightAtStart < current / 2){
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Разрешение на выполнение одного запроса.
+     *
+     * @param startNanos время выдачи по System.nanoTime()
+     * @param inFlight число выполняющихся запросов вместе с этим
+     */
+    public record Permit(long startNanos, int inFlight) {
+    }
+}
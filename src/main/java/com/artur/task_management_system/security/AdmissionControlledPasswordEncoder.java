@@ -0,0 +1,122 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder, выполняющий хеширование паролей в отдельном ограниченном пуле потоков.
+ *
+ * Хеширование bcrypt намеренно дорогое, поэтому без ограничения волна входов занимает все ядра.
+ * Пул из threads потоков с очередью на queueCapacity задач ограничивает долю процессора, отданную паролям.
+ * Поток запроса ждет результат не дольше maxWait и затем отклоняется с PasswordHashingOverloadedException.
+ * Если очередь заполнена, запрос отклоняется сразу, не занимая поток Tomcat на время ожидания.
+ *
+ * Метрики: password.hash.duration (тег operation), password.hash.queue.wait, password.hash.rejected
+ * и password.hash.queue.size.
+ */
+public class AdmissionControlledPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final Timer encodeDuration;
+    private final Timer matchesDuration;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public AdmissionControlledPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                              Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitNanos = maxWait.toNanos();
+        this.encodeDuration = hashTimer("encode", meterRegistry);
+        this.matchesDuration = hashTimer("matches", meterRegistry);
+        this.queueWait = Timer.builder("password.hash.queue.wait")
+                .description("Time password hashing waited for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return admit(encodeDuration, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return admit(matchesDuration, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T admit(Timer duration, Supplier<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return duration.record(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException();
+        }
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingOverloadedException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException){
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash.duration")
+                .description("Duration of password hashing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.model.attributes.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Фильтер для SecurityFilterChain.
+ * Ограничивает число одновременно выполняемых запросов к api адаптивным пределом AdaptiveConcurrencyLimiter.
+ * Стоит первым, до JwtAuthFilter, чтобы лишний запрос отклонялся с 503 до обращений к базе,
+ * а не ждал свободного соединения в потоке Tomcat.
+ * Вход и дешевые чтения получают весь предел, изменения - его большую часть, пакетные запросы - меньшую.
+ * Поток событий держит соединение долго и в пределе не учитывается.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+    private static final String STREAM_SUFFIX = "/stream";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+    private final boolean enabled;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${artur.concurrency-limit.enabled}") boolean enabled,
+                                  @Value("${artur.concurrency-limit.initial-limit}") int initialLimit,
+                                  @Value("${artur.concurrency-limit.min-limit}") int minLimit,
+                                  @Value("${artur.concurrency-limit.max-limit}") int maxLimit,
+                                  @Value("${artur.concurrency-limit.smoothing}") double smoothing,
+                                  @Value("${artur.concurrency-limit.tolerance}") double tolerance,
+                                  @Value("${artur.concurrency-limit.long-window}") int longWindow,
+                                  @Value("${artur.concurrency-limit.normal-share}") double normalShare,
+                                  @Value("${artur.concurrency-limit.low-share}") double lowShare) {
+        this.enabled = enabled;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, tolerance,
+                longWindow, normalShare, lowShare);
+        for (RequestPriority priority : RequestPriority.values()){
+            rejected.put(priority, Counter.builder("concurrency.limit.rejected")
+                    .description("Requests rejected by the concurrency limit")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent api requests")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Api requests in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith(API_PREFIX) || path.endsWith(STREAM_SUFFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = priority(request);
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(priority);
+        if (permit.isEmpty()){
+            rejected.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Server is overloaded, retry later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(permit.get());
+        }
+    }
+
+    /**
+     * Определяет приоритет запроса по группе эндпоинта.
+     */
+    static RequestPriority priority(HttpServletRequest request) {
+        return switch (RateLimitFilter.group(request)){
+            case AUTH, READS -> RequestPriority.CRITICAL;
+            case WRITES -> RequestPriority.NORMAL;
+            case BULK -> RequestPriority.LOW;
+        };
+    }
+}
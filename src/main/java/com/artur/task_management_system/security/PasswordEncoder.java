@@ -1,17 +1,27 @@
 package com.artur.task_management_system.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 
+import java.time.Duration;
+
 /**
  * Bean DelegatingPasswordEncoder реализущего интерфейс PasswordEncoder.
+ * Хеширование выполняется в ограниченном пуле AdmissionControlledPasswordEncoder.
  */
 @Configuration
 public class PasswordEncoder {
 
-    @Bean
-    public org.springframework.security.crypto.password.PasswordEncoder delegatingPasswordEncoder (){
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public org.springframework.security.crypto.password.PasswordEncoder delegatingPasswordEncoder (
+            MeterRegistry meterRegistry,
+            @Value("${artur.password-hashing.threads}") int threads,
+            @Value("${artur.password-hashing.queue-capacity}") int queueCapacity,
+            @Value("${artur.password-hashing.max-wait}") Duration maxWait){
+        return new AdmissionControlledPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+                threads, queueCapacity, maxWait, meterRegistry);
     }
 }
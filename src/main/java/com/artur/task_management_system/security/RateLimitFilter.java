@@ -0,0 +1,136 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.model.attributes.RateLimitGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтер для SecurityFilterChain.
+ * Ограничивает частоту запросов к api корзинами токенов: для аутентифицированных запросов по пользователю,
+ * для остальных по IP адресу. Для каждой группы эндпоинтов свои корзины и свои лимиты.
+ * Стоит после JwtAuthFilter, чтобы пользователь был уже известен, и до EnabledUserFilter,
+ * чтобы отклоненный запрос не обращался к базе. Отклоненный запрос получает 429 с заголовком Retry-After.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+    private static final String IP_KEY_PREFIX = "ip:";
+
+    private final Map<RateLimitGroup, TokenBucketRateLimiter> limiters = new EnumMap<>(RateLimitGroup.class);
+    private final Map<RateLimitGroup, Counter> rejected = new EnumMap<>(RateLimitGroup.class);
+    private final boolean enabled;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${artur.rate-limit.enabled}") boolean enabled,
+                           @Value("${artur.rate-limit.auth.capacity}") int authCapacity,
+                           @Value("${artur.rate-limit.auth.period}") Duration authPeriod,
+                           @Value("${artur.rate-limit.reads.capacity}") int readsCapacity,
+                           @Value("${artur.rate-limit.reads.period}") Duration readsPeriod,
+                           @Value("${artur.rate-limit.writes.capacity}") int writesCapacity,
+                           @Value("${artur.rate-limit.writes.period}") Duration writesPeriod,
+                           @Value("${artur.rate-limit.bulk.capacity}") int bulkCapacity,
+                           @Value("${artur.rate-limit.bulk.period}") Duration bulkPeriod) {
+        this.enabled = enabled;
+        limiters.put(RateLimitGroup.AUTH, new TokenBucketRateLimiter(authCapacity, authPeriod));
+        limiters.put(RateLimitGroup.READS, new TokenBucketRateLimiter(readsCapacity, readsPeriod));
+        limiters.put(RateLimitGroup.WRITES, new TokenBucketRateLimiter(writesCapacity, writesPeriod));
+        limiters.put(RateLimitGroup.BULK, new TokenBucketRateLimiter(bulkCapacity, bulkPeriod));
+        for (RateLimitGroup group : RateLimitGroup.values()){
+            rejected.put(group, Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected by rate limit")
+                    .tag("group", group.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("rate.limit.buckets", limiters,
+                        all -> all.values().stream().mapToInt(TokenBucketRateLimiter::size).sum())
+                .description("Rate limit buckets on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimitGroup group = group(request);
+        long waitNanos = limiters.get(group).tryAcquire(key(request), System.nanoTime());
+        if (waitNanos > 0){
+            rejected.get(group).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(String.format("Too many requests, retry after %d seconds", retryAfter));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Удаляет полные корзины, чтобы память занимали только недавно активные пользователи и адреса.
+     */
+    @Scheduled(fixedDelayString = "${artur.rate-limit.eviction-delay}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (TokenBucketRateLimiter limiter : limiters.values()){
+            evicted += limiter.evictIdle(now);
+        }
+        log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    /**
+     * Определяет группу эндпоинта по пути и методу запроса.
+     */
+    static RateLimitGroup group(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")){
+            return RateLimitGroup.AUTH;
+        }
+        if (path.startsWith("/api/batch") || path.startsWith("/api/analytics") || path.endsWith("/sync")
+                || request.getParameter("ids") != null){
+            return RateLimitGroup.BULK;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)){
+            return RateLimitGroup.READS;
+        }
+        return RateLimitGroup.WRITES;
+    }
+
+    private static String key(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()){
+            return authentication.getName();
+        }
+        return IP_KEY_PREFIX + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,75 @@
+package com.artur.task_management_system.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Набор корзин токенов по ключам.
+ *
+ * Корзина вмещает capacity токенов и полностью наполняется за period. Состояние корзины - одно число:
+ * момент, к которому она наполнится полностью, если больше не брать токены (алгоритм GCRA).
+ * Токен берется одной операцией compareAndSet без блокировок, а корзины хранятся в ConcurrentHashMap,
+ * поэтому проверка не блокирует запросы с другими ключами.
+ * Полная корзина ничем не отличается от новой, поэтому такие корзины можно удалять в любой момент.
+ * Если запрос успел получить корзину до ее удаления, его токен может не учесться, что для ограничения
+ * частоты допустимо.
+ */
+public class TokenBucketRateLimiter {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    public TokenBucketRateLimiter(int capacity, Duration period) {
+        if (capacity <= 0 || period.isNegative() || period.isZero()){
+            throw new IllegalStateException(String.format("Invalid rate limit %d per %s", capacity, period));
+        }
+        this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.toleranceNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Берет токен из корзины ключа.
+     *
+     * @param key ключ корзины
+     * @param nowNanos текущее время по System.nanoTime()
+     * @return 0, если токен взят, иначе время в наносекундах до появления токена
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null){
+            AtomicLong created = new AtomicLong(nowNanos);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null){
+                bucket = created;
+            }
+        }
+        while (true){
+            long full = bucket.get();
+            long next = (full - nowNanos > 0 ? full : nowNanos) + intervalNanos;
+            long waitNanos = next - nowNanos - toleranceNanos;
+            if (waitNanos > 0){
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(full, next)){
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удаляет полные корзины.
+     *
+     * @param nowNanos текущее время по System.nanoTime()
+     * @return количество удаленных корзин
+     */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        return Math.max(0, before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
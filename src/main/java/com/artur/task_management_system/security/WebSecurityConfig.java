@@ -1,10 +1,12 @@
 package com.artur.task_management_system.security;
 
 import com.artur.task_management_system.service.UserService;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -31,7 +33,9 @@ import java.util.List;
 public class WebSecurityConfig {
     private final PasswordEncoder passwordEncoder;
     private final UserService userService;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final EnabledUserFilter enabledUserFilter;
 
     @Bean
@@ -56,7 +60,9 @@ public class WebSecurityConfig {
                 .sessionManagement((httpSecuritySessionManagementConfigurer) -> httpSecuritySessionManagementConfigurer
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((requests) -> requests
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/jobs/*").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v*/api-docs/**").permitAll()
                         .anyRequest().authenticated()
@@ -65,7 +71,9 @@ public class WebSecurityConfig {
                         .configurationSource(corsConfigurationSource())
                 )
                 .authenticationProvider(daoAuthenticationProvider())
+                .addFilterBefore(concurrencyLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(enabledUserFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,72 @@
+package com.artur.task_management_system.security;
+
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+
+/**
+ * Проверка адресов webhook, защищающая от запросов сервера во внутреннюю сеть (SSRF).
+ *
+ * Хост адреса разрешается, и адрес отклоняется, если хотя бы один из полученных IP адресов не публичный:
+ * loopback, link-local (в том числе адреса метаданных облака), частные и site-local сети, unique local IPv6,
+ * сеть 0.0.0.0/8, общая сеть провайдеров 100.64.0.0/10 и multicast.
+ * Проверка выполняется при создании подписки и перед каждой доставкой, так как DNS запись хоста может
+ * измениться после создания подписки. HttpClient разрешает хост сам, но JVM кэширует результаты
+ * разрешения, поэтому запрос уходит на только что проверенные адреса.
+ */
+@Component
+public class WebhookUrlValidator {
+
+    /**
+     * Проверяет адрес webhook.
+     *
+     * @param url адрес webhook
+     * @return проверенный адрес
+     * @throws IllegalStateException если адрес некорректен, хост не разрешается или указывает на не публичный адрес
+     */
+    public URI validate(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException | NullPointerException e) {
+            throw new IllegalStateException("Webhook url is malformed");
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())
+                || uri.getHost() == null){
+            throw new IllegalStateException("Webhook url has to be absolute http(s) url");
+        }
+
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(uri.getHost());
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(String.format("Webhook url host %s can't be resolved", uri.getHost()));
+        }
+        for (InetAddress address : addresses){
+            if (!isPublic(address)){
+                throw new IllegalStateException(String.format(
+                        "Webhook url host %s resolves to not public address %s",
+                        uri.getHost(), address.getHostAddress()));
+            }
+        }
+        return uri;
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()){
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address){
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first != 0 && !(first == 100 && (second & 0xc0) == 64);
+        }
+        return (bytes[0] & 0xfe) != 0xfc;
+    }
+}
@@ -0,0 +1,49 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.BackgroundJob;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BackgroundJobService {
+    /**
+     * Создает задание. В транзакции задание запускается после ее фиксации, вне транзакции сразу.
+     *
+     * @param type тип задания, для которого зарегистрирован обработчик
+     * @param ownerId идентификатор пользователя, запросившего задание
+     * @param parameters параметры задания
+     * @return созданное задание
+     * @throws IllegalStateException если для типа нет обработчика
+     */
+    BackgroundJob submitJob(String type, Long ownerId, Map<String, Object> parameters);
+
+    /**
+     * Ищет незавершенное задание пользователя указанного типа.
+     *
+     * @param type тип задания
+     * @param ownerId идентификатор пользователя
+     * @return Optional задания, если оно есть
+     */
+    Optional<BackgroundJob> findUnfinishedJob(String type, Long ownerId);
+
+    /**
+     * Возвращает задание по его идентификатору.
+     *
+     * @param jobId идентификатор задания
+     * @return задание
+     * @throws com.artur.task_management_system.exception.EntityNotFoundByIdException если задание не найдено
+     */
+    BackgroundJob getJob(UUID jobId);
+
+    /**
+     * Запрашивает отмену задания текущего аутентифицированного пользователя. Выполняемое задание
+     * останавливается на ближайшей сохраненной позиции.
+     *
+     * @param jobId идентификатор задания
+     * @return задание
+     * @throws com.artur.task_management_system.exception.NoRightsException если задание создано другим пользователем
+     * @throws IllegalStateException если задание завершено или не может быть отменено
+     */
+    BackgroundJob cancelJob(UUID jobId);
+}
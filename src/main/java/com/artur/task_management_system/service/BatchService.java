@@ -0,0 +1,22 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.BatchOperationResultDTO;
+import com.artur.task_management_system.dto.BatchRequestDTO;
+
+import java.util.List;
+
+public interface BatchService {
+    /**
+     * Выполняет операции пакетного запроса по порядку от имени текущего пользователя.
+     *
+     * Операции отображаются на методы {@link TaskService} и {@link TaskCommentService}.
+     * Операция может сослаться на задачу, созданную или измененную одной из предыдущих операций, через taskRef.
+     * Если запрос атомарный, все операции выполняются в одной транзакции и откатываются при первой ошибке,
+     * иначе ошибка одной операции не влияет на остальные.
+     *
+     * @param batchRequest объект BatchRequestDTO, содержащий операции и режим выполнения
+     * @return результаты операций в порядке запроса
+     * @throws IllegalStateException если ref операций повторяются или taskRef ссылается не на предыдущую операцию
+     */
+    List<BatchOperationResultDTO> executeBatch(BatchRequestDTO batchRequest);
+}
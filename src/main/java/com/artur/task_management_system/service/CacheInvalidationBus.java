@@ -0,0 +1,33 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+
+import java.util.function.Supplier;
+
+public interface CacheInvalidationBus {
+    /**
+     * Версия, передаваемая для удаленной сущности.
+     */
+    int DELETED_VERSION = Integer.MAX_VALUE;
+
+    /**
+     * Уведомляет локальные кэши и остальные узлы об изменении сущности после фиксации текущей транзакции.
+     * Вне транзакции уведомляет сразу.
+     *
+     * @param entityType тип сущности
+     * @param id идентификатор сущности
+     * @param version версия сущности, вычисляется после фиксации
+     */
+    void publishAfterCommit(CacheEntityType entityType, Long id, Supplier<Integer> version);
+
+    /**
+     * Уведомляет об изменении сущности, как {@link #publishAfterCommit(CacheEntityType, Long, Supplier)},
+     * и передает прежнее значение ее натурального идентификатора, чтобы кэши удалили запись по этому значению.
+     *
+     * @param entityType тип сущности
+     * @param id идентификатор сущности
+     * @param version версия сущности, вычисляется после фиксации
+     * @param previousNaturalId натуральный идентификатор сущности до изменения
+     */
+    void publishAfterCommit(CacheEntityType entityType, Long id, Supplier<Integer> version, String previousNaturalId);
+}
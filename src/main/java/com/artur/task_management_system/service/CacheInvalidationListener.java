@@ -0,0 +1,38 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+
+public interface CacheInvalidationListener {
+    /**
+     * Удаляет из локального кэша записи измененной сущности.
+     *
+     * @param entityType тип сущности
+     * @param id идентификатор сущности
+     * @param version версия сущности после изменения или {@link CacheInvalidationBus#DELETED_VERSION}
+     */
+    void onInvalidation(CacheEntityType entityType, Long id, int version);
+
+    /**
+     * Удаляет из локального кэша записи по прежнему натуральному идентификатору сущности.
+     * Вызывается после {@link #onInvalidation} для изменения, изменившего натуральный идентификатор.
+     *
+     * @param entityType тип сущности
+     * @param id идентификатор сущности
+     * @param previousNaturalId натуральный идентификатор сущности до изменения
+     */
+    default void onNaturalIdChange(CacheEntityType entityType, Long id, String previousNaturalId) {
+    }
+
+    /**
+     * @return true, если слушатель получает только изменения, сделанные на других узлах
+     */
+    default boolean isRemoteOnly() {
+        return false;
+    }
+
+    /**
+     * Очищает локальный кэш полностью.
+     * Вызывается, когда уведомления об изменениях могли быть пропущены.
+     */
+    void onResync();
+}
@@ -21,9 +21,9 @@ public interface ConfirmationTokenService {
     Optional<ConfirmationToken> getToken(String token);
 
     /**
-     * Удаляет все токены подтверждения, связанные с определенным пользователем.
+     * Удаляет истекшие и подтвержденные токены порциями.
      *
-     * @param userId идентификатор пользователя, для которого нужно удалить токены
+     * @return количество удаленных токенов
      */
-    void deleteByUserId(Long userId);
+    int deleteStaleTokens();
 }
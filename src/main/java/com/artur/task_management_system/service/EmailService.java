@@ -1,5 +1,10 @@
 package com.artur.task_management_system.service;
 
+import com.artur.task_management_system.model.OverdueTaskNotice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface EmailService {
     /**
      * Отправляет письмо с подтверждением регистрации на указанный email.
@@ -12,4 +17,25 @@ public interface EmailService {
      * @throws IllegalStateException если произошла ошибка при отправке письма
      */
     void sendConfirmationEmail(String to, String name, String link);
+
+    /**
+     * Отправляет письмо с напоминанием о приближающемся сроке задачи.
+     *
+     * @param to адрес электронной почты получателя
+     * @param name имя получателя
+     * @param taskTitle название задачи
+     * @param deadLineDate срок задачи
+     * @throws IllegalStateException если произошла ошибка при отправке письма
+     */
+    void sendDeadlineReminderEmail(String to, String name, String taskTitle, LocalDateTime deadLineDate);
+
+    /**
+     * Отправляет автору одно письмо со списком его просроченных задач.
+     *
+     * @param to адрес электронной почты получателя
+     * @param name имя получателя
+     * @param tasks просроченные задачи
+     * @throws IllegalStateException если произошла ошибка при отправке письма
+     */
+    void sendOverdueDigestEmail(String to, String name, List<OverdueTaskNotice> tasks);
 }
@@ -0,0 +1,22 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.attributes.FirstPageEndpoint;
+
+import java.util.function.Supplier;
+
+public interface FirstPageCache {
+    /**
+     * Возвращает первую страницу списка задач из кэша с коротким временем жизни.
+     * Остальные страницы и страницы отключенных эндпоинтов загружаются без кэша.
+     *
+     * @param endpoint эндпоинт списка
+     * @param pageNumber номер страницы
+     * @param pageSize размер страницы
+     * @param field поле для сортировки
+     * @param directionStr направление сортировки
+     * @param pageLoader загрузка сериализованной страницы
+     * @return JSON страницы
+     */
+    byte[] getPage(FirstPageEndpoint endpoint, Integer pageNumber, Integer pageSize,
+                   String field, String directionStr, Supplier<byte[]> pageLoader);
+}
@@ -0,0 +1,30 @@
+package com.artur.task_management_system.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Сервис идемпотентного выполнения запросов по заголовку Idempotency-Key.
+ */
+public interface IdempotencyService {
+    /**
+     * Выполняет действие один раз для ключа текущего пользователя.
+     * Повтор с тем же ключом и тем же запросом получает сохраненный результат, а одновременный повтор
+     * ждет завершения первого запроса. Без ключа действие просто выполняется.
+     *
+     * @param idempotencyKey ключ из заголовка Idempotency-Key, может быть null
+     * @param operation операция, например метод и путь запроса
+     * @param request тело запроса
+     * @param responseType тип результата
+     * @param action действие
+     * @return результат действия или сохраненный результат
+     * @param <T> тип результата
+     */
+    <T> T execute(String idempotencyKey, String operation, Object request, Class<T> responseType, Supplier<T> action);
+
+    /**
+     * Удаляет истекшие ключи.
+     *
+     * @return количество удаленных ключей
+     */
+    int deleteExpiredKeys();
+}
@@ -0,0 +1,32 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.LoginBlockedException;
+
+/**
+ * Сервис учета неудачных попыток входа.
+ * После нескольких неудачных попыток вход для аккаунта или IP адреса откладывается на время,
+ * которое растет с каждой следующей неудачей.
+ */
+public interface LoginAttemptService {
+    /**
+     * Проверяет, можно ли сейчас выполнить вход в аккаунт с текущего адреса.
+     *
+     * @param email электронная почта аккаунта
+     * @throws LoginBlockedException если вход для аккаунта или адреса отложен
+     */
+    void checkAllowed(String email);
+
+    /**
+     * Учитывает неудачную попытку входа для аккаунта и текущего адреса.
+     *
+     * @param email электронная почта аккаунта
+     */
+    void loginFailed(String email);
+
+    /**
+     * Сбрасывает неудачные попытки аккаунта после успешного входа.
+     *
+     * @param email электронная почта аккаунта
+     */
+    void loginSucceeded(String email);
+}
@@ -0,0 +1,23 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.scheduling.JobShard;
+
+public interface OverdueTaskService {
+    /**
+     * Отмечает просроченными незавершенные задачи, срок которых прошел, и ставит их в очередь писем авторам.
+     * Задачи обрабатываются порциями в отдельных транзакциях в порядке (срок, id), начиная после последней
+     * обработанной позиции. Задачи, заблокированные другими транзакциями, пропускаются до следующего запуска.
+     *
+     * @param shard часть диапазона id задач
+     * @return количество отмеченных задач
+     */
+    int markOverdueTasks(JobShard shard);
+
+    /**
+     * Разбирает очередь писем: каждому автору отправляется одно письмо со всеми его задачами из очереди.
+     * Письма отправляются асинхронно.
+     *
+     * @return количество авторов, которым отправляются письма
+     */
+    int sendOverdueDigests();
+}
@@ -0,0 +1,28 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.SortFieldNotAllowedException;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Планировщик запросов с пагинацией.
+ * Допускает сортировку только по полям, для которых есть индекс.
+ */
+public interface PageablePlanner {
+    /**
+     * Создает объект Pageable на основе предоставленных параметров пагинации и сортировки.
+     * Поле сортировки проверяется по белому списку сущности, а в конец сортировки
+     * всегда добавляется id для стабильного порядка строк.
+     *
+     * @param entityClass класс сущности, для которой строится запрос
+     * @param pageNumber номер страницы для пагинации
+     * @param pageSize количество элементов на странице
+     * @param field поле для сортировки
+     * @param directionStr направление сортировки ("Asc" или "Desc")
+     * @return объект Pageable, готовый к использованию в запросах к репозиторию
+     * @throws IllegalStateException если параметры пагинации или направление сортировки некорректны
+     * @throws SortFieldNotAllowedException если сортировка по полю не разрешена
+     */
+    Pageable makePageable(Class<?> entityClass,
+                          Integer pageNumber, Integer pageSize,
+                          String field, String directionStr);
+}
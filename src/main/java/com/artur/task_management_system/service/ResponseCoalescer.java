@@ -0,0 +1,28 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+
+import java.util.function.Supplier;
+
+public interface ResponseCoalescer {
+    /**
+     * Загружает и сериализует в JSON ответ, общий для всех пользователей.
+     * Одновременные запросы с одинаковым ключом выполняют одну загрузку.
+     *
+     * @param key ключ запроса: эндпоинт и все параметры, влияющие на ответ
+     * @param responseLoader загрузка ответа
+     * @return JSON ответа
+     */
+    byte[] coalesce(String key, Supplier<?> responseLoader);
+
+    /**
+     * Загружает и сериализует в JSON ответ, зависящий от текущего пользователя.
+     * Одновременные запросы одного пользователя с одинаковым ключом выполняют одну загрузку.
+     *
+     * @param key ключ запроса: эндпоинт и все параметры, влияющие на ответ
+     * @param responseLoader загрузка ответа
+     * @return JSON ответа
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    byte[] coalesceForLoggedInUser(String key, Supplier<?> responseLoader);
+}
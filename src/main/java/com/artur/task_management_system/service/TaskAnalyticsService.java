@@ -0,0 +1,33 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.StatusTimeReport;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.attributes.StatusTimeGroupBy;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public interface TaskAnalyticsService {
+    /**
+     * Записывает переход задачи в текущий статус и запоминает время входа в него.
+     * Должен вызываться в транзакции изменения задачи после установки нового статуса.
+     * Для новой задачи (previousStatus равен null) только запоминает время входа в статус.
+     *
+     * @param task задача с новым статусом
+     * @param previousStatus статус задачи до изменения
+     * @param actorId идентификатор пользователя, изменившего статус
+     */
+    void recordStatusChange(Task task, TaskStatus previousStatus, Long actorId);
+
+    /**
+     * Считает перцентили времени в каждом статусе и времени от создания до завершения
+     * по переходам за период [from, to). Время в статусе относится к пользователю, который вывел задачу из статуса.
+     *
+     * @param from начало периода
+     * @param to конец периода, не включается
+     * @param groupBy группировка по приоритету задачи или по пользователю
+     * @return отчет по группам
+     * @throws IllegalStateException если период пустой или длиннее допустимого
+     */
+    StatusTimeReport getStatusTimeReport(LocalDateTime from, LocalDateTime to, StatusTimeGroupBy groupBy);
+}
@@ -0,0 +1,48 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TaskEventService {
+    /**
+     * Записывает событие задачи в outbox.
+     * Должен вызываться в транзакции, изменяющей задачу: событие будет опубликовано только после ее фиксации.
+     *
+     * @param type тип события
+     * @param task задача, с которой произошло событие
+     * @param actorId идентификатор пользователя, выполнившего действие
+     * @param details поля, специфичные для типа события
+     */
+    void raise(TaskEventType type, Task task, Long actorId, Map<String, Object> details);
+
+    /**
+     * Публикует подписчикам одну порцию неопубликованных событий.
+     * Если события публикует другой узел, ничего не делает.
+     *
+     * @return количество опубликованных событий
+     */
+    int relayPendingEvents();
+
+    /**
+     * Возвращает события после позиции (txid, id) в порядке публикации, включая уже опубликованные.
+     * Возвращаются только события транзакций, которые старше всех еще не завершенных транзакций.
+     *
+     * @param txid txid позиции
+     * @param id идентификатор события позиции
+     * @param limit максимальное количество событий
+     * @return события после позиции
+     */
+    List<TaskEvent> getEventsAfter(long txid, long id, int limit);
+
+    /**
+     * Возвращает последнее событие в порядке публикации среди событий завершенных транзакций.
+     *
+     * @return последнее событие или пустой Optional, если событий нет
+     */
+    Optional<TaskEvent> getLastEvent();
+}
@@ -0,0 +1,19 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TaskEventStreamService {
+    /**
+     * Открывает поток событий задач, созданных текущим пользователем или назначенных ему.
+     *
+     * Идентификатор каждого события - его позиция в потоке. Если передан идентификатор последнего полученного
+     * события, сначала отправляются пропущенные события. Если их слишком много или клиент не успевает
+     * получать события, отправляется событие RESYNC: клиент должен заново загрузить списки задач.
+     *
+     * @param lastEventId идентификатор последнего полученного события или null
+     * @return поток событий
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    SseEmitter subscribe(String lastEventId);
+}
@@ -0,0 +1,21 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.TaskEvent;
+
+import java.util.List;
+
+/**
+ * Подписчик на события задач. Все бины, реализующие интерфейс, получают каждую порцию событий.
+ *
+ * Порция передается в порядке публикации внутри транзакции публикации, поэтому обработка должна быть быстрой
+ * (например, постановка в очередь). Исключение откатывает публикацию, и порция будет доставлена
+ * всем подписчикам повторно, поэтому обработка должна быть идемпотентной по идентификатору события.
+ */
+public interface TaskEventSubscriber {
+    /**
+     * Обрабатывает порцию событий.
+     *
+     * @param events события в порядке публикации
+     */
+    void onTaskEvents(List<TaskEvent> events);
+}
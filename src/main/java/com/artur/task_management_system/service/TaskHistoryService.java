@@ -0,0 +1,46 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskHistoryEntry;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+public interface TaskHistoryService {
+    /**
+     * Снимок отслеживаемых полей задачи для последующего сравнения.
+     *
+     * @param task задача
+     * @return значения полей задачи
+     */
+    Map<String, Object> snapshot(Task task);
+
+    /**
+     * Записывает в историю поля задачи, изменившиеся относительно снимка.
+     * Запись ставится в очередь после фиксации текущей транзакции и не выполняет запросов в потоке вызова.
+     * Изменение без отличий от снимка не записывается. Для удаления задачи все поля снимка записываются как удаленные.
+     *
+     * @param type тип изменения
+     * @param task задача после изменения
+     * @param actorId идентификатор пользователя, выполнившего изменение
+     * @param before снимок задачи до изменения, пустой для новой задачи
+     * @param details дополнительные изменения, не входящие в снимок (например, добавленный комментарий)
+     */
+    void recordChange(TaskEventType type, Task task, Long actorId,
+                      Map<String, Object> before, Map<String, Object> details);
+
+    /**
+     * Возвращает страницу истории задачи, новые изменения первыми.
+     * Записи упорядочены по времени изменения, а не по идентификатору: повторенные после ошибки
+     * и синхронно записанные изменения получают идентификатор позже более новых.
+     *
+     * @param taskId идентификатор задачи
+     * @param pageNumber номер страницы
+     * @param pageSize количество элементов на странице
+     * @return страница записей истории
+     * @throws EntityNotFoundByIdException если у задачи нет истории и задача не существует
+     */
+    Page<TaskHistoryEntry> getTaskHistory(Long taskId, Integer pageNumber, Integer pageSize);
+}
@@ -0,0 +1,57 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.Task;
+
+import java.util.List;
+
+public interface TaskReminderService {
+    /**
+     * Пересоздает напоминания задачи по ее сроку для автора и исполнителей с учетом их настроек.
+     * Для завершенной задачи напоминания удаляются. Вызывается в транзакции изменения задачи,
+     * таймеры обновляются после ее фиксации.
+     *
+     * @param task сохраненная задача
+     */
+    void syncReminders(Task task);
+
+    /**
+     * Удаляет напоминания задачи. Вызывается в транзакции удаления задачи.
+     *
+     * @param task удаляемая задача
+     */
+    void cancelReminders(Task task);
+
+    /**
+     * Возвращает, за сколько минут до срока задачи текущий пользователь получает напоминания.
+     *
+     * @return смещения в минутах по убыванию
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    List<Integer> getMyReminderOffsets();
+
+    /**
+     * Изменяет настройки напоминаний текущего пользователя.
+     * Новые настройки применяются к задачам при их следующем изменении.
+     *
+     * @param offsetsMinutes смещения в минутах
+     * @return сохраненные смещения без повторов по убыванию
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    List<Integer> updateMyReminderOffsets(List<Integer> offsetsMinutes);
+
+    /**
+     * Загружает в колесо таймеров напоминания, срабатывающие в пределах окна загрузки,
+     * включая пропущенные во время простоя узла.
+     *
+     * @return количество загруженных напоминаний
+     */
+    int loadUpcomingReminders();
+
+    /**
+     * Продвигает колесо таймеров и асинхронно отправляет письма по сработавшим напоминаниям.
+     *
+     * @return количество сработавших таймеров
+     */
+    int fireDueReminders();
+}
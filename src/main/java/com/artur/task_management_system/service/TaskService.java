@@ -3,12 +3,16 @@ package com.artur.task_management_system.service;
 import com.artur.task_management_system.dto.TaskCreationDTO;
 import com.artur.task_management_system.exception.EntityNotFoundByIdException;
 import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.model.BatchLookupResponse;
+import com.artur.task_management_system.model.KeysetPageResponse;
 import com.artur.task_management_system.model.Task;
 import com.artur.task_management_system.model.TaskComment;
 import com.artur.task_management_system.model.attributes.TaskStatus;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface TaskService {
     /**
      * Возвращает страницу задач с учетом пагинации и сортировки.
@@ -31,6 +35,16 @@ public interface TaskService {
      */
     Task getTaskById(Long taskId);
 
+    /**
+     * Возвращает задачи по списку идентификаторов одним запросом.
+     * Ненайденные идентификаторы возвращаются в ответе и не приводят к ошибке.
+     *
+     * @param taskIds идентификаторы задач
+     * @return объект BatchLookupResponse, содержащий найденные задачи и ненайденные идентификаторы
+     * @throws IllegalStateException если список пуст или превышает допустимый размер
+     */
+    BatchLookupResponse<Task> getTasksByIds(List<Long> taskIds);
+
     /**
      * Удаляет задачу по ее идентификатору.
      *
@@ -56,6 +70,7 @@ public interface TaskService {
      * @param taskDTO объект DTO с новыми данными для задачи
      * @throws NoRightsException если текущий пользователь не имеет прав на обновление задачи
      */
+    @Transactional
     void updateTask(Long taskId, TaskCreationDTO taskDTO);
 
     /**
@@ -82,6 +97,17 @@ public interface TaskService {
     Page<Task> getAssignedTasks(Integer pageNumber, Integer pageSize,
                                        String field, String directionStr);
 
+    /**
+     * Возвращает страницу "входящих" задач текущего пользователя: созданных им и назначенных ему.
+     * Задачи упорядочены по сроку выполнения, приоритету и идентификатору, пагинация по курсору.
+     *
+     * @param cursor курсор, полученный с предыдущей страницы, или null для первой страницы
+     * @param pageSize количество элементов на странице
+     * @return объект KeysetPageResponse, содержащий задачи и курсор следующей страницы
+     * @throws IllegalStateException если размер страницы или курсор некорректны
+     */
+    KeysetPageResponse<Task> getInboxTasks(String cursor, Integer pageSize);
+
     /**
      * Возвращает страницу задач определенного автора с учетом пагинации и сортировки.
      *
@@ -117,6 +143,7 @@ public interface TaskService {
      * @param status новый статус задачи
      * @throws NoRightsException если текущий пользователь не имеет прав на обновление статуса задачи
      */
+    @Transactional
     void updateTaskStatus(Long taskId, TaskStatus status);
 
     /**
@@ -135,5 +162,6 @@ public interface TaskService {
      * @param taskId идентификатор задачи
      * @param taskComment объект комментария
      */
+    @Transactional
     void commentTask(Long taskId, TaskComment taskComment);
 }
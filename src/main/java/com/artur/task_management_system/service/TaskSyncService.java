@@ -0,0 +1,38 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.SyncResponse;
+import com.artur.task_management_system.model.Task;
+
+public interface TaskSyncService {
+    /**
+     * Записывает изменение задачи для синхронизации.
+     * Должен вызываться в транзакции, изменяющей задачу.
+     *
+     * @param task измененная задача
+     */
+    void recordChange(Task task);
+
+    /**
+     * Записывает удаление задачи для синхронизации.
+     * Должен вызываться в транзакции, удаляющей задачу.
+     *
+     * @param task удаляемая задача
+     */
+    void recordDeletion(Task task);
+
+    /**
+     * Возвращает порцию изменений задач, видимых текущему пользователю, после токена синхронизации.
+     *
+     * Видимы задачи, созданные пользователем или назначенные ему. Удаленные задачи и задачи, с которых пользователь
+     * снят, возвращаются как удаленные только тем, кто видел их до удаления или снятия.
+     * Без токена возвращаются все видимые задачи без удаленных.
+     *
+     * @param syncToken токен из предыдущего ответа или null для первой синхронизации
+     * @param limit максимальное количество изменений в порции
+     * @return объект SyncResponse, содержащий измененные задачи, идентификаторы удаленных задач и новый токен
+     * @throws IllegalStateException если токен или размер порции некорректны
+     * @throws UnauthenticatedException если текущий пользователь не аутентифицирован
+     */
+    SyncResponse<Task> getChanges(String syncToken, Integer limit);
+}
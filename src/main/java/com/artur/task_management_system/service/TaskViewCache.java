@@ -0,0 +1,16 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+
+public interface TaskViewCache {
+    /**
+     * Возвращает представление задачи, сериализованное в JSON.
+     * При отсутствии в кэше задача загружается из базы данных и помещается в кэш.
+     *
+     * @param taskId идентификатор задачи
+     * @return JSON представления задачи
+     * @throws EntityNotFoundByIdException если задача не найдена
+     */
+    byte[] getTaskView(Long taskId);
+
+}
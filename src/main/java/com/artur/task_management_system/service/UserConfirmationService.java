@@ -48,6 +48,8 @@ public interface UserConfirmationService {
      * @throws LockedException если учетная запись пользователя заблокирована
      * @throws AccountExpiredException если срок действия учетной записи пользователя истек
      * @throws CredentialsExpiredException если срок действия учетных данных пользователя истек
+     * @throws LoginBlockedException если вход отложен после неудачных попыток
+     * @throws PasswordHashingOverloadedException если сервер перегружен проверкой паролей
      */
     AuthenticationResponse authenticate(AuthenticationRequest request);
 
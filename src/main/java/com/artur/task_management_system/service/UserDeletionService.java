@@ -0,0 +1,14 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.BackgroundJob;
+
+public interface UserDeletionService {
+    /**
+     * Запрашивает удаление текущего аутентифицированного пользователя.
+     * Пользователь сразу отключается, а его данные удаляются длительным заданием порциями. Повторный запрос
+     * до завершения удаления возвращает уже созданное задание.
+     *
+     * @return задание удаления
+     */
+    BackgroundJob requestLoggedInUserDeletion();
+}
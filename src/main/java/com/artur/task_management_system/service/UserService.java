@@ -3,12 +3,13 @@ package com.artur.task_management_system.service;
 import com.artur.task_management_system.exception.EmailTakenException;
 import com.artur.task_management_system.exception.EntityNotFoundByIdException;
 import com.artur.task_management_system.exception.UserNotFoundByEmailException;
+import com.artur.task_management_system.model.BatchLookupResponse;
 import com.artur.task_management_system.model.ConfirmationToken;
 import com.artur.task_management_system.model.User;
-import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -48,10 +49,14 @@ public interface UserService extends UserDetailsService {
     User getUserById(Long userId);
 
     /**
-     * Удаляет текущего аутентифицированного пользователя из системы.
+     * Возвращает пользователей по списку идентификаторов одним запросом.
+     * Ненайденные идентификаторы возвращаются в ответе и не приводят к ошибке.
+     *
+     * @param userIds идентификаторы пользователей
+     * @return объект BatchLookupResponse, содержащий найденных пользователей и ненайденные идентификаторы
+     * @throws IllegalStateException если список пуст или превышает допустимый размер
      */
-    @Transactional
-    void deleteLoggedInUser();
+    BatchLookupResponse<User> getUsersByIds(List<Long> userIds);
 
     /**
      * Добавляет нового пользователя в систему.
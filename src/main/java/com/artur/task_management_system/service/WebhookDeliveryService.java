@@ -0,0 +1,12 @@
+package com.artur.task_management_system.service;
+
+public interface WebhookDeliveryService {
+    /**
+     * Доставляет одну порцию событий, время попытки которых наступило.
+     * События группируются по подпискам и отправляются пачками, один запрос на пачку.
+     * Метод возвращает управление после завершения всех запросов порции.
+     *
+     * @return количество событий, взятых в доставку
+     */
+    int deliverDueEvents();
+}
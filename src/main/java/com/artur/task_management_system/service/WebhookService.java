@@ -0,0 +1,59 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.WebhookSubscriptionCreationDTO;
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookSubscription;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public interface WebhookService {
+    /**
+     * Создает подписку текущего пользователя со сгенерированным секретом подписи.
+     *
+     * @param subscriptionDTO параметры подписки
+     * @return созданная подписка
+     * @throws IllegalStateException если у пользователя уже максимальное количество подписок
+     */
+    WebhookSubscription addSubscription(WebhookSubscriptionCreationDTO subscriptionDTO);
+
+    /**
+     * Возвращает подписки текущего пользователя.
+     *
+     * @return подписки текущего пользователя
+     */
+    List<WebhookSubscription> getMySubscriptions();
+
+    /**
+     * Удаляет подписку текущего пользователя вместе с ожидающими и недоставленными событиями.
+     *
+     * @param subscriptionId идентификатор подписки
+     * @throws EntityNotFoundByIdException если подписка не найдена
+     * @throws NoRightsException если подписка принадлежит другому пользователю
+     */
+    void deleteSubscription(Long subscriptionId);
+
+    /**
+     * Возвращает страницу событий, которые не удалось доставить по подписке.
+     *
+     * @param subscriptionId идентификатор подписки
+     * @param pageNumber номер страницы
+     * @param pageSize количество элементов на странице
+     * @return страница недоставленных событий в порядке отказа
+     * @throws EntityNotFoundByIdException если подписка не найдена
+     * @throws NoRightsException если подписка принадлежит другому пользователю
+     */
+    Page<WebhookDeadLetter> getDeadLetters(Long subscriptionId, Integer pageNumber, Integer pageSize);
+
+    /**
+     * Возвращает недоставленные события подписки в очередь доставки.
+     *
+     * @param subscriptionId идентификатор подписки
+     * @return количество событий, поставленных в очередь
+     * @throws EntityNotFoundByIdException если подписка не найдена
+     * @throws NoRightsException если подписка принадлежит другому пользователю
+     */
+    int redeliverDeadLetters(Long subscriptionId);
+}
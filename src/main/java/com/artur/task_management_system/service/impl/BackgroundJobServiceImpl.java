@@ -0,0 +1,372 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.BackgroundJobStatus;
+import com.artur.task_management_system.repository.BackgroundJobRepository;
+import com.artur.task_management_system.scheduling.BackgroundJobContext;
+import com.artur.task_management_system.scheduling.BackgroundJobHandler;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.BackgroundJobService;
+import com.artur.task_management_system.service.TransactionCallbacks;
+import com.artur.task_management_system.service.UserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Сервис длительных заданий.
+ *
+ * Задания хранятся в background_job_table и выполняются виртуальными потоками, число одновременно
+ * выполняемых заданий на узле ограничено. Задание выполняется под блокировкой ClusterJobRunner,
+ * поэтому одновременно его выполняет только один узел. Незавершенные задания периодически запускаются
+ * заново: так продолжаются задания, прерванные остановкой узла, и задания, не дождавшиеся свободного места.
+ * Задание, завершившееся исключением, возвращается в PENDING и запускается заново с последней сохраненной
+ * позиции не раньше, чем через initialBackoff * 2^(попытка - 1), но не больше maxBackoff.
+ * После maxAttempts неудачных попыток задание отмечается FAILED.
+ */
+@Slf4j
+@Service
+public class BackgroundJobServiceImpl implements BackgroundJobService {
+    private static final String CLEANUP_JOB = "background-jobs-cleanup";
+    private static final List<BackgroundJobStatus> UNFINISHED = List.of(BackgroundJobStatus.PENDING,
+            BackgroundJobStatus.RUNNING);
+    private static final List<BackgroundJobStatus> FINISHED = List.of(BackgroundJobStatus.COMPLETED,
+            BackgroundJobStatus.CANCELLED, BackgroundJobStatus.FAILED);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ObjectProvider<BackgroundJobHandler> handlers;
+    private final UserService userService;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore workers;
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    public BackgroundJobServiceImpl(BackgroundJobRepository backgroundJobRepository,
+                                    ObjectProvider<BackgroundJobHandler> handlers,
+                                    UserService userService,
+                                    ClusterJobRunner clusterJobRunner,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${artur.background-jobs.max-concurrent}") int maxConcurrent,
+                                    @Value("${artur.background-jobs.max-attempts}") int maxAttempts,
+                                    @Value("${artur.background-jobs.initial-backoff}") Duration initialBackoff,
+                                    @Value("${artur.background-jobs.max-backoff}") Duration maxBackoff,
+                                    @Value("${artur.background-jobs.retention}") Duration retention) {
+        this.backgroundJobRepository = backgroundJobRepository;
+        this.handlers = handlers;
+        this.userService = userService;
+        this.clusterJobRunner = clusterJobRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = new Semaphore(maxConcurrent);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        Gauge.builder("background.jobs.active", activeJobs, Set::size)
+                .description("Background jobs running or waiting for a worker on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public BackgroundJob submitJob(String type, Long ownerId, Map<String, Object> parameters) {
+        getHandler(type);
+        BackgroundJob job = new BackgroundJob();
+        job.setId(UUID.randomUUID());
+        job.setType(type);
+        job.setOwnerId(ownerId);
+        job.setStatus(BackgroundJobStatus.PENDING);
+        job.setParameters(new HashMap<>(parameters));
+        job.setCreatedAt(LocalDateTime.now());
+        BackgroundJob saved = backgroundJobRepository.save(job);
+        TransactionCallbacks.afterCommit(() -> start(saved.getId(), type));
+        return saved;
+    }
+
+    @Override
+    public Optional<BackgroundJob> findUnfinishedJob(String type, Long ownerId) {
+        return backgroundJobRepository.findFirstByTypeAndOwnerIdAndStatusIn(type, ownerId, UNFINISHED);
+    }
+
+    @Override
+    public BackgroundJob getJob(UUID jobId) {
+        return backgroundJobRepository.findById(jobId)
+                .orElseThrow(() -> new EntityNotFoundByIdException("job", jobId));
+    }
+
+    @Override
+    public BackgroundJob cancelJob(UUID jobId) {
+        User loggedInUser = getLoggedInUser();
+        return transactionTemplate.execute(status -> {
+            BackgroundJob job = getJob(jobId);
+            if (!Objects.equals(job.getOwnerId(), loggedInUser.getId())){
+                throw new NoRightsException("You have no rights to cancel not yours job");
+            }
+            if (!UNFINISHED.contains(job.getStatus())){
+                throw new IllegalStateException(String.format("Job %s is already finished", jobId));
+            }
+            if (!getHandler(job.getType()).isCancellable()){
+                throw new IllegalStateException(String.format("Job of type %s can't be cancelled", job.getType()));
+            }
+            job.setCancelRequested(true);
+            if (job.getStatus() == BackgroundJobStatus.PENDING){
+                job.setStatus(BackgroundJobStatus.CANCELLED);
+                job.setFinishedAt(LocalDateTime.now());
+            }
+            return backgroundJobRepository.save(job);
+        });
+    }
+
+    /**
+     * Запускает незавершенные задания, которые не выполняются на этом узле и не ждут повторной попытки.
+     */
+    @Scheduled(fixedDelayString = "${artur.background-jobs.resume-delay}")
+    public void resumeJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (BackgroundJob job : backgroundJobRepository.findAllByStatusIn(UNFINISHED)){
+            if (isDue(job, now)){
+                start(job.getId(), job.getType());
+            }
+        }
+    }
+
+    /**
+     * Удаляет завершенные задания старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${artur.background-jobs.cleanup-delay}")
+    public void deleteFinishedJobs() {
+        clusterJobRunner.runExclusive(CLEANUP_JOB, () -> transactionTemplate.executeWithoutResult(status ->
+                backgroundJobRepository.deleteFinishedBefore(FINISHED, LocalDateTime.now().minus(retention))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void start(UUID jobId, String type) {
+        if (!activeJobs.add(jobId)){
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                workers.acquire();
+                try {
+                    clusterJobRunner.runExclusive(type, jobId.toString(), () -> execute(jobId));
+                } finally {
+                    workers.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    private void execute(UUID jobId) {
+        BackgroundJob job = transactionTemplate.execute(status -> {
+            BackgroundJob current = getJob(jobId);
+            if (!UNFINISHED.contains(current.getStatus()) || !isDue(current, LocalDateTime.now())){
+                return null;
+            }
+            if (current.isCancelRequested()){
+                finish(current, BackgroundJobStatus.CANCELLED, null);
+                return null;
+            }
+            current.setStatus(BackgroundJobStatus.RUNNING);
+            if (current.getStartedAt() == null){
+                current.setStartedAt(LocalDateTime.now());
+            }
+            current.setUpdatedAt(LocalDateTime.now());
+            return backgroundJobRepository.save(current);
+        });
+        if (job == null){
+            return;
+        }
+        Context context = new Context(job);
+        try {
+            getHandler(job.getType()).run(context);
+        } catch (RuntimeException e) {
+            if (!fail(jobId, e)){
+                throw e;
+            }
+            return;
+        }
+        complete(jobId, context.cancelled ? BackgroundJobStatus.CANCELLED : BackgroundJobStatus.COMPLETED, null);
+    }
+
+    private void complete(UUID jobId, BackgroundJobStatus status, String error) {
+        transactionTemplate.executeWithoutResult(transaction -> finish(getJob(jobId), status, error));
+    }
+
+    /**
+     * Записывает неудачную попытку. Задание с оставшимися попытками возвращается в PENDING
+     * до времени повторной попытки, иначе отмечается FAILED.
+     *
+     * @return true, если задание будет запущено заново
+     */
+    private boolean fail(UUID jobId, RuntimeException e) {
+        String error = String.valueOf(e);
+        String trimmed = error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        Boolean retry = transactionTemplate.execute(status -> {
+            BackgroundJob job = getJob(jobId);
+            job.setAttempts(job.getAttempts() + 1);
+            if (job.getAttempts() >= maxAttempts){
+                finish(job, BackgroundJobStatus.FAILED, trimmed);
+                return false;
+            }
+            job.setStatus(BackgroundJobStatus.PENDING);
+            job.setError(trimmed);
+            job.setUpdatedAt(LocalDateTime.now());
+            job.setNextAttemptAt(job.getUpdatedAt().plus(backoff(job.getAttempts())));
+            backgroundJobRepository.save(job);
+            log.warn("Job {} failed on attempt {}, retrying at {}", jobId, job.getAttempts(),
+                    job.getNextAttemptAt(), e);
+            return true;
+        });
+        return Boolean.TRUE.equals(retry);
+    }
+
+    /**
+     * Задержка перед попыткой: initialBackoff * 2^(attempts - 1), не больше maxBackoff.
+     */
+    private Duration backoff(int attempts) {
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(delay, maxBackoff.toMillis()));
+    }
+
+    private static boolean isDue(BackgroundJob job, LocalDateTime now) {
+        return job.getNextAttemptAt() == null || !job.getNextAttemptAt().isAfter(now);
+    }
+
+    private void finish(BackgroundJob job, BackgroundJobStatus status, String error) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        backgroundJobRepository.save(job);
+    }
+
+    private BackgroundJobHandler getHandler(String type) {
+        return handlers.orderedStream()
+                .filter(handler -> handler.getType().equals(type))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(String.format("Unknown job type %s", type)));
+    }
+
+    /**
+     * Возвращает текущего аутентифицированного пользователя.
+     *
+     * @return объект User, представляющий текущего аутентифицированного пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+
+    private class Context implements BackgroundJobContext {
+        private final BackgroundJob job;
+        private Map<String, Object> checkpoint;
+        private boolean cancelled;
+
+        private Context(BackgroundJob job) {
+            this.job = job;
+            this.checkpoint = Map.copyOf(job.getCheckpoint());
+        }
+
+        @Override
+        public UUID getJobId() {
+            return job.getId();
+        }
+
+        @Override
+        public Long getOwnerId() {
+            return job.getOwnerId();
+        }
+
+        @Override
+        public Map<String, Object> getParameters() {
+            return Map.copyOf(job.getParameters());
+        }
+
+        @Override
+        public Map<String, Object> getCheckpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public void setTotal(long total) {
+            update(current -> current.setTotal(total));
+        }
+
+        @Override
+        public void checkpoint(Map<String, Object> checkpoint, long processed) {
+            update(current -> {
+                current.setCheckpoint(new HashMap<>(checkpoint));
+                current.setProcessed(current.getProcessed() + processed);
+            });
+            this.checkpoint = Map.copyOf(checkpoint);
+        }
+
+        @Override
+        public boolean isCancellationRequested() {
+            if (!cancelled){
+                cancelled = backgroundJobRepository.isCancelRequested(job.getId());
+            }
+            return cancelled;
+        }
+
+        private void update(Consumer<BackgroundJob> change) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()){
+                apply(change);
+            }else{
+                transactionTemplate.executeWithoutResult(status -> apply(change));
+            }
+        }
+
+        private void apply(Consumer<BackgroundJob> change) {
+            BackgroundJob current = getJob(job.getId());
+            change.accept(current);
+            current.setUpdatedAt(LocalDateTime.now());
+            backgroundJobRepository.save(current);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.dto.BatchOperationDTO;
+import com.artur.task_management_system.dto.BatchOperationResultDTO;
+import com.artur.task_management_system.dto.BatchRequestDTO;
+import com.artur.task_management_system.exception.*;
+import com.artur.task_management_system.model.TaskComment;
+import com.artur.task_management_system.model.attributes.BatchOperationType;
+import com.artur.task_management_system.service.BatchService;
+import com.artur.task_management_system.service.TaskCommentService;
+import com.artur.task_management_system.service.TaskService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис для выполнения пакетных запросов.
+ */
+@Service
+@AllArgsConstructor
+public class BatchServiceImpl implements BatchService {
+    private final TaskService taskService;
+    private final TaskCommentService taskCommentService;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+
+    @Override
+    public List<BatchOperationResultDTO> executeBatch(BatchRequestDTO batchRequest) {
+        List<BatchOperationDTO> operations = batchRequest.getOperations();
+        checkRefs(operations);
+
+        if (batchRequest.isAtomic()){
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            return transactionTemplate.execute(status -> {
+                List<BatchOperationResultDTO> results = executeOperations(operations, true);
+                if (results.stream().anyMatch(result -> result.getError() != null)){
+                    status.setRollbackOnly();
+                }
+                return results;
+            });
+        }
+        return executeOperations(operations, false);
+    }
+
+    /**
+     * Выполняет операции по порядку.
+     * В атомарном режиме после первой ошибки остальные операции пропускаются,
+     * а результаты уже выполненных помечаются как откаченные.
+     *
+     * @param operations операции пакетного запроса
+     * @param atomic выполняются ли операции в одной транзакции
+     * @return результаты операций в порядке запроса
+     */
+    private List<BatchOperationResultDTO> executeOperations(List<BatchOperationDTO> operations, boolean atomic) {
+        Map<String, Long> refIds = new HashMap<>();
+        List<BatchOperationResultDTO> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++){
+            BatchOperationDTO operation = operations.get(i);
+            BatchOperationResultDTO result = executeOperation(operation, refIds);
+            results.add(result);
+
+            if (atomic && result.getError() != null){
+                String rolledBackMsg = String.format("Rolled back because operation %d failed", i);
+                for (BatchOperationResultDTO executed : results.subList(0, i)){
+                    executed.setStatus(HttpStatus.FAILED_DEPENDENCY.value());
+                    executed.setId(null);
+                    executed.setError(rolledBackMsg);
+                }
+                String skippedMsg = String.format("Skipped because operation %d failed", i);
+                for (BatchOperationDTO skipped : operations.subList(i + 1, operations.size())){
+                    results.add(new BatchOperationResultDTO(skipped.getRef(), skipped.getOperation(),
+                            HttpStatus.FAILED_DEPENDENCY.value(), null, skippedMsg));
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Выполняет одну операцию и перехватывает ее ошибку в результат.
+     *
+     * @param operation операция пакетного запроса
+     * @param refIds идентификаторы, полученные успешными операциями с ref
+     * @return результат операции
+     */
+    private BatchOperationResultDTO executeOperation(BatchOperationDTO operation, Map<String, Long> refIds) {
+        BatchOperationResultDTO result = new BatchOperationResultDTO();
+        result.setRef(operation.getRef());
+        result.setOperation(operation.getOperation());
+
+        Long taskId = operation.getTaskId();
+        if (operation.getTaskRef() != null){
+            taskId = refIds.get(operation.getTaskRef());
+            if (taskId == null){
+                result.setStatus(HttpStatus.FAILED_DEPENDENCY.value());
+                result.setError(String.format("Operation %s failed", operation.getTaskRef()));
+                return result;
+            }
+        }
+
+        try {
+            Long id = switch (operation.getOperation()) {
+                case CREATE_TASK -> taskService.addTask(validated(operation.getTask(), "task"));
+                case UPDATE_TASK -> {
+                    taskService.updateTask(required(taskId, "taskId"), validated(operation.getTask(), "task"));
+                    yield taskId;
+                }
+                case UPDATE_TASK_STATUS -> {
+                    taskService.updateTaskStatus(required(taskId, "taskId"), required(operation.getStatus(), "status"));
+                    yield taskId;
+                }
+                case ASSIGN_TASK_PERFORMER -> {
+                    taskService.assignTaskPerformer(required(taskId, "taskId"),
+                            required(operation.getPerformerId(), "performerId"));
+                    yield taskId;
+                }
+                case COMMENT_TASK -> {
+                    required(taskId, "taskId");
+                    TaskComment taskComment = taskCommentService.addTaskComment(
+                            validated(operation.getComment(), "comment"));
+                    taskService.commentTask(taskId, taskComment);
+                    yield taskComment.getId();
+                }
+                case DELETE_TASK -> {
+                    taskService.deleteTaskById(required(taskId, "taskId"));
+                    yield taskId;
+                }
+            };
+
+            result.setStatus(HttpStatus.OK.value());
+            result.setId(id);
+            if (operation.getRef() != null){
+                refIds.put(operation.getRef(), operation.getOperation() == BatchOperationType.COMMENT_TASK ? taskId : id);
+            }
+        } catch (RuntimeException exc) {
+            result.setStatus(statusOf(exc).value());
+            result.setError(exc.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, что ref операций не повторяются, а taskRef ссылаются на предыдущие операции.
+     *
+     * @param operations операции пакетного запроса
+     * @throws IllegalStateException если ссылки некорректны
+     */
+    private void checkRefs(List<BatchOperationDTO> operations) {
+        Set<String> refs = new HashSet<>();
+        for (BatchOperationDTO operation : operations){
+            if (operation.getTaskRef() != null && !refs.contains(operation.getTaskRef())){
+                throw new IllegalStateException(
+                        String.format("taskRef %s does not refer to a previous operation", operation.getTaskRef()));
+            }
+            if (operation.getRef() != null && !refs.add(operation.getRef())){
+                throw new IllegalStateException(String.format("Duplicate ref %s", operation.getRef()));
+            }
+        }
+    }
+
+    /**
+     * Проверяет данные операции аннотациями валидации DTO.
+     *
+     * @param dto данные операции
+     * @param name название параметра операции
+     * @return проверенные данные
+     * @throws IllegalStateException если данные отсутствуют или не прошли валидацию
+     */
+    private <T> T validated(T dto, String name) {
+        required(dto, name);
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()){
+            throw new IllegalStateException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return dto;
+    }
+
+    /**
+     * Проверяет наличие обязательного параметра операции.
+     *
+     * @param value значение параметра
+     * @param name название параметра операции
+     * @return значение параметра
+     * @throws IllegalStateException если параметр отсутствует
+     */
+    private <T> T required(T value, String name) {
+        if (value == null){
+            throw new IllegalStateException(String.format("%s is mandatory for this operation", name));
+        }
+        return value;
+    }
+
+    /**
+     * Возвращает HTTP статус, который вернул бы {@link com.artur.task_management_system.controller.ExceptionController}
+     * для отдельного запроса.
+     *
+     * @param exc исключение операции
+     * @return HTTP статус операции
+     */
+    private HttpStatus statusOf(RuntimeException exc) {
+        if (exc instanceof EntityNotFoundByIdException || exc instanceof UserNotFoundByEmailException){
+            return HttpStatus.NOT_FOUND;
+        }
+        if (exc instanceof NoRightsException || exc instanceof UserNotEnabledException){
+            return HttpStatus.FORBIDDEN;
+        }
+        if (exc instanceof UnauthenticatedException){
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,357 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.service.CacheInvalidationBus;
+import com.artur.task_management_system.service.CacheInvalidationListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Шина инвалидации кэшей между узлами через PostgreSQL LISTEN/NOTIFY.
+ *
+ * Изменение сразу применяется к локальным кэшам и рассылается остальным узлам в канал NOTIFY.
+ * Изменения одной транзакции собираются и рассылаются после фиксации одной транзакцией NOTIFY,
+ * повторные изменения одной сущности - одним сообщением с последней версией.
+ * Слушатели, отмеченные {@link CacheInvalidationListener#isRemoteOnly()}, получают только изменения других узлов.
+ * Каждый узел слушает канал на отдельном соединении вне пула. После потери соединения
+ * уведомления могли быть пропущены, поэтому при переподключении локальные кэши очищаются полностью.
+ * Слушатели получаются лениво: кэши сами зависят от сервисов, публикующих изменения.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBusImpl implements CacheInvalidationBus {
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String FIELD_SEPARATOR = ":";
+    private static final String MESSAGE_SEPARATOR = ";";
+    /**
+     * Ограничение длины сообщения NOTIFY в PostgreSQL - 8000 байт.
+     */
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long MIN_RECONNECT_DELAY_MS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+    private volatile Connection listenerConnection;
+
+    public CacheInvalidationBusImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    DataSourceProperties dataSourceProperties,
+                                    ObjectProvider<CacheInvalidationListener> listeners,
+                                    @Value("${artur.cache.invalidation.enabled}") boolean enabled,
+                                    @Value("${artur.cache.invalidation.channel}") String channel) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()){
+            throw new IllegalArgumentException(String.format("Wrong invalidation channel name %s", channel));
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publishAfterCommit(CacheEntityType entityType, Long id, Supplier<Integer> version) {
+        publishAfterCommit(entityType, id, version, null);
+    }
+
+    @Override
+    public void publishAfterCommit(CacheEntityType entityType, Long id, Supplier<Integer> version,
+                                   String previousNaturalId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()){
+            publish(List.of(new Invalidation(entityType, id, resolveVersion(version), previousNaturalId)));
+            return;
+        }
+        getPendingInvalidations().add(entityType, id, version, previousNaturalId);
+    }
+
+    /**
+     * Применяет сообщение, полученное из канала, к локальным кэшам.
+     * Собственные сообщения узла и некорректные изменения пропускаются.
+     *
+     * @param payload сообщение в формате "узел;тип:идентификатор:версия[:натуральный идентификатор];..."
+     *                натуральный идентификатор до изменения передается в URL-кодировке
+     */
+    public void handleNotification(String payload) {
+        String[] messages = payload.split(MESSAGE_SEPARATOR);
+        if (messages.length < 2 || nodeId.equals(messages[0])){
+            return;
+        }
+        for (int i = 1; i < messages.length; i++){
+            String[] parts = messages[i].split(FIELD_SEPARATOR);
+            try {
+                if (parts.length != 3 && parts.length != 4){
+                    throw new IllegalArgumentException();
+                }
+                CacheEntityType entityType = CacheEntityType.valueOf(parts[0]);
+                Long id = Long.parseLong(parts[1]);
+                int version = Integer.parseInt(parts[2]);
+                String previousNaturalId = parts.length == 4
+                        ? URLDecoder.decode(parts[3], StandardCharsets.UTF_8)
+                        : null;
+                notifyListeners(new Invalidation(entityType, id, version, previousNaturalId), false);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipped wrong cache invalidation message {}", messages[i]);
+            }
+        }
+    }
+
+    /**
+     * Запускает прослушивание канала после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running){
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    /**
+     * Останавливает прослушивание канала.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null){
+            thread.interrupt();
+        }
+        closeQuietly(listenerConnection);
+    }
+
+    /**
+     * Применяет изменения к локальным кэшам и рассылает их остальным узлам одной транзакцией.
+     * Ошибка рассылки не отменяет уже зафиксированные изменения, записи других узлов устареют до истечения TTL.
+     *
+     * @param invalidations изменения с версиями сущностей после изменения
+     */
+    private void publish(Collection<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations){
+            notifyListeners(invalidation, true);
+        }
+        if (!enabled || invalidations.isEmpty()){
+            return;
+        }
+        List<String> payloads = toPayloads(invalidations);
+        try {
+            notifyTransaction.executeWithoutResult(status -> {
+                for (String payload : payloads){
+                    jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to publish {} cache invalidations", invalidations.size(), e);
+        }
+    }
+
+    /**
+     * Собирает изменения в сообщения NOTIFY не длиннее MAX_PAYLOAD_LENGTH.
+     */
+    private List<String> toPayloads(Collection<Invalidation> invalidations) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId);
+        for (Invalidation invalidation : invalidations){
+            String message = String.join(FIELD_SEPARATOR, invalidation.entityType().name(),
+                    invalidation.id().toString(), Integer.toString(invalidation.version()));
+            if (invalidation.previousNaturalId() != null){
+                message += FIELD_SEPARATOR + URLEncoder.encode(invalidation.previousNaturalId(), StandardCharsets.UTF_8);
+            }
+            if (payload.length() > nodeId.length()
+                    && payload.length() + MESSAGE_SEPARATOR.length() + message.length() > MAX_PAYLOAD_LENGTH){
+                payloads.add(payload.toString());
+                payload = new StringBuilder(nodeId);
+            }
+            payload.append(MESSAGE_SEPARATOR).append(message);
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    /**
+     * Возвращает изменения текущей транзакции, регистрируя их публикацию после фиксации при первом изменении.
+     * Синхронизации вложенной REQUIRES_NEW транзакции отделены от внешней, поэтому изменения каждой
+     * транзакции публикуются после ее собственной фиксации.
+     */
+    private PendingInvalidations getPendingInvalidations() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()){
+            if (synchronization instanceof PendingInvalidations pending && pending.isOwnedBy(this)){
+                return pending;
+            }
+        }
+        PendingInvalidations pending = new PendingInvalidations();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private static int resolveVersion(Supplier<Integer> version) {
+        Integer value = version.get();
+        return value == null ? 0 : value;
+    }
+
+    private void notifyListeners(Invalidation invalidation, boolean local) {
+        listeners.forEach(listener -> {
+            if (local && listener.isRemoteOnly()){
+                return;
+            }
+            listener.onInvalidation(invalidation.entityType(), invalidation.id(), invalidation.version());
+            if (invalidation.previousNaturalId() != null){
+                listener.onNaturalIdChange(invalidation.entityType(), invalidation.id(),
+                        invalidation.previousNaturalId());
+            }
+        });
+    }
+
+    /**
+     * Цикл прослушивания канала с переподключением и экспоненциальной задержкой.
+     */
+    private void listen() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MS;
+        boolean connectedBefore = false;
+        while (running){
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                listenerConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore){
+                    listeners.forEach(CacheInvalidationListener::onResync);
+                }
+                connectedBefore = true;
+                reconnectDelay = MIN_RECONNECT_DELAY_MS;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running){
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null || notifications.length == 0){
+                        checkConnection(connection);
+                        continue;
+                    }
+                    for (PGNotification notification : notifications){
+                        handleNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running){
+                    return;
+                }
+                log.warn("Cache invalidation listener lost connection, reconnecting in {} ms", reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * Проверяет соединение запросом, так как ожидание уведомлений не обнаруживает разрыв соединения.
+     */
+    private void checkConnection(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        if (connection == null){
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Изменение сущности с версией после изменения и натуральным идентификатором до изменения, если он изменился.
+     */
+    private record Invalidation(CacheEntityType entityType, Long id, int version, String previousNaturalId) {
+    }
+
+    private record PendingInvalidation(Supplier<Integer> version, String previousNaturalId) {
+    }
+
+    private record EntityKey(CacheEntityType entityType, Long id) {
+    }
+
+    /**
+     * Изменения одной транзакции. Версии вычисляются после фиксации, для одной сущности остается последняя,
+     * а из натуральных идентификаторов - первый, то есть значение до транзакции.
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+        private final Map<EntityKey, PendingInvalidation> versions = new LinkedHashMap<>();
+
+        void add(CacheEntityType entityType, Long id, Supplier<Integer> version, String previousNaturalId) {
+            versions.merge(new EntityKey(entityType, id), new PendingInvalidation(version, previousNaturalId),
+                    (current, added) -> new PendingInvalidation(
+                            () -> Math.max(resolveVersion(current.version()), resolveVersion(added.version())),
+                            current.previousNaturalId() != null
+                                    ? current.previousNaturalId()
+                                    : added.previousNaturalId()));
+        }
+
+        boolean isOwnedBy(CacheInvalidationBusImpl bus) {
+            return CacheInvalidationBusImpl.this == bus;
+        }
+
+        @Override
+        public void afterCommit() {
+            List<Invalidation> invalidations = new ArrayList<>(versions.size());
+            versions.forEach((key, pending) -> invalidations.add(new Invalidation(key.entityType(), key.id(),
+                    resolveVersion(pending.version()), pending.previousNaturalId())));
+            publish(invalidations);
+        }
+    }
+}
@@ -2,32 +2,99 @@ package com.artur.task_management_system.service.impl;
 
 import com.artur.task_management_system.model.ConfirmationToken;
 import com.artur.task_management_system.repository.ConfirmationTokenRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
 import com.artur.task_management_system.service.ConfirmationTokenService;
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
 
 /**
  * Сервис для доступа к базе данных ConfirmationToken.
+ *
+ * Токены создаются при каждой регистрации и смене почты и нужны только до подтверждения или истечения срока,
+ * поэтому фоновое задание удаляет их порциями в отдельных транзакциях. Токен удаляется спустя grace после
+ * истечения или подтверждения, чтобы повторный переход по ссылке еще какое-то время получал понятную ошибку.
  */
+@Slf4j
 @Service
-@AllArgsConstructor
 public class ConfirmationTokenServiceImpl implements ConfirmationTokenService {
+    private static final String REAPER_JOB = "confirmation-token-reaper";
+
     private final ConfirmationTokenRepository confirmationTokenRepository;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration grace;
+
+    public ConfirmationTokenServiceImpl(ConfirmationTokenRepository confirmationTokenRepository,
+                                        ClusterJobRunner clusterJobRunner,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${artur.confirmation-tokens.batch-size}") int batchSize,
+                                        @Value("${artur.confirmation-tokens.grace}") Duration grace) {
+        this.confirmationTokenRepository = confirmationTokenRepository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.grace = grace;
+    }
 
     @Override
     public void saveConfirmationToken(ConfirmationToken confirmationToken) {
         confirmationTokenRepository.save(confirmationToken);
     }
 
+    /**
+     * Значение, не являющееся UUID, не может быть токеном, поэтому в базу такой запрос не отправляется.
+     */
     @Override
     public Optional<ConfirmationToken> getToken(String token) {
-        return confirmationTokenRepository.findByToken(token);
+        UUID value;
+        try {
+            value = UUID.fromString(token);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+        return confirmationTokenRepository.findByToken(value);
     }
 
     @Override
-    public void deleteByUserId(Long userId){
-        confirmationTokenRepository.deleteByUserId(userId);
+    public int deleteStaleTokens() {
+        LocalDateTime before = LocalDateTime.now().minus(grace);
+        int deleted = deleteInBatches(confirmationTokenRepository::deleteExpiredBefore, before)
+                + deleteInBatches(confirmationTokenRepository::deleteConfirmedBefore, before);
+        if (deleted > 0){
+            log.info("Deleted {} stale confirmation tokens", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Удаляет устаревшие токены с одного узла.
+     */
+    @Scheduled(fixedDelayString = "${artur.confirmation-tokens.reaper-delay}")
+    public void reap() {
+        clusterJobRunner.runExclusive(REAPER_JOB, this::deleteStaleTokens);
+    }
+
+    private int deleteInBatches(BiFunction<LocalDateTime, Integer, Integer> deleteBatch, LocalDateTime before) {
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteBatch.apply(before, batchSize));
+            if (deleted == null){
+                break;
+            }
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
     }
 }
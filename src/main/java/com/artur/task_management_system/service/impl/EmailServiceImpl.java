@@ -1,5 +1,6 @@
 package com.artur.task_management_system.service.impl;
 
+import com.artur.task_management_system.model.OverdueTaskNotice;
 import com.artur.task_management_system.service.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -7,6 +8,11 @@ import lombok.AllArgsConstructor;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Сервис для отправки сообщений на почту.
@@ -14,6 +20,8 @@ import org.springframework.stereotype.Service;
 @Service
 @AllArgsConstructor
 public class EmailServiceImpl implements EmailService {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final JavaMailSender javaMailSender;
 
     @Override
@@ -31,6 +39,76 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    @Override
+    public void sendDeadlineReminderEmail(String to, String name, String taskTitle, LocalDateTime deadLineDate) {
+        try {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper =
+                    new MimeMessageHelper(mimeMessage, "utf-8");
+            helper.setText(buildReminderEmail(name, taskTitle, deadLineDate), true);
+            helper.setTo(to);
+            helper.setSubject("Task deadline is approaching: " + taskTitle);
+            javaMailSender.send(mimeMessage);
+        } catch (MessagingException e) {
+            throw new IllegalStateException("failed to send email");
+        }
+    }
+
+    @Override
+    public void sendOverdueDigestEmail(String to, String name, List<OverdueTaskNotice> tasks) {
+        try {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper =
+                    new MimeMessageHelper(mimeMessage, "utf-8");
+            helper.setText(buildOverdueDigestEmail(name, tasks), true);
+            helper.setTo(to);
+            helper.setSubject(String.format("%d of your tasks are overdue", tasks.size()));
+            javaMailSender.send(mimeMessage);
+        } catch (MessagingException e) {
+            throw new IllegalStateException("failed to send email");
+        }
+    }
+
+    /**
+     * Строит HTML содержимое письма со списком просроченных задач.
+     *
+     * @param name имя получателя
+     * @param tasks просроченные задачи
+     * @return HTML строка содержимого письма
+     */
+    private String buildOverdueDigestEmail(String name, List<OverdueTaskNotice> tasks) {
+        StringBuilder items = new StringBuilder();
+        for (OverdueTaskNotice task : tasks){
+            items.append("    <li><b>").append(HtmlUtils.htmlEscape(task.taskTitle())).append("</b> (#")
+                    .append(task.taskId()).append("), deadline ")
+                    .append(task.deadLineDate().format(DATE_FORMATTER)).append("</li>\n");
+        }
+        return "<div style=\"font-family:Helvetica,Arial,sans-serif;font-size:16px;margin:0;color:#0b0c0c\">\n" +
+                "  <p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px\">Hi " + HtmlUtils.htmlEscape(name) + ",</p>\n" +
+                "  <p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px\">These tasks passed their deadline " +
+                "and are not completed yet:</p>\n" +
+                "  <ul style=\"font-size:19px;line-height:25px\">\n" + items +
+                "  </ul>\n" +
+                "</div>";
+    }
+
+    /**
+     * Строит HTML содержимое письма с напоминанием о сроке задачи.
+     *
+     * @param name имя получателя
+     * @param taskTitle название задачи
+     * @param deadLineDate срок задачи
+     * @return HTML строка содержимого письма
+     */
+    private String buildReminderEmail(String name, String taskTitle, LocalDateTime deadLineDate) {
+        return "<div style=\"font-family:Helvetica,Arial,sans-serif;font-size:16px;margin:0;color:#0b0c0c\">\n" +
+                "  <p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px\">Hi " + HtmlUtils.htmlEscape(name) + ",</p>\n" +
+                "  <p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px\">The deadline of the task <b>" +
+                HtmlUtils.htmlEscape(taskTitle) + "</b> is " +
+                deadLineDate.format(DATE_FORMATTER) + ".</p>\n" +
+                "</div>";
+    }
+
     /**
      * Строит HTML содержимое письма с подтверждением регистрации.
      *
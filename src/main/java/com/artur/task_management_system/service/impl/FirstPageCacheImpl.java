@@ -0,0 +1,197 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.model.attributes.FirstPageEndpoint;
+import com.artur.task_management_system.service.CacheInvalidationListener;
+import com.artur.task_management_system.service.FirstPageCache;
+import com.artur.task_management_system.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш первых страниц списков задач с коротким временем жизни.
+ *
+ * Запись обновляется досрочно с вероятностью, растущей к концу времени жизни (XFetch):
+ * чем дольше загружалась страница, тем раньше начинается обновление. Поэтому записи не истекают
+ * одновременно, а обновление выполняет один запрос, остальные продолжают получать текущую запись.
+ *
+ * Записи удаляются по уведомлениям шины инвалидации: изменение задачи удаляет общие списки,
+ * изменение списков пользователя - его личные списки. Каждое уведомление получает номер, который запоминается
+ * для затронутых списков: общих или списков пользователя. Страница, загрузка которой началась до уведомления
+ * о ее списках, в кэш не попадает. Уведомления о других списках загрузку не отменяют.
+ */
+@Service
+public class FirstPageCacheImpl implements FirstPageCache, CacheInvalidationListener {
+    private static final String CACHE_NAME = "firstPage";
+
+    private final UserService userService;
+    private final Cache<FirstPageKey, CachedPage> cache;
+    private final long ttlNanos;
+    private final double beta;
+    private final Set<FirstPageEndpoint> enabledEndpoints = EnumSet.noneOf(FirstPageEndpoint.class);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+    private final AtomicLong sharedInvalidatedAt = new AtomicLong();
+    private final AtomicLong evictedUserInvalidatedAt = new AtomicLong();
+    private final Cache<Long, Long> userInvalidatedAt;
+
+    public FirstPageCacheImpl(UserService userService,
+                              MeterRegistry meterRegistry,
+                              @Value("${artur.cache.first-page.max-size}") long maxSize,
+                              @Value("${artur.cache.first-page.ttl}") Duration ttl,
+                              @Value("${artur.cache.first-page.beta}") double beta,
+                              @Value("${artur.cache.first-page.endpoints.tasks}") boolean tasksEnabled,
+                              @Value("${artur.cache.first-page.endpoints.my-authored}") boolean myAuthoredEnabled,
+                              @Value("${artur.cache.first-page.endpoints.my-assigned}") boolean myAssignedEnabled) {
+        this.userService = userService;
+        this.ttlNanos = ttl.toNanos();
+        this.beta = beta;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.userInvalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .<Long, Long>evictionListener((userId, invalidatedAt, cause) ->
+                        evictedUserInvalidatedAt.accumulateAndGet(invalidatedAt, Math::max))
+                .build();
+        if (tasksEnabled){
+            enabledEndpoints.add(FirstPageEndpoint.TASKS);
+        }
+        if (myAuthoredEnabled){
+            enabledEndpoints.add(FirstPageEndpoint.MY_AUTHORED);
+        }
+        if (myAssignedEnabled){
+            enabledEndpoints.add(FirstPageEndpoint.MY_ASSIGNED);
+        }
+    }
+
+    @Override
+    public byte[] getPage(FirstPageEndpoint endpoint, Integer pageNumber, Integer pageSize,
+                          String field, String directionStr, Supplier<byte[]> pageLoader) {
+        if (!enabledEndpoints.contains(endpoint) || !Objects.equals(pageNumber, 0)){
+            return pageLoader.get();
+        }
+
+        Long userId = endpoint.isUserSpecific() ? getLoggedInUserId() : null;
+        FirstPageKey key = new FirstPageKey(endpoint, userId, field, directionStr, pageSize);
+        CachedPage cached = cache.getIfPresent(key);
+        if (cached != null && !shouldRefresh(cached)){
+            return cached.json();
+        }
+
+        long loadStartedAt = invalidations.get();
+        long start = System.nanoTime();
+        byte[] json = pageLoader.get();
+        long end = System.nanoTime();
+        if (getInvalidatedAt(key) <= loadStartedAt){
+            CachedPage page = new CachedPage(json, end, end - start);
+            cache.put(key, page);
+            if (getInvalidatedAt(key) > loadStartedAt){
+                cache.asMap().remove(key, page);
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public void onInvalidation(CacheEntityType entityType, Long id, int version) {
+        long invalidatedAt = invalidations.incrementAndGet();
+        switch (entityType){
+            case TASK -> {
+                sharedInvalidatedAt.accumulateAndGet(invalidatedAt, Math::max);
+                cache.asMap().keySet().removeIf(key -> !key.endpoint().isUserSpecific());
+            }
+            case TASK_LIST -> {
+                userInvalidatedAt.asMap().merge(id, invalidatedAt, Math::max);
+                cache.asMap().keySet().removeIf(key -> Objects.equals(key.userId(), id));
+            }
+            case USER -> {
+                allInvalidatedAt.accumulateAndGet(invalidatedAt, Math::max);
+                cache.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        allInvalidatedAt.accumulateAndGet(invalidations.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    /**
+     * Возвращает номер последнего уведомления, затронувшего список страницы.
+     * Для пользователя, вытесненного из таблицы номеров, берется наибольший вытесненный номер.
+     *
+     * @param key ключ страницы
+     * @return номер уведомления
+     */
+    private long getInvalidatedAt(FirstPageKey key) {
+        long listInvalidatedAt;
+        if (key.userId() == null){
+            listInvalidatedAt = sharedInvalidatedAt.get();
+        }else{
+            Long userListInvalidatedAt = userInvalidatedAt.getIfPresent(key.userId());
+            listInvalidatedAt = userListInvalidatedAt != null
+                    ? userListInvalidatedAt
+                    : evictedUserInvalidatedAt.get();
+        }
+        return Math.max(allInvalidatedAt.get(), listInvalidatedAt);
+    }
+
+    /**
+     * Решает, обновить ли запись досрочно.
+     * Запись обновляется, если now - delta * beta * ln(random) >= expiry, где delta - время загрузки страницы.
+     *
+     * @param cached запись кэша
+     * @return true, если запись нужно обновить
+     */
+    private boolean shouldRefresh(CachedPage cached) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double earlyNanos = -cached.loadNanos() * beta * Math.log(random);
+        return System.nanoTime() + earlyNanos >= cached.loadedAt() + ttlNanos;
+    }
+
+    /**
+     * Возвращает идентификатор текущего аутентифицированного пользователя.
+     *
+     * @return идентификатор пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private Long getLoggedInUserId() {
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username).getId();
+    }
+
+    /**
+     * Ключ первой страницы. Для общих списков userId равен null.
+     */
+    private record FirstPageKey(FirstPageEndpoint endpoint, Long userId,
+                                String field, String directionStr, Integer pageSize) {
+    }
+
+    /**
+     * Страница, момент окончания ее загрузки и длительность загрузки в наносекундах.
+     */
+    private record CachedPage(byte[] json, long loadedAt, long loadNanos) {
+    }
+}
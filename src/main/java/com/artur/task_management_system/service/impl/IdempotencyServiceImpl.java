@@ -0,0 +1,243 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.cache.SingleFlight;
+import com.artur.task_management_system.exception.IdempotencyKeyReusedException;
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.IdempotencyRecord;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.repository.IdempotencyRecordRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.IdempotencyService;
+import com.artur.task_management_system.service.TransactionCallbacks;
+import com.artur.task_management_system.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Сервис идемпотентного выполнения запросов.
+ *
+ * Ключ резервируется вставкой строки в idempotency_key_table в той же транзакции, что и само действие,
+ * и ответ записывается в эту строку до фиксации. Поэтому результат сохраняется вместе с изменениями действия,
+ * а при ошибке откатывается вместе с ними, и повтор выполнит действие заново. Одновременный повтор с другого
+ * узла ждет на уникальном индексе, пока первая транзакция не завершится, и затем читает сохраненный ответ.
+ * Повторы на одном узле объединяются до обращения к базе, а сохраненные ответы кэшируются в памяти.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final String CACHE_NAME = "idempotency-keys";
+    private static final String REAPER_JOB = "idempotency-key-reaper";
+    private static final int MAX_KEY_LENGTH = 255;
+    static final String RESERVE_SQL = """
+            INSERT INTO idempotency_key_table (id, user_id, idempotency_key, fingerprint, created_at, expires_at)
+            VALUES (nextval('idempotency_key_id'), ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, idempotency_key) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint,
+                response = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_key_table.expires_at < EXCLUDED.created_at
+            RETURNING id""";
+    static final String STORE_SQL = "UPDATE idempotency_key_table SET response = ? WHERE id = ?";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final UserService userService;
+    private final ClusterJobRunner clusterJobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> cache;
+    private final SingleFlight<String, String> requests;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  UserService userService,
+                                  ClusterJobRunner clusterJobRunner,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${artur.idempotency.ttl}") Duration ttl,
+                                  @Value("${artur.idempotency.cache-size}") long cacheSize,
+                                  @Value("${artur.idempotency.batch-size}") int batchSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.userService = userService;
+        this.clusterJobRunner = clusterJobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.requests = new SingleFlight<>(CACHE_NAME, meterRegistry);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.executed = Counter.builder("idempotency.requests")
+                .description("Requests with idempotency key")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests")
+                .description("Requests with idempotency key")
+                .tag("result", "replayed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(String idempotencyKey, String operation, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (idempotencyKey == null){
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH){
+            throw new IllegalStateException(String.format("Idempotency key must be from 1 to %d characters long",
+                    MAX_KEY_LENGTH));
+        }
+        Long userId = getLoggedInUser().getId();
+        String scopedKey = userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(operation, request);
+        String response = requests.execute(scopedKey + ":" + fingerprint,
+                () -> replayOrExecute(userId, idempotencyKey, scopedKey, fingerprint, action));
+        return deserialize(response, responseType);
+    }
+
+    @Override
+    public int deleteExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.deleteExpiredBefore(now, batchSize));
+            if (deleted == null){
+                break;
+            }
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0){
+            log.info("Deleted {} expired idempotency keys", total);
+        }
+        return total;
+    }
+
+    /**
+     * Удаляет истекшие ключи с одного узла.
+     */
+    @Scheduled(fixedDelayString = "${artur.idempotency.reaper-delay}")
+    public void reap() {
+        clusterJobRunner.runExclusive(REAPER_JOB, this::deleteExpiredKeys);
+    }
+
+    private String replayOrExecute(Long userId, String idempotencyKey, String scopedKey, String fingerprint,
+                                   Supplier<?> action) {
+        StoredResponse cached = cache.getIfPresent(scopedKey);
+        if (cached != null){
+            return replay(cached, fingerprint, idempotencyKey);
+        }
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> reserved = jdbcTemplate.query(RESERVE_SQL, (rs, rowNum) -> rs.getLong("id"),
+                    userId, idempotencyKey, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl)));
+            if (reserved.isEmpty()){
+                IdempotencyRecord record = idempotencyRecordRepository
+                        .findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                        .orElseThrow(() -> new IllegalStateException(
+                                String.format("Idempotency key %s is being processed, retry later", idempotencyKey)));
+                StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getResponse());
+                cache.put(scopedKey, stored);
+                return replay(stored, fingerprint, idempotencyKey);
+            }
+            String response = serialize(action.get());
+            jdbcTemplate.update(STORE_SQL, response, reserved.get(0));
+            TransactionCallbacks.afterCommit(() -> cache.put(scopedKey, new StoredResponse(fingerprint, response)));
+            executed.increment();
+            return response;
+        });
+    }
+
+    private String replay(StoredResponse stored, String fingerprint, String idempotencyKey) {
+        if (!stored.fingerprint().equals(fingerprint)){
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        replayed.increment();
+        return stored.response();
+    }
+
+    /**
+     * Отпечаток запроса: SHA-256 от операции и JSON тела запроса.
+     */
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T deserialize(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Возвращает текущего аутентифицированного пользователя.
+     *
+     * @return аутентифицированный пользователь
+     */
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+
+    private record StoredResponse(String fingerprint, String response) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.LoginBlockedException;
+import com.artur.task_management_system.service.LoginAttemptService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис учета неудачных попыток входа.
+ *
+ * Неудачи считаются отдельно по аккаунту и по IP адресу, чтобы подбор пароля к одному аккаунту с многих адресов
+ * и перебор многих аккаунтов с одного адреса замедлялись одинаково. Первые freeFailures неудач не откладывают вход,
+ * затем каждая следующая удваивает задержку от baseBackoff до maxBackoff. Отложенный вход отклоняется
+ * до проверки пароля, поэтому не тратит процессор на хеширование.
+ * Счетчики хранятся в памяти узла и забываются через window после последней неудачи.
+ */
+@Service
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+    private static final String IP_KEY_PREFIX = "ip:";
+    private static final int MAX_BACKOFF_SHIFT = 30;
+
+    private final Cache<String, Attempts> attempts;
+    private final int accountFreeFailures;
+    private final int ipFreeFailures;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter blocked;
+    private final Counter failures;
+
+    public LoginAttemptServiceImpl(MeterRegistry meterRegistry,
+                                   @Value("${artur.login-attempts.account-free-failures}") int accountFreeFailures,
+                                   @Value("${artur.login-attempts.ip-free-failures}") int ipFreeFailures,
+                                   @Value("${artur.login-attempts.base-backoff}") Duration baseBackoff,
+                                   @Value("${artur.login-attempts.max-backoff}") Duration maxBackoff,
+                                   @Value("${artur.login-attempts.window}") Duration window,
+                                   @Value("${artur.login-attempts.max-size}") long maxSize) {
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+        this.accountFreeFailures = accountFreeFailures;
+        this.ipFreeFailures = ipFreeFailures;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.blocked = Counter.builder("login.attempts.blocked")
+                .description("Login attempts rejected by failure backoff")
+                .register(meterRegistry);
+        this.failures = Counter.builder("login.attempts.failed")
+                .description("Failed login attempts")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void checkAllowed(String email) {
+        long now = System.nanoTime();
+        long waitNanos = waitNanos(accountKey(email), now);
+        String ipKey = ipKey();
+        if (ipKey != null){
+            waitNanos = Math.max(waitNanos, waitNanos(ipKey, now));
+        }
+        if (waitNanos > 0){
+            blocked.increment();
+            throw new LoginBlockedException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                    waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    @Override
+    public void loginFailed(String email) {
+        failures.increment();
+        long now = System.nanoTime();
+        recordFailure(accountKey(email), accountFreeFailures, now);
+        String ipKey = ipKey();
+        if (ipKey != null){
+            recordFailure(ipKey, ipFreeFailures, now);
+        }
+    }
+
+    /**
+     * Сбрасывает только счетчик аккаунта: успешный вход с адреса не должен обнулять перебор других аккаунтов
+     * с этого же адреса.
+     */
+    @Override
+    public void loginSucceeded(String email) {
+        attempts.invalidate(accountKey(email));
+    }
+
+    private long waitNanos(String key, long now) {
+        Attempts current = attempts.getIfPresent(key);
+        return current == null ? 0 : current.blockedUntilNanos() - now;
+    }
+
+    private void recordFailure(String key, int freeFailures, long now) {
+        attempts.asMap().compute(key, (k, current) -> {
+            int count = current == null ? 1 : current.failures() + 1;
+            if (count <= freeFailures){
+                return new Attempts(count, now);
+            }
+            int shift = Math.min(count - freeFailures - 1, MAX_BACKOFF_SHIFT);
+            long backoff = baseBackoffNanos > (maxBackoffNanos >> shift) ? maxBackoffNanos : baseBackoffNanos << shift;
+            return new Attempts(count, now + backoff);
+        });
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Возвращает ключ адреса текущего запроса или null вне запроса.
+     */
+    private static String ipKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes){
+            return IP_KEY_PREFIX + servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private record Attempts(int failures, long blockedUntilNanos) {
+    }
+}
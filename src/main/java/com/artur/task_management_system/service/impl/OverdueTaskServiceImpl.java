@@ -0,0 +1,263 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.model.OverdueTaskNotice;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.OverdueNotificationRepository;
+import com.artur.task_management_system.repository.TaskSyncStateRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.scheduling.JobShard;
+import com.artur.task_management_system.service.CacheInvalidationBus;
+import com.artur.task_management_system.service.EmailService;
+import com.artur.task_management_system.service.OverdueTaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис отметки просроченных задач и писем авторам.
+ *
+ * Кандидаты выбираются по частичному индексу task_overdue_candidate_idx (незавершенные и не отмеченные задачи
+ * по сроку), поэтому запуск читает только новые просроченные задачи. Порция отмечается одним запросом:
+ * UPDATE увеличивает версию задачи, записывает изменение для синхронизации и ставит задачу в очередь писем,
+ * а после фиксации кэши уведомляются по новым версиям. Между порциями хранится позиция (срок, id),
+ * так что даже большой накопленный объем обрабатывается короткими транзакциями.
+ * Отметка делится между узлами по диапазонам id задач, письма отправляет один узел.
+ */
+@Slf4j
+@Service
+public class OverdueTaskServiceImpl implements OverdueTaskService {
+    private static final String MARK_JOB = "overdue-tasks-mark";
+    private static final String DIGEST_JOB = "overdue-tasks-digest";
+    private static final LocalDateTime WATERMARK_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final String MARK_SQL = """
+            WITH candidates AS (
+                SELECT id FROM task_table
+                WHERE status <> 'COMPLETED' AND NOT overdue
+                  AND dead_line_date < ?
+                  AND (dead_line_date, id) > (?, ?)
+                  AND id >= ? AND id < ?
+                ORDER BY dead_line_date, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), marked AS (
+                UPDATE task_table t SET overdue = true, version = t.version + 1
+                FROM candidates c
+                WHERE t.id = c.id
+                RETURNING t.id, t.author_id, t.dead_line_date, t.version
+            ), synced AS (
+                INSERT INTO task_sync_table (task_id, author_id, visible_user_ids, txid, change_seq, deleted, changed_at)
+                SELECT m.id, m.author_id,
+                       ARRAY(SELECT m.author_id
+                             UNION
+                             SELECT p.user_id FROM task_performers p WHERE p.task_id = m.id),
+                       pg_current_xact_id()::text::bigint, nextval('task_change_seq'), false, clock_timestamp()
+                FROM marked m
+                """ + TaskSyncStateRepository.UPSERT_SQL + """
+            ), queued AS (
+                INSERT INTO overdue_notification_table (id, author_id, task_id, created_at)
+                SELECT nextval('overdue_notification_id'), author_id, id, clock_timestamp()
+                FROM marked
+            )
+            SELECT id, author_id, dead_line_date, version FROM marked
+            ORDER BY dead_line_date, id""";
+    static final String BOUNDS_SQL = "SELECT coalesce(min(id), 0), coalesce(max(id), 0) FROM task_table";
+    static final String CLAIM_SQL = """
+            DELETE FROM overdue_notification_table
+            WHERE author_id IN (
+                SELECT author_id FROM overdue_notification_table
+                GROUP BY author_id
+                ORDER BY min(id)
+                LIMIT ?
+            )
+            RETURNING author_id, task_id""";
+
+    private final OverdueNotificationRepository overdueNotificationRepository;
+    private final EmailService emailService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ClusterJobRunner clusterJobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore emailPermits;
+    private final int shardCount;
+    private final int chunkSize;
+    private final int digestBatchSize;
+    private final Counter marked;
+    private final Counter failures;
+
+    public OverdueTaskServiceImpl(OverdueNotificationRepository overdueNotificationRepository,
+                                  EmailService emailService,
+                                  CacheInvalidationBus cacheInvalidationBus,
+                                  ClusterJobRunner clusterJobRunner,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${artur.overdue.shards}") int shardCount,
+                                  @Value("${artur.overdue.chunk-size}") int chunkSize,
+                                  @Value("${artur.overdue.digest-batch-size}") int digestBatchSize,
+                                  @Value("${artur.overdue.max-concurrent-emails}") int maxConcurrentEmails) {
+        this.overdueNotificationRepository = overdueNotificationRepository;
+        this.emailService = emailService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.clusterJobRunner = clusterJobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailPermits = new Semaphore(maxConcurrentEmails);
+        this.shardCount = shardCount;
+        this.chunkSize = chunkSize;
+        this.digestBatchSize = digestBatchSize;
+        this.marked = Counter.builder("task.overdue.marked")
+                .description("Tasks marked overdue")
+                .register(meterRegistry);
+        this.failures = Counter.builder("task.overdue.digest.failures")
+                .description("Overdue digest emails that failed to send")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int markOverdueTasks(JobShard shard) {
+        JobShard.IdRange range = shard.count() == 1 ? new JobShard.IdRange(0, Long.MAX_VALUE) : shardRange(shard);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp afterDeadLineDate = Timestamp.valueOf(WATERMARK_START);
+        long afterId = 0;
+        int total = 0;
+        List<OverdueTask> chunk;
+        do {
+            Timestamp chunkAfterDeadLineDate = afterDeadLineDate;
+            long chunkAfterId = afterId;
+            chunk = transactionTemplate.execute(status -> markChunk(now, chunkAfterDeadLineDate, chunkAfterId, range));
+            if (chunk == null || chunk.isEmpty()){
+                break;
+            }
+            OverdueTask last = chunk.get(chunk.size() - 1);
+            afterDeadLineDate = Timestamp.valueOf(last.deadLineDate());
+            afterId = last.id();
+            total += chunk.size();
+            marked.increment(chunk.size());
+        } while (chunk.size() == chunkSize);
+        if (total > 0){
+            log.info("Marked {} tasks overdue in shard {} of {}", total, shard.index(), shard.count());
+        }
+        return total;
+    }
+
+    @Override
+    public int sendOverdueDigests() {
+        int authors = 0;
+        ClaimedDigests claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> claimDigests());
+            if (claimed == null){
+                break;
+            }
+            for (List<OverdueTaskNotice> tasks : claimed.digests().values()){
+                executor.execute(() -> sendDigest(tasks));
+            }
+            authors += claimed.digests().size();
+        } while (claimed.authorCount() == digestBatchSize);
+        return authors;
+    }
+
+    /**
+     * Отмечает просроченные задачи частями на всех узлах и отправляет письма авторам с одного узла.
+     */
+    @Scheduled(fixedDelayString = "${artur.overdue.delay}")
+    public void escalate() {
+        clusterJobRunner.runSharded(MARK_JOB, shardCount, this::markOverdueTasks);
+        clusterJobRunner.runExclusive(DIGEST_JOB, this::sendOverdueDigests);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private JobShard.IdRange shardRange(JobShard shard) {
+        long[] bounds = jdbcTemplate.query(BOUNDS_SQL, rs -> {
+            rs.next();
+            return new long[]{rs.getLong(1), rs.getLong(2)};
+        });
+        return shard.range(bounds[0], bounds[1]);
+    }
+
+    private List<OverdueTask> markChunk(Timestamp now, Timestamp afterDeadLineDate, long afterId,
+                                        JobShard.IdRange range) {
+        List<OverdueTask> chunk = jdbcTemplate.query(MARK_SQL,
+                (rs, rowNum) -> new OverdueTask(rs.getLong("id"), rs.getLong("author_id"),
+                        rs.getTimestamp("dead_line_date").toLocalDateTime(), rs.getInt("version")),
+                now, afterDeadLineDate, afterId, range.fromId(), range.toId(), chunkSize);
+        Set<Long> authorIds = new LinkedHashSet<>();
+        for (OverdueTask task : chunk){
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.id(), task::version);
+            authorIds.add(task.authorId());
+        }
+        for (Long authorId : authorIds){
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, authorId, () -> 0);
+        }
+        return chunk;
+    }
+
+    /**
+     * Забирает из очереди задачи порции авторов. Задачи, удаленные или завершенные после отметки,
+     * в письма не попадают.
+     */
+    private ClaimedDigests claimDigests() {
+        Map<Long, Set<Long>> claimed = new LinkedHashMap<>();
+        jdbcTemplate.query(CLAIM_SQL, rs -> {
+            claimed.computeIfAbsent(rs.getLong("author_id"), authorId -> new LinkedHashSet<>())
+                    .add(rs.getLong("task_id"));
+        }, digestBatchSize);
+        if (claimed.isEmpty()){
+            return new ClaimedDigests(0, Map.of());
+        }
+        Set<Long> taskIds = claimed.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        Map<Long, List<OverdueTaskNotice>> digests = overdueNotificationRepository.findNotices(taskIds).stream()
+                .collect(Collectors.groupingBy(OverdueTaskNotice::authorId, LinkedHashMap::new, Collectors.toList()));
+        return new ClaimedDigests(claimed.size(), digests);
+    }
+
+    private void sendDigest(List<OverdueTaskNotice> tasks) {
+        OverdueTaskNotice author = tasks.get(0);
+        try {
+            emailPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            emailService.sendOverdueDigestEmail(author.email(), author.name(), tasks);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to send overdue digest of {} tasks to author {}", tasks.size(), author.authorId(), e);
+        } finally {
+            emailPermits.release();
+        }
+    }
+
+    private record OverdueTask(long id, long authorId, LocalDateTime deadLineDate, int version) {
+    }
+
+    private record ClaimedDigests(int authorCount, Map<Long, List<OverdueTaskNotice>> digests) {
+    }
+}
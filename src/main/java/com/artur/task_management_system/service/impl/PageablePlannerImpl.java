@@ -0,0 +1,60 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.SortFieldNotAllowedException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.service.PageablePlanner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Планировщик запросов с пагинацией.
+ * Белые списки полей должны совпадать с индексами, объявленными в {@link Task} и {@link User}.
+ */
+@Service
+public class PageablePlannerImpl implements PageablePlanner {
+    private static final String TIEBREAKER_FIELD = "id";
+
+    private static final Map<Class<?>, Set<String>> SORTABLE_FIELDS = Map.of(
+            Task.class, Set.of("id", "creationDate", "deadLineDate", "priority", "status"),
+            User.class, Set.of("id", "email", "name")
+    );
+
+    @Override
+    public Pageable makePageable(Class<?> entityClass,
+                                 Integer pageNumber, Integer pageSize,
+                                 String field, String directionStr) {
+        if (pageNumber == null || pageSize == null){
+            throw new IllegalStateException("Pagination cannot be null");
+        }
+
+        if (field == null || directionStr == null) {
+            return PageRequest.of(pageNumber, pageSize, Sort.by(TIEBREAKER_FIELD));
+        }
+
+        Sort.Direction direction;
+        if (directionStr.equals("Asc")){
+            direction = Sort.Direction.ASC;
+        }else if(directionStr.equals("Desc")){
+            direction = Sort.Direction.DESC;
+        }else{
+            throw new IllegalStateException("Wrong sorting direction value");
+        }
+
+        Set<String> sortableFields = SORTABLE_FIELDS.getOrDefault(entityClass, Set.of(TIEBREAKER_FIELD));
+        if (!sortableFields.contains(field)){
+            throw new SortFieldNotAllowedException(entityClass.getSimpleName(), field);
+        }
+
+        Sort sort = Sort.by(direction, field);
+        if (!field.equals(TIEBREAKER_FIELD)){
+            sort = sort.and(Sort.by(direction, TIEBREAKER_FIELD));
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+}
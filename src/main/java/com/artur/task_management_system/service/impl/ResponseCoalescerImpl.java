@@ -0,0 +1,54 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.cache.SingleFlight;
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.service.ResponseCoalescer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых запросов списков.
+ *
+ * Ответ сериализуется в потоке, выполнившем загрузку, пока открыта его сессия Hibernate,
+ * остальные запросы получают готовый JSON и не обращаются к сущностям чужой сессии.
+ */
+@Service
+public class ResponseCoalescerImpl implements ResponseCoalescer {
+    private static final String USER_KEY_SEPARATOR = "@";
+
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<String, byte[]> responseLoads;
+
+    public ResponseCoalescerImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.responseLoads = new SingleFlight<>("response", meterRegistry);
+    }
+
+    @Override
+    public byte[] coalesce(String key, Supplier<?> responseLoader) {
+        return responseLoads.execute(key, () -> serialize(responseLoader.get()));
+    }
+
+    @Override
+    public byte[] coalesceForLoggedInUser(String key, Supplier<?> responseLoader) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return coalesce(key + USER_KEY_SEPARATOR + username, responseLoader);
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.analytics.DurationHistogram;
+import com.artur.task_management_system.model.DurationPercentiles;
+import com.artur.task_management_system.model.StatusTimeGroup;
+import com.artur.task_management_system.model.StatusTimeReport;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskStatusTransition;
+import com.artur.task_management_system.model.TaskStatusTransitionSample;
+import com.artur.task_management_system.model.attributes.StatusTimeGroupBy;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.TaskStatusTransitionRepository;
+import com.artur.task_management_system.service.TaskAnalyticsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Сервис аналитики времени выполнения задач.
+ *
+ * Каждый переход статуса записывается вместе со временем, проведенным в предыдущем статусе.
+ * Отчет читает переходы за период потоком и складывает длительности в гистограммы {@link DurationHistogram},
+ * поэтому память зависит от числа групп, а не от числа переходов.
+ */
+@Service
+public class TaskAnalyticsServiceImpl implements TaskAnalyticsService {
+    public static final String LEAD_TIME_METRIC = "LEAD_TIME";
+
+    private final TaskStatusTransitionRepository taskStatusTransitionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration maxRange;
+
+    public TaskAnalyticsServiceImpl(TaskStatusTransitionRepository taskStatusTransitionRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${artur.analytics.max-range}") Duration maxRange) {
+        this.taskStatusTransitionRepository = taskStatusTransitionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxRange = maxRange;
+    }
+
+    @Override
+    public void recordStatusChange(Task task, TaskStatus previousStatus, Long actorId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (previousStatus != null && previousStatus != task.getStatus()){
+            LocalDateTime enteredAt = task.getStatusChangedAt() != null
+                    ? task.getStatusChangedAt() : task.getCreationDate();
+            Long leadTimeMs = task.getStatus() == TaskStatus.COMPLETED
+                    ? Duration.between(task.getCreationDate(), now).toMillis() : null;
+            taskStatusTransitionRepository.save(new TaskStatusTransition(null, task.getId(), previousStatus,
+                    task.getStatus(), task.getPriority(), actorId, now,
+                    Duration.between(enteredAt, now).toMillis(), leadTimeMs));
+        }
+        if (previousStatus != task.getStatus()){
+            task.setStatusChangedAt(now);
+        }
+    }
+
+    @Override
+    public StatusTimeReport getStatusTimeReport(LocalDateTime from, LocalDateTime to, StatusTimeGroupBy groupBy) {
+        if (from == null || to == null || !from.isBefore(to) || Duration.between(from, to).compareTo(maxRange) > 0){
+            throw new IllegalStateException(String.format(
+                    "Period start must be before its end and period can't be longer than %d days", maxRange.toDays()));
+        }
+        Map<Comparable<?>, Map<String, DurationHistogram>> histograms = new TreeMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TaskStatusTransitionSample> samples = taskStatusTransitionRepository.streamSamples(from, to)) {
+                samples.forEach(sample -> {
+                    Comparable<?> key = groupBy == StatusTimeGroupBy.PRIORITY ? sample.priority() : sample.actorId();
+                    if (key == null){
+                        return;
+                    }
+                    Map<String, DurationHistogram> groupHistograms =
+                            histograms.computeIfAbsent(key, k -> new HashMap<>());
+                    groupHistograms.computeIfAbsent(sample.fromStatus().name(), k -> new DurationHistogram())
+                            .record(sample.durationMs());
+                    if (sample.leadTimeMs() != null){
+                        groupHistograms.computeIfAbsent(LEAD_TIME_METRIC, k -> new DurationHistogram())
+                                .record(sample.leadTimeMs());
+                    }
+                });
+            }
+        });
+
+        List<StatusTimeGroup> groups = new ArrayList<>();
+        histograms.forEach((key, groupHistograms) -> groups.add(
+                new StatusTimeGroup(key.toString(), toMetrics(groupHistograms))));
+        return new StatusTimeReport(from, to, groupBy, groups);
+    }
+
+    /**
+     * Перцентили по метрикам группы: статусы в порядке их следования, затем LEAD_TIME.
+     */
+    private Map<String, DurationPercentiles> toMetrics(Map<String, DurationHistogram> groupHistograms) {
+        List<String> metricNames = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()){
+            metricNames.add(status.name());
+        }
+        metricNames.add(LEAD_TIME_METRIC);
+
+        Map<String, DurationPercentiles> metrics = new LinkedHashMap<>();
+        for (String metricName : metricNames){
+            DurationHistogram histogram = groupHistograms.get(metricName);
+            if (histogram != null){
+                metrics.put(metricName, new DurationPercentiles(histogram.getCount(), histogram.percentile(50),
+                        histogram.percentile(90), histogram.percentile(99), histogram.getMax()));
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,150 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.model.OutboxEvent;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.repository.OutboxEventRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.TaskEventService;
+import com.artur.task_management_system.service.TaskEventSubscriber;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Сервис событий задач на основе таблицы outbox.
+ *
+ * События записываются в транзакции изменения задачи и публикуются по расписанию порциями.
+ * Порция выбирается, передается подписчикам и отмечается опубликованной в одной транзакции
+ * под advisory-блокировкой, поэтому публикует один узел и порядок событий сохраняется.
+ */
+@Service
+public class TaskEventServiceImpl implements TaskEventService {
+    private static final String RELAY_LOCK_NAME = "outbox-relay";
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<TaskEventSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate relayTransaction;
+    private final int batchSize;
+    private final Duration retention;
+
+    public TaskEventServiceImpl(OutboxEventRepository outboxEventRepository,
+                                ObjectProvider<TaskEventSubscriber> subscribers,
+                                ObjectMapper objectMapper,
+                                ClusterJobRunner clusterJobRunner,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${artur.events.relay.batch-size}") int batchSize,
+                                @Value("${artur.events.retention}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.clusterJobRunner = clusterJobRunner;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Override
+    public void raise(TaskEventType type, Task task, Long actorId, Map<String, Object> details) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("taskId", task.getId());
+        payload.put("authorId", task.getAuthor().getId());
+        payload.put("performerIds", task.getPerformers().stream().map(User::getId).sorted().toList());
+        payload.put("title", task.getTitle());
+        payload.put("status", task.getStatus());
+        payload.put("priority", task.getPriority());
+        payload.put("deadLineDate", String.valueOf(task.getDeadLineDate()));
+        payload.putAll(details);
+        try {
+            outboxEventRepository.insertEvent(type.name(), task.getId(), actorId,
+                    objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int relayPendingEvents() {
+        Integer relayed = relayTransaction.execute(status -> {
+            if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_NAME)){
+                return 0;
+            }
+            List<OutboxEvent> batch = outboxEventRepository.findUnpublishedBatch(batchSize);
+            if (batch.isEmpty()){
+                return 0;
+            }
+            List<TaskEvent> events = batch.stream().map(this::toTaskEvent).toList();
+            subscribers.orderedStream().forEach(subscriber -> subscriber.onTaskEvents(events));
+            outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList());
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    @Override
+    public List<TaskEvent> getEventsAfter(long txid, long id, int limit) {
+        return outboxEventRepository.findEventsAfter(txid, id, limit).stream()
+                .map(this::toTaskEvent)
+                .toList();
+    }
+
+    @Override
+    public Optional<TaskEvent> getLastEvent() {
+        return outboxEventRepository.findLastEvent().map(this::toTaskEvent);
+    }
+
+    /**
+     * Публикует накопившиеся события, пока порции заполнены полностью.
+     */
+    @Scheduled(fixedDelayString = "${artur.events.relay.delay}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayPendingEvents();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Удаляет опубликованные события старше срока хранения. Выполняется на одном узле.
+     */
+    @Scheduled(fixedDelayString = "${artur.events.cleanup-delay}")
+    public void deletePublishedEvents() {
+        clusterJobRunner.runExclusive("outbox-events-cleanup", () -> relayTransaction.executeWithoutResult(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention))));
+    }
+
+    private TaskEvent toTaskEvent(OutboxEvent outboxEvent) {
+        try {
+            return new TaskEvent(
+                    outboxEvent.getId(),
+                    outboxEvent.getTxid(),
+                    outboxEvent.getEventType(),
+                    outboxEvent.getTaskId(),
+                    outboxEvent.getActorId(),
+                    outboxEvent.getCreatedAt(),
+                    objectMapper.readValue(outboxEvent.getPayload(), PAYLOAD_TYPE)
+            );
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
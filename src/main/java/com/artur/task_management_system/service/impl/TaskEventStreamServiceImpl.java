@@ -0,0 +1,337 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.service.TaskEventService;
+import com.artur.task_management_system.service.TaskEventStreamService;
+import com.artur.task_management_system.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поток событий задач через Server-Sent Events.
+ *
+ * Каждый узел сам читает события из outbox по позиции (txid, id) и раздает их открытым соединениям
+ * авторов и исполнителей задачи. Последние события хранятся в кольцевом буфере для повтора по Last-Event-ID,
+ * более старые читаются из outbox.
+ *
+ * У каждого соединения своя ограниченная очередь, отправкой занимается виртуальный поток,
+ * запускаемый только при наличии событий, поэтому простаивающие соединения не занимают потоков.
+ * При переполнении очереди неотправленные события заменяются событием RESYNC.
+ */
+@Service
+public class TaskEventStreamServiceImpl implements TaskEventStreamService {
+    private static final String POSITION_SEPARATOR = ".";
+    private static final String RESYNC_EVENT = "RESYNC";
+
+    private final TaskEventService taskEventService;
+    private final UserService userService;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int replayLimit;
+    private final int queueSize;
+    private final int pollBatchSize;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ArrayDeque<TaskEvent> buffer = new ArrayDeque<>();
+    private final Object lock = new Object();
+    private final Counter overflows;
+    private volatile StreamPosition position;
+
+    public TaskEventStreamServiceImpl(TaskEventService taskEventService,
+                                      UserService userService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${artur.events.stream.timeout}") Duration timeout,
+                                      @Value("${artur.events.stream.buffer-size}") int bufferSize,
+                                      @Value("${artur.events.stream.replay-limit}") int replayLimit,
+                                      @Value("${artur.events.stream.queue-size}") int queueSize,
+                                      @Value("${artur.events.stream.poll-batch-size}") int pollBatchSize) {
+        this.taskEventService = taskEventService;
+        this.userService = userService;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.replayLimit = replayLimit;
+        this.queueSize = queueSize;
+        this.pollBatchSize = pollBatchSize;
+        this.overflows = Counter.builder("task.stream.overflows").register(meterRegistry);
+        Gauge.builder("task.stream.connections", connections,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        Long userId = getLoggedInUserId();
+        Connection connection = new Connection(userId, createEmitter(), new ArrayBlockingQueue<>(queueSize));
+        connection.emitter().onCompletion(() -> remove(connection));
+        connection.emitter().onTimeout(() -> remove(connection));
+        connection.emitter().onError(error -> remove(connection));
+
+        StreamPosition from = StreamPosition.parse(lastEventId);
+        StreamPosition current = position;
+        List<TaskEvent> stored = List.of();
+        // Пока позиция потока не прочитана, неизвестно, какие события пропущены после lastEventId
+        boolean resync = from != null && current == null;
+        if (!resync && from != null && from.compareTo(current) < 0 && !bufferCovers(from)){
+            stored = taskEventService.getEventsAfter(from.txid(), from.id(), replayLimit + 1).stream()
+                    .filter(event -> StreamPosition.of(event).compareTo(current) <= 0)
+                    .toList();
+            resync = stored.size() > replayLimit;
+            if (!resync && !stored.isEmpty()){
+                from = StreamPosition.of(stored.get(stored.size() - 1));
+            }
+        }
+
+        synchronized (lock){
+            if (resync){
+                enqueue(connection, resyncEvent());
+            }else if (from != null){
+                List<TaskEvent> replay = new ArrayList<>(stored);
+                for (TaskEvent event : buffer){
+                    if (StreamPosition.of(event).compareTo(from) > 0){
+                        replay.add(event);
+                    }
+                }
+                replay.stream()
+                        .filter(event -> event.getParticipantIds().contains(userId))
+                        .forEach(event -> enqueue(connection, toSseEvent(event)));
+            }
+            connections.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        scheduleDrain(connection);
+        return connection.emitter();
+    }
+
+    /**
+     * Читает новые события из outbox и раздает их соединениям.
+     * При первом запуске запоминает позицию последнего события, не раздавая старые события.
+     */
+    @Scheduled(fixedDelayString = "${artur.events.stream.poll-delay}")
+    public void poll() {
+        if (position == null){
+            position = taskEventService.getLastEvent().map(StreamPosition::of).orElse(StreamPosition.START);
+            return;
+        }
+        List<TaskEvent> events;
+        do {
+            events = taskEventService.getEventsAfter(position.txid(), position.id(), pollBatchSize);
+            publish(events);
+        } while (events.size() == pollBatchSize);
+    }
+
+    /**
+     * Отправляет всем соединениям комментарий, чтобы прокси не закрывали простаивающие соединения,
+     * а закрытые клиентом соединения обнаруживались.
+     */
+    @Scheduled(fixedDelayString = "${artur.events.stream.heartbeat-delay}")
+    public void heartbeat() {
+        for (Set<Connection> userConnections : connections.values()){
+            for (Connection connection : userConnections){
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+                scheduleDrain(connection);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections ->
+                userConnections.forEach(connection -> connection.emitter().complete()));
+        senders.shutdownNow();
+    }
+
+    /**
+     * Создает SSE соединение.
+     *
+     * @return SSE соединение с настроенным временем жизни
+     */
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Добавляет события в буфер повтора и ставит их в очереди соединений получателей.
+     *
+     * @param events события в порядке потока
+     */
+    private void publish(List<TaskEvent> events) {
+        if (events.isEmpty()){
+            return;
+        }
+        List<Connection> touched = new ArrayList<>();
+        synchronized (lock){
+            for (TaskEvent event : events){
+                buffer.addLast(event);
+                if (buffer.size() > bufferSize){
+                    buffer.removeFirst();
+                }
+                position = StreamPosition.of(event);
+                for (Long userId : event.getParticipantIds()){
+                    for (Connection connection : connections.getOrDefault(userId, Set.of())){
+                        enqueue(connection, toSseEvent(event));
+                        touched.add(connection);
+                    }
+                }
+            }
+        }
+        touched.forEach(this::scheduleDrain);
+    }
+
+    private boolean bufferCovers(StreamPosition from) {
+        synchronized (lock){
+            TaskEvent oldest = buffer.peekFirst();
+            return oldest != null && StreamPosition.of(oldest).compareTo(from) <= 0;
+        }
+    }
+
+    /**
+     * Ставит событие в очередь соединения. При переполнении очередь заменяется событием RESYNC.
+     */
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.queue().offer(event)){
+            connection.queue().clear();
+            connection.queue().offer(resyncEvent());
+            overflows.increment();
+        }
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining().compareAndSet(false, true)){
+            senders.execute(() -> drain(connection));
+        }
+    }
+
+    /**
+     * Отправляет события из очереди соединения. Ошибка отправки закрывает соединение.
+     */
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.queue().poll()) != null){
+                connection.emitter().send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(connection);
+            connection.emitter().completeWithError(e);
+            return;
+        } finally {
+            connection.draining().set(false);
+        }
+        if (!connection.queue().isEmpty()){
+            scheduleDrain(connection);
+        }
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId(), (userId, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(TaskEvent event) {
+        return SseEmitter.event()
+                .id(StreamPosition.of(event).toString())
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder resyncEvent() {
+        return SseEmitter.event().name(RESYNC_EVENT).data(RESYNC_EVENT);
+    }
+
+    /**
+     * Возвращает идентификатор текущего аутентифицированного пользователя.
+     *
+     * @return идентификатор пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private Long getLoggedInUserId() {
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username).getId();
+    }
+
+    /**
+     * Открытое соединение пользователя и его очередь неотправленных событий.
+     * Сравнивается по ссылке, так как у одного пользователя может быть несколько соединений.
+     */
+    private record Connection(Long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue,
+                              AtomicBoolean draining) {
+        Connection(Long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this(userId, emitter, queue, new AtomicBoolean());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Позиция события в потоке, передается клиенту как идентификатор события в виде "txid.id".
+     */
+    private record StreamPosition(long txid, long id) implements Comparable<StreamPosition> {
+        static final StreamPosition START = new StreamPosition(0, 0);
+
+        static StreamPosition of(TaskEvent event) {
+            return new StreamPosition(event.getTxid(), event.getId());
+        }
+
+        /**
+         * Разбирает идентификатор события. Некорректный идентификатор считается отсутствующим.
+         */
+        static StreamPosition parse(String value) {
+            if (value == null){
+                return null;
+            }
+            String[] parts = value.split("\\" + POSITION_SEPARATOR);
+            try {
+                return parts.length == 2 ? new StreamPosition(Long.parseLong(parts[0]), Long.parseLong(parts[1])) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public int compareTo(StreamPosition other) {
+            int byTxid = Long.compare(txid, other.txid);
+            return byTxid != 0 ? byTxid : Long.compare(id, other.id);
+        }
+
+        @Override
+        public String toString() {
+            return txid + POSITION_SEPARATOR + id;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskHistoryEntry;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.repository.TaskHistoryRepository;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.TaskHistoryService;
+import com.artur.task_management_system.service.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Сервис истории изменений задач.
+ *
+ * Изменения после фиксации транзакции кладутся в ограниченный кольцевой буфер, откуда отдельный поток
+ * записывает их пачками (batch insert). Запрос пользователя тратит на историю только сравнение полей
+ * и постановку в буфер. Если буфер переполнен, запись выполняется синхронно в потоке вызова:
+ * история замедляет запросы, но не теряется.
+ * Пачка, которую не удалось записать из-за ошибки базы, остается у потока записи и повторяется с экспоненциальной
+ * задержкой, а новые изменения тем временем копятся в буфере. Если при этом не удается и синхронная запись,
+ * поток вызова ждет свободного места в буфере. Записи из буфера, не сохраненные до остановки узла, теряются.
+ */
+@Slf4j
+@Service
+public class TaskHistoryServiceImpl implements TaskHistoryService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String INSERT_SQL = """
+            INSERT INTO task_history_table (id, task_id, actor_id, change_type, changes, changed_at)
+            VALUES (nextval('task_history_id'), ?, ?, ?, CAST(? AS jsonb), ?)""";
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingChange> buffer;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Counter overflows;
+    private final Counter failures;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public TaskHistoryServiceImpl(TaskHistoryRepository taskHistoryRepository,
+                                  TaskRepository taskRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${artur.history.buffer-size}") int bufferSize,
+                                  @Value("${artur.history.batch-size}") int batchSize,
+                                  @Value("${artur.history.retry-delay}") Duration retryDelay,
+                                  @Value("${artur.history.max-retry-delay}") Duration maxRetryDelay) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.overflows = Counter.builder("task.history.overflows")
+                .description("Task history changes written synchronously because the buffer was full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("task.history.write.failures")
+                .description("Failed attempts to write a batch of task history changes")
+                .register(meterRegistry);
+        meterRegistry.gauge("task.history.buffer.size", buffer, BlockingQueue::size);
+    }
+
+    @Override
+    public Map<String, Object> snapshot(Task task) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("title", task.getTitle());
+        snapshot.put("description", task.getDescription());
+        snapshot.put("status", task.getStatus() == null ? null : task.getStatus().name());
+        snapshot.put("priority", task.getPriority() == null ? null : task.getPriority().name());
+        snapshot.put("deadLineDate", task.getDeadLineDate() == null ? null : task.getDeadLineDate().toString());
+        snapshot.put("performerIds", task.getPerformers().stream().map(User::getId).sorted().toList());
+        return snapshot;
+    }
+
+    @Override
+    public void recordChange(TaskEventType type, Task task, Long actorId,
+                             Map<String, Object> before, Map<String, Object> details) {
+        Map<String, Object> after = type == TaskEventType.TASK_DELETED ? Map.of() : snapshot(task);
+        Map<String, Object> changes = diff(before, after);
+        details.forEach((field, value) -> changes.put(field, Arrays.asList(null, value)));
+        if (changes.isEmpty()){
+            return;
+        }
+        PendingChange change = new PendingChange(task.getId(), actorId, type, changes, LocalDateTime.now());
+        TransactionCallbacks.afterCommit(() -> enqueue(change));
+    }
+
+    @Override
+    public Page<TaskHistoryEntry> getTaskHistory(Long taskId, Integer pageNumber, Integer pageSize) {
+        if (pageNumber == null || pageSize == null || pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE){
+            throw new IllegalStateException(
+                    String.format("Page number can't be negative and page size must be between 1 and %d",
+                            MAX_PAGE_SIZE));
+        }
+        Page<TaskHistoryEntry> history = taskHistoryRepository.findAllByTaskId(taskId,
+                PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.DESC, "changedAt", "id")));
+        if (history.getTotalElements() == 0 && !taskRepository.existsById(taskId)){
+            throw new EntityNotFoundByIdException("task", taskId);
+        }
+        return history;
+    }
+
+    /**
+     * Записывает накопленные изменения пачками, пока буфер не опустеет.
+     *
+     * @return количество записанных изменений
+     * @throws DataAccessException если пачку не удалось записать, незаписанные изменения остаются в буфере
+     */
+    public int flush() {
+        int written = 0;
+        List<PendingChange> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0){
+            try {
+                write(batch);
+            } catch (DataAccessException e) {
+                batch.forEach(buffer::offer);
+                throw e;
+            }
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    /**
+     * Запускает поток записи истории.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("task-history-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    /**
+     * Останавливает поток записи и сохраняет оставшиеся в буфере изменения.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null){
+            thread.interrupt();
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.error("Failed to write {} task history changes before shutdown", buffer.size(), e);
+        }
+    }
+
+    private void enqueue(PendingChange change) {
+        if (buffer.offer(change)){
+            return;
+        }
+        overflows.increment();
+        try {
+            write(List.of(change));
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.warn("Failed to write task history change of task {} synchronously, waiting for buffer space",
+                    change.taskId(), e);
+            try {
+                buffer.put(change);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                log.error("Lost task history change of task {}: interrupted while waiting for buffer space",
+                        change.taskId());
+            }
+        }
+    }
+
+    /**
+     * Цикл потока записи. Пачка очищается только после успешной записи, иначе повторяется
+     * с задержкой retryDelay * 2^(попытка - 1), не больше maxRetryDelay.
+     * При остановке незаписанная пачка возвращается в буфер для финальной записи в stop.
+     */
+    private void writeLoop() {
+        List<PendingChange> batch = new ArrayList<>(batchSize);
+        long delay = retryDelay.toMillis();
+        while (running){
+            try {
+                if (batch.isEmpty()){
+                    batch.add(buffer.take());
+                    buffer.drainTo(batch, batchSize - 1);
+                }
+                try {
+                    write(batch);
+                    batch.clear();
+                    delay = retryDelay.toMillis();
+                } catch (DataAccessException e) {
+                    failures.increment();
+                    log.warn("Failed to write {} task history changes, retrying in {} ms", batch.size(), delay, e);
+                    Thread.sleep(delay);
+                    delay = Math.min(delay * 2, maxRetryDelay.toMillis());
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        batch.forEach(buffer::offer);
+    }
+
+    private void write(List<PendingChange> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingChange change : batch){
+            try {
+                rows.add(new Object[]{change.taskId(), change.actorId(), change.type().name(),
+                        objectMapper.writeValueAsString(change.changes()), Timestamp.valueOf(change.changedAt())});
+            } catch (JsonProcessingException e) {
+                log.error("Skipped task history change of task {} that can't be serialized", change.taskId(), e);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Поля, значения которых различаются, в виде "поле": [старое значение, новое значение].
+     */
+    private Map<String, Object> diff(Map<String, Object> before, Map<String, Object> after) {
+        Set<String> fields = new LinkedHashSet<>(before.keySet());
+        fields.addAll(after.keySet());
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : fields){
+            Object oldValue = before.get(field);
+            Object newValue = after.get(field);
+            if (!Objects.equals(oldValue, newValue)){
+                changes.put(field, Arrays.asList(oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    private record PendingChange(Long taskId, Long actorId, TaskEventType type,
+                                 Map<String, Object> changes, LocalDateTime changedAt) {
+    }
+}
@@ -0,0 +1,336 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.ReminderSettings;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskReminder;
+import com.artur.task_management_system.model.TaskReminderNotice;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.ReminderSettingsRepository;
+import com.artur.task_management_system.repository.TaskReminderRepository;
+import com.artur.task_management_system.scheduling.HierarchicalTimingWheel;
+import com.artur.task_management_system.service.EmailService;
+import com.artur.task_management_system.service.TaskReminderService;
+import com.artur.task_management_system.service.TransactionCallbacks;
+import com.artur.task_management_system.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис напоминаний о сроках задач.
+ *
+ * Напоминания хранятся в task_reminder_table, а их срабатывание отслеживает колесо таймеров в памяти узла.
+ * В колесо попадают только напоминания в пределах окна загрузки: при старте и периодически они читаются
+ * индексным запросом по remind_at, а изменения задач на этом узле обновляют колесо после фиксации транзакции.
+ * Изменения задач на других узлах попадают в колесо при следующей загрузке.
+ * Сработавшее напоминание захватывается переносом remind_at на время повторной попытки, поэтому при нескольких
+ * узлах письмо отправляет один из них. Строка удаляется только после отправки письма: если отправка не удалась
+ * или узел остановился, напоминание сработает снова через retryDelay, пока не наступит срок задачи.
+ * Письма отправляются в виртуальных потоках с ограничением числа одновременных отправок.
+ */
+@Slf4j
+@Service
+public class TaskReminderServiceImpl implements TaskReminderService {
+    private static final LocalDateTime LOAD_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String CLAIM_SQL = """
+            UPDATE task_reminder_table SET remind_at = ?
+            WHERE id = ANY(?) AND remind_at <= ?
+            RETURNING id""";
+    private static final String DELETE_SQL = "DELETE FROM task_reminder_table WHERE id = ANY(?)";
+
+    private final TaskReminderRepository taskReminderRepository;
+    private final ReminderSettingsRepository reminderSettingsRepository;
+    private final UserService userService;
+    private final EmailService emailService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore emailPermits;
+    private final List<Integer> defaultOffsets;
+    private final Duration window;
+    private final Duration retryDelay;
+    private final int loadBatchSize;
+    private final Counter sent;
+    private final Counter failures;
+
+    public TaskReminderServiceImpl(TaskReminderRepository taskReminderRepository,
+                                   ReminderSettingsRepository reminderSettingsRepository,
+                                   UserService userService,
+                                   EmailService emailService,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${artur.reminders.default-offsets}") List<Integer> defaultOffsets,
+                                   @Value("${artur.reminders.tick}") Duration tick,
+                                   @Value("${artur.reminders.wheel-slots}") int wheelSlots,
+                                   @Value("${artur.reminders.wheel-levels}") int wheelLevels,
+                                   @Value("${artur.reminders.window}") Duration window,
+                                   @Value("${artur.reminders.retry-delay}") Duration retryDelay,
+                                   @Value("${artur.reminders.load-batch-size}") int loadBatchSize,
+                                   @Value("${artur.reminders.max-concurrent-emails}") int maxConcurrentEmails) {
+        this.wheel = new HierarchicalTimingWheel<>(tick, wheelSlots, wheelLevels, System.currentTimeMillis());
+        if (window.toMillis() > wheel.horizonMillis()){
+            throw new IllegalArgumentException(String.format(
+                    "Reminder window %s is longer than timing wheel horizon %s",
+                    window, Duration.ofMillis(wheel.horizonMillis())));
+        }
+        this.taskReminderRepository = taskReminderRepository;
+        this.reminderSettingsRepository = reminderSettingsRepository;
+        this.userService = userService;
+        this.emailService = emailService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailPermits = new Semaphore(maxConcurrentEmails);
+        this.defaultOffsets = normalize(defaultOffsets);
+        this.window = window;
+        this.retryDelay = retryDelay;
+        this.loadBatchSize = loadBatchSize;
+        this.sent = Counter.builder("task.reminders.sent")
+                .description("Deadline reminder emails sent")
+                .register(meterRegistry);
+        this.failures = Counter.builder("task.reminders.failures")
+                .description("Deadline reminder emails that failed to send")
+                .register(meterRegistry);
+        meterRegistry.gauge("task.reminders.scheduled", wheel, HierarchicalTimingWheel::size);
+    }
+
+    @Override
+    public void syncReminders(Task task) {
+        List<TaskReminder> previous = taskReminderRepository.findAllByTaskId(task.getId());
+        taskReminderRepository.deleteAllInBatch(previous);
+        List<TaskReminder> reminders = task.getStatus() == TaskStatus.COMPLETED ? List.of() : buildReminders(task);
+        taskReminderRepository.saveAll(reminders);
+        TransactionCallbacks.afterCommit(() -> {
+            previous.forEach(reminder -> wheel.cancel(reminder.getId()));
+            LocalDateTime until = LocalDateTime.now().plus(window);
+            reminders.stream()
+                    .filter(reminder -> reminder.getRemindAt().isBefore(until))
+                    .forEach(this::schedule);
+        });
+    }
+
+    @Override
+    public void cancelReminders(Task task) {
+        List<TaskReminder> previous = taskReminderRepository.findAllByTaskId(task.getId());
+        taskReminderRepository.deleteAllInBatch(previous);
+        TransactionCallbacks.afterCommit(() -> previous.forEach(reminder -> wheel.cancel(reminder.getId())));
+    }
+
+    @Override
+    public List<Integer> getMyReminderOffsets() {
+        return reminderSettingsRepository.findById(getLoggedInUser().getId())
+                .map(ReminderSettings::getOffsetsMinutes)
+                .orElse(defaultOffsets);
+    }
+
+    @Override
+    @Transactional
+    public List<Integer> updateMyReminderOffsets(List<Integer> offsetsMinutes) {
+        ReminderSettings settings = new ReminderSettings(getLoggedInUser().getId(), normalize(offsetsMinutes));
+        return reminderSettingsRepository.save(settings).getOffsetsMinutes();
+    }
+
+    @Override
+    public int loadUpcomingReminders() {
+        LocalDateTime until = LocalDateTime.now().plus(window);
+        LocalDateTime afterRemindAt = LOAD_START;
+        Long afterId = 0L;
+        int loaded = 0;
+        List<TaskReminder> reminders;
+        do {
+            reminders = taskReminderRepository.findNextReminders(afterRemindAt, afterId, until,
+                    PageRequest.of(0, loadBatchSize));
+            reminders.forEach(this::schedule);
+            loaded += reminders.size();
+            if (!reminders.isEmpty()){
+                TaskReminder last = reminders.get(reminders.size() - 1);
+                afterRemindAt = last.getRemindAt();
+                afterId = last.getId();
+            }
+        } while (reminders.size() == loadBatchSize);
+        log.debug("Loaded {} upcoming task reminders", loaded);
+        return loaded;
+    }
+
+    @Override
+    public int fireDueReminders() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (!due.isEmpty()){
+            executor.execute(() -> sendReminders(due));
+        }
+        return due.size();
+    }
+
+    /**
+     * Загружает напоминания при старте и затем периодически, до того как они войдут в окно загрузки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${artur.reminders.load-delay}", fixedDelayString = "${artur.reminders.load-delay}")
+    public void load() {
+        loadUpcomingReminders();
+    }
+
+    @Scheduled(fixedDelayString = "${artur.reminders.tick}")
+    public void tick() {
+        fireDueReminders();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Захватывает сработавшие напоминания и отправляет письма. Напоминания, захваченные другим узлом
+     * или удаленные вместе с задачей, пропускаются. Напоминания о задачах, срок которых уже прошел,
+     * удаляются без отправки.
+     */
+    private void sendReminders(List<Long> reminderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime retryAt = now.plus(retryDelay);
+        List<TaskReminderNotice> notices;
+        try {
+            notices = transactionTemplate.execute(status -> {
+                List<TaskReminderNotice> found = taskReminderRepository.findNotices(reminderIds);
+                Set<Long> claimed = new LinkedHashSet<>(jdbcTemplate.queryForList(CLAIM_SQL, Long.class,
+                        Timestamp.valueOf(retryAt), reminderIds.toArray(Long[]::new), Timestamp.valueOf(now)));
+                return found.stream().filter(notice -> claimed.contains(notice.reminderId())).toList();
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to claim {} task reminders", reminderIds.size(), e);
+            return;
+        }
+        List<Long> expired = new ArrayList<>();
+        for (TaskReminderNotice notice : notices){
+            if (notice.deadLineDate().isAfter(now)){
+                executor.execute(() -> sendReminder(notice, retryAt));
+            } else {
+                expired.add(notice.reminderId());
+            }
+        }
+        if (!expired.isEmpty()){
+            delete(expired);
+        }
+    }
+
+    /**
+     * Отправляет письмо и удаляет напоминание. Если отправка не удалась, напоминание остается
+     * захваченным до retryAt и ставится в колесо на это время.
+     */
+    private void sendReminder(TaskReminderNotice notice, LocalDateTime retryAt) {
+        try {
+            emailPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            emailService.sendDeadlineReminderEmail(notice.email(), notice.name(), notice.taskTitle(),
+                    notice.deadLineDate());
+            sent.increment();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to send reminder {} of task {}, retrying at {}",
+                    notice.reminderId(), notice.taskId(), retryAt, e);
+            wheel.schedule(notice.reminderId(), toEpochMillis(retryAt));
+            return;
+        } finally {
+            emailPermits.release();
+        }
+        delete(List.of(notice.reminderId()));
+    }
+
+    /**
+     * Удаляет отправленные или устаревшие напоминания. Если удаление не удалось, напоминание
+     * сработает снова после окончания захвата.
+     */
+    private void delete(List<Long> reminderIds) {
+        try {
+            jdbcTemplate.update(DELETE_SQL, (Object) reminderIds.toArray(Long[]::new));
+        } catch (RuntimeException e) {
+            log.error("Failed to delete {} task reminders", reminderIds.size(), e);
+        }
+    }
+
+    /**
+     * Напоминания для автора и исполнителей задачи, срок которых еще не наступил.
+     */
+    private List<TaskReminder> buildReminders(Task task) {
+        Set<Long> recipientIds = new LinkedHashSet<>();
+        recipientIds.add(task.getAuthor().getId());
+        task.getPerformers().forEach(performer -> recipientIds.add(performer.getId()));
+        Map<Long, List<Integer>> offsetsByUser = reminderSettingsRepository.findAllById(recipientIds).stream()
+                .collect(Collectors.toMap(ReminderSettings::getUserId, ReminderSettings::getOffsetsMinutes));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskReminder> reminders = new ArrayList<>();
+        for (Long userId : recipientIds){
+            for (Integer offset : offsetsByUser.getOrDefault(userId, defaultOffsets)){
+                LocalDateTime remindAt = task.getDeadLineDate().minusMinutes(offset);
+                if (remindAt.isAfter(now)){
+                    reminders.add(new TaskReminder(null, task.getId(), userId, offset, remindAt));
+                }
+            }
+        }
+        return reminders;
+    }
+
+    private void schedule(TaskReminder reminder) {
+        wheel.schedule(reminder.getId(), toEpochMillis(reminder.getRemindAt()));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static List<Integer> normalize(List<Integer> offsets) {
+        return offsets.stream()
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Возвращает текущего аутентифицированного пользователя.
+     *
+     * @return объект User, представляющий текущего аутентифицированного пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+}
@@ -4,23 +4,39 @@ import com.artur.task_management_system.dto.TaskCreationDTO;
 import com.artur.task_management_system.exception.EntityNotFoundByIdException;
 import com.artur.task_management_system.exception.NoRightsException;
 import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.KeysetPageResponse;
+import com.artur.task_management_system.model.BatchLookupResponse;
 import com.artur.task_management_system.model.Task;
 import com.artur.task_management_system.model.TaskComment;
 import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.TaskPriority;
 import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
 import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.CacheInvalidationBus;
+import com.artur.task_management_system.service.PageablePlanner;
+import com.artur.task_management_system.service.TaskAnalyticsService;
+import com.artur.task_management_system.service.TaskEventService;
+import com.artur.task_management_system.service.TaskHistoryService;
+import com.artur.task_management_system.service.TaskReminderService;
 import com.artur.task_management_system.service.TaskService;
+import com.artur.task_management_system.service.TaskSyncService;
 import com.artur.task_management_system.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -32,13 +48,24 @@ import java.util.stream.Collectors;
 @Service
 @AllArgsConstructor
 public class TaskServiceImpl implements TaskService {
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final int MAX_LOOKUP_IDS = 500;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final TaskRepository taskRepository;
     private final UserService userService;
+    private final PageablePlanner pageablePlanner;
+    private final TaskSyncService taskSyncService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TaskEventService taskEventService;
+    private final TaskHistoryService taskHistoryService;
+    private final TaskAnalyticsService taskAnalyticsService;
+    private final TaskReminderService taskReminderService;
 
     @Override
     public Page<Task> getAllTasks(Integer pageNumber, Integer pageSize,
                                   String field, String directionStr) {
-        Pageable pageable = makePageable(pageNumber, pageSize, field, directionStr);
+        Pageable pageable = pageablePlanner.makePageable(Task.class, pageNumber, pageSize, field, directionStr);
         return taskRepository.findAll(pageable);
     }
 
@@ -48,6 +75,16 @@ public class TaskServiceImpl implements TaskService {
         return taskOptional.orElseThrow(() -> new EntityNotFoundByIdException("task", taskId));
     }
 
+    @Override
+    public BatchLookupResponse<Task> getTasksByIds(List<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty() || taskIds.size() > MAX_LOOKUP_IDS){
+            throw new IllegalStateException(
+                    String.format("Number of ids must be between 1 and %d", MAX_LOOKUP_IDS));
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(taskIds);
+        return BatchLookupResponse.of(ids, taskRepository.findAllById(ids), Task::getId);
+    }
+
     @Override
     @Transactional
     public void deleteTaskById(Long taskId) {
@@ -60,6 +97,15 @@ public class TaskServiceImpl implements TaskService {
         for (User performer : task.getPerformers()){
             performer.removeAssignedTask(task);
         }
+        task.getAuthor().removeCreatedTask(task);
+        taskSyncService.recordDeletion(task);
+        taskHistoryService.recordChange(TaskEventType.TASK_DELETED, task, loggedInUser.getId(),
+                taskHistoryService.snapshot(task), Map.of());
+        taskReminderService.cancelReminders(task);
+        taskEventService.raise(TaskEventType.TASK_DELETED, task, loggedInUser.getId(), Map.of());
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(),
+                () -> CacheInvalidationBus.DELETED_VERSION);
+        publishTaskListChanges(task, Set.of());
         taskRepository.delete(task);
     }
 
@@ -69,23 +115,47 @@ public class TaskServiceImpl implements TaskService {
         User loggedInUser = getLoggedInUser();
         Task task = new Task();
         copyTaskFromDTO(task, taskDTO);
+        taskAnalyticsService.recordStatusChange(task, null, loggedInUser.getId());
         User author = userService.getUserById(loggedInUser.getId());
         task.setAuthor(author);
         taskRepository.save(task);
         task.getAuthor().addCreatedTask(task);
+        taskSyncService.recordChange(task);
+        taskEventService.raise(TaskEventType.TASK_CREATED, task, loggedInUser.getId(), Map.of());
+        taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task, loggedInUser.getId(), Map.of(), Map.of());
+        taskReminderService.syncReminders(task);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(), task::getVersion);
+        publishTaskListChanges(task, Set.of());
         return task.getId();
     }
 
     @Override
+    @Transactional
     public void updateTask(Long taskId, TaskCreationDTO taskDTO) {
         User loggedInUser = getLoggedInUser();
-        Task task = getTaskById(taskId);
+        Task task = getTaskForPerformerChange(taskId);
         if (!Objects.equals(task.getAuthor().getId(), loggedInUser.getId())){
             throw new NoRightsException("You have no rights to update not yours task");
         }
 
+        Set<User> previousPerformers = Set.copyOf(task.getPerformers());
+        Map<String, Object> before = taskHistoryService.snapshot(task);
+        TaskStatus previousStatus = task.getStatus();
         copyTaskFromDTO(task, taskDTO);
+        taskAnalyticsService.recordStatusChange(task, previousStatus, loggedInUser.getId());
         taskRepository.save(task);
+        for (User performer : previousPerformers){
+            if (!task.getPerformers().contains(performer)){
+                performer.removeAssignedTask(task);
+            }
+        }
+        task.getPerformers().forEach(performer -> performer.addAssignedTask(task));
+        taskSyncService.recordChange(task);
+        taskEventService.raise(TaskEventType.TASK_UPDATED, task, loggedInUser.getId(), Map.of());
+        taskHistoryService.recordChange(TaskEventType.TASK_UPDATED, task, loggedInUser.getId(), before, Map.of());
+        taskReminderService.syncReminders(task);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(), task::getVersion);
+        publishTaskListChanges(task, previousPerformers);
     }
 
     @Override
@@ -102,11 +172,34 @@ public class TaskServiceImpl implements TaskService {
         return getAllTasksByPerformerId(loggedInUser.getId(), pageNumber, pageSize, field, directionStr);
     }
 
+    @Override
+    public KeysetPageResponse<Task> getInboxTasks(String cursor, Integer pageSize) {
+        if (pageSize == null || pageSize < 1 || pageSize > MAX_INBOX_PAGE_SIZE){
+            throw new IllegalStateException(
+                    String.format("Page size must be between 1 and %d", MAX_INBOX_PAGE_SIZE));
+        }
+        User loggedInUser = getLoggedInUser();
+
+        List<Task> tasks;
+        if (cursor == null){
+            tasks = taskRepository.findInboxFirstPage(loggedInUser.getId(), pageSize + 1);
+        }else{
+            tasks = findInboxPageAfter(loggedInUser.getId(), cursor, pageSize + 1);
+        }
+
+        String nextCursor = null;
+        if (tasks.size() > pageSize){
+            tasks = tasks.subList(0, pageSize);
+            nextCursor = encodeInboxCursor(tasks.get(pageSize - 1));
+        }
+        return new KeysetPageResponse<>(tasks, pageSize, nextCursor);
+    }
+
     @Override
     public Page<Task> getAllTasksByAuthorId(Long authorId,
                                             Integer pageNumber, Integer pageSize,
                                             String field, String directionStr) {
-        Pageable pageable = makePageable(pageNumber, pageSize, field, directionStr);
+        Pageable pageable = pageablePlanner.makePageable(Task.class, pageNumber, pageSize, field, directionStr);
         return taskRepository.findAllByAuthorId(authorId, pageable);
     }
 
@@ -114,11 +207,12 @@ public class TaskServiceImpl implements TaskService {
     public Page<Task> getAllTasksByPerformerId(Long performerId,
                                                Integer pageNumber, Integer pageSize,
                                                String field, String directionStr) {
-        Pageable pageable = makePageable(pageNumber, pageSize, field, directionStr);
+        Pageable pageable = pageablePlanner.makePageable(Task.class, pageNumber, pageSize, field, directionStr);
         return taskRepository.findAllByPerformerId(performerId, pageable);
     }
 
     @Override
+    @Transactional
     public void updateTaskStatus(Long taskId, TaskStatus status) {
         User loggedInUser = getLoggedInUser();
         Task task = getTaskById(taskId);
@@ -126,30 +220,69 @@ public class TaskServiceImpl implements TaskService {
             throw new NoRightsException("You have no rights to update task status");
         }
 
+        TaskStatus previousStatus = task.getStatus();
+        Map<String, Object> before = taskHistoryService.snapshot(task);
         task.setStatus(status);
+        taskAnalyticsService.recordStatusChange(task, previousStatus, loggedInUser.getId());
         taskRepository.save(task);
+        taskSyncService.recordChange(task);
+        taskEventService.raise(TaskEventType.STATUS_CHANGED, task, loggedInUser.getId(),
+                Map.of("previousStatus", previousStatus));
+        taskHistoryService.recordChange(TaskEventType.STATUS_CHANGED, task, loggedInUser.getId(), before, Map.of());
+        taskReminderService.syncReminders(task);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(), task::getVersion);
+        publishTaskListChanges(task, Set.of());
     }
 
     @Override
     @Transactional
     public void assignTaskPerformer(Long taskId, Long performerId) {
         User loggedInUser = getLoggedInUser();
-        Task task = getTaskById(taskId);
+        Task task = getTaskForPerformerChange(taskId);
         if (!Objects.equals(task.getAuthor().getId(), loggedInUser.getId()) && !task.isAssignedTo(loggedInUser.getId())){
             throw new NoRightsException("You have no rights to assign performer to not yours tasks");
         }
 
         User performer = userService.getUserById(performerId);
+        Map<String, Object> before = taskHistoryService.snapshot(task);
         task.addPerformer(performer);
         taskRepository.save(task);
         performer.addAssignedTask(task);
+        taskSyncService.recordChange(task);
+        taskEventService.raise(TaskEventType.PERFORMER_ASSIGNED, task, loggedInUser.getId(),
+                Map.of("performerId", performerId));
+        taskHistoryService.recordChange(TaskEventType.PERFORMER_ASSIGNED, task, loggedInUser.getId(), before, Map.of());
+        taskReminderService.syncReminders(task);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(), task::getVersion);
+        publishTaskListChanges(task, Set.of());
     }
 
     @Override
+    @Transactional
     public void commentTask(Long taskId, TaskComment taskComment) {
         Task task = getTaskById(taskId);
+        Map<String, Object> before = taskHistoryService.snapshot(task);
         task.addComment(taskComment);
         taskRepository.save(task);
+        taskSyncService.recordChange(task);
+        taskEventService.raise(TaskEventType.COMMENT_ADDED, task, taskComment.getFrom().getId(),
+                Map.of("commentId", taskComment.getId(), "text", taskComment.getText()));
+        taskHistoryService.recordChange(TaskEventType.COMMENT_ADDED, task, taskComment.getFrom().getId(), before,
+                Map.of("comment", taskComment.getText()));
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, task.getId(), task::getVersion);
+        publishTaskListChanges(task, Set.of());
+    }
+
+    /**
+     * Загружает задачу, версия которой увеличится при фиксации транзакции, даже если изменятся только исполнители.
+     *
+     * @param taskId идентификатор задачи
+     * @return объект Task
+     * @throws EntityNotFoundByIdException если задача не найдена
+     */
+    private Task getTaskForPerformerChange(Long taskId) {
+        return taskRepository.findForPerformerChangeById(taskId)
+                .orElseThrow(() -> new EntityNotFoundByIdException("task", taskId));
     }
 
     /**
@@ -162,9 +295,14 @@ public class TaskServiceImpl implements TaskService {
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
         task.setPriority(taskDTO.getPriority());
-        task.setCreationDate(LocalDateTime.now());
+        if (task.getCreationDate() == null){
+            task.setCreationDate(LocalDateTime.now());
+        }
         task.setStatus(TaskStatus.NEW);
         task.setDeadLineDate(taskDTO.getDeadLineDate());
+        if (taskDTO.getDeadLineDate() != null && taskDTO.getDeadLineDate().isAfter(LocalDateTime.now())){
+            task.setOverdue(false);
+        }
 
         Set<User> performers = taskDTO.getPerformersIds().stream()
                 .map(userService::getUserById)
@@ -174,36 +312,59 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Создает объект Pageable на основе предоставленных параметров пагинации и сортировки.
+     * Уведомляет об изменении списков задач автора и исполнителей задачи.
      *
-     * @param pageNumber номер страницы для пагинации
-     * @param pageSize количество элементов на странице
-     * @param field поле для сортировки
-     * @param directionStr направление сортировки ("Asc" или "Desc")
-     * @return объект Pageable, готовый к использованию в запросах к репозиторию
-     * @throws IllegalStateException если параметры пагинации или сортировки некорректны
+     * @param task измененная задача
+     * @param previousPerformers исполнители задачи до изменения
      */
-    private Pageable makePageable(Integer pageNumber, Integer pageSize,
-                                  String field, String directionStr) {
-        if (pageNumber == null || pageSize == null){
-            throw new IllegalStateException("Pagination cannot be null");
+    private void publishTaskListChanges(Task task, Set<User> previousPerformers) {
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(task.getAuthor().getId());
+        previousPerformers.forEach(performer -> userIds.add(performer.getId()));
+        task.getPerformers().forEach(performer -> userIds.add(performer.getId()));
+        for (Long userId : userIds){
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, userId, () -> 0);
         }
+    }
 
-        Pageable pageable;
-        if (field != null && directionStr != null) {
-            Sort.Direction direction;
-            if (directionStr.equals("Asc")){
-                direction = Sort.Direction.ASC;
-            }else if(directionStr.equals("Desc")){
-                direction = Sort.Direction.DESC;
-            }else{
-                throw new IllegalStateException("Wrong sorting direction value");
-            }
-            pageable = PageRequest.of(pageNumber, pageSize, direction, field);
-        } else {
-            pageable = PageRequest.of(pageNumber, pageSize);
+    /**
+     * Кодирует позицию задачи во "входящих" в курсор.
+     * Ранг приоритета совпадает с порядковым номером {@link TaskPriority} и с CASE в запросах репозитория.
+     *
+     * @param task последняя задача на странице
+     * @return курсор следующей страницы
+     */
+    private String encodeInboxCursor(Task task) {
+        String position = task.getDeadLineDate() + CURSOR_SEPARATOR
+                + task.getPriority().ordinal() + CURSOR_SEPARATOR
+                + task.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Загружает страницу "входящих" задач после позиции, закодированной в курсоре.
+     *
+     * @param userId идентификатор текущего пользователя
+     * @param cursor курсор, полученный с предыдущей страницы
+     * @param limit максимальное количество задач
+     * @return список задач после позиции курсора
+     * @throws IllegalStateException если курсор некорректен
+     */
+    private List<Task> findInboxPageAfter(Long userId, String cursor, int limit) {
+        LocalDateTime deadLineDate;
+        int priorityRank;
+        long taskId;
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + CURSOR_SEPARATOR);
+            deadLineDate = LocalDateTime.parse(parts[0]);
+            priorityRank = Integer.parseInt(parts[1]);
+            taskId = Long.parseLong(parts[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Wrong cursor value");
         }
-        return pageable;
+        return taskRepository.findInboxPageAfter(userId, deadLineDate, priorityRank, taskId, limit);
     }
 
     /**
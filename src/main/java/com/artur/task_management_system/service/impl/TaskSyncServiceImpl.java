@@ -0,0 +1,154 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.SyncResponse;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskSyncUserState;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.repository.TaskSyncStateRepository;
+import com.artur.task_management_system.repository.TaskSyncUserStateRepository;
+import com.artur.task_management_system.service.TaskSyncService;
+import com.artur.task_management_system.service.UserService;
+import lombok.AllArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис синхронизации задач для офлайн клиентов.
+ */
+@Service
+@AllArgsConstructor
+public class TaskSyncServiceImpl implements TaskSyncService {
+    private static final int DEFAULT_SYNC_LIMIT = 500;
+    private static final int MAX_SYNC_LIMIT = 1000;
+    private static final String TOKEN_SEPARATOR = ".";
+
+    private final TaskSyncStateRepository taskSyncStateRepository;
+    private final TaskSyncUserStateRepository taskSyncUserStateRepository;
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+
+    @Override
+    public void recordChange(Task task) {
+        taskSyncStateRepository.recordChange(task.getId(), task.getAuthor().getId(),
+                toArrayLiteral(getAudience(task)), false);
+    }
+
+    @Override
+    public void recordDeletion(Task task) {
+        taskSyncStateRepository.recordChange(task.getId(), task.getAuthor().getId(),
+                toArrayLiteral(Set.of()), true);
+    }
+
+    @Override
+    public SyncResponse<Task> getChanges(String syncToken, Integer limit) {
+        if (limit == null){
+            limit = DEFAULT_SYNC_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_SYNC_LIMIT){
+            throw new IllegalStateException(String.format("Limit must be between 1 and %d", MAX_SYNC_LIMIT));
+        }
+        long[] position = syncToken == null ? new long[]{0, 0} : decodeToken(syncToken);
+        User loggedInUser = getLoggedInUser();
+
+        List<TaskSyncUserState> states = taskSyncUserStateRepository.findChangesAfter(
+                loggedInUser.getId(), position[0], position[1], limit + 1);
+        boolean hasMore = states.size() > limit;
+        if (hasMore){
+            states = states.subList(0, limit);
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (TaskSyncUserState state : states){
+            if (state.getVisible()){
+                changedIds.add(state.getTaskId());
+            }else if (syncToken != null){
+                deletedIds.add(state.getTaskId());
+            }
+        }
+
+        Map<Long, Task> tasksById = taskRepository.findAllById(changedIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> changed = changedIds.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        String nextToken = syncToken;
+        if (!states.isEmpty()){
+            TaskSyncUserState last = states.get(states.size() - 1);
+            nextToken = encodeToken(last.getTxid(), last.getChangeSeq());
+        }else if (nextToken == null){
+            nextToken = encodeToken(0, 0);
+        }
+        return new SyncResponse<>(changed, deletedIds, nextToken, hasMore);
+    }
+
+    /**
+     * Возвращает пользователей, которые видят задачу: автора и исполнителей.
+     *
+     * @param task задача
+     * @return идентификаторы пользователей
+     */
+    private static Set<Long> getAudience(Task task) {
+        Set<Long> userIds = new TreeSet<>();
+        userIds.add(task.getAuthor().getId());
+        task.getPerformers().forEach(performer -> userIds.add(performer.getId()));
+        return userIds;
+    }
+
+    private static String toArrayLiteral(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * Кодирует позицию изменения в токен синхронизации.
+     *
+     * @param txid идентификатор транзакции изменения
+     * @param changeSeq номер изменения
+     * @return токен синхронизации
+     */
+    private String encodeToken(long txid, long changeSeq) {
+        String position = txid + TOKEN_SEPARATOR + changeSeq;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует токен синхронизации в позицию изменения.
+     *
+     * @param syncToken токен синхронизации
+     * @return идентификатор транзакции и номер изменения
+     * @throws IllegalStateException если токен некорректен
+     */
+    private long[] decodeToken(String syncToken) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(syncToken), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + TOKEN_SEPARATOR);
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Wrong sync token value");
+        }
+    }
+
+    /**
+     * Возвращает текущего аутентифицированного пользователя.
+     *
+     * @return объект User, представляющий текущего аутентифицированного пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+}
@@ -0,0 +1,170 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.cache.SingleFlight;
+import com.artur.task_management_system.dto.mappers.TaskMapper;
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.CacheInvalidationListener;
+import com.artur.task_management_system.service.TaskViewCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кэш сериализованных представлений задач.
+ *
+ * Запись хранит версию задачи. Удаление задачи из кэша оставляет запись без данных с новой версией,
+ * поэтому чтение, начатое до фиксации изменения, не сможет вернуть в кэш устаревшую версию.
+ * Запись также хранит версии пользователей, попавших в представление. Кэш помнит последние версии измененных
+ * пользователей не меньше срока жизни записей и не отдает и не сохраняет представления с более старыми версиями.
+ * Одновременные промахи по одной задаче выполняют одну загрузку.
+ */
+@Service
+public class TaskViewCacheImpl implements TaskViewCache, CacheInvalidationListener {
+    private static final String CACHE_NAME = "taskView";
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, CachedTaskView> cache;
+    private final Cache<Long, Integer> userVersions;
+    private final SingleFlight<Long, byte[]> taskViewLoads;
+
+    public TaskViewCacheImpl(TaskRepository taskRepository,
+                             TaskMapper taskMapper,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${artur.cache.task-view.max-size}") long maxSize,
+                             @Value("${artur.cache.task-view.ttl}") Duration ttl) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.userVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.taskViewLoads = new SingleFlight<>(CACHE_NAME, meterRegistry);
+    }
+
+    @Override
+    public byte[] getTaskView(Long taskId) {
+        CachedTaskView cached = cache.getIfPresent(taskId);
+        if (cached != null && cached.json() != null && hasCurrentUsers(cached)){
+            return cached.json();
+        }
+
+        return taskViewLoads.execute(taskId, () -> {
+            CachedTaskView loaded = readOnlyTransaction.execute(status -> load(taskId));
+            cache.asMap().compute(taskId, (key, current) -> {
+                if (!hasCurrentUsers(loaded)){
+                    return current;
+                }
+                return current == null || loaded.version() >= current.version() ? loaded : current;
+            });
+            return loaded.json();
+        });
+    }
+
+    /**
+     * Оставляет в кэше запись без данных с версией задачи после изменения.
+     * Для пользователя запоминается его версия после изменения: представления, содержащие его более старую
+     * версию, считаются устаревшими.
+     */
+    @Override
+    public void onInvalidation(CacheEntityType entityType, Long id, int version) {
+        if (entityType == CacheEntityType.USER){
+            userVersions.asMap().merge(id, version, Math::max);
+            return;
+        }
+        if (entityType != CacheEntityType.TASK){
+            return;
+        }
+        cache.asMap().merge(id, new CachedTaskView(version, null, Map.of()),
+                (current, tombstone) -> tombstone.version() >= current.version() ? tombstone : current);
+    }
+
+    @Override
+    public void onResync() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return true, если ни один пользователь представления не изменялся после его загрузки
+     */
+    private boolean hasCurrentUsers(CachedTaskView view) {
+        for (Map.Entry<Long, Integer> user : view.userVersions().entrySet()){
+            Integer changedVersion = userVersions.getIfPresent(user.getKey());
+            if (changedVersion != null && user.getValue() < changedVersion){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Загружает задачу и сериализует ее представление.
+     *
+     * @param taskId идентификатор задачи
+     * @return представление задачи с ее версией
+     * @throws EntityNotFoundByIdException если задача не найдена
+     */
+    private CachedTaskView load(Long taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new EntityNotFoundByIdException("task", taskId));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(taskMapper.taskToTaskViewDTO(task));
+            return new CachedTaskView(task.getVersion() == null ? 0 : task.getVersion(), json, userVersionsOf(task));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return версии автора, исполнителей и авторов комментариев задачи
+     */
+    private static Map<Long, Integer> userVersionsOf(Task task) {
+        Map<Long, Integer> versions = new HashMap<>();
+        addUserVersion(versions, task.getAuthor());
+        task.getPerformers().forEach(performer -> addUserVersion(versions, performer));
+        task.getComments().forEach(comment -> addUserVersion(versions, comment.getFrom()));
+        return versions;
+    }
+
+    private static void addUserVersion(Map<Long, Integer> versions, User user) {
+        if (user != null && user.getId() != null){
+            versions.put(user.getId(), user.getVersion() == null ? 0 : user.getVersion());
+        }
+    }
+
+    /**
+     * Запись кэша: версия задачи, JSON ее представления (null для удаленной из кэша записи)
+     * и версии пользователей в представлении.
+     */
+    private record CachedTaskView(int version, byte[] json, Map<Long, Integer> userVersions) {
+    }
+}
@@ -25,6 +25,7 @@ public class UserConfirmationServiceImpl implements UserConfirmationService {
     private final EmailService emailService;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final LoginAttemptService loginAttemptService;
 
     @Override
     public void updateLoggedInUser(User user) {
@@ -35,7 +36,7 @@ public class UserConfirmationServiceImpl implements UserConfirmationService {
             ConfirmationToken confirmationToken = confirmationTokenOptional.get();
             confirmationTokenService.saveConfirmationToken(confirmationToken);
 
-            String token = confirmationToken.getToken();
+            String token = confirmationToken.getToken().toString();
             String link = "http://localhost:8080/api/auth/confirm?token=" + token;
             emailService.sendConfirmationEmail(
                     user.getEmail(),
@@ -51,7 +52,7 @@ public class UserConfirmationServiceImpl implements UserConfirmationService {
         confirmationTokenService.saveConfirmationToken(confirmationToken);
         String jwt = jwtService.generateToken(user);
 
-        String emailToken = confirmationToken.getToken();
+        String emailToken = confirmationToken.getToken().toString();
         String link = "http://localhost:8080/api/auth/confirm?token=" + emailToken;
         emailService.sendConfirmationEmail(
                 user.getEmail(),
@@ -61,14 +62,31 @@ public class UserConfirmationServiceImpl implements UserConfirmationService {
         return new AuthenticationResponse(jwt, emailToken);
     }
 
+    /**
+     * Вход, отложенный после неудачных попыток, отклоняется до проверки пароля.
+     */
     @Override
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        loginAttemptService.checkAllowed(request.getEmail());
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptService.loginFailed(request.getEmail());
+            throw e;
+        } catch (InternalAuthenticationServiceException e) {
+            // Для неизвестного пользователя DaoAuthenticationProvider проверяет пароль внутри поиска пользователя
+            // и оборачивает исключения кодировщика
+            if (e.getCause() instanceof PasswordHashingOverloadedException overloaded){
+                throw overloaded;
+            }
+            throw e;
+        }
+        loginAttemptService.loginSucceeded(request.getEmail());
         User user = userService.getUserByEmail(request.getEmail());
         String jwt = jwtService.generateToken(user);
         AuthenticationResponse authenticationResponse = new AuthenticationResponse();
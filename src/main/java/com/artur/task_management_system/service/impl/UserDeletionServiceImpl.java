@@ -0,0 +1,360 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.cache.SecondLevelCacheInvalidationListener;
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.TaskSyncStateRepository;
+import com.artur.task_management_system.repository.UserRepository;
+import com.artur.task_management_system.scheduling.BackgroundJobContext;
+import com.artur.task_management_system.scheduling.BackgroundJobHandler;
+import com.artur.task_management_system.service.BackgroundJobService;
+import com.artur.task_management_system.service.CacheInvalidationBus;
+import com.artur.task_management_system.service.TransactionCallbacks;
+import com.artur.task_management_system.service.UserDeletionService;
+import com.artur.task_management_system.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сервис удаления пользователей, выполняемого длительным заданием.
+ *
+ * Данные пользователя удаляются SQL запросами над множествами строк, без загрузки сущностей: сначала порциями
+ * созданные им задачи со всеми зависимыми строками, затем порциями его назначения и комментарии к чужим задачам,
+ * и в последней транзакции остальные строки и сам пользователь. Порция фиксируется вместе с позицией задания
+ * (этапом и счетчиками), поэтому после перезапуска задание продолжается с того же этапа. Удаление нельзя
+ * отменить: пока оно не завершено, пользователь отключен и не может выполнять запросы.
+ * Hibernate не видит этих изменений, поэтому затронутые записи кэша второго уровня узла удаляются
+ * после фиксации явно, а другие узлы удаляют их по уведомлениям шины инвалидации.
+ */
+@Slf4j
+@Service
+public class UserDeletionServiceImpl implements UserDeletionService, BackgroundJobHandler {
+    public static final String JOB_TYPE = "user-deletion";
+    private static final String PHASE = "phase";
+    private static final String DELETED_TASKS = "deletedTasks";
+    private static final String REMOVED_ASSIGNMENTS = "removedAssignments";
+    private static final String DELETED_COMMENTS = "deletedComments";
+    static final String COUNT_SQL = """
+            SELECT (SELECT count(*) FROM task_table WHERE author_id = ?)
+                 + (SELECT count(*) FROM task_performers p
+                    WHERE p.user_id = ?
+                      AND NOT EXISTS (SELECT 1 FROM task_table t WHERE t.id = p.task_id AND t.author_id = ?))
+                 + (SELECT count(*) FROM task_comment_table c
+                    WHERE c.from_id = ?
+                      AND NOT EXISTS (SELECT 1 FROM task_table t WHERE t.id = c.task_id AND t.author_id = ?))""";
+    static final String DELETE_CREATED_TASKS_SQL = """
+            WITH doomed AS (
+                SELECT id FROM task_table
+                WHERE author_id = ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE
+            ), performers AS (
+                DELETE FROM task_performers
+                WHERE task_id IN (SELECT id FROM doomed)
+                RETURNING user_id
+            ), events AS (
+                INSERT INTO outbox_event_table (id, event_type, task_id, actor_id, payload, txid, created_at)
+                SELECT nextval('outbox_event_id'), 'TASK_DELETED', t.id, t.author_id,
+                       jsonb_build_object(
+                           'taskId', t.id,
+                           'authorId', t.author_id,
+                           'performerIds', coalesce((SELECT jsonb_agg(p.user_id ORDER BY p.user_id)
+                                                     FROM task_performers p WHERE p.task_id = t.id), '[]'::jsonb),
+                           'title', t.title,
+                           'status', t.status,
+                           'priority', t.priority,
+                           'deadLineDate', to_char(t.dead_line_date, 'YYYY-MM-DD"T"HH24:MI:SS')),
+                       pg_current_xact_id()::text::bigint, clock_timestamp()
+                FROM task_table t
+                WHERE t.id IN (SELECT id FROM doomed)
+            ), comments AS (
+                DELETE FROM task_comment_table WHERE task_id IN (SELECT id FROM doomed)
+            ), reminders AS (
+                DELETE FROM task_reminder_table WHERE task_id IN (SELECT id FROM doomed)
+            ), notifications AS (
+                DELETE FROM overdue_notification_table WHERE task_id IN (SELECT id FROM doomed)
+            ), synced AS (
+                INSERT INTO task_sync_table (task_id, author_id, visible_user_ids, txid, change_seq, deleted, changed_at)
+                SELECT d.id, ?, '{}',
+                       pg_current_xact_id()::text::bigint, nextval('task_change_seq'), true, clock_timestamp()
+                FROM doomed d
+                """ + TaskSyncStateRepository.UPSERT_SQL + """
+            ), deleted AS (
+                DELETE FROM task_table WHERE id IN (SELECT id FROM doomed)
+                RETURNING id
+            )
+            SELECT 'task' AS kind, id FROM deleted
+            UNION ALL
+            SELECT DISTINCT 'performer', user_id FROM performers""";
+    /**
+     * Продолжение запросов, удаляющих строки removed(task_id): увеличивает версии затронутых задач
+     * и записывает их изменение для синхронизации. Удаляемый пользователь, переданный последним параметром,
+     * не считается видящим задачу: подзапросы видят назначения до удаления в этом же запросе.
+     * Возвращает одну строку на удаленную строку.
+     */
+    private static final String TOUCH_TASKS_SQL = """
+            , touched AS (
+                UPDATE task_table t SET version = t.version + 1
+                WHERE t.id IN (SELECT task_id FROM removed)
+                RETURNING t.id, t.author_id, t.version
+            ), synced AS (
+                INSERT INTO task_sync_table (task_id, author_id, visible_user_ids, txid, change_seq, deleted, changed_at)
+                SELECT t.id, t.author_id,
+                       ARRAY(SELECT t.author_id
+                             UNION
+                             SELECT p.user_id FROM task_performers p
+                             WHERE p.task_id = t.id AND p.user_id <> ?),
+                       pg_current_xact_id()::text::bigint, nextval('task_change_seq'), false, clock_timestamp()
+                FROM touched t
+                """ + TaskSyncStateRepository.UPSERT_SQL + """
+            )
+            SELECT r.task_id AS id, t.author_id, t.version
+            FROM removed r
+            JOIN touched t ON t.id = r.task_id""";
+    static final String REMOVE_ASSIGNMENTS_SQL = """
+            WITH removed AS (
+                DELETE FROM task_performers
+                WHERE user_id = ? AND task_id IN (
+                    SELECT task_id FROM task_performers
+                    WHERE user_id = ?
+                    ORDER BY task_id
+                    LIMIT ?
+                )
+                RETURNING task_id
+            )""" + TOUCH_TASKS_SQL;
+    static final String DELETE_COMMENTS_SQL = """
+            WITH removed AS (
+                DELETE FROM task_comment_table
+                WHERE id IN (
+                    SELECT id FROM task_comment_table
+                    WHERE from_id = ?
+                    ORDER BY id
+                    LIMIT ?
+                )
+                RETURNING task_id
+            )""" + TOUCH_TASKS_SQL;
+    static final List<String> DELETE_USER_SQL = List.of(
+            "DELETE FROM confirmation_token_table WHERE user_id = ?",
+            "DELETE FROM reminder_settings_table WHERE user_id = ?",
+            "DELETE FROM task_sync_user_table WHERE user_id = ?",
+            "DELETE FROM task_reminder_table WHERE user_id = ?",
+            "DELETE FROM overdue_notification_table WHERE author_id = ?",
+            "DELETE FROM user_table WHERE id = ?");
+    private static final String SELECT_EMAIL_SQL = "SELECT email FROM user_table WHERE id = ?";
+
+    private final BackgroundJobService backgroundJobService;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final SecondLevelCacheInvalidationListener secondLevelCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UserDeletionServiceImpl(BackgroundJobService backgroundJobService,
+                                   UserRepository userRepository,
+                                   UserService userService,
+                                   CacheInvalidationBus cacheInvalidationBus,
+                                   SecondLevelCacheInvalidationListener secondLevelCache,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${artur.user-deletion.chunk-size}") int chunkSize) {
+        this.backgroundJobService = backgroundJobService;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.secondLevelCache = secondLevelCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BackgroundJob requestLoggedInUserDeletion() {
+        return transactionTemplate.execute(status -> {
+            User user = getLoggedInUser();
+            return backgroundJobService.findUnfinishedJob(JOB_TYPE, user.getId())
+                    .orElseGet(() -> {
+                        user.setEnabled(false);
+                        userRepository.save(user);
+                        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, user.getId(), user::getVersion);
+                        return backgroundJobService.submitJob(JOB_TYPE, user.getId(), Map.of());
+                    });
+        });
+    }
+
+    @Override
+    public String getType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public boolean isCancellable() {
+        return false;
+    }
+
+    @Override
+    public void run(BackgroundJobContext context) {
+        Long userId = context.getOwnerId();
+        Map<String, Object> checkpoint = new LinkedHashMap<>(context.getCheckpoint());
+        if (checkpoint.isEmpty()){
+            Long total = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, userId, userId, userId, userId, userId);
+            context.setTotal(total == null ? 0 : total);
+            checkpoint.put(PHASE, Phase.TASKS.name());
+        }
+        Phase phase = Phase.valueOf((String) checkpoint.get(PHASE));
+        while (phase != Phase.USER){
+            int count = switch (phase){
+                case TASKS -> deleteCreatedTasksChunk(context, checkpoint, userId);
+                case ASSIGNMENTS -> updateChunk(context, checkpoint, REMOVE_ASSIGNMENTS_SQL, REMOVED_ASSIGNMENTS,
+                        userId, userId, chunkSize, userId);
+                case COMMENTS -> updateChunk(context, checkpoint, DELETE_COMMENTS_SQL, DELETED_COMMENTS,
+                        userId, chunkSize, userId);
+                case USER -> 0;
+            };
+            if (count < chunkSize){
+                phase = Phase.values()[phase.ordinal() + 1];
+                checkpoint.put(PHASE, phase.name());
+                context.checkpoint(checkpoint, 0);
+            }
+        }
+        deleteUser(userId);
+        log.info("Deleted user {} by job {}", userId, context.getJobId());
+    }
+
+    /**
+     * Удаляет порцию задач пользователя вместе с назначениями, комментариями и напоминаниями
+     * и записывает событие удаления каждой задачи.
+     *
+     * @return количество удаленных задач
+     */
+    private int deleteCreatedTasksChunk(BackgroundJobContext context, Map<String, Object> checkpoint, Long userId) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> taskIds = new ArrayList<>();
+            Set<Long> performerIds = new LinkedHashSet<>();
+            jdbcTemplate.query(DELETE_CREATED_TASKS_SQL, rs -> {
+                if ("task".equals(rs.getString("kind"))){
+                    taskIds.add(rs.getLong("id"));
+                }else{
+                    performerIds.add(rs.getLong("id"));
+                }
+            }, userId, chunkSize, userId);
+            for (Long taskId : taskIds){
+                cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, taskId,
+                        () -> CacheInvalidationBus.DELETED_VERSION);
+            }
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, userId, () -> 0);
+            for (Long performerId : performerIds){
+                cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, performerId, () -> 0);
+            }
+            TransactionCallbacks.afterCommit(() -> {
+                secondLevelCache.evictTaskCollections(userId);
+                performerIds.forEach(secondLevelCache::evictTaskCollections);
+            });
+            context.checkpoint(increment(checkpoint, DELETED_TASKS, taskIds.size()), taskIds.size());
+            return taskIds.size();
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Снимает пользователя с порции задач или удаляет порцию его комментариев к чужим задачам.
+     *
+     * @param sql REMOVE_ASSIGNMENTS_SQL или DELETE_COMMENTS_SQL
+     * @param counter счетчик удаленных строк в позиции задания
+     * @return количество удаленных строк
+     */
+    private int updateChunk(BackgroundJobContext context, Map<String, Object> checkpoint, String sql,
+                            String counter, Object... args) {
+        Integer removed = transactionTemplate.execute(status -> {
+            int count = touchTasks(sql, args);
+            context.checkpoint(increment(checkpoint, counter, count), count);
+            return count;
+        });
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * Выполняет запрос, удаляющий строки задач, и уведомляет кэши о новых версиях затронутых задач.
+     *
+     * @return количество удаленных строк
+     */
+    private int touchTasks(String sql, Object... args) {
+        int[] count = {0};
+        Set<Long> taskIds = new LinkedHashSet<>();
+        Set<Long> authorIds = new LinkedHashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            count[0]++;
+            long taskId = rs.getLong("id");
+            int version = rs.getInt("version");
+            if (taskIds.add(taskId)){
+                cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, taskId, () -> version);
+            }
+            authorIds.add(rs.getLong("author_id"));
+        }, args);
+        for (Long authorId : authorIds){
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, authorId, () -> 0);
+        }
+        return count[0];
+    }
+
+    /**
+     * Удаляет оставшиеся строки пользователя и его самого. Подписки на вебхуки удаляются каскадно.
+     * Отключенного пользователя могут назначить исполнителем и после этапа ASSIGNMENTS, поэтому
+     * оставшиеся назначения снимаются в этой же транзакции, иначе удаление нарушит внешний ключ.
+     */
+    private void deleteUser(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            String email = jdbcTemplate.queryForObject(SELECT_EMAIL_SQL, String.class, userId);
+            touchTasks(REMOVE_ASSIGNMENTS_SQL, userId, userId, Integer.MAX_VALUE, userId);
+            for (String sql : DELETE_USER_SQL){
+                jdbcTemplate.update(sql, userId);
+            }
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, userId,
+                    () -> CacheInvalidationBus.DELETED_VERSION, email);
+            TransactionCallbacks.afterCommit(() -> secondLevelCache.evictUser(userId, email));
+        });
+    }
+
+    private static Map<String, Object> increment(Map<String, Object> checkpoint, String counter, int count) {
+        long value = checkpoint.get(counter) instanceof Number number ? number.longValue() : 0;
+        checkpoint.put(counter, value + count);
+        return checkpoint;
+    }
+
+    /**
+     * Возвращает текущего аутентифицированного пользователя.
+     *
+     * @return объект User, представляющий текущего аутентифицированного пользователя
+     * @throws UnauthenticatedException если пользователь не аутентифицирован
+     */
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+
+    /**
+     * Этапы удаления в порядке выполнения.
+     */
+    private enum Phase {
+        TASKS, ASSIGNMENTS, COMMENTS, USER
+    }
+}
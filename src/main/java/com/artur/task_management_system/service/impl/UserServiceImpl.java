@@ -4,25 +4,25 @@ import com.artur.task_management_system.exception.EmailTakenException;
 import com.artur.task_management_system.exception.EntityNotFoundByIdException;
 import com.artur.task_management_system.exception.UserNotFoundByEmailException;
 import com.artur.task_management_system.model.ConfirmationToken;
-import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.BatchLookupResponse;
 import com.artur.task_management_system.model.User;
-import com.artur.task_management_system.service.ConfirmationTokenService;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.service.CacheInvalidationBus;
+import com.artur.task_management_system.service.PageablePlanner;
 import com.artur.task_management_system.service.UserService;
 import com.artur.task_management_system.model.attributes.UserRole;
 import com.artur.task_management_system.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,9 +34,12 @@ import java.util.UUID;
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int MAX_LOOKUP_IDS = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ConfirmationTokenService confirmationTokenService;
+    private final PageablePlanner pageablePlanner;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * Загружает детали пользователя по имени пользователя.
@@ -60,7 +63,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public Page<User> getAllUsers(int pageNumber, int pageSize,
                                   String field, String directionStr) {
-        Pageable pageable = makePageable(pageNumber, pageSize, field, directionStr);
+        Pageable pageable = pageablePlanner.makePageable(User.class, pageNumber, pageSize, field, directionStr);
         return userRepository.findAll(pageable);
     }
 
@@ -71,20 +74,13 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
-    public void deleteLoggedInUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User logedInUser = getUserByEmail(username);
-        for (Task task : logedInUser.getAssignedTasks()){
-            task.removePerformer(logedInUser);
-        }
-        for (Task task : logedInUser.getCreatedTasks()){
-            for (User performer : task.getPerformers()){
-                performer.removeAssignedTask(task);
-            }
+    public BatchLookupResponse<User> getUsersByIds(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty() || userIds.size() > MAX_LOOKUP_IDS){
+            throw new IllegalStateException(
+                    String.format("Number of ids must be between 1 and %d", MAX_LOOKUP_IDS));
         }
-        confirmationTokenService.deleteByUserId(logedInUser.getId());
-        userRepository.delete(logedInUser);
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(userIds);
+        return BatchLookupResponse.of(ids, userRepository.findAllById(ids), User::getId);
     }
 
     @Override
@@ -111,20 +107,22 @@ public class UserServiceImpl implements UserService {
 
         userToUpdate.setName(user.getName());
 
-        boolean emailUpdated = false;
+        String previousEmail = null;
         if (!Objects.equals(user.getEmail(), userToUpdate.getEmail())){
             if (userRepository.existsByEmail(user.getEmail())){
                 throw new EmailTakenException(user.getEmail());
             }
 
+            previousEmail = userToUpdate.getEmail();
             userToUpdate.setEmail(user.getEmail());
             userToUpdate.setEnabled(false);
-            emailUpdated = true;
         }
 
         userRepository.save(userToUpdate);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, userToUpdate.getId(), userToUpdate::getVersion,
+                previousEmail);
 
-        if (emailUpdated){
+        if (previousEmail != null){
             ConfirmationToken confirmationToken = generateToken(userToUpdate);
             return Optional.of(confirmationToken);
         }else{
@@ -139,39 +137,7 @@ public class UserServiceImpl implements UserService {
 
         user.setEnabled(true);
         userRepository.save(user);
-    }
-
-    /**
-     * Создает объект Pageable на основе предоставленных параметров пагинации и сортировки.
-     *
-     * @param pageNumber номер страницы для пагинации
-     * @param pageSize количество элементов на странице
-     * @param field поле для сортировки
-     * @param directionStr направление сортировки ("Asc" или "Desc")
-     * @return объект Pageable, готовый к использованию в запросах к репозиторию
-     * @throws IllegalStateException если параметры пагинации или сортировки некорректны
-     */
-    private Pageable makePageable(Integer pageNumber, Integer pageSize,
-                                  String field, String directionStr) {
-        if (pageNumber == null || pageSize == null){
-            throw new IllegalStateException("Pagination cannot be null");
-        }
-
-        Pageable pageable;
-        if (field != null && directionStr != null) {
-            Sort.Direction direction;
-            if (directionStr.equals("Asc")){
-                direction = Sort.Direction.ASC;
-            }else if(directionStr.equals("Desc")){
-                direction = Sort.Direction.DESC;
-            }else{
-                throw new IllegalStateException("Wrong sorting direction value");
-            }
-            pageable = PageRequest.of(pageNumber, pageSize, direction, field);
-        } else {
-            pageable = PageRequest.of(pageNumber, pageSize);
-        }
-        return pageable;
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, user.getId(), user::getVersion);
     }
 
     /**
@@ -181,7 +147,7 @@ public class UserServiceImpl implements UserService {
      * @return объект ConfirmationToken, связанный с пользователем
      */
     private ConfirmationToken generateToken(User user){
-        String token = UUID.randomUUID().toString();
+        UUID token = UUID.randomUUID();
         ConfirmationToken confirmationToken = new ConfirmationToken();
         confirmationToken.setCreatedAt(LocalDateTime.now());
         confirmationToken.setExpiresAt(LocalDateTime.now().plusMinutes(15));
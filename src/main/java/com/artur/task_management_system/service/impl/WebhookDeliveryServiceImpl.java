@@ -0,0 +1,324 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookDelivery;
+import com.artur.task_management_system.model.WebhookSubscription;
+import com.artur.task_management_system.repository.WebhookDeadLetterRepository;
+import com.artur.task_management_system.repository.WebhookDeliveryRepository;
+import com.artur.task_management_system.repository.WebhookSubscriptionRepository;
+import com.artur.task_management_system.security.WebhookUrlValidator;
+import com.artur.task_management_system.service.TaskEventSubscriber;
+import com.artur.task_management_system.service.WebhookDeliveryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Доставка событий задач по webhook.
+ *
+ * Подписчик событий outbox: в транзакции публикации для каждой подходящей подписки записывается строка доставки,
+ * поэтому запись задач никогда не ждет внешних систем. Доставка идет по расписанию: порция строк
+ * блокируется (SKIP LOCKED), получает аренду на время доставки и отправляется вне транзакции на виртуальных
+ * потоках, одним подписанным запросом на пачку событий подписки.
+ * После неудачи попытка повторяется с экспоненциальной задержкой, после исчерпания попыток событие
+ * переносится в таблицу недоставленных. Число одновременных запросов к одному хосту ограничено,
+ * пачки сверх лимита переносятся на следующий проход без траты попытки.
+ * При повторах порядок событий между пачками не гарантируется, получатель упорядочивает их по id.
+ */
+@Slf4j
+@Service
+public class WebhookDeliveryServiceImpl implements WebhookDeliveryService, TaskEventSubscriber {
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    public static final String SUBSCRIPTION_HEADER = "X-Webhook-Subscription";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final ObjectMapper objectMapper;
+    private final WebhookUrlValidator webhookUrlValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final int claimSize;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int maxConcurrentPerHost;
+    private final Duration requestTimeout;
+
+    public WebhookDeliveryServiceImpl(WebhookSubscriptionRepository subscriptionRepository,
+                                      WebhookDeliveryRepository deliveryRepository,
+                                      WebhookDeadLetterRepository deadLetterRepository,
+                                      ObjectMapper objectMapper,
+                                      WebhookUrlValidator webhookUrlValidator,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${artur.webhooks.claim-size}") int claimSize,
+                                      @Value("${artur.webhooks.max-batch-size}") int maxBatchSize,
+                                      @Value("${artur.webhooks.max-attempts}") int maxAttempts,
+                                      @Value("${artur.webhooks.initial-backoff}") Duration initialBackoff,
+                                      @Value("${artur.webhooks.max-backoff}") Duration maxBackoff,
+                                      @Value("${artur.webhooks.lease}") Duration lease,
+                                      @Value("${artur.webhooks.max-concurrent-per-host}") int maxConcurrentPerHost,
+                                      @Value("${artur.webhooks.connect-timeout}") Duration connectTimeout,
+                                      @Value("${artur.webhooks.request-timeout}") Duration requestTimeout) {
+        if (lease.compareTo(requestTimeout) <= 0){
+            throw new IllegalArgumentException(String.format(
+                    "Webhook delivery lease %s has to be longer than request timeout %s", lease, requestTimeout));
+        }
+        this.subscriptionRepository = subscriptionRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.objectMapper = objectMapper;
+        this.webhookUrlValidator = webhookUrlValidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimSize = claimSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Ставит события в очередь доставки для всех подходящих подписок.
+     * Вызывается в транзакции публикации outbox, поэтому очередь пополняется атомарно с отметкой о публикации.
+     */
+    @Override
+    public void onTaskEvents(List<TaskEvent> events) {
+        Set<Long> participantIds = events.stream()
+                .flatMap(event -> event.getParticipantIds().stream())
+                .collect(Collectors.toSet());
+        if (participantIds.isEmpty()){
+            return;
+        }
+        List<WebhookSubscription> subscriptions = subscriptionRepository.findAllByOwnerIds(participantIds);
+        if (subscriptions.isEmpty()){
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> deliveries = new ArrayList<>();
+        for (TaskEvent event : events){
+            String payload = null;
+            for (WebhookSubscription subscription : subscriptions){
+                if (!subscription.matches(event)){
+                    continue;
+                }
+                if (payload == null){
+                    payload = toJson(event);
+                }
+                deliveries.add(new WebhookDelivery(null, subscription, event.getId(), payload, 0, now, null, now));
+            }
+        }
+        deliveryRepository.saveAll(deliveries);
+    }
+
+    @Override
+    public int deliverDueEvents() {
+        List<WebhookDelivery> claimed = claimDueDeliveries();
+        if (claimed.isEmpty()){
+            return 0;
+        }
+        Map<Long, List<WebhookDelivery>> bySubscription = claimed.stream()
+                .collect(Collectors.groupingBy(delivery -> delivery.getSubscription().getId(),
+                        LinkedHashMap::new, Collectors.toList()));
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (List<WebhookDelivery> deliveries : bySubscription.values()){
+            for (int from = 0; from < deliveries.size(); from += maxBatchSize){
+                List<WebhookDelivery> batch = deliveries.subList(from, Math.min(from + maxBatchSize, deliveries.size()));
+                requests.add(CompletableFuture.runAsync(() -> deliverBatch(batch), executor));
+            }
+        }
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+        return claimed.size();
+    }
+
+    /**
+     * Доставляет события, пока порции заполнены полностью.
+     */
+    @Scheduled(fixedDelayString = "${artur.webhooks.dispatch-delay}")
+    public void deliver() {
+        int delivered;
+        do {
+            delivered = deliverDueEvents();
+        } while (delivered == claimSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Блокирует порцию доставок и сдвигает время их следующей попытки на срок аренды.
+     * Если узел упадет во время доставки, строки снова станут доступны после истечения аренды.
+     */
+    private List<WebhookDelivery> claimDueDeliveries() {
+        List<WebhookDelivery> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<WebhookDelivery> due = deliveryRepository.lockDueDeliveries(now, claimSize);
+            if (!due.isEmpty()){
+                deliveryRepository.reschedule(ids(due), now.plus(lease));
+            }
+            return due;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void deliverBatch(List<WebhookDelivery> batch) {
+        WebhookSubscription subscription = batch.get(0).getSubscription();
+        URI uri;
+        try {
+            uri = webhookUrlValidator.validate(subscription.getUrl());
+        } catch (IllegalStateException e) {
+            recordFailure(batch, e.getMessage());
+            return;
+        }
+        Semaphore permits = hostPermits.computeIfAbsent(String.valueOf(uri.getHost()),
+                host -> new Semaphore(maxConcurrentPerHost));
+        if (!permits.tryAcquire()){
+            transactionTemplate.executeWithoutResult(status ->
+                    deliveryRepository.reschedule(ids(batch), LocalDateTime.now()));
+            return;
+        }
+        try {
+            int statusCode = send(uri, subscription, batch);
+            if (statusCode / 100 == 2){
+                transactionTemplate.executeWithoutResult(status ->
+                        deliveryRepository.deleteAllByIdInBatch(ids(batch)));
+            } else {
+                recordFailure(batch, "HTTP status " + statusCode);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            recordFailure(batch, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int send(URI uri, WebhookSubscription subscription, List<WebhookDelivery> batch)
+            throws IOException, InterruptedException {
+        String body = batch.stream()
+                .map(WebhookDelivery::getPayload)
+                .collect(Collectors.joining(",", "{\"subscriptionId\":" + subscription.getId() + ",\"events\":[", "]}"));
+        String timestamp = Long.toString(Instant.now().getEpochSecond());
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header(SUBSCRIPTION_HEADER, subscription.getId().toString())
+                .header(TIMESTAMP_HEADER, timestamp)
+                .header(SIGNATURE_HEADER, "sha256=" + sign(subscription.getSecret(), timestamp + "." + body))
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Планирует повтор с экспоненциальной задержкой или переносит события в недоставленные.
+     */
+    private void recordFailure(List<WebhookDelivery> batch, String error) {
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        log.warn("Webhook delivery to subscription {} failed: {}", batch.get(0).getSubscription().getId(), lastError);
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDeadLetter> deadLetters = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (WebhookDelivery delivery : batch){
+                int attempts = delivery.getAttempts() + 1;
+                if (attempts >= maxAttempts){
+                    deadLetters.add(new WebhookDeadLetter(null, delivery.getSubscription(), delivery.getEventId(),
+                            delivery.getPayload(), attempts, lastError, now));
+                } else {
+                    deliveryRepository.scheduleRetry(delivery.getId(), attempts, now.plus(backoff(attempts)),
+                            lastError);
+                }
+            }
+            if (!deadLetters.isEmpty()){
+                deadLetterRepository.saveAll(deadLetters);
+                deliveryRepository.deleteAllByIdInBatch(batch.stream()
+                        .filter(delivery -> delivery.getAttempts() + 1 >= maxAttempts)
+                        .map(WebhookDelivery::getId)
+                        .toList());
+            }
+        });
+    }
+
+    /**
+     * Задержка перед попыткой: initialBackoff * 2^(attempts - 1), не больше maxBackoff,
+     * случайно уменьшенная до половины, чтобы повторы разных подписок не совпадали.
+     */
+    private Duration backoff(int attempts) {
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        delay = Math.min(delay, maxBackoff.toMillis());
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private String sign(String secret, String content) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(TaskEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Long> ids(List<WebhookDelivery> deliveries) {
+        return deliveries.stream().map(WebhookDelivery::getId).toList();
+    }
+}
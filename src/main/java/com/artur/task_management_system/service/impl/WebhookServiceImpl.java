@@ -0,0 +1,118 @@
+package com.artur.task_management_system.service.impl;
+
+import com.artur.task_management_system.dto.WebhookSubscriptionCreationDTO;
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.exception.UnauthenticatedException;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookSubscription;
+import com.artur.task_management_system.repository.WebhookDeadLetterRepository;
+import com.artur.task_management_system.repository.WebhookSubscriptionRepository;
+import com.artur.task_management_system.security.WebhookUrlValidator;
+import com.artur.task_management_system.service.UserService;
+import com.artur.task_management_system.service.WebhookService;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Сервис для управления подписками на webhook.
+ */
+@Service
+@AllArgsConstructor
+public class WebhookServiceImpl implements WebhookService {
+    private static final int MAX_SUBSCRIPTIONS_PER_USER = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SECRET_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final UserService userService;
+    private final WebhookUrlValidator webhookUrlValidator;
+
+    @Override
+    @Transactional
+    public WebhookSubscription addSubscription(WebhookSubscriptionCreationDTO subscriptionDTO) {
+        User loggedInUser = getLoggedInUser();
+        if (subscriptionRepository.countByOwnerId(loggedInUser.getId()) >= MAX_SUBSCRIPTIONS_PER_USER){
+            throw new IllegalStateException(
+                    String.format("User can't have more than %d webhook subscriptions", MAX_SUBSCRIPTIONS_PER_USER));
+        }
+        webhookUrlValidator.validate(subscriptionDTO.getUrl());
+        WebhookSubscription subscription = new WebhookSubscription();
+        subscription.setOwner(loggedInUser);
+        subscription.setUrl(subscriptionDTO.getUrl());
+        subscription.setScope(subscriptionDTO.getScope());
+        subscription.setEventTypes(subscriptionDTO.getEventTypes() == null
+                ? new HashSet<>() : new HashSet<>(subscriptionDTO.getEventTypes()));
+        subscription.setSecret(generateSecret());
+        subscription.setCreatedAt(LocalDateTime.now());
+        return subscriptionRepository.save(subscription);
+    }
+
+    @Override
+    public List<WebhookSubscription> getMySubscriptions() {
+        return subscriptionRepository.findAllByOwnerIdOrderById(getLoggedInUser().getId());
+    }
+
+    @Override
+    @Transactional
+    public void deleteSubscription(Long subscriptionId) {
+        subscriptionRepository.delete(getOwnSubscription(subscriptionId));
+    }
+
+    @Override
+    public Page<WebhookDeadLetter> getDeadLetters(Long subscriptionId, Integer pageNumber, Integer pageSize) {
+        if (pageNumber == null || pageSize == null || pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE){
+            throw new IllegalStateException(
+                    String.format("Page number can't be negative and page size must be between 1 and %d",
+                            MAX_PAGE_SIZE));
+        }
+        WebhookSubscription subscription = getOwnSubscription(subscriptionId);
+        return deadLetterRepository.findAllBySubscriptionId(subscription.getId(),
+                PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+    }
+
+    @Override
+    @Transactional
+    public int redeliverDeadLetters(Long subscriptionId) {
+        WebhookSubscription subscription = getOwnSubscription(subscriptionId);
+        return deadLetterRepository.requeueBySubscriptionId(subscription.getId());
+    }
+
+    private WebhookSubscription getOwnSubscription(Long subscriptionId) {
+        WebhookSubscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new EntityNotFoundByIdException("webhook subscription", subscriptionId));
+        if (!Objects.equals(subscription.getOwner().getId(), getLoggedInUser().getId())){
+            throw new NoRightsException("You have no rights to manage not yours webhook subscription");
+        }
+        return subscription;
+    }
+
+    private String generateSecret() {
+        byte[] secret = new byte[SECRET_BYTES];
+        SECURE_RANDOM.nextBytes(secret);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    private User getLoggedInUser(){
+        if (SecurityContextHolder.getContext().getAuthentication() == null){
+            throw new UnauthenticatedException();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByEmail(username);
+    }
+}
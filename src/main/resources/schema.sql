@@ -0,0 +1,62 @@
+-- Выполняется после обновления схемы Hibernate (spring.jpa.defer-datasource-initialization).
+-- Здесь только то, что нельзя описать аннотациями JPA. Все выражения должны быть идемпотентными.
+
+-- Синхронизация задач: номер изменения и заполнение состояния для задач, созданных до синхронизации.
+CREATE SEQUENCE IF NOT EXISTS task_change_seq;
+
+INSERT INTO task_sync_table (task_id, author_id, visible_user_ids, txid, change_seq, deleted, changed_at)
+SELECT t.id, t.author_id,
+       ARRAY(SELECT t.author_id UNION SELECT p.user_id FROM task_performers p WHERE p.task_id = t.id),
+       0, nextval('task_change_seq'), false, now()
+FROM task_table t
+WHERE NOT EXISTS (SELECT 1 FROM task_sync_table s WHERE s.task_id = t.id);
+
+-- Строки, записанные до хранения видящих задачу пользователей.
+UPDATE task_sync_table s
+SET visible_user_ids = CASE WHEN s.deleted THEN '{}'
+                            ELSE ARRAY(SELECT s.author_id
+                                       UNION
+                                       SELECT p.user_id FROM task_performers p WHERE p.task_id = s.task_id) END
+WHERE s.visible_user_ids IS NULL;
+
+-- Изменения задач по пользователям: видящие задачу получают позицию изменения, строки потерявших доступ
+-- становятся удалениями с позицией этого изменения и дальше не меняются. Функция заменяется при каждом запуске,
+-- а триггер создается один раз: CREATE TRIGGER блокирует таблицу.
+CREATE OR REPLACE FUNCTION task_sync_user_update() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    UPDATE task_sync_user_table
+    SET visible = false, txid = NEW.txid, change_seq = NEW.change_seq
+    WHERE task_id = NEW.task_id AND visible AND user_id <> ALL(coalesce(NEW.visible_user_ids, ''{}''));
+    INSERT INTO task_sync_user_table (user_id, task_id, txid, change_seq, visible)
+    SELECT u, NEW.task_id, NEW.txid, NEW.change_seq, true
+    FROM unnest(NEW.visible_user_ids) u
+    ON CONFLICT (user_id, task_id) DO UPDATE
+    SET txid = EXCLUDED.txid, change_seq = EXCLUDED.change_seq, visible = true;
+    RETURN NULL;
+END';
+
+DO 'BEGIN IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''task_sync_user_trigger'') THEN CREATE TRIGGER task_sync_user_trigger AFTER INSERT OR UPDATE ON task_sync_table FOR EACH ROW EXECUTE FUNCTION task_sync_user_update(); END IF; END';
+
+-- Заполнение строк пользователей для изменений, записанных до появления task_sync_user_table.
+-- Удаленные задачи получает как удаление только автор.
+INSERT INTO task_sync_user_table (user_id, task_id, txid, change_seq, visible)
+SELECT u.user_id, s.task_id, s.txid, s.change_seq, NOT s.deleted
+FROM task_sync_table s
+CROSS JOIN LATERAL unnest(CASE WHEN s.deleted THEN ARRAY[s.author_id] ELSE s.visible_user_ids END) AS u(user_id)
+WHERE NOT EXISTS (SELECT 1 FROM task_sync_user_table x WHERE x.task_id = s.task_id)
+ON CONFLICT (user_id, task_id) DO NOTHING;
+
+-- Прежний список потерявших доступ пользователей: переносится в удаления, после чего столбец удаляется.
+DO 'BEGIN IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = ''task_sync_table'' AND column_name = ''removed_user_ids'') THEN INSERT INTO task_sync_user_table (user_id, task_id, txid, change_seq, visible) SELECT u, s.task_id, s.txid, s.change_seq, false FROM task_sync_table s CROSS JOIN LATERAL unnest(s.removed_user_ids) u ON CONFLICT (user_id, task_id) DO NOTHING; ALTER TABLE task_sync_table DROP COLUMN removed_user_ids; END IF; END';
+
+-- Outbox событий задач: частичный индекс по неопубликованным событиям в порядке публикации.
+CREATE INDEX IF NOT EXISTS outbox_event_unpublished_idx ON outbox_event_table (txid, id) WHERE published_at IS NULL;
+
+-- Просроченные задачи: частичный индекс по сроку незавершенных задач, еще не отмеченных просроченными.
+CREATE INDEX IF NOT EXISTS task_overdue_candidate_idx ON task_table (dead_line_date, id)
+    WHERE status <> 'COMPLETED' AND NOT overdue;
+
+-- Токены подтверждения: значение хранится как uuid. ALTER берет ACCESS EXCLUSIVE блокировку даже для
+-- uuid столбца, поэтому выполняется только при переходе со старого varchar столбца.
+-- Тело блока в одинарных кавычках: ScriptUtils делит скрипт по ';' и не понимает $$.
+DO 'BEGIN IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = ''confirmation_token_table'' AND column_name = ''token'' AND data_type <> ''uuid'') THEN ALTER TABLE confirmation_token_table ALTER COLUMN token TYPE uuid USING token::uuid; END IF; END';
@@ -0,0 +1,55 @@
+package com.artur.task_management_system.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationHistogramTest {
+
+    @Test
+    void testPercentile_ExactForSmallValues() {
+        DurationHistogram histogram = new DurationHistogram();
+        LongStream.rangeClosed(1, 10).forEach(histogram::record);
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(90));
+        assertEquals(10, histogram.percentile(99));
+    }
+
+    @Test
+    void testPercentile_RelativeErrorIsBoundedForLargeValues() {
+        DurationHistogram histogram = new DurationHistogram();
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++){
+            values[i] = (long) Math.exp(random.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 90, 99}){
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.percentile(percentile);
+            assertTrue(actual >= expected && actual <= expected + expected / 64 + 1,
+                    String.format("p%s: expected about %d, got %d", percentile, expected, actual));
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+    }
+
+    @Test
+    void testPercentile_NeverExceedsMaxAndIsZeroWhenEmpty() {
+        DurationHistogram histogram = new DurationHistogram();
+        assertEquals(0, histogram.percentile(99));
+
+        histogram.record(1_000_001);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(1_000_001, histogram.percentile(99));
+    }
+}
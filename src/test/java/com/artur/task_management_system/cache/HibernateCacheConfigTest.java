@@ -0,0 +1,62 @@
+package com.artur.task_management_system.cache;
+
+import com.artur.task_management_system.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateCacheConfigTest {
+    private HibernateCacheConfig hibernateCacheConfig;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        hibernateCacheConfig = new HibernateCacheConfig();
+        ReflectionTestUtils.setField(hibernateCacheConfig, "userMaxSize", 100L);
+        ReflectionTestUtils.setField(hibernateCacheConfig, "userTtl", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cacheManager != null){
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void hibernateCacheManager_CreatesBoundedUserRegions() {
+        cacheManager = hibernateCacheConfig.hibernateCacheManager();
+
+        for (String region : new String[]{User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION,
+                User.CREATED_TASKS_CACHE_REGION, User.ASSIGNED_TASKS_CACHE_REGION}){
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            assertNotNull(cache, region);
+            @SuppressWarnings("unchecked")
+            CaffeineConfiguration<Object, Object> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+            assertEquals(OptionalLong.of(100L), configuration.getMaximumSize());
+            assertTrue(configuration.isStatisticsEnabled());
+        }
+    }
+
+    @Test
+    void hibernateCacheManagerCustomizer_PassesCacheManagerToHibernate() {
+        cacheManager = hibernateCacheConfig.hibernateCacheManager();
+        Map<String, Object> properties = new HashMap<>();
+
+        hibernateCacheConfig.hibernateCacheManagerCustomizer(cacheManager).customize(properties);
+
+        assertSame(cacheManager, properties.get(ConfigSettings.CACHE_MANAGER));
+    }
+}
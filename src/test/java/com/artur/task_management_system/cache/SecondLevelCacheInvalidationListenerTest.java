@@ -0,0 +1,135 @@
+package com.artur.task_management_system.cache;
+
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.service.CacheInvalidationListener;
+import com.artur.task_management_system.service.impl.CacheInvalidationBusImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheInvalidationListenerTest {
+    private static final String CREATED_TASKS_ROLE = User.class.getName() + ".createdTasks";
+    private static final String ASSIGNED_TASKS_ROLE = User.class.getName() + ".assignedTasks";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SecondLevelCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.getCache()).thenReturn(cache);
+        listener = new SecondLevelCacheInvalidationListener(entityManagerFactory);
+    }
+
+    @Test
+    void remoteUserChange_EvictsUserEntryAndCollections() {
+        CacheInvalidationBusImpl cacheInvalidationBus = bus();
+
+        cacheInvalidationBus.handleNotification("other-node;USER:5:2");
+
+        verify(cache).evictEntityData(User.class, 5L);
+        verify(cache).evictCollectionData(CREATED_TASKS_ROLE, 5L);
+        verify(cache).evictCollectionData(ASSIGNED_TASKS_ROLE, 5L);
+        verify(cache, never()).evictNaturalIdData(any(Class.class));
+    }
+
+    @Test
+    void localChange_IsLeftToHibernate() {
+        CacheInvalidationBusImpl cacheInvalidationBus = bus();
+
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, 5L, () -> 2);
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void onInvalidation_TaskListEvictsOnlyUserCollections() {
+        listener.onInvalidation(CacheEntityType.TASK_LIST, 7L, 0);
+
+        verify(cache).evictCollectionData(CREATED_TASKS_ROLE, 7L);
+        verify(cache).evictCollectionData(ASSIGNED_TASKS_ROLE, 7L);
+        verify(cache, never()).evictCollectionData(anyString());
+    }
+
+    @Test
+    void onInvalidation_IgnoresTaskChanges() {
+        listener.onInvalidation(CacheEntityType.TASK, 7L, 3);
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void remoteEmailChange_EvictsPreviousNaturalId() {
+        SessionFactoryImplementor sessionFactoryImplementor = mock(SessionFactoryImplementor.class);
+        MappingMetamodelImplementor metamodel = mock(MappingMetamodelImplementor.class);
+        EntityPersister persister = mock(EntityPersister.class);
+        NaturalIdDataAccess access = mock(NaturalIdDataAccess.class);
+        Session session = mock(Session.class);
+        SharedSessionContractImplementor sessionImplementor = mock(SharedSessionContractImplementor.class);
+        when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactoryImplementor);
+        when(sessionFactoryImplementor.getMappingMetamodel()).thenReturn(metamodel);
+        when(metamodel.getEntityDescriptor(User.class)).thenReturn(persister);
+        when(persister.getNaturalIdCacheAccessStrategy()).thenReturn(access);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.unwrap(SharedSessionContractImplementor.class)).thenReturn(sessionImplementor);
+        when(access.generateCacheKey("old@example.com", persister, sessionImplementor)).thenReturn("key");
+
+        bus().handleNotification("other-node;USER:5:2:old%40example.com");
+
+        verify(access).evict("key");
+        verify(session).close();
+        verify(cache).evictEntityData(User.class, 5L);
+    }
+
+    @Test
+    void onResync_EvictsAllRegions() {
+        listener.onResync();
+
+        verify(cache).evictAllRegions();
+        verify(cache, never()).evictCollectionData(anyString());
+    }
+
+    private CacheInvalidationBusImpl bus() {
+        return new CacheInvalidationBusImpl(jdbcTemplate, transactionManager, new DataSourceProperties(),
+                new StaticListableBeanFactory(Map.of("listener", listener))
+                        .getBeanProvider(CacheInvalidationListener.class),
+                true, "cache_invalidation");
+    }
+}
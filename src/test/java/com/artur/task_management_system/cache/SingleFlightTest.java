@@ -0,0 +1,121 @@
+package com.artur.task_management_system.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    void testExecute_ConcurrentCallsShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++){
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "task";
+                })));
+            }
+            waitForSharedLoads(CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results){
+                assertEquals("task", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, counter("executed"));
+        assertEquals(CALLERS - 1, counter("shared"));
+    }
+
+    @Test
+    void testExecute_SequentialCallsLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "task" + loads.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "task" + loads.incrementAndGet());
+
+        assertEquals("task2", second);
+        assertEquals(0.0, counter("shared"));
+    }
+
+    @Test
+    void testExecute_FailureSharedAndNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                await(release);
+                throw new IllegalStateException("failed");
+            }));
+            waitForExecutedLoads();
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "task"));
+            waitForSharedLoads(1);
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("task", singleFlight.execute(1L, () -> "task"));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("singleflight.loads").tag("name", "test").tag("result", result).counter().count();
+    }
+
+    private void waitForSharedLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter("shared") < expected && System.nanoTime() < deadline){
+            Thread.sleep(5);
+        }
+        assertEquals(expected, counter("shared"));
+    }
+
+    private void waitForExecutedLoads() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter("executed") < 1 && System.nanoTime() < deadline){
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
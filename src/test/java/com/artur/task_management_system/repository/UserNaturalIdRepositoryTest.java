@@ -0,0 +1,74 @@
+package com.artur.task_management_system.repository;
+
+import com.artur.task_management_system.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserNaturalIdRepositoryTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private SimpleNaturalIdLoadAccess<User> naturalIdLoadAccess;
+
+    private UserNaturalIdRepositoryImpl userNaturalIdRepository;
+
+    @BeforeEach
+    void setUp() {
+        userNaturalIdRepository = new UserNaturalIdRepositoryImpl();
+        ReflectionTestUtils.setField(userNaturalIdRepository, "entityManager", entityManager);
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(session.bySimpleNaturalId(User.class)).thenReturn(naturalIdLoadAccess);
+    }
+
+    @Test
+    void findByEmail_LoadsByNaturalId() {
+        User user = new User();
+        user.setEmail("user@example.com");
+        when(naturalIdLoadAccess.loadOptional("user@example.com")).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userNaturalIdRepository.findByEmail("user@example.com"));
+
+        verify(entityManager, never()).createQuery(anyString());
+        verify(entityManager, never()).createQuery(anyString(), any());
+    }
+
+    @Test
+    void findByEmail_ReturnsEmptyForUnknownEmail() {
+        when(naturalIdLoadAccess.loadOptional("unknown@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userNaturalIdRepository.findByEmail("unknown@example.com").isEmpty());
+    }
+
+    @Test
+    void userEmail_IsCachedNaturalId() throws NoSuchFieldException {
+        NaturalIdCache naturalIdCache = User.class.getAnnotation(NaturalIdCache.class);
+        NaturalId naturalId = User.class.getDeclaredField("email").getAnnotation(NaturalId.class);
+
+        assertNotNull(naturalIdCache);
+        assertEquals(User.NATURAL_ID_CACHE_REGION, naturalIdCache.region());
+        assertNotNull(naturalId);
+        assertTrue(naturalId.mutable());
+    }
+}
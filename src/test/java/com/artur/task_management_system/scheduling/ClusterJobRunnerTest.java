@@ -0,0 +1,178 @@
+package com.artur.task_management_system.scheduling;
+
+import com.artur.task_management_system.model.JobRun;
+import com.artur.task_management_system.model.attributes.JobRunStatus;
+import com.artur.task_management_system.repository.JobRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterJobRunnerTest {
+    private static final int NODES = 3;
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryJobLockProvider jobLockProvider = new InMemoryJobLockProvider();
+
+    private List<ClusterJobRunner> nodes;
+
+    @BeforeEach
+    void setUp() {
+        nodes = IntStream.range(0, NODES)
+                .mapToObj(node -> new ClusterJobRunner(jobLockProvider, jobRunRepository, transactionManager,
+                        new SimpleMeterRegistry(), "node-" + node, Duration.ofDays(30)))
+                .toList();
+    }
+
+    @Test
+    void testRunExclusive_RunsJobOnOneNodeAtATime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(NODES);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(NODES)){
+            for (ClusterJobRunner node : nodes){
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return node.runExclusive("cleanup", () -> {
+                        executions.incrementAndGet();
+                        await(release);
+                    });
+                }));
+            }
+            waitUntil(() -> executions.get() == 1);
+            Thread.sleep(100);
+            release.countDown();
+            int ran = 0;
+            for (Future<Boolean> result : results){
+                ran += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, ran);
+        }
+        assertEquals(1, executions.get());
+        assertEquals(JobRunStatus.SUCCEEDED, recordedRuns().get(0).getStatus());
+    }
+
+    @Test
+    void testRunSharded_EveryShardRunsAndNoShardRunsConcurrently() throws Exception {
+        int shardCount = 6;
+        Set<Integer> running = ConcurrentHashMap.newKeySet();
+        Set<Integer> completed = ConcurrentHashMap.newKeySet();
+        AtomicInteger overlaps = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(NODES);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(NODES)){
+            for (ClusterJobRunner node : nodes){
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return node.runSharded("overdue", shardCount, shard -> {
+                        if (!running.add(shard.index())){
+                            overlaps.incrementAndGet();
+                        }
+                        sleep(20);
+                        running.remove(shard.index());
+                        completed.add(shard.index());
+                    });
+                }));
+            }
+            int executed = 0;
+            for (Future<Integer> result : results){
+                executed += result.get(5, TimeUnit.SECONDS);
+            }
+            assertTrue(executed >= shardCount);
+        }
+        assertEquals(0, overlaps.get());
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5), completed);
+        assertTrue(recordedRuns().stream().allMatch(run -> run.getShardCount() == shardCount));
+    }
+
+    @Test
+    void testRunExclusive_RecordsFailureAndReleasesLock() {
+        ClusterJobRunner node = nodes.get(0);
+
+        assertTrue(node.runExclusive("failing", () -> {
+            throw new IllegalStateException("Boom");
+        }));
+        assertTrue(nodes.get(1).runExclusive("failing", () -> {
+        }));
+
+        List<JobRun> runs = recordedRuns();
+        assertEquals(JobRunStatus.FAILED, runs.get(0).getStatus());
+        assertEquals("node-0", runs.get(0).getNodeId());
+        assertTrue(runs.get(0).getError().contains("Boom"));
+        assertEquals(JobRunStatus.SUCCEEDED, runs.get(1).getStatus());
+    }
+
+    @Test
+    void testJobShardRange_CoversAllIdsOnce() {
+        List<Long> ids = new ArrayList<>();
+        for (int index = 0; index < 4; index++){
+            JobShard.IdRange range = new JobShard(index, 4).range(3, 12);
+            for (long id = range.fromId(); id < range.toId(); id++){
+                ids.add(id);
+            }
+        }
+
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L), ids);
+        JobShard.IdRange empty = new JobShard(3, 4).range(1, 2);
+        assertEquals(empty.fromId(), empty.toId());
+    }
+
+    private List<JobRun> recordedRuns() {
+        ArgumentCaptor<JobRun> runs = ArgumentCaptor.forClass(JobRun.class);
+        verify(jobRunRepository, atLeastOnce()).save(runs.capture());
+        return runs.getAllValues();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()){
+            assertTrue(System.nanoTime() < deadline, "Condition was not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.artur.task_management_system.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void testAdvance_FiresTimerAtDeadlineAndNotBefore() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+        wheel.schedule("a", START + 2_500);
+
+        assertEquals(List.of(), wheel.advance(START + 2_999));
+        assertEquals(List.of("a"), wheel.advance(START + 3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_FiresTimersOfUpperLevelsAtTheirTicks() {
+        HierarchicalTimingWheel<Integer> wheel = wheel(4, 3);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 500; key++){
+            long deadline = START + random.nextLong(wheel.horizonMillis());
+            assertTrue(wheel.schedule(key, deadline));
+            deadlines.put(key, deadline);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = START; now <= START + wheel.horizonMillis() + 1_000; now += 1_000){
+            for (Integer key : wheel.advance(now)){
+                long deadline = deadlines.get(key);
+                assertTrue(now >= deadline, "Timer fired before its deadline");
+                assertTrue(now < deadline + 1_000, "Timer fired more than a tick late");
+                fired.add(key);
+            }
+        }
+        assertEquals(deadlines.size(), fired.size());
+    }
+
+    @Test
+    void testAdvance_JumpsOverLongPause() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+        wheel.schedule("a", START + 10_000);
+        wheel.schedule("b", START + 40_000);
+
+        assertEquals(List.of("a", "b"), wheel.advance(START + 60_000));
+    }
+
+    @Test
+    void testSchedule_ReplacesTimerWithSameKey() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+        wheel.schedule("a", START + 2_000);
+        wheel.schedule("a", START + 5_000);
+
+        assertEquals(List.of(), wheel.advance(START + 4_000));
+        assertEquals(List.of("a"), wheel.advance(START + 5_000));
+    }
+
+    @Test
+    void testCancel_RemovesTimer() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+        wheel.schedule("a", START + 20_000);
+        wheel.schedule("b", START - 1_000);
+
+        assertTrue(wheel.cancel("a"));
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(List.of(), wheel.advance(START + 60_000));
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+        wheel.schedule("a", START - 5_000);
+
+        assertEquals(List.of("a"), wheel.advance(START));
+    }
+
+    @Test
+    void testSchedule_RejectsDeadlineBeyondHorizon() {
+        HierarchicalTimingWheel<String> wheel = wheel(4, 3);
+
+        assertTrue(wheel.schedule("a", START + wheel.horizonMillis()));
+        assertFalse(wheel.schedule("b", START + 64_000));
+        assertEquals(1, wheel.size());
+    }
+
+    private <K> HierarchicalTimingWheel<K> wheel(int slotCount, int levelCount) {
+        return new HierarchicalTimingWheel<>(Duration.ofSeconds(1), slotCount, levelCount, START);
+    }
+}
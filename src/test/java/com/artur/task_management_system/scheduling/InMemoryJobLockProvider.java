@@ -0,0 +1,20 @@
+package com.artur.task_management_system.scheduling;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Блокировки заданий в памяти для нескольких узлов в одной JVM.
+ */
+class InMemoryJobLockProvider implements JobLockProvider {
+    private final Set<String> locked = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Optional<JobLock> tryLock(String lockName) {
+        if (!locked.add(lockName)){
+            return Optional.empty();
+        }
+        return Optional.of(() -> locked.remove(lockName));
+    }
+}
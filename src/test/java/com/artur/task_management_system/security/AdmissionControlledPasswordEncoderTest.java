@@ -0,0 +1,129 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlledPasswordEncoderTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger hashes = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionControlledPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void testEncode_DelegatesAndRecordsMetrics() {
+        release.countDown();
+        encoder = encoder(1, 1, Duration.ofSeconds(5));
+
+        assertEquals("hash:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hash:secret"));
+        assertFalse(encoder.matches("other", "hash:secret"));
+
+        assertEquals(1, meterRegistry.get("password.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("password.hash.queue.wait").timer().count());
+    }
+
+    @Test
+    void testEncode_RejectsWhenQueueIsFull() throws Exception {
+        encoder = encoder(1, 1, Duration.ofSeconds(5));
+        try (ExecutorService callers = Executors.newFixedThreadPool(2)){
+            Future<String> running = callers.submit(() -> encoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = callers.submit(() -> encoder.encode("second"));
+            waitForQueue();
+
+            assertThrows(PasswordHashingOverloadedException.class, () -> encoder.encode("third"));
+
+            release.countDown();
+            assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, hashes.get());
+        assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void testMatches_RejectsWhenHashIsNotStartedInTime() throws Exception {
+        encoder = encoder(1, 4, Duration.ofMillis(50));
+        try (ExecutorService callers = Executors.newSingleThreadExecutor()){
+            Future<String> running = callers.submit(() -> encoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(PasswordHashingOverloadedException.class, () -> encoder.matches("second", "hash:second"));
+
+            ExecutionException first = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(PasswordHashingOverloadedException.class, first.getCause());
+            release.countDown();
+        }
+        assertEquals(1, hashes.get());
+    }
+
+    private AdmissionControlledPasswordEncoder encoder(int threads, int queueCapacity, Duration maxWait) {
+        return new AdmissionControlledPasswordEncoder(new BlockingEncoder(), threads, queueCapacity, maxWait,
+                meterRegistry);
+    }
+
+    private void waitForQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hash.queue.size").gauge().value() < 1){
+            assertTrue(System.nanoTime() < deadline, "Hash was not queued in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hash();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hash();
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        /**
+         * Как и настоящий bcrypt, не реагирует на прерывание.
+         */
+        private void hash() {
+            hashes.incrementAndGet();
+            started.countDown();
+            boolean interrupted = false;
+            while (true){
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.model.attributes.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testTryAcquire_ShedsLowPriorityFirst() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 5; i++){
+            permits.add(limiter.tryAcquire(RequestPriority.LOW).orElseThrow());
+        }
+
+        assertTrue(limiter.tryAcquire(RequestPriority.LOW).isEmpty());
+        for (int i = 0; i < 4; i++){
+            permits.add(limiter.tryAcquire(RequestPriority.NORMAL).orElseThrow());
+        }
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL).isEmpty());
+        Optional<AdaptiveConcurrencyLimiter.Permit> critical = limiter.tryAcquire(RequestPriority.CRITICAL);
+        assertTrue(critical.isPresent());
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL).isEmpty());
+
+        limiter.release(permits.get(0));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL).isPresent());
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void testOnSample_GrowsWhileLatencyIsStableAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        for (int i = 0; i < 50; i++){
+            limiter.onSample(10 * MILLIS, limiter.getLimit());
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "Limit did not grow: " + grown);
+
+        for (int i = 0; i < 50; i++){
+            limiter.onSample(100 * MILLIS, limiter.getLimit());
+        }
+        assertTrue(limiter.getLimit() < grown / 2, "Limit did not shrink: " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void testOnSample_IgnoresSamplesWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        for (int i = 0; i < 50; i++){
+            limiter.onSample(10 * MILLIS, 2);
+        }
+        for (int i = 0; i < 5; i++){
+            limiter.onSample(1_000 * MILLIS, 2);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void testDoFilter_RejectsWithServiceUnavailableWhenSaturated() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), true,
+                4, 4, 10, 0.2, 1.5, 100, 0.9, 0.5);
+        MockHttpServletResponse nestedBulk = new MockHttpServletResponse();
+        MockHttpServletResponse nestedRead = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/api/tasks/1"), outer, (request, response) -> {
+            filter.doFilter(request("GET", "/api/tasks/2"), new MockHttpServletResponse(), (r2, s2) ->
+                    filter.doFilter(request("POST", "/api/batch"), nestedBulk, new MockFilterChain()));
+            filter.doFilter(request("GET", "/api/tasks/3"), nestedRead, new MockFilterChain());
+        });
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nestedBulk.getStatus());
+        assertEquals("1", nestedBulk.getHeader("Retry-After"));
+        assertEquals(200, nestedRead.getStatus());
+    }
+
+    @Test
+    void testPriority_FollowsEndpointGroups() {
+        assertEquals(RequestPriority.CRITICAL, ConcurrencyLimitFilter.priority(request("POST", "/api/auth/authenticate")));
+        assertEquals(RequestPriority.CRITICAL, ConcurrencyLimitFilter.priority(request("GET", "/api/tasks/1")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.priority(request("POST", "/api/tasks")));
+        assertEquals(RequestPriority.LOW, ConcurrencyLimitFilter.priority(request("GET", "/api/analytics/status-times")));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 4, 200, 0.2, 1.5, 100, 0.9, 0.5);
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,144 @@
+package com.artur.task_management_system.security;
+
+import com.artur.task_management_system.model.attributes.RateLimitGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTryAcquire_AllowsBurstAndRefillsOverPeriod() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofSeconds(3));
+
+        for (int i = 0; i < 3; i++){
+            assertEquals(0, limiter.tryAcquire("user", START));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("user", START));
+        assertEquals(0, limiter.tryAcquire("other", START));
+        assertEquals(0, limiter.tryAcquire("user", START + SECOND));
+        assertTrue(limiter.tryAcquire("user", START + SECOND) > 0);
+    }
+
+    @Test
+    void testEvictIdle_RemovesOnlyFullBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10));
+        limiter.tryAcquire("a", START);
+        limiter.tryAcquire("b", START + 4 * SECOND);
+
+        assertEquals(1, limiter.evictIdle(START + 5 * SECOND));
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.tryAcquire("b", START + 5 * SECOND));
+        assertTrue(limiter.tryAcquire("b", START + 5 * SECOND) > 0);
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentRequestsNeverExceedCapacity() throws Exception {
+        int threads = 8;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, Duration.ofHours(1));
+        AtomicInteger allowed = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)){
+            List<Future<?>> results = IntStream.range(0, threads)
+                    .<Future<?>>mapToObj(thread -> executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < 1_000; i++){
+                            if (limiter.tryAcquire("user", START) == 0){
+                                allowed.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> result : results){
+                result.get(5, TimeUnit.SECONDS);
+            }
+        }
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void testDoFilter_RejectsWithRetryAfterPerUser() throws Exception {
+        RateLimitFilter filter = filter(2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@mail.com", null, List.of()));
+
+        assertEquals(200, doFilter(filter, request("GET", "/api/tasks")).getStatus());
+        assertEquals(200, doFilter(filter, request("GET", "/api/tasks")).getStatus());
+        MockHttpServletResponse rejected = doFilter(filter, request("GET", "/api/tasks"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertEquals(200, doFilter(filter, request("POST", "/api/tasks")).getStatus());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other@mail.com", null, List.of()));
+        assertEquals(200, doFilter(filter, request("GET", "/api/tasks")).getStatus());
+    }
+
+    @Test
+    void testDoFilter_LimitsAnonymousRequestsByAddressAndSkipsNonApiPaths() throws Exception {
+        RateLimitFilter filter = filter(1);
+
+        assertEquals(200, doFilter(filter, request("POST", "/api/auth/authenticate")).getStatus());
+        assertEquals(429, doFilter(filter, request("POST", "/api/auth/authenticate")).getStatus());
+        MockHttpServletRequest otherAddress = request("POST", "/api/auth/authenticate");
+        otherAddress.setRemoteAddr("10.0.0.2");
+        assertEquals(200, doFilter(filter, otherAddress).getStatus());
+        assertEquals(200, doFilter(filter, request("GET", "/swagger-ui/index.html")).getStatus());
+        assertEquals(200, doFilter(filter, request("GET", "/swagger-ui/index.html")).getStatus());
+    }
+
+    @Test
+    void testGroup_ClassifiesEndpoints() {
+        assertEquals(RateLimitGroup.AUTH, RateLimitFilter.group(request("POST", "/api/auth/register")));
+        assertEquals(RateLimitGroup.READS, RateLimitFilter.group(request("GET", "/api/tasks/1")));
+        assertEquals(RateLimitGroup.WRITES, RateLimitFilter.group(request("PUT", "/api/tasks/1")));
+        assertEquals(RateLimitGroup.BULK, RateLimitFilter.group(request("POST", "/api/batch")));
+        assertEquals(RateLimitGroup.BULK, RateLimitFilter.group(request("GET", "/api/tasks/sync")));
+        MockHttpServletRequest lookup = request("GET", "/api/tasks");
+        lookup.setParameter("ids", "1,2");
+        assertEquals(RateLimitGroup.BULK, RateLimitFilter.group(lookup));
+    }
+
+    private RateLimitFilter filter(int capacity) {
+        Duration period = Duration.ofSeconds(30L * capacity);
+        return new RateLimitFilter(new SimpleMeterRegistry(), true,
+                capacity, period, capacity, period, capacity, period, capacity, period);
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private MockHttpServletResponse doFilter(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,45 @@
+package com.artur.task_management_system.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookUrlValidatorTest {
+    private final WebhookUrlValidator validator = new WebhookUrlValidator();
+
+    @Test
+    void validate_AcceptsPublicAddresses() {
+        assertEquals(URI.create("https://93.184.215.14/hook"), validator.validate("https://93.184.215.14/hook"));
+        assertNotNull(validator.validate("http://[2606:2800:21f:cb07:6820:80da:af6b:8b2c]:8080/hook"));
+    }
+
+    @Test
+    void validate_RejectsInternalAddresses() {
+        for (String url : new String[]{
+                "http://127.0.0.1/hook",
+                "http://localhost:8080/hook",
+                "http://0.0.0.0/hook",
+                "http://10.0.0.5/hook",
+                "http://172.16.3.4/hook",
+                "http://192.168.1.1/hook",
+                "http://169.254.169.254/latest/meta-data",
+                "http://100.64.0.1/hook",
+                "http://[::1]/hook",
+                "http://[fe80::1]/hook",
+                "http://[fd00::1]/hook",
+                "http://[::ffff:127.0.0.1]/hook",
+                "http://224.0.0.1/hook"}){
+            assertThrows(IllegalStateException.class, () -> validator.validate(url), url);
+        }
+    }
+
+    @Test
+    void validate_RejectsMalformedUrls() {
+        assertThrows(IllegalStateException.class, () -> validator.validate("ftp://93.184.215.14/hook"));
+        assertThrows(IllegalStateException.class, () -> validator.validate("http:///hook"));
+        assertThrows(IllegalStateException.class, () -> validator.validate("http://exa mple.com"));
+        assertThrows(IllegalStateException.class, () -> validator.validate(null));
+    }
+}
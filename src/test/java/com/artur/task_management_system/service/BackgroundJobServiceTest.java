@@ -0,0 +1,254 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.BackgroundJobStatus;
+import com.artur.task_management_system.repository.BackgroundJobRepository;
+import com.artur.task_management_system.scheduling.BackgroundJobContext;
+import com.artur.task_management_system.scheduling.BackgroundJobHandler;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.impl.BackgroundJobServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackgroundJobServiceTest {
+    private static final String TYPE = "test-job";
+    private static final Long OWNER_ID = 3L;
+
+    @Mock
+    private BackgroundJobRepository backgroundJobRepository;
+
+    @Mock
+    private ObjectProvider<BackgroundJobHandler> handlers;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, BackgroundJob> jobs = new ConcurrentHashMap<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BackgroundJobServiceImpl backgroundJobService;
+
+    @BeforeEach
+    void setUp() {
+        backgroundJobService = new BackgroundJobServiceImpl(backgroundJobRepository, handlers, userService,
+                clusterJobRunner, transactionManager, meterRegistry, 2, 2, Duration.ZERO, Duration.ZERO,
+                Duration.ofDays(7));
+        lenient().when(backgroundJobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> {
+            BackgroundJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        lenient().when(backgroundJobRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<UUID>getArgument(0))));
+        lenient().when(backgroundJobRepository.findAllByStatusIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<BackgroundJobStatus> statuses = invocation.getArgument(0);
+            return jobs.values().stream().filter(job -> statuses.contains(job.getStatus())).toList();
+        });
+        lenient().when(backgroundJobRepository.isCancelRequested(any(UUID.class)))
+                .thenAnswer(invocation -> jobs.get(invocation.<UUID>getArgument(0)).isCancelRequested());
+        lenient().when(clusterJobRunner.runExclusive(eq(TYPE), anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundJobService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testSubmitJob_RunsHandlerAndRecordsProgress() throws InterruptedException {
+        registerHandler(true, context -> {
+            context.setTotal(3);
+            context.checkpoint(Map.of("position", 1), 1);
+            context.checkpoint(Map.of("position", 3), 2);
+        });
+
+        BackgroundJob job = backgroundJobService.submitJob(TYPE, OWNER_ID, Map.of("format", "csv"));
+
+        awaitStatus(job.getId(), BackgroundJobStatus.COMPLETED);
+        BackgroundJob finished = jobs.get(job.getId());
+        assertEquals(3, finished.getProcessed());
+        assertEquals(3L, finished.getTotal());
+        assertEquals(Map.of("position", 3), finished.getCheckpoint());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+    }
+
+    @Test
+    void testSubmitJob_MarksJobFailedAfterLastAttempt() throws InterruptedException {
+        registerHandler(true, context -> {
+            throw new IllegalStateException("Boom");
+        });
+
+        BackgroundJob job = backgroundJobService.submitJob(TYPE, OWNER_ID, Map.of());
+
+        awaitAttempts(job.getId(), 1);
+        assertEquals(BackgroundJobStatus.PENDING, jobs.get(job.getId()).getStatus());
+        assertNotNull(jobs.get(job.getId()).getNextAttemptAt());
+        backgroundJobService.resumeJobs();
+        awaitStatus(job.getId(), BackgroundJobStatus.FAILED);
+        assertEquals(2, jobs.get(job.getId()).getAttempts());
+        assertTrue(jobs.get(job.getId()).getError().contains("Boom"));
+    }
+
+    @Test
+    void testResumeJobs_RetriesFailedJobFromCheckpoint() throws InterruptedException {
+        registerHandler(true, context -> {
+            if (context.getCheckpoint().isEmpty()){
+                context.checkpoint(Map.of("position", 1), 1);
+                throw new IllegalStateException("Boom");
+            }
+            assertEquals(Map.of("position", 1), context.getCheckpoint());
+            context.checkpoint(Map.of("position", 2), 1);
+        });
+        BackgroundJob job = backgroundJobService.submitJob(TYPE, OWNER_ID, Map.of());
+        awaitAttempts(job.getId(), 1);
+
+        backgroundJobService.resumeJobs();
+
+        awaitStatus(job.getId(), BackgroundJobStatus.COMPLETED);
+        assertEquals(2, jobs.get(job.getId()).getProcessed());
+        assertNull(jobs.get(job.getId()).getError());
+    }
+
+    @Test
+    void testResumeJobs_SkipsJobWaitingForRetry() {
+        BackgroundJob job = new BackgroundJob(UUID.randomUUID(), TYPE, OWNER_ID, BackgroundJobStatus.PENDING,
+                Map.of(), Map.of(), 0, null, false, null, null, null, null, "Boom", 1,
+                LocalDateTime.now().plusMinutes(5));
+        jobs.put(job.getId(), job);
+
+        backgroundJobService.resumeJobs();
+
+        verify(clusterJobRunner, after(200).never()).runExclusive(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testCancelJob_StopsRunningJobAtCheckpoint() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        registerHandler(true, context -> {
+            started.countDown();
+            try {
+                assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertTrue(context.isCancellationRequested());
+        });
+        logIn(OWNER_ID);
+        BackgroundJob job = backgroundJobService.submitJob(TYPE, OWNER_ID, Map.of());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(backgroundJobService.cancelJob(job.getId()).isCancelRequested());
+        cancelled.countDown();
+
+        awaitStatus(job.getId(), BackgroundJobStatus.CANCELLED);
+    }
+
+    @Test
+    void testCancelJob_RejectsOthersAndNotCancellableJobs() {
+        registerHandler(false, context -> {
+        });
+        BackgroundJob job = new BackgroundJob(UUID.randomUUID(), TYPE, OWNER_ID, BackgroundJobStatus.RUNNING,
+                Map.of(), Map.of(), 0, null, false, null, null, null, null, null, 0, null);
+        jobs.put(job.getId(), job);
+
+        logIn(OWNER_ID + 1);
+        assertThrows(NoRightsException.class, () -> backgroundJobService.cancelJob(job.getId()));
+        logIn(OWNER_ID);
+        assertThrows(IllegalStateException.class, () -> backgroundJobService.cancelJob(job.getId()));
+        assertFalse(job.isCancelRequested());
+    }
+
+    @Test
+    void testSubmitJob_RejectsUnknownType() {
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.empty());
+
+        assertThrows(IllegalStateException.class, () -> backgroundJobService.submitJob("unknown", OWNER_ID, Map.of()));
+        verifyNoInteractions(backgroundJobRepository);
+    }
+
+    private void registerHandler(boolean cancellable, Consumer<BackgroundJobContext> body) {
+        BackgroundJobHandler handler = new BackgroundJobHandler() {
+            @Override
+            public String getType() {
+                return TYPE;
+            }
+
+            @Override
+            public boolean isCancellable() {
+                return cancellable;
+            }
+
+            @Override
+            public void run(BackgroundJobContext context) {
+                body.accept(context);
+            }
+        };
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+    }
+
+    private void logIn(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        String email = "user" + userId + "@mail.com";
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null));
+        lenient().when(userService.getUserByEmail(email)).thenReturn(user);
+    }
+
+    private void awaitAttempts(UUID jobId, int attempts) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jobs.get(jobId).getAttempts() < attempts
+                || meterRegistry.get("background.jobs.active").gauge().value() > 0){
+            assertTrue(System.nanoTime() < deadline, "Job didn't reach attempt " + attempts);
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitStatus(UUID jobId, BackgroundJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jobs.get(jobId).getStatus() != status){
+            assertTrue(System.nanoTime() < deadline, "Job didn't reach status " + status);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.*;
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.TaskComment;
+import com.artur.task_management_system.model.attributes.BatchOperationType;
+import com.artur.task_management_system.model.attributes.TaskPriority;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.service.impl.BatchServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskCommentService taskCommentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchServiceImpl(taskService, taskCommentService, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void testExecuteBatch_ResolvesTaskRef() {
+        TaskComment comment = new TaskComment();
+        comment.setId(7L);
+        when(taskService.addTask(any(TaskCreationDTO.class))).thenReturn(42L);
+        when(taskCommentService.addTaskComment(any(TaskCommentCreationDTO.class))).thenReturn(comment);
+
+        List<BatchOperationResultDTO> results = batchService.executeBatch(new BatchRequestDTO(false, List.of(
+                createTask("new"),
+                operation(BatchOperationType.ASSIGN_TASK_PERFORMER, "new", op -> op.setPerformerId(3L)),
+                operation(BatchOperationType.COMMENT_TASK, "new",
+                        op -> op.setComment(new TaskCommentCreationDTO("Comment")))
+        )));
+
+        assertEquals(List.of(200, 200, 200), results.stream().map(BatchOperationResultDTO::getStatus).toList());
+        assertEquals(42L, results.get(0).getId());
+        assertEquals(7L, results.get(2).getId());
+        verify(taskService).assignTaskPerformer(42L, 3L);
+        verify(taskService).commentTask(42L, comment);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testExecuteBatch_NotAtomic_ContinuesAfterFailure() {
+        doThrow(new EntityNotFoundByIdException("task", 1L)).when(taskService).updateTaskStatus(1L, TaskStatus.COMPLETED);
+
+        List<BatchOperationResultDTO> results = batchService.executeBatch(new BatchRequestDTO(false, List.of(
+                operation(BatchOperationType.UPDATE_TASK_STATUS, null, op -> {
+                    op.setTaskId(1L);
+                    op.setStatus(TaskStatus.COMPLETED);
+                }),
+                operation(BatchOperationType.DELETE_TASK, null, op -> op.setTaskId(2L))
+        )));
+
+        assertEquals(404, results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+        assertEquals(200, results.get(1).getStatus());
+        verify(taskService).deleteTaskById(2L);
+    }
+
+    @Test
+    void testExecuteBatch_Atomic_RollsBackOnFailure() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(taskService.addTask(any(TaskCreationDTO.class))).thenReturn(42L);
+
+        List<BatchOperationResultDTO> results = batchService.executeBatch(new BatchRequestDTO(true, List.of(
+                createTask("new"),
+                operation(BatchOperationType.UPDATE_TASK_STATUS, "new", op -> {}),
+                operation(BatchOperationType.DELETE_TASK, "new", op -> {})
+        )));
+
+        assertEquals(List.of(424, 400, 424), results.stream().map(BatchOperationResultDTO::getStatus).toList());
+        assertNull(results.get(0).getId());
+        verify(transactionStatus).setRollbackOnly();
+        verify(taskService, never()).deleteTaskById(any());
+    }
+
+    @Test
+    void testExecuteBatch_ReportsInvalidTaskData() {
+        BatchOperationDTO invalid = createTask(null);
+        invalid.getTask().setTitle("");
+
+        List<BatchOperationResultDTO> results = batchService.executeBatch(new BatchRequestDTO(false, List.of(invalid)));
+
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals("Title is mandatory", results.get(0).getError());
+        verify(taskService, never()).addTask(any());
+    }
+
+    @Test
+    void testExecuteBatch_ThrowsIllegalStateException_OnUnknownRef() {
+        BatchRequestDTO batchRequest = new BatchRequestDTO(false, List.of(
+                operation(BatchOperationType.DELETE_TASK, "later", op -> {}),
+                createTask("later")
+        ));
+
+        assertThrows(IllegalStateException.class, () -> batchService.executeBatch(batchRequest));
+        verifyNoInteractions(taskService);
+    }
+
+    private BatchOperationDTO createTask(String ref) {
+        BatchOperationDTO operation = new BatchOperationDTO();
+        operation.setRef(ref);
+        operation.setOperation(BatchOperationType.CREATE_TASK);
+        operation.setTask(new TaskCreationDTO("Title", "Description", TaskPriority.HIGH,
+                LocalDateTime.now().plusDays(1), new HashSet<>()));
+        return operation;
+    }
+
+    private BatchOperationDTO operation(BatchOperationType type, String taskRef,
+                                        Consumer<BatchOperationDTO> customizer) {
+        BatchOperationDTO operation = new BatchOperationDTO();
+        operation.setOperation(type);
+        operation.setTaskRef(taskRef);
+        customizer.accept(operation);
+        return operation;
+    }
+}
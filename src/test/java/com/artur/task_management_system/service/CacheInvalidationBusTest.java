@@ -0,0 +1,173 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.service.impl.CacheInvalidationBusImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheInvalidationListener listener;
+
+    private CacheInvalidationBusImpl cacheInvalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationBus = new CacheInvalidationBusImpl(jdbcTemplate, transactionManager,
+                new DataSourceProperties(), listeners(), true, "cache_invalidation");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ObjectProvider<CacheInvalidationListener> listeners() {
+        return new StaticListableBeanFactory(Map.of("listener", listener))
+                .getBeanProvider(CacheInvalidationListener.class);
+    }
+
+    @Test
+    void testPublishAfterCommit_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, 1L, () -> 3);
+        verifyNoInteractions(listener, jdbcTemplate);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()){
+            synchronization.afterCommit();
+        }
+
+        verify(listener).onInvalidation(CacheEntityType.TASK, 1L, 3);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(eq("SELECT pg_notify(?, ?)"), eq("cache_invalidation"), payload.capture());
+        assertTrue(payload.getValue().endsWith(";TASK:1:3"));
+    }
+
+    @Test
+    void testPublishAfterCommit_SendsOneNotificationPerCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, 1L, () -> 3);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, 1L, () -> 0);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, 2L, () -> 0);
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, 1L, () -> CacheInvalidationBus.DELETED_VERSION);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+
+        verify(listener).onInvalidation(CacheEntityType.TASK, 1L, CacheInvalidationBus.DELETED_VERSION);
+        verify(listener).onInvalidation(CacheEntityType.TASK_LIST, 1L, 0);
+        verify(listener).onInvalidation(CacheEntityType.TASK_LIST, 2L, 0);
+        verify(transactionManager, times(1)).getTransaction(any());
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), anyString(), payload.capture());
+        assertTrue(payload.getValue().endsWith(
+                ";TASK:1:" + CacheInvalidationBus.DELETED_VERSION + ";TASK_LIST:1:0;TASK_LIST:2:0"));
+    }
+
+    @Test
+    void testPublishAfterCommit_SplitsLongBatches() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (long id = 0; id < 1000; id++){
+            cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK_LIST, id, () -> 0);
+        }
+
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(2)).queryForList(anyString(), anyString(), payload.capture());
+        verify(transactionManager, times(1)).getTransaction(any());
+        int messages = 0;
+        for (String value : payload.getAllValues()){
+            assertTrue(value.length() < 8000);
+            messages += value.split(";").length - 1;
+        }
+        assertEquals(1000, messages);
+    }
+
+    @Test
+    void testPublishAfterCommit_SendsFirstPreviousNaturalId() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, 5L, () -> 2, "old;mail@example.com");
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, 5L, () -> 3, "middle@example.com");
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+
+        verify(listener).onNaturalIdChange(CacheEntityType.USER, 5L, "old;mail@example.com");
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(anyString(), anyString(), payload.capture());
+        assertTrue(payload.getValue().endsWith(";USER:5:3:old%3Bmail%40example.com"));
+    }
+
+    @Test
+    void testPublishAfterCommit_SkipsRemoteOnlyListeners() {
+        when(listener.isRemoteOnly()).thenReturn(true);
+
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.USER, 5L, () -> 2);
+        verify(listener, never()).onInvalidation(any(), any(), anyInt());
+
+        cacheInvalidationBus.handleNotification("other-node;USER:5:2:old%40example.com");
+        verify(listener).onInvalidation(CacheEntityType.USER, 5L, 2);
+        verify(listener).onNaturalIdChange(CacheEntityType.USER, 5L, "old@example.com");
+    }
+
+    @Test
+    void testHandleNotification_AppliesOtherNodeMessage() {
+        cacheInvalidationBus.handleNotification("other-node;USER:5:2;TASK:7:1");
+
+        verify(listener).onInvalidation(CacheEntityType.USER, 5L, 2);
+        verify(listener).onInvalidation(CacheEntityType.TASK, 7L, 1);
+    }
+
+    @Test
+    void testHandleNotification_SkipsOwnAndWrongMessages() {
+        cacheInvalidationBus.publishAfterCommit(CacheEntityType.TASK, 1L, () -> 3);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(anyString(), anyString(), payload.capture());
+        clearInvocations(listener);
+
+        cacheInvalidationBus.handleNotification(payload.getValue());
+        cacheInvalidationBus.handleNotification("other-node;PROJECT:1:1;TASK:x:1;TASK:1");
+        cacheInvalidationBus.handleNotification("broken");
+
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void testConstructor_RejectsWrongChannel() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheInvalidationBusImpl(jdbcTemplate,
+                transactionManager, new DataSourceProperties(), listeners(), true, "bad; DROP"));
+    }
+}
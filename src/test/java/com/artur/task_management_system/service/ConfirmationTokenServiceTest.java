@@ -0,0 +1,74 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.repository.ConfirmationTokenRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.impl.ConfirmationTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfirmationTokenServiceTest {
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private ConfirmationTokenRepository confirmationTokenRepository;
+
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ConfirmationTokenServiceImpl confirmationTokenService;
+
+    @BeforeEach
+    void setUp() {
+        confirmationTokenService = new ConfirmationTokenServiceImpl(confirmationTokenRepository, clusterJobRunner,
+                transactionManager, BATCH_SIZE, Duration.ofDays(1));
+    }
+
+    @Test
+    void testDeleteStaleTokens_DeletesInBatchesUntilBatchIsNotFull() {
+        when(confirmationTokenRepository.deleteExpiredBefore(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(2, 2, 1);
+        when(confirmationTokenRepository.deleteConfirmedBefore(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(0);
+
+        assertEquals(5, confirmationTokenService.deleteStaleTokens());
+
+        verify(confirmationTokenRepository, times(3)).deleteExpiredBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+        verify(confirmationTokenRepository, times(1)).deleteConfirmedBefore(any(LocalDateTime.class), eq(BATCH_SIZE));
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void testGetToken_LooksUpUuid() {
+        UUID token = UUID.randomUUID();
+        when(confirmationTokenRepository.findByToken(token)).thenReturn(Optional.empty());
+
+        assertTrue(confirmationTokenService.getToken(token.toString()).isEmpty());
+
+        verify(confirmationTokenRepository).findByToken(token);
+    }
+
+    @Test
+    void testGetToken_MalformedTokenIsNotFound() {
+        assertTrue(confirmationTokenService.getToken("not-a-token").isEmpty());
+        assertTrue(confirmationTokenService.getToken(null).isEmpty());
+
+        verifyNoInteractions(confirmationTokenRepository);
+    }
+}
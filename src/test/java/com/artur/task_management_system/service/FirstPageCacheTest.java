@@ -0,0 +1,150 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.model.attributes.FirstPageEndpoint;
+import com.artur.task_management_system.service.impl.FirstPageCacheImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FirstPageCacheTest {
+
+    @Mock
+    private UserService userService;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        lenient().when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetPage_FirstPageCached() {
+        FirstPageCacheImpl firstPageCache = firstPageCache(0.0, true);
+
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 0, 10, "id", "Asc", loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 0, 10, "id", "Asc", loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 0, 20, "id", "Asc", loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetPage_OtherPagesAndDisabledEndpointsNotCached() {
+        FirstPageCacheImpl firstPageCache = firstPageCache(0.0, false);
+
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 1, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 1, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testOnInvalidation_EvictsAffectedEntries() {
+        FirstPageCacheImpl firstPageCache = firstPageCache(0.0, true);
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null, loader());
+
+        firstPageCache.onInvalidation(CacheEntityType.TASK_LIST, 2L, 0);
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null, loader());
+        assertEquals(2, loads.get());
+
+        firstPageCache.onInvalidation(CacheEntityType.TASK_LIST, 1L, 0);
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null, loader());
+        assertEquals(3, loads.get());
+
+        firstPageCache.onInvalidation(CacheEntityType.TASK, 5L, 1);
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null, loader());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testGetPage_InvalidationDuringLoadSkipsOnlyAffectedList() {
+        FirstPageCacheImpl firstPageCache = firstPageCache(0.0, true);
+
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null,
+                loaderInvalidating(firstPageCache, CacheEntityType.TASK_LIST, 2L));
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null,
+                loaderInvalidating(firstPageCache, CacheEntityType.TASK_LIST, 2L));
+        firstPageCache.getPage(FirstPageEndpoint.MY_ASSIGNED, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        assertEquals(2, loads.get());
+
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 0, 10, null, null,
+                loaderInvalidating(firstPageCache, CacheEntityType.TASK_LIST, 1L));
+        firstPageCache.getPage(FirstPageEndpoint.MY_AUTHORED, 0, 10, null, null, loader());
+        assertEquals(4, loads.get());
+
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 20, null, null,
+                loaderInvalidating(firstPageCache, CacheEntityType.TASK, 5L));
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 20, null, null, loader());
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void testGetPage_RefreshesEarly() {
+        FirstPageCacheImpl firstPageCache = firstPageCache(1e12, true);
+
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+        firstPageCache.getPage(FirstPageEndpoint.TASKS, 0, 10, null, null, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    private FirstPageCacheImpl firstPageCache(double beta, boolean tasksEnabled) {
+        return new FirstPageCacheImpl(userService, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1),
+                beta, tasksEnabled, true, true);
+    }
+
+    private Supplier<byte[]> loaderInvalidating(FirstPageCacheImpl firstPageCache,
+                                                CacheEntityType entityType, Long id) {
+        Supplier<byte[]> loader = loader();
+        return () -> {
+            byte[] page = loader.get();
+            firstPageCache.onInvalidation(entityType, id, 0);
+            return page;
+        };
+    }
+
+    private Supplier<byte[]> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new byte[0];
+        };
+    }
+}
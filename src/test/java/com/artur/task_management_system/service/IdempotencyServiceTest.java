@@ -0,0 +1,212 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.TaskCommentCreationDTO;
+import com.artur.task_management_system.exception.IdempotencyKeyReusedException;
+import com.artur.task_management_system.model.IdempotencyRecord;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.repository.IdempotencyRecordRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.impl.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    private static final Long USER_ID = 7L;
+    private static final String EMAIL = "user@mail.com";
+    private static final String KEY = "retry-key";
+    private static final String OPERATION = "POST api/tasks";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final AtomicLong taskIds = new AtomicLong(100);
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, userService, clusterJobRunner,
+                jdbcTemplate, transactionManager, objectMapper, new SimpleMeterRegistry(),
+                Duration.ofHours(24), 100, 2);
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(EMAIL, null));
+        lenient().when(userService.getUserByEmail(EMAIL)).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testExecute_WithoutKeyRunsAction() {
+        assertEquals(100L, idempotencyService.execute(null, OPERATION, comment("a"), Long.class,
+                taskIds::getAndIncrement));
+        assertEquals(101L, idempotencyService.execute(null, OPERATION, comment("a"), Long.class,
+                taskIds::getAndIncrement));
+
+        verifyNoInteractions(jdbcTemplate, userService);
+    }
+
+    @Test
+    void testExecute_RetryReturnsStoredResponseWithoutRunningAction() {
+        reserveKeys(true);
+
+        Long first = idempotencyService.execute(KEY, OPERATION, comment("a"), Long.class, taskIds::getAndIncrement);
+        Long retry = idempotencyService.execute(KEY, OPERATION, comment("a"), Long.class, taskIds::getAndIncrement);
+
+        assertEquals(100L, first);
+        assertEquals(100L, retry);
+        assertEquals(101L, taskIds.get());
+        verify(jdbcTemplate).update(anyString(), eq("100"), eq(1L));
+    }
+
+    @Test
+    void testExecute_ReplaysResponseStoredByAnotherNode() {
+        reserveKeys(false);
+        String fingerprint = storedFingerprint();
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .thenReturn(Optional.of(new IdempotencyRecord(1L, USER_ID, KEY, fingerprint, "42",
+                        LocalDateTime.now(), LocalDateTime.now().plusDays(1))));
+
+        assertEquals(42L, idempotencyService.execute(KEY, OPERATION, comment("a"), Long.class,
+                taskIds::getAndIncrement));
+
+        assertEquals(100L, taskIds.get());
+    }
+
+    @Test
+    void testExecute_RejectsKeyReusedForDifferentRequest() {
+        reserveKeys(true);
+        idempotencyService.execute(KEY, OPERATION, comment("a"), Long.class, taskIds::getAndIncrement);
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyService.execute(KEY, OPERATION, comment("b"), Long.class, taskIds::getAndIncrement));
+        assertEquals(101L, taskIds.get());
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicatesRunActionOnce() throws Exception {
+        reserveKeys(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        SecurityContext context = SecurityContextHolder.getContext();
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)){
+            for (int i = 0; i < 3; i++){
+                results.add(executor.submit(() -> {
+                    SecurityContextHolder.setContext(context);
+                    return idempotencyService.execute(KEY, OPERATION, comment("a"), Long.class, () -> {
+                        executions.incrementAndGet();
+                        started.countDown();
+                        await(release);
+                        return taskIds.getAndIncrement();
+                    });
+                }));
+                if (i == 0){
+                    assertTrue(started.await(5, TimeUnit.SECONDS));
+                }
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Long> result : results){
+                assertEquals(100L, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecute_RejectsTooLongKey() {
+        assertThrows(IllegalStateException.class, () ->
+                idempotencyService.execute("k".repeat(256), OPERATION, comment("a"), Long.class,
+                        taskIds::getAndIncrement));
+    }
+
+    @Test
+    void testDeleteExpiredKeys_DeletesInBatches() {
+        when(idempotencyRecordRepository.deleteExpiredBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 1);
+
+        assertEquals(3, idempotencyService.deleteExpiredKeys());
+    }
+
+    private void reserveKeys(boolean reserved) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(reserved ? List.of(1L) : List.of());
+    }
+
+    /**
+     * Получает отпечаток запроса так, как его сохранил бы первый узел.
+     */
+    private String storedFingerprint() {
+        List<Object[]> reservations = new ArrayList<>();
+        JdbcTemplate recording = mock(JdbcTemplate.class);
+        when(recording.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            reservations.add((Object[]) invocation.getRawArguments()[2]);
+            return List.of(1L);
+        });
+        new IdempotencyServiceImpl(idempotencyRecordRepository, userService, clusterJobRunner, recording,
+                transactionManager, objectMapper, new SimpleMeterRegistry(), Duration.ofHours(24), 100, 2)
+                .execute(KEY, OPERATION, comment("a"), Long.class, () -> 42L);
+        return (String) reservations.get(0)[2];
+    }
+
+    private TaskCommentCreationDTO comment(String text) {
+        return new TaskCommentCreationDTO(text);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
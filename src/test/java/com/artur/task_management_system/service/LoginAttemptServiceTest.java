@@ -0,0 +1,91 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.LoginBlockedException;
+import com.artur.task_management_system.service.impl.LoginAttemptServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptServiceTest {
+    private static final String EMAIL = "user@mail.com";
+
+    private LoginAttemptServiceImpl loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptService = new LoginAttemptServiceImpl(new SimpleMeterRegistry(), 2, 4,
+                Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1), 1_000);
+        fromAddress("10.0.0.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testCheckAllowed_BlocksAccountAfterFreeFailures() {
+        loginAttemptService.loginFailed(EMAIL);
+        loginAttemptService.loginFailed(EMAIL);
+        loginAttemptService.checkAllowed(EMAIL);
+
+        loginAttemptService.loginFailed(EMAIL);
+
+        LoginBlockedException exc = assertThrows(LoginBlockedException.class,
+                () -> loginAttemptService.checkAllowed("USER@mail.com"));
+        assertEquals(60, exc.getRetryAfterSeconds());
+        fromAddress("10.0.0.2");
+        assertThrows(LoginBlockedException.class, () -> loginAttemptService.checkAllowed(EMAIL));
+        loginAttemptService.checkAllowed("other@mail.com");
+    }
+
+    @Test
+    void testLoginFailed_DoublesBackoffUpToMax() {
+        for (int i = 0; i < 4; i++){
+            loginAttemptService.loginFailed(EMAIL);
+        }
+        assertEquals(120, assertThrows(LoginBlockedException.class,
+                () -> loginAttemptService.checkAllowed(EMAIL)).getRetryAfterSeconds());
+
+        for (int i = 0; i < 10; i++){
+            loginAttemptService.loginFailed(EMAIL);
+        }
+        assertEquals(300, assertThrows(LoginBlockedException.class,
+                () -> loginAttemptService.checkAllowed(EMAIL)).getRetryAfterSeconds());
+    }
+
+    @Test
+    void testCheckAllowed_BlocksAddressTryingManyAccounts() {
+        for (int i = 0; i < 5; i++){
+            loginAttemptService.loginFailed("user" + i + "@mail.com");
+        }
+
+        assertThrows(LoginBlockedException.class, () -> loginAttemptService.checkAllowed("new@mail.com"));
+        fromAddress("10.0.0.2");
+        loginAttemptService.checkAllowed("new@mail.com");
+    }
+
+    @Test
+    void testLoginSucceeded_ResetsAccountFailures() {
+        loginAttemptService.loginFailed(EMAIL);
+        loginAttemptService.loginFailed(EMAIL);
+        loginAttemptService.loginSucceeded(EMAIL);
+        loginAttemptService.loginFailed(EMAIL);
+
+        loginAttemptService.checkAllowed(EMAIL);
+    }
+
+    private void fromAddress(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
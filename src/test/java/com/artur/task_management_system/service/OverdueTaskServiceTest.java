@@ -0,0 +1,165 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.OverdueTaskNotice;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.OverdueNotificationRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.scheduling.JobShard;
+import com.artur.task_management_system.service.impl.OverdueTaskServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueTaskServiceTest {
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDateTime DEADLINE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private OverdueNotificationRepository overdueNotificationRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OverdueTaskServiceImpl overdueTaskService;
+
+    @BeforeEach
+    void setUp() {
+        overdueTaskService = new OverdueTaskServiceImpl(overdueNotificationRepository, emailService,
+                cacheInvalidationBus, clusterJobRunner, jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                1, CHUNK_SIZE, 10, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        overdueTaskService.shutdown();
+    }
+
+    @Test
+    void testMarkOverdueTasks_ProcessesChunksAfterWatermark() {
+        List<Object[]> calls = new ArrayList<>();
+        List<List<Object[]>> chunks = List.of(
+                List.of(row(1L, 10L, DEADLINE, 2), row(2L, 11L, DEADLINE.plusHours(1), 3)),
+                List.<Object[]>of(row(3L, 10L, DEADLINE.plusHours(2), 1)));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] args = invocation.getRawArguments();
+            calls.add((Object[]) args[2]);
+            return mapRows(invocation.getArgument(1), chunks.get(calls.size() - 1));
+        });
+
+        assertEquals(3, overdueTaskService.markOverdueTasks(JobShard.ALL));
+
+        assertEquals(2, calls.size());
+        assertEquals(Timestamp.valueOf(DEADLINE.plusHours(1)), calls.get(1)[1]);
+        assertEquals(2L, calls.get(1)[2]);
+        assertEquals(CHUNK_SIZE, calls.get(1)[5]);
+        verify(cacheInvalidationBus, times(3)).publishAfterCommit(eq(CacheEntityType.TASK), anyLong(), any());
+        verify(cacheInvalidationBus, times(3)).publishAfterCommit(eq(CacheEntityType.TASK_LIST), anyLong(), any());
+    }
+
+    @Test
+    void testMarkOverdueTasks_StopsWhenNothingIsOverdue() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        assertEquals(0, overdueTaskService.markOverdueTasks(JobShard.ALL));
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(Object[].class));
+        verifyNoInteractions(cacheInvalidationBus);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMarkOverdueTasks_LimitsShardToItsIdRange() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class)))
+                .thenReturn(new long[]{1, 100});
+        List<Object[]> calls = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    calls.add((Object[]) invocation.getRawArguments()[2]);
+                    return List.of();
+                });
+
+        overdueTaskService.markOverdueTasks(new JobShard(1, 4));
+
+        assertEquals(26L, calls.get(0)[3]);
+        assertEquals(51L, calls.get(0)[4]);
+    }
+
+    @Test
+    void testSendOverdueDigests_SendsOneEmailPerAuthor() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("author_id")).thenReturn(10L, 10L, 11L);
+        when(resultSet.getLong("task_id")).thenReturn(1L, 3L, 2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++){
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        OverdueTaskNotice first = notice(1L, 10L);
+        OverdueTaskNotice third = notice(3L, 10L);
+        OverdueTaskNotice second = notice(2L, 11L);
+        when(overdueNotificationRepository.findNotices(Set.of(1L, 2L, 3L))).thenReturn(List.of(first, third, second));
+
+        assertEquals(2, overdueTaskService.sendOverdueDigests());
+
+        verify(emailService, timeout(1_000)).sendOverdueDigestEmail("author10@mail.com", "Author", List.of(first, third));
+        verify(emailService, timeout(1_000)).sendOverdueDigestEmail("author11@mail.com", "Author", List.of(second));
+    }
+
+    private Object[] row(Long id, Long authorId, LocalDateTime deadLineDate, int version) {
+        return new Object[]{id, authorId, deadLineDate, version};
+    }
+
+    private List<Object> mapRows(RowMapper<?> rowMapper, List<Object[]> rows) throws SQLException {
+        List<Object> mapped = new ArrayList<>();
+        for (Object[] row : rows){
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("id")).thenReturn((Long) row[0]);
+            when(resultSet.getLong("author_id")).thenReturn((Long) row[1]);
+            when(resultSet.getTimestamp("dead_line_date")).thenReturn(Timestamp.valueOf((LocalDateTime) row[2]));
+            when(resultSet.getInt("version")).thenReturn((Integer) row[3]);
+            mapped.add(rowMapper.mapRow(resultSet, mapped.size()));
+        }
+        return mapped;
+    }
+
+    private OverdueTaskNotice notice(Long taskId, Long authorId) {
+        return new OverdueTaskNotice(taskId, "Task " + taskId, DEADLINE, authorId,
+                "author" + authorId + "@mail.com", "Author");
+    }
+}
@@ -0,0 +1,57 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.SortFieldNotAllowedException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.service.impl.PageablePlannerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageablePlannerTest {
+
+    private final PageablePlanner pageablePlanner = new PageablePlannerImpl();
+
+    @Test
+    void testMakePageable_AppendsIdTiebreaker() {
+        Pageable pageable = pageablePlanner.makePageable(Task.class, 0, 10, "deadLineDate", "Desc");
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "deadLineDate", "id"), pageable.getSort());
+        assertEquals(10, pageable.getPageSize());
+    }
+
+    @Test
+    void testMakePageable_DefaultsToIdOrder() {
+        Pageable pageable = pageablePlanner.makePageable(User.class, 1, 5, null, null);
+
+        assertEquals(Sort.by("id"), pageable.getSort());
+        assertEquals(1, pageable.getPageNumber());
+    }
+
+    @Test
+    void testMakePageable_SortById_HasNoDuplicateTiebreaker() {
+        Pageable pageable = pageablePlanner.makePageable(User.class, 0, 10, "id", "Asc");
+
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), pageable.getSort());
+    }
+
+    @Test
+    void testMakePageable_ThrowsSortFieldNotAllowedException() {
+        assertThrows(SortFieldNotAllowedException.class,
+                () -> pageablePlanner.makePageable(Task.class, 0, 10, "title", "Asc"));
+        assertThrows(SortFieldNotAllowedException.class,
+                () -> pageablePlanner.makePageable(Task.class, 0, 10, "performers", "Asc"));
+        assertThrows(SortFieldNotAllowedException.class,
+                () -> pageablePlanner.makePageable(User.class, 0, 10, "password", "Desc"));
+    }
+
+    @Test
+    void testMakePageable_ThrowsIllegalStateException() {
+        assertThrows(IllegalStateException.class,
+                () -> pageablePlanner.makePageable(Task.class, null, 10, null, null));
+        assertThrows(IllegalStateException.class,
+                () -> pageablePlanner.makePageable(Task.class, 0, 10, "status", "Up"));
+    }
+}
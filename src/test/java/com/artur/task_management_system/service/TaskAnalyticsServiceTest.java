@@ -0,0 +1,125 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.StatusTimeGroup;
+import com.artur.task_management_system.model.StatusTimeReport;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskStatusTransition;
+import com.artur.task_management_system.model.TaskStatusTransitionSample;
+import com.artur.task_management_system.model.attributes.StatusTimeGroupBy;
+import com.artur.task_management_system.model.attributes.TaskPriority;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.TaskStatusTransitionRepository;
+import com.artur.task_management_system.service.impl.TaskAnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskAnalyticsServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Mock
+    private TaskStatusTransitionRepository taskStatusTransitionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskAnalyticsService taskAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        taskAnalyticsService = new TaskAnalyticsServiceImpl(taskStatusTransitionRepository, transactionManager,
+                Duration.ofDays(366));
+    }
+
+    @Test
+    void testRecordStatusChange_RecordsTimeInPreviousStatusAndLeadTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = new Task();
+        task.setId(1L);
+        task.setPriority(TaskPriority.HIGH);
+        task.setCreationDate(now.minusHours(5));
+        task.setStatusChangedAt(now.minusHours(2));
+        task.setStatus(TaskStatus.COMPLETED);
+
+        taskAnalyticsService.recordStatusChange(task, TaskStatus.IN_PROCESS, 7L);
+
+        ArgumentCaptor<TaskStatusTransition> transition = ArgumentCaptor.forClass(TaskStatusTransition.class);
+        verify(taskStatusTransitionRepository).save(transition.capture());
+        assertEquals(TaskStatus.IN_PROCESS, transition.getValue().getFromStatus());
+        assertEquals(TaskStatus.COMPLETED, transition.getValue().getToStatus());
+        assertEquals(7L, transition.getValue().getActorId());
+        assertEquals(2, Duration.ofMillis(transition.getValue().getDurationMs()).toHours());
+        assertEquals(5, Duration.ofMillis(transition.getValue().getLeadTimeMs()).toHours());
+        assertFalse(task.getStatusChangedAt().isBefore(now));
+    }
+
+    @Test
+    void testRecordStatusChange_SkipsUnchangedStatus() {
+        Task task = new Task();
+        task.setStatus(TaskStatus.NEW);
+
+        taskAnalyticsService.recordStatusChange(task, TaskStatus.NEW, 7L);
+
+        verifyNoInteractions(taskStatusTransitionRepository);
+        assertNull(task.getStatusChangedAt());
+    }
+
+    @Test
+    void testGetStatusTimeReport_GroupsPercentilesByPriority() {
+        when(taskStatusTransitionRepository.streamSamples(FROM, TO)).thenReturn(Stream.of(
+                sample(TaskStatus.NEW, TaskStatus.IN_PROCESS, TaskPriority.HIGH, 1L, 10L, null),
+                sample(TaskStatus.NEW, TaskStatus.IN_PROCESS, TaskPriority.HIGH, 2L, 30L, null),
+                sample(TaskStatus.IN_PROCESS, TaskStatus.COMPLETED, TaskPriority.HIGH, 1L, 50L, 80L),
+                sample(TaskStatus.NEW, TaskStatus.IN_PROCESS, TaskPriority.LOW, 1L, 7L, null)));
+
+        StatusTimeReport report = taskAnalyticsService.getStatusTimeReport(FROM, TO, StatusTimeGroupBy.PRIORITY);
+
+        assertEquals(List.of("HIGH", "LOW"), report.getGroups().stream().map(StatusTimeGroup::getKey).toList());
+        StatusTimeGroup high = report.getGroups().get(0);
+        assertEquals(List.of("NEW", "IN_PROCESS", "LEAD_TIME"), List.copyOf(high.getMetrics().keySet()));
+        assertEquals(2, high.getMetrics().get("NEW").getCount());
+        assertEquals(10, high.getMetrics().get("NEW").getP50Ms());
+        assertEquals(30, high.getMetrics().get("NEW").getP99Ms());
+        assertEquals(80, high.getMetrics().get("LEAD_TIME").getMaxMs());
+    }
+
+    @Test
+    void testGetStatusTimeReport_GroupsByUser() {
+        when(taskStatusTransitionRepository.streamSamples(FROM, TO)).thenReturn(Stream.of(
+                sample(TaskStatus.NEW, TaskStatus.IN_PROCESS, TaskPriority.HIGH, 12L, 10L, null),
+                sample(TaskStatus.NEW, TaskStatus.IN_PROCESS, TaskPriority.LOW, 3L, 30L, null)));
+
+        StatusTimeReport report = taskAnalyticsService.getStatusTimeReport(FROM, TO, StatusTimeGroupBy.USER);
+
+        assertEquals(List.of("3", "12"), report.getGroups().stream().map(StatusTimeGroup::getKey).toList());
+    }
+
+    @Test
+    void testGetStatusTimeReport_ThrowsIllegalStateExceptionForWrongPeriod() {
+        assertThrows(IllegalStateException.class,
+                () -> taskAnalyticsService.getStatusTimeReport(TO, FROM, StatusTimeGroupBy.PRIORITY));
+        assertThrows(IllegalStateException.class,
+                () -> taskAnalyticsService.getStatusTimeReport(FROM, FROM.plusYears(2), StatusTimeGroupBy.PRIORITY));
+        verify(taskStatusTransitionRepository, never()).streamSamples(any(), any());
+    }
+
+    private TaskStatusTransitionSample sample(TaskStatus from, TaskStatus to, TaskPriority priority,
+                                              Long actorId, Long durationMs, Long leadTimeMs) {
+        return new TaskStatusTransitionSample(from, to, priority, actorId, durationMs, leadTimeMs);
+    }
+}
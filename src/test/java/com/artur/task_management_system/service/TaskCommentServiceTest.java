@@ -5,12 +5,13 @@ import com.artur.task_management_system.exception.UnauthenticatedException;
 import com.artur.task_management_system.model.TaskComment;
 import com.artur.task_management_system.model.User;
 import com.artur.task_management_system.repository.TaskCommentRepository;
+import com.artur.task_management_system.service.impl.TaskCommentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -32,7 +33,7 @@ class TaskCommentServiceTest {
     private UserService userService;
 
     @InjectMocks
-    private TaskCommentService taskCommentService;
+    private TaskCommentServiceImpl taskCommentService;
 
     @Mock
     private Authentication authentication;
@@ -42,9 +43,13 @@ class TaskCommentServiceTest {
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
         SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
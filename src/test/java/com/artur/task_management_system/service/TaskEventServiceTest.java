@@ -0,0 +1,124 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.OutboxEvent;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.OutboxEventRepository;
+import com.artur.task_management_system.scheduling.ClusterJobRunner;
+import com.artur.task_management_system.service.impl.TaskEventServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskEventSubscriber subscriber;
+
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskEventService taskEventService;
+
+    @BeforeEach
+    void setUp() {
+        taskEventService = new TaskEventServiceImpl(outboxEventRepository,
+                new StaticListableBeanFactory(Map.of("subscriber", subscriber))
+                        .getBeanProvider(TaskEventSubscriber.class),
+                objectMapper, clusterJobRunner, transactionManager, 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void testRaise_WritesTaskStateAndDetails() throws Exception {
+        Task task = new Task();
+        task.setId(10L);
+        task.setTitle("Title");
+        task.setStatus(TaskStatus.IN_PROCESS);
+        task.setAuthor(user(1L));
+        task.setPerformers(Set.of(user(3L), user(2L)));
+
+        taskEventService.raise(TaskEventType.STATUS_CHANGED, task, 2L, Map.of("previousStatus", TaskStatus.NEW));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(outboxEventRepository).insertEvent(eq("STATUS_CHANGED"), eq(10L), eq(2L), payload.capture());
+        Map<?, ?> fields = objectMapper.readValue(payload.getValue(), Map.class);
+        assertEquals(1, fields.get("authorId"));
+        assertEquals(List.of(2, 3), fields.get("performerIds"));
+        assertEquals("IN_PROCESS", fields.get("status"));
+        assertEquals("NEW", fields.get("previousStatus"));
+    }
+
+    @Test
+    void testRelayPendingEvents_DeliversBatchInOrderAndMarksPublished() {
+        when(outboxEventRepository.tryLockRelay("outbox-relay")).thenReturn(true);
+        when(outboxEventRepository.findUnpublishedBatch(2)).thenReturn(List.of(
+                outboxEvent(5L, TaskEventType.TASK_CREATED), outboxEvent(4L, TaskEventType.TASK_UPDATED)));
+
+        int relayed = taskEventService.relayPendingEvents();
+
+        assertEquals(2, relayed);
+        ArgumentCaptor<List<TaskEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(subscriber).onTaskEvents(events.capture());
+        assertEquals(List.of(5L, 4L), events.getValue().stream().map(TaskEvent::getId).toList());
+        assertEquals(7, events.getValue().get(0).getPayload().get("taskId"));
+        verify(outboxEventRepository).markPublished(List.of(5L, 4L));
+    }
+
+    @Test
+    void testRelayPendingEvents_SkipsWhenOtherNodeRelays() {
+        when(outboxEventRepository.tryLockRelay("outbox-relay")).thenReturn(false);
+
+        assertEquals(0, taskEventService.relayPendingEvents());
+        verify(outboxEventRepository, never()).findUnpublishedBatch(anyInt());
+        verifyNoInteractions(subscriber);
+    }
+
+    @Test
+    void testRelayPendingEvents_SubscriberFailureKeepsEventsUnpublished() {
+        when(outboxEventRepository.tryLockRelay("outbox-relay")).thenReturn(true);
+        when(outboxEventRepository.findUnpublishedBatch(2)).thenReturn(List.of(
+                outboxEvent(5L, TaskEventType.TASK_CREATED)));
+        doThrow(new IllegalStateException("failed")).when(subscriber).onTaskEvents(anyList());
+
+        assertThrows(IllegalStateException.class, () -> taskEventService.relayPendingEvents());
+        verify(outboxEventRepository, never()).markPublished(anyCollection());
+    }
+
+    private OutboxEvent outboxEvent(Long id, TaskEventType type) {
+        return new OutboxEvent(id, type, 7L, 1L, "{\"taskId\":7}", 100L, LocalDateTime.now(), null);
+    }
+
+    private User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,209 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.service.impl.TaskEventStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventStreamServiceTest {
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private UserService userService;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private TaskEventStreamServiceImpl streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = streamService(16);
+        when(taskEventService.getLastEvent()).thenReturn(Optional.of(event(1L, 10L, 1L, List.of())));
+        streamService.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPoll_SendsEventsOnlyToAuthorAndPerformers() throws Exception {
+        RecordingEmitter author = subscribe(1L, null);
+        RecordingEmitter performer = subscribe(2L, null);
+        RecordingEmitter other = subscribe(3L, null);
+        when(taskEventService.getEventsAfter(10L, 1L, 500)).thenReturn(List.of(event(2L, 11L, 1L, List.of(2L))));
+
+        streamService.poll();
+
+        assertEquals(List.of("11.2"), author.awaitIds(1));
+        assertEquals(List.of("11.2"), performer.awaitIds(1));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(other.ids().isEmpty());
+    }
+
+    @Test
+    void testSubscribe_ReplaysBufferedEventsAfterLastEventId() throws Exception {
+        when(taskEventService.getEventsAfter(10L, 1L, 500)).thenReturn(List.of(
+                event(2L, 11L, 1L, List.of()),
+                event(3L, 11L, 4L, List.of()),
+                event(4L, 12L, 1L, List.of())));
+        streamService.poll();
+
+        RecordingEmitter emitter = subscribe(1L, "11.2");
+
+        assertEquals(List.of("12.4"), emitter.awaitIds(1));
+        verify(taskEventService, never()).getEventsAfter(eq(11L), eq(2L), anyInt());
+    }
+
+    @Test
+    void testSubscribe_ReplaysFromOutboxWhenBufferDoesNotCover() throws Exception {
+        when(taskEventService.getEventsAfter(10L, 1L, 500)).thenReturn(List.of(event(4L, 12L, 1L, List.of())));
+        streamService.poll();
+        when(taskEventService.getEventsAfter(9L, 7L, 1001)).thenReturn(List.of(
+                event(1L, 10L, 1L, List.of()), event(4L, 12L, 1L, List.of())));
+
+        RecordingEmitter emitter = subscribe(1L, "9.7");
+
+        assertEquals(List.of("10.1", "12.4"), emitter.awaitIds(2));
+    }
+
+    @Test
+    void testSubscribe_ResyncBeforeFirstPoll() throws Exception {
+        streamService.shutdown();
+        streamService = streamService(16);
+
+        RecordingEmitter emitter = subscribe(1L, "9.7");
+
+        assertEquals(List.of("RESYNC"), emitter.awaitNames(1));
+        verify(taskEventService, never()).getEventsAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testPoll_SlowConsumerGetsResync() throws Exception {
+        streamService.shutdown();
+        streamService = streamService(2);
+        when(taskEventService.getLastEvent()).thenReturn(Optional.empty());
+        streamService.poll();
+        RecordingEmitter emitter = subscribe(1L, null);
+        emitter.block();
+        when(taskEventService.getEventsAfter(0L, 0L, 500)).thenReturn(List.of(
+                event(1L, 1L, 1L, List.of()), event(2L, 1L, 1L, List.of()),
+                event(3L, 1L, 1L, List.of()), event(4L, 1L, 1L, List.of())));
+
+        streamService.poll();
+        emitter.unblock();
+
+        assertTrue(emitter.awaitNames(2).contains("RESYNC"));
+    }
+
+    private TaskEventStreamServiceImpl streamService(int queueSize) {
+        return new TaskEventStreamServiceImpl(taskEventService, userService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 3, 1000, queueSize, 500) {
+            @Override
+            protected SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(Long userId, String lastEventId) {
+        User user = new User();
+        user.setId(userId);
+        String email = "user" + userId + "@example.com";
+        lenient().when(userService.getUserByEmail(email)).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        streamService.subscribe(lastEventId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private TaskEvent event(Long id, Long txid, Long authorId, List<Long> performerIds) {
+        return new TaskEvent(id, txid, TaskEventType.TASK_UPDATED, 100L, authorId, LocalDateTime.now(),
+                Map.of("authorId", authorId, "performerIds", performerIds));
+    }
+
+    /**
+     * Соединение, запоминающее отправленные события вместо записи в ответ.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+        private volatile boolean blocked;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            while (blocked){
+                Thread.onSpinWait();
+            }
+            String text = builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining());
+            lines.addAll(List.of(text.split("\n")));
+        }
+
+        void block() {
+            blocked = true;
+        }
+
+        void unblock() {
+            blocked = false;
+        }
+
+        List<String> ids() {
+            return values("id:");
+        }
+
+        List<String> awaitIds(int count) throws InterruptedException {
+            return await("id:", count);
+        }
+
+        List<String> awaitNames(int count) throws InterruptedException {
+            return await("event:", count);
+        }
+
+        private List<String> await(String prefix, int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (values(prefix).size() < count && System.nanoTime() < deadline){
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            return values(prefix);
+        }
+
+        private List<String> values(String prefix) {
+            return lines.stream()
+                    .filter(line -> line.startsWith(prefix))
+                    .map(line -> line.substring(prefix.length()))
+                    .toList();
+        }
+    }
+}
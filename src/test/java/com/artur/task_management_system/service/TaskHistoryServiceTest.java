@@ -0,0 +1,229 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskHistoryEntry;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.TaskPriority;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.TaskHistoryRepository;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.impl.TaskHistoryServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskHistoryServiceTest {
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskHistoryServiceImpl taskHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        taskHistoryService = historyService(16);
+    }
+
+    @Test
+    void testRecordChange_WritesOnlyChangedFieldsOnFlush() throws Exception {
+        Task task = task();
+        Map<String, Object> before = taskHistoryService.snapshot(task);
+        task.setStatus(TaskStatus.IN_PROCESS);
+        task.setDeadLineDate(LocalDateTime.of(2030, 1, 2, 0, 0));
+
+        taskHistoryService.recordChange(TaskEventType.TASK_UPDATED, task, 5L, before, Map.of());
+        verifyNoInteractions(jdbcTemplate);
+
+        assertEquals(1, taskHistoryService.flush());
+        Object[] row = writtenRows().get(0);
+        assertEquals(10L, row[0]);
+        assertEquals(5L, row[1]);
+        assertEquals("TASK_UPDATED", row[2]);
+        assertEquals(Map.of(
+                "status", List.of("NEW", "IN_PROCESS"),
+                "deadLineDate", List.of("2030-01-01T00:00", "2030-01-02T00:00")
+        ), objectMapper.readValue((String) row[3], Map.class));
+    }
+
+    @Test
+    void testRecordChange_SkipsChangeWithoutDifferences() {
+        Task task = task();
+
+        taskHistoryService.recordChange(TaskEventType.TASK_UPDATED, task, 5L, taskHistoryService.snapshot(task), Map.of());
+
+        assertEquals(0, taskHistoryService.flush());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testFlush_WritesBufferedChangesInBatches() {
+        for (int i = 0; i < 5; i++){
+            taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task(), 5L, Map.of(), Map.of());
+        }
+
+        assertEquals(5, taskHistoryService.flush());
+
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testRecordChange_WritesSynchronouslyWhenBufferIsFull() {
+        taskHistoryService = historyService(1);
+        Task task = task();
+
+        taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task, 5L, Map.of(), Map.of());
+        taskHistoryService.recordChange(TaskEventType.COMMENT_ADDED, task, 5L,
+                taskHistoryService.snapshot(task), Map.of("comment", "Text"));
+
+        Object[] row = writtenRows().get(0);
+        assertEquals("COMMENT_ADDED", row[2]);
+        assertEquals(1, taskHistoryService.flush());
+    }
+
+    @Test
+    void testFlush_KeepsChangesInBufferWhenWriteFails() {
+        taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task(), 5L, Map.of(), Map.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        assertThrows(QueryTimeoutException.class, () -> taskHistoryService.flush());
+
+        assertEquals(1, taskHistoryService.flush());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testWriter_RetriesFailedBatchWithBackoff() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+        taskHistoryService.start();
+        try {
+            taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task(), 5L, Map.of(), Map.of());
+
+            verify(jdbcTemplate, timeout(2_000).times(3)).batchUpdate(anyString(), anyList());
+        } finally {
+            taskHistoryService.stop();
+        }
+        assertEquals(0, taskHistoryService.flush());
+    }
+
+    @Test
+    void testRecordChange_WaitsForBufferSpaceWhenSynchronousWriteFails() throws Exception {
+        taskHistoryService = historyService(1);
+        Task task = task();
+        taskHistoryService.recordChange(TaskEventType.TASK_CREATED, task, 5L, Map.of(), Map.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+        Thread caller = Thread.ofPlatform().start(() -> taskHistoryService.recordChange(TaskEventType.COMMENT_ADDED,
+                task, 5L, taskHistoryService.snapshot(task), Map.of("comment", "Text")));
+        verify(jdbcTemplate, timeout(2_000)).batchUpdate(anyString(), anyList());
+        assertTrue(caller.isAlive());
+
+        taskHistoryService.start();
+        try {
+            caller.join(2_000);
+            assertFalse(caller.isAlive());
+        } finally {
+            taskHistoryService.stop();
+        }
+        assertEquals(0, taskHistoryService.flush());
+        assertEquals(3, allWrittenRows().size());
+    }
+
+    @Test
+    void testGetTaskHistory_OrdersByChangeTime() {
+        when(taskHistoryRepository.findAllByTaskId(eq(10L), any())).thenReturn(new PageImpl<>(List.of(
+                new TaskHistoryEntry())));
+
+        taskHistoryService.getTaskHistory(10L, 1, 10);
+
+        verify(taskHistoryRepository).findAllByTaskId(10L,
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "changedAt", "id")));
+    }
+
+    @Test
+    void testGetTaskHistory_ThrowsEntityNotFoundByIdExceptionForUnknownTask() {
+        when(taskHistoryRepository.findAllByTaskId(eq(10L), any())).thenReturn(Page.empty());
+        when(taskRepository.existsById(10L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundByIdException.class, () -> taskHistoryService.getTaskHistory(10L, 0, 10));
+    }
+
+    @Test
+    void testGetTaskHistory_ReturnsHistoryOfDeletedTask() {
+        when(taskHistoryRepository.findAllByTaskId(eq(10L), any())).thenReturn(new PageImpl<>(List.of(
+                new TaskHistoryEntry())));
+
+        assertEquals(1, taskHistoryService.getTaskHistory(10L, 0, 10).getTotalElements());
+        verify(taskRepository, never()).existsById(any());
+    }
+
+    private TaskHistoryServiceImpl historyService(int bufferSize) {
+        return new TaskHistoryServiceImpl(taskHistoryRepository, taskRepository, jdbcTemplate, objectMapper,
+                new SimpleMeterRegistry(), bufferSize, 2, Duration.ofMillis(10), Duration.ofMillis(40));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> allWrittenRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> writtenRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    private Task task() {
+        Task task = new Task();
+        task.setId(10L);
+        task.setTitle("Title");
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.NEW);
+        task.setPriority(TaskPriority.LOW);
+        task.setDeadLineDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        User performer = new User();
+        performer.setId(2L);
+        task.setPerformers(Set.of(performer));
+        return task;
+    }
+}
@@ -0,0 +1,253 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.ReminderSettings;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskReminder;
+import com.artur.task_management_system.model.TaskReminderNotice;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.TaskStatus;
+import com.artur.task_management_system.repository.ReminderSettingsRepository;
+import com.artur.task_management_system.repository.TaskReminderRepository;
+import com.artur.task_management_system.service.impl.TaskReminderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskReminderServiceTest {
+    private static final int LOAD_BATCH_SIZE = 2;
+
+    @Mock
+    private TaskReminderRepository taskReminderRepository;
+
+    @Mock
+    private ReminderSettingsRepository reminderSettingsRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TaskReminderServiceImpl taskReminderService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskReminderService = new TaskReminderServiceImpl(taskReminderRepository, reminderSettingsRepository,
+                userService, emailService, jdbcTemplate, transactionManager, meterRegistry, List.of(60, 1440),
+                Duration.ofMillis(10), 64, 4, Duration.ofDays(1), Duration.ofMinutes(5), LOAD_BATCH_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskReminderService.shutdown();
+    }
+
+    @Test
+    void testSyncReminders_CreatesRemindersForAuthorAndPerformers() {
+        Task task = task(LocalDateTime.now().plusHours(12));
+        when(reminderSettingsRepository.findAllById(any()))
+                .thenReturn(List.of(new ReminderSettings(2L, List.of(30))));
+        List<TaskReminder> saved = stubSaveAll();
+
+        taskReminderService.syncReminders(task);
+
+        assertEquals(List.of(1L, 2L), saved.stream().map(TaskReminder::getUserId).toList());
+        assertEquals(List.of(60, 30), saved.stream().map(TaskReminder::getOffsetMinutes).toList());
+        assertEquals(task.getDeadLineDate().minusMinutes(30), saved.get(1).getRemindAt());
+        assertEquals(2, scheduled());
+    }
+
+    @Test
+    void testSyncReminders_ReplacesPreviousReminders() {
+        Task task = task(LocalDateTime.now().plusHours(12));
+        TaskReminder previous = new TaskReminder(7L, 10L, 1L, 60, LocalDateTime.now().plusHours(1));
+        when(taskReminderRepository.findNextReminders(any(), any(), any(), any())).thenReturn(List.of(previous));
+        taskReminderService.loadUpcomingReminders();
+        when(taskReminderRepository.findAllByTaskId(10L)).thenReturn(List.of(previous));
+        task.setStatus(TaskStatus.COMPLETED);
+
+        taskReminderService.syncReminders(task);
+
+        verify(taskReminderRepository).deleteAllInBatch(List.of(previous));
+        verify(taskReminderRepository).saveAll(List.of());
+        assertEquals(0, scheduled());
+    }
+
+    @Test
+    void testSyncReminders_SkipsRemindersInPast() {
+        Task task = task(LocalDateTime.now().plusMinutes(30));
+        List<TaskReminder> saved = stubSaveAll();
+
+        taskReminderService.syncReminders(task);
+
+        assertTrue(saved.isEmpty());
+        assertEquals(0, scheduled());
+    }
+
+    @Test
+    void testCancelReminders_DeletesAndCancelsReminders() {
+        TaskReminder previous = new TaskReminder(7L, 10L, 1L, 60, LocalDateTime.now().plusHours(1));
+        when(taskReminderRepository.findNextReminders(any(), any(), any(), any())).thenReturn(List.of(previous));
+        taskReminderService.loadUpcomingReminders();
+        when(taskReminderRepository.findAllByTaskId(10L)).thenReturn(List.of(previous));
+
+        taskReminderService.cancelReminders(task(LocalDateTime.now().plusHours(2)));
+
+        verify(taskReminderRepository).deleteAllInBatch(List.of(previous));
+        assertEquals(0, scheduled());
+    }
+
+    @Test
+    void testLoadUpcomingReminders_LoadsPagesAfterLastReminder() {
+        LocalDateTime remindAt = LocalDateTime.now().plusHours(1);
+        when(taskReminderRepository.findNextReminders(any(), any(), any(), any()))
+                .thenReturn(List.of(new TaskReminder(1L, 10L, 1L, 60, remindAt),
+                        new TaskReminder(2L, 10L, 2L, 60, remindAt)))
+                .thenReturn(List.of(new TaskReminder(3L, 11L, 1L, 60, remindAt.plusMinutes(1))));
+
+        assertEquals(3, taskReminderService.loadUpcomingReminders());
+
+        verify(taskReminderRepository).findNextReminders(eq(remindAt), eq(2L), any(),
+                eq(PageRequest.of(0, LOAD_BATCH_SIZE)));
+        assertEquals(3, scheduled());
+    }
+
+    @Test
+    void testFireDueReminders_SendsClaimedReminderAndDeletesIt() {
+        loadDueReminder(7L);
+        TaskReminderNotice notice = notice(7L, LocalDateTime.now().plusHours(1));
+        when(taskReminderRepository.findNotices(List.of(7L))).thenReturn(List.of(notice));
+        List<Object[]> claims = stubClaim(List.of(7L));
+
+        assertEquals(1, taskReminderService.fireDueReminders());
+
+        verify(emailService, timeout(1_000)).sendDeadlineReminderEmail("user@example.com", "User", "Title",
+                notice.deadLineDate());
+        verify(jdbcTemplate, timeout(1_000)).update(startsWith("DELETE"), any(Object[].class));
+        Object[] claim = claims.get(0);
+        assertArrayEquals(new Long[]{7L}, (Long[]) claim[1]);
+        assertTrue(((Timestamp) claim[0]).after((Timestamp) claim[2]));
+    }
+
+    @Test
+    void testFireDueReminders_KeepsReminderWhenEmailFails() {
+        loadDueReminder(7L);
+        when(taskReminderRepository.findNotices(List.of(7L)))
+                .thenReturn(List.of(notice(7L, LocalDateTime.now().plusHours(1))));
+        stubClaim(List.of(7L));
+        doThrow(new IllegalStateException("SMTP is down"))
+                .when(emailService).sendDeadlineReminderEmail(any(), any(), any(), any());
+
+        taskReminderService.fireDueReminders();
+
+        verify(emailService, timeout(1_000)).sendDeadlineReminderEmail(any(), any(), any(), any());
+        verify(jdbcTemplate, after(200).never()).update(anyString(), any(Object[].class));
+        assertEquals(1, scheduled());
+    }
+
+    @Test
+    void testFireDueReminders_SkipsReminderClaimedByOtherNode() {
+        loadDueReminder(7L);
+        when(taskReminderRepository.findNotices(List.of(7L)))
+                .thenReturn(List.of(notice(7L, LocalDateTime.now().plusHours(1))));
+        List<Object[]> claims = stubClaim(List.of());
+
+        taskReminderService.fireDueReminders();
+
+        verify(jdbcTemplate, timeout(1_000)).queryForList(anyString(), eq(Long.class), any(Object[].class));
+        assertEquals(1, claims.size());
+        verify(emailService, after(200).never()).sendDeadlineReminderEmail(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFireDueReminders_DeletesReminderOfTaskPastDeadline() {
+        loadDueReminder(7L);
+        when(taskReminderRepository.findNotices(List.of(7L)))
+                .thenReturn(List.of(notice(7L, LocalDateTime.now().minusMinutes(1))));
+        stubClaim(List.of(7L));
+
+        taskReminderService.fireDueReminders();
+
+        verify(jdbcTemplate, timeout(1_000)).update(startsWith("DELETE"), any(Object[].class));
+        verifyNoInteractions(emailService);
+    }
+
+    private void loadDueReminder(Long id) {
+        when(taskReminderRepository.findNextReminders(any(), any(), any(), any()))
+                .thenReturn(List.of(new TaskReminder(id, 10L, 1L, 60, LocalDateTime.now().minusSeconds(1))));
+        taskReminderService.loadUpcomingReminders();
+    }
+
+    private List<Object[]> stubClaim(List<Long> claimed) {
+        List<Object[]> claims = new ArrayList<>();
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+            claims.add((Object[]) invocation.getRawArguments()[2]);
+            return claimed;
+        });
+        return claims;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TaskReminder> stubSaveAll() {
+        AtomicLong ids = new AtomicLong(100);
+        List<TaskReminder> saved = new ArrayList<>();
+        when(taskReminderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TaskReminder> reminders = invocation.getArgument(0);
+            reminders.forEach(reminder -> reminder.setId(ids.incrementAndGet()));
+            saved.addAll(reminders);
+            return reminders;
+        });
+        return saved;
+    }
+
+    private double scheduled() {
+        return meterRegistry.get("task.reminders.scheduled").gauge().value();
+    }
+
+    private static TaskReminderNotice notice(Long reminderId, LocalDateTime deadLineDate) {
+        return new TaskReminderNotice(reminderId, 10L, "Title", deadLineDate, "user@example.com", "User");
+    }
+
+    private static Task task(LocalDateTime deadLineDate) {
+        Task task = new Task();
+        task.setId(10L);
+        task.setStatus(TaskStatus.NEW);
+        task.setDeadLineDate(deadLineDate);
+        User author = new User();
+        author.setId(1L);
+        task.setAuthor(author);
+        User performer = new User();
+        performer.setId(2L);
+        task.addPerformer(performer);
+        return task;
+    }
+}
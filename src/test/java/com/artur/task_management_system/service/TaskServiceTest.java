@@ -6,15 +6,19 @@ import com.artur.task_management_system.exception.NoRightsException;
 import com.artur.task_management_system.model.Task;
 import com.artur.task_management_system.model.TaskComment;
 import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.model.attributes.TaskEventType;
 import com.artur.task_management_system.model.attributes.TaskPriority;
 import com.artur.task_management_system.model.attributes.TaskStatus;
 import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.impl.TaskServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -25,11 +29,19 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,8 +53,29 @@ class TaskServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PageablePlanner pageablePlanner;
+
+    @Mock
+    private TaskSyncService taskSyncService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    @Mock
+    private TaskAnalyticsService taskAnalyticsService;
+
+    @Mock
+    private TaskReminderService taskReminderService;
+
     @InjectMocks
-    private TaskService taskService;
+    private TaskServiceImpl taskService;
 
     @Mock
     private Authentication authentication;
@@ -52,19 +85,24 @@ class TaskServiceTest {
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
         SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
     void testGetAllTasks() {
-        PageRequest pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "field");
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "deadLineDate", "id"));
         Page<Task> tasks = new PageImpl<>(Collections.emptyList());
 
+        when(pageablePlanner.makePageable(Task.class, 0, 10, "deadLineDate", "Asc")).thenReturn(pageable);
         when(taskRepository.findAll(pageable)).thenReturn(tasks);
 
-        Page<Task> result = taskService.getAllTasks(0, 10, "field", "Asc");
+        Page<Task> result = taskService.getAllTasks(0, 10, "deadLineDate", "Asc");
         assertEquals(tasks, result);
 
         verify(taskRepository, times(1)).findAll(pageable);
@@ -94,14 +132,15 @@ class TaskServiceTest {
 
     @Test
     void testGetAuthoredTasks() {
-        PageRequest pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "field");
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "deadLineDate", "id"));
         Page<Task> tasks = new PageImpl<>(Collections.emptyList());
         User loggedInUser = User.builder().id(1L).email("test@gmail.com").build();
 
+        when(pageablePlanner.makePageable(Task.class, 0, 10, "deadLineDate", "Asc")).thenReturn(pageable);
         when(taskRepository.findAllByAuthorId(loggedInUser.getId(), pageable)).thenReturn(tasks);
         when(authentication.getName()).thenReturn(loggedInUser.getEmail());
         when(userService.getUserByEmail(loggedInUser.getEmail())).thenReturn(loggedInUser);
-        Page<Task> result = taskService.getAuthoredTasks(0, 10, "field", "Asc");
+        Page<Task> result = taskService.getAuthoredTasks(0, 10, "deadLineDate", "Asc");
 
         assertEquals(tasks, result);
         verify(taskRepository, times(1)).findAllByAuthorId(loggedInUser.getId(), pageable);
@@ -122,6 +161,13 @@ class TaskServiceTest {
         taskService.deleteTaskById(1L);
 
         verify(taskRepository, times(1)).delete(task);
+        verify(taskSyncService).recordDeletion(task);
+        verify(taskReminderService).cancelReminders(task);
+        verify(taskEventService).raise(TaskEventType.TASK_DELETED, task, 1L, Map.of());
+        verify(taskHistoryService).recordChange(eq(TaskEventType.TASK_DELETED), eq(task), eq(1L), any(), eq(Map.of()));
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK), eq(1L),
+                argThat(version -> version.get() == CacheInvalidationBus.DELETED_VERSION));
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(1L), any());
     }
 
     @Test
@@ -161,7 +207,17 @@ class TaskServiceTest {
 
         taskService.addTask(taskDTO);
 
-        verify(taskRepository, times(1)).save(any(Task.class));
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository, times(1)).save(saved.capture());
+        Task task = saved.getValue();
+        assertEquals(user, task.getAuthor());
+        verify(taskAnalyticsService).recordStatusChange(task, null, 1L);
+        verify(taskSyncService).recordChange(task);
+        verify(taskEventService).raise(TaskEventType.TASK_CREATED, task, 1L, Map.of());
+        verify(taskHistoryService).recordChange(TaskEventType.TASK_CREATED, task, 1L, Map.of(), Map.of());
+        verify(taskReminderService).syncReminders(task);
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK), any(), any());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(1L), any());
     }
 
     @Test
@@ -178,13 +234,70 @@ class TaskServiceTest {
 
         when(authentication.getName()).thenReturn("user1@example.com");
         when(userService.getUserByEmail("user1@example.com")).thenReturn(author);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findForPerformerChangeById(1L)).thenReturn(Optional.of(task));
 
         taskService.updateTask(1L, taskDTO);
 
         verify(taskRepository, times(1)).save(task);
         assertEquals("Updated Task", task.getTitle());
         assertEquals("Updated Description", task.getDescription());
+        verify(taskSyncService).recordChange(task);
+        verify(taskEventService).raise(TaskEventType.TASK_UPDATED, task, 1L, Map.of());
+        verify(taskHistoryService).recordChange(eq(TaskEventType.TASK_UPDATED), eq(task), eq(1L), any(), eq(Map.of()));
+        verify(taskReminderService).syncReminders(task);
+    }
+
+    @Test
+    void testUpdateTask_NotifiesListsOfRemovedPerformers() {
+        Task task = new Task();
+        task.setId(1L);
+        User author = new User();
+        author.setId(1L);
+        task.setAuthor(author);
+        User removed = new User();
+        removed.setId(3L);
+        task.addPerformer(removed);
+        removed.addAssignedTask(task);
+
+        TaskCreationDTO taskDTO = new TaskCreationDTO();
+        taskDTO.setTitle("Updated Task");
+
+        when(authentication.getName()).thenReturn("user1@example.com");
+        when(userService.getUserByEmail("user1@example.com")).thenReturn(author);
+        when(taskRepository.findForPerformerChangeById(1L)).thenReturn(Optional.of(task));
+
+        taskService.updateTask(1L, taskDTO);
+
+        assertTrue(task.getPerformers().isEmpty());
+        assertFalse(removed.getAssignedTasks().contains(task));
+        verify(taskRepository, never()).findById(anyLong());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(1L), any());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(3L), any());
+    }
+
+    @Test
+    void testUpdateTask_AssignsTaskToAddedPerformers() {
+        Task task = new Task();
+        task.setId(1L);
+        User author = new User();
+        author.setId(1L);
+        task.setAuthor(author);
+        User added = new User();
+        added.setId(2L);
+
+        TaskCreationDTO taskDTO = new TaskCreationDTO();
+        taskDTO.setTitle("Updated Task");
+        taskDTO.setPerformersIds(Set.of(2L));
+
+        when(authentication.getName()).thenReturn("user1@example.com");
+        when(userService.getUserByEmail("user1@example.com")).thenReturn(author);
+        when(taskRepository.findForPerformerChangeById(1L)).thenReturn(Optional.of(task));
+        when(userService.getUserById(2L)).thenReturn(added);
+
+        taskService.updateTask(1L, taskDTO);
+
+        assertTrue(task.getPerformers().contains(added));
+        assertTrue(added.getAssignedTasks().contains(task));
     }
 
     @Test
@@ -202,7 +315,7 @@ class TaskServiceTest {
 
         when(authentication.getName()).thenReturn("user2@example.com");
         when(userService.getUserByEmail("user2@example.com")).thenReturn(anotherUser);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findForPerformerChangeById(1L)).thenReturn(Optional.of(task));
 
         assertThrows(NoRightsException.class, () -> taskService.updateTask(1L, taskDTO));
 
@@ -216,6 +329,7 @@ class TaskServiceTest {
         User author = new User();
         author.setId(1L);
         task.setAuthor(author);
+        task.setStatus(TaskStatus.NEW);
 
         when(authentication.getName()).thenReturn("user1@example.com");
         when(userService.getUserByEmail("user1@example.com")).thenReturn(author);
@@ -225,6 +339,31 @@ class TaskServiceTest {
 
         verify(taskRepository, times(1)).save(task);
         assertEquals(TaskStatus.IN_PROCESS, task.getStatus());
+        verify(taskAnalyticsService).recordStatusChange(task, TaskStatus.NEW, 1L);
+        verify(taskEventService).raise(TaskEventType.STATUS_CHANGED, task, 1L,
+                Map.of("previousStatus", TaskStatus.NEW));
+        verify(taskHistoryService).recordChange(eq(TaskEventType.STATUS_CHANGED), eq(task), eq(1L), any(), eq(Map.of()));
+        verify(taskReminderService).syncReminders(task);
+        verify(taskSyncService).recordChange(task);
+    }
+
+    @Test
+    void testUpdateTaskStatus_ThrowsNoRightsExceptionForStranger() {
+        Task task = new Task();
+        task.setId(1L);
+        User author = new User();
+        author.setId(1L);
+        task.setAuthor(author);
+        User stranger = new User();
+        stranger.setId(5L);
+
+        when(authentication.getName()).thenReturn("user5@example.com");
+        when(userService.getUserByEmail("user5@example.com")).thenReturn(stranger);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        assertThrows(NoRightsException.class, () -> taskService.updateTaskStatus(1L, TaskStatus.COMPLETED));
+
+        verifyNoInteractions(taskAnalyticsService, taskEventService, taskSyncService);
     }
 
     @Test
@@ -240,21 +379,36 @@ class TaskServiceTest {
 
         when(authentication.getName()).thenReturn("user1@example.com");
         when(userService.getUserByEmail("user1@example.com")).thenReturn(author);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findForPerformerChangeById(1L)).thenReturn(Optional.of(task));
         when(userService.getUserById(2L)).thenReturn(performer);
 
         taskService.assignTaskPerformer(1L, 2L);
 
         verify(taskRepository, times(1)).save(task);
         assertTrue(task.getPerformers().contains(performer));
+        assertTrue(performer.getAssignedTasks().contains(task));
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskSyncService).recordChange(task);
+        verify(taskEventService).raise(TaskEventType.PERFORMER_ASSIGNED, task, 1L, Map.of("performerId", 2L));
+        verify(taskHistoryService).recordChange(eq(TaskEventType.PERFORMER_ASSIGNED), eq(task), eq(1L), any(),
+                eq(Map.of()));
+        verify(taskReminderService).syncReminders(task);
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(2L), any());
     }
 
     @Test
     void testCommentTask() {
         Task task = new Task();
         task.setId(1L);
+        User author = new User();
+        author.setId(1L);
+        task.setAuthor(author);
+        User commenter = new User();
+        commenter.setId(2L);
         TaskComment comment = new TaskComment();
+        comment.setId(7L);
         comment.setText("Comment");
+        comment.setFrom(commenter);
 
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
 
@@ -262,5 +416,165 @@ class TaskServiceTest {
 
         verify(taskRepository, times(1)).save(task);
         assertTrue(task.getComments().contains(comment));
+        verify(taskSyncService).recordChange(task);
+        verify(taskEventService).raise(TaskEventType.COMMENT_ADDED, task, 2L,
+                Map.of("commentId", 7L, "text", "Comment"));
+        verify(taskHistoryService).recordChange(eq(TaskEventType.COMMENT_ADDED), eq(task), eq(2L), any(),
+                eq(Map.of("comment", "Comment")));
+    }
+
+    @Test
+    void testGetTasksByIds_ReportsMissingAndDeduplicates() {
+        Task first = new Task();
+        first.setId(1L);
+        Task third = new Task();
+        third.setId(3L);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(third, first));
+
+        var result = taskService.getTasksByIds(List.of(3L, 2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(third, first), result.getContent());
+        assertEquals(List.of(2L), result.getMissingIds());
+        verify(taskRepository).findAllById(argThat(ids -> List.copyOf((Set<Long>) ids).equals(List.of(3L, 2L, 1L))));
+    }
+
+    @Test
+    void testGetTasksByIds_WrongNumberOfIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalStateException.class, () -> taskService.getTasksByIds(List.of()));
+        assertThrows(IllegalStateException.class, () -> taskService.getTasksByIds(null));
+        assertThrows(IllegalStateException.class, () -> taskService.getTasksByIds(tooMany));
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void testGetTasksByIds_AcceptsMaxNumberOfIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(taskRepository.findAllById(any())).thenReturn(List.of());
+
+        var result = taskService.getTasksByIds(ids);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(ids, result.getMissingIds());
+    }
+
+    @Test
+    void testGetInboxTasks_CursorRoundTrip() {
+        User user = new User();
+        user.setId(1L);
+        LocalDateTime deadline = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Task first = inboxTask(10L, deadline, TaskPriority.HIGH);
+        Task second = inboxTask(11L, deadline, TaskPriority.MEDIUM);
+        Task third = inboxTask(12L, deadline.plusDays(1), TaskPriority.LOW);
+
+        when(authentication.getName()).thenReturn("user1@example.com");
+        when(userService.getUserByEmail("user1@example.com")).thenReturn(user);
+        when(taskRepository.findInboxFirstPage(1L, 3)).thenReturn(List.of(first, second, third));
+        when(taskRepository.findInboxPageAfter(1L, deadline, TaskPriority.MEDIUM.ordinal(), 11L, 3))
+                .thenReturn(List.of(third));
+
+        var firstPage = taskService.getInboxTasks(null, 2);
+        assertEquals(List.of(first, second), firstPage.getContent());
+        assertNotNull(firstPage.getNextCursor());
+
+        var secondPage = taskService.getInboxTasks(firstPage.getNextCursor(), 2);
+        assertEquals(List.of(third), secondPage.getContent());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void testGetInboxTasks_MalformedCursor() {
+        User user = new User();
+        user.setId(1L);
+        when(authentication.getName()).thenReturn("user1@example.com");
+        when(userService.getUserByEmail("user1@example.com")).thenReturn(user);
+
+        assertThrows(IllegalStateException.class, () -> taskService.getInboxTasks("not a cursor", 10));
+        String missingParts = Base64.getUrlEncoder().encodeToString("2030-01-01T12:00|0".getBytes());
+        assertThrows(IllegalStateException.class, () -> taskService.getInboxTasks(missingParts, 10));
+
+        verify(taskRepository, never()).findInboxPageAfter(anyLong(), any(), anyInt(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetInboxTasks_WrongPageSize() {
+        assertThrows(IllegalStateException.class, () -> taskService.getInboxTasks(null, 0));
+        assertThrows(IllegalStateException.class, () -> taskService.getInboxTasks(null, 101));
+        assertThrows(IllegalStateException.class, () -> taskService.getInboxTasks(null, null));
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void testGetInboxTasks_OrdersAcrossAuthoredAndAssignedTasks() {
+        // Ранги CASE в запросах репозитория должны совпадать с порядковыми номерами TaskPriority
+        assertEquals(0, TaskPriority.HIGH.ordinal());
+        assertEquals(1, TaskPriority.MEDIUM.ordinal());
+        assertEquals(2, TaskPriority.LOW.ordinal());
+
+        User user = new User();
+        user.setId(1L);
+        LocalDateTime deadline = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<Task> authored = List.of(
+                inboxTask(5L, deadline.plusDays(2), TaskPriority.HIGH),
+                inboxTask(3L, deadline, TaskPriority.LOW),
+                inboxTask(8L, deadline, TaskPriority.HIGH),
+                inboxTask(1L, deadline.plusDays(1), TaskPriority.MEDIUM));
+        List<Task> assigned = List.of(
+                inboxTask(2L, deadline, TaskPriority.HIGH),
+                inboxTask(4L, deadline.plusDays(1), TaskPriority.MEDIUM),
+                inboxTask(6L, deadline, TaskPriority.MEDIUM),
+                authored.get(1));
+        List<Task> inbox = fakeInbox(authored, assigned);
+
+        when(authentication.getName()).thenReturn("user1@example.com");
+        when(userService.getUserByEmail("user1@example.com")).thenReturn(user);
+        when(taskRepository.findInboxFirstPage(eq(1L), anyInt()))
+                .thenAnswer(invocation -> inbox.stream().limit(invocation.<Integer>getArgument(1)).toList());
+        when(taskRepository.findInboxPageAfter(eq(1L), any(), anyInt(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime afterDeadline = invocation.getArgument(1);
+                    int afterRank = invocation.getArgument(2);
+                    long afterId = invocation.getArgument(3);
+                    return inbox.stream()
+                            .filter(task -> INBOX_ORDER.compare(task, inboxTask(afterId, afterDeadline,
+                                    TaskPriority.values()[afterRank])) > 0)
+                            .limit(invocation.<Integer>getArgument(4))
+                            .toList();
+                });
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = taskService.getInboxTasks(cursor, 2);
+            page.getContent().forEach(task -> seen.add(task.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(2L, 8L, 6L, 3L, 1L, 4L, 5L), seen);
+    }
+
+    private static final Comparator<Task> INBOX_ORDER = Comparator
+            .comparing(Task::getDeadLineDate)
+            .thenComparing(task -> task.getPriority().ordinal())
+            .thenComparing(Task::getId);
+
+    /**
+     * Повторяет UNION и ORDER BY запросов "входящих" задач в памяти.
+     */
+    private static List<Task> fakeInbox(List<Task> authored, List<Task> assigned) {
+        Set<Task> union = new LinkedHashSet<>(authored);
+        union.addAll(assigned);
+        return union.stream().sorted(INBOX_ORDER).toList();
+    }
+
+    private static Task inboxTask(Long id, LocalDateTime deadline, TaskPriority priority) {
+        Task task = new Task();
+        task.setId(id);
+        task.setDeadLineDate(deadline);
+        task.setPriority(priority);
+        return task;
     }
 }
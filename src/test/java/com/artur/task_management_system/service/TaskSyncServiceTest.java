@@ -0,0 +1,161 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.SyncResponse;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.TaskSyncUserState;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.repository.TaskSyncStateRepository;
+import com.artur.task_management_system.repository.TaskSyncUserStateRepository;
+import com.artur.task_management_system.service.impl.TaskSyncServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceTest {
+
+    @Mock
+    private TaskSyncStateRepository taskSyncStateRepository;
+
+    @Mock
+    private TaskSyncUserStateRepository taskSyncUserStateRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private TaskSyncServiceImpl taskSyncService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.setContext(securityContext);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        user = new User();
+        user.setId(2L);
+        lenient().when(authentication.getName()).thenReturn("user2@example.com");
+        lenient().when(userService.getUserByEmail("user2@example.com")).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void recordChange_RecordsAuthorAndPerformersAsVisible() {
+        Task task = task(10L, 1L, 3L, 2L);
+
+        taskSyncService.recordChange(task);
+
+        verify(taskSyncStateRepository).recordChange(10L, 1L, "{1,2,3}", false);
+    }
+
+    @Test
+    void recordDeletion_RecordsNoVisibleUsers() {
+        Task task = task(10L, 1L, 2L);
+
+        taskSyncService.recordDeletion(task);
+
+        verify(taskSyncStateRepository).recordChange(10L, 1L, "{}", true);
+    }
+
+    @Test
+    void getChanges_ReturnsTombstonesOnlyForLostTasks() {
+        Task task = task(10L, 1L, 2L);
+        when(taskSyncUserStateRepository.findChangesAfter(2L, 5L, 7L, 11))
+                .thenReturn(List.of(state(10L, true), state(11L, false), state(12L, false)));
+        when(taskRepository.findAllById(List.of(10L))).thenReturn(List.of(task));
+
+        SyncResponse<Task> response = taskSyncService.getChanges(token(5, 7), 10);
+
+        assertEquals(List.of(task), response.getChanged());
+        assertEquals(List.of(11L, 12L), response.getDeletedIds());
+        assertFalse(response.isHasMore());
+        assertEquals(token(100, 12), response.getSyncToken());
+    }
+
+    @Test
+    void getChanges_FirstSyncSkipsTombstones() {
+        when(taskSyncUserStateRepository.findChangesAfter(2L, 0L, 0L, 501))
+                .thenReturn(List.of(state(11L, false), state(12L, false)));
+        when(taskRepository.findAllById(List.of())).thenReturn(List.of());
+
+        SyncResponse<Task> response = taskSyncService.getChanges(null, null);
+
+        assertTrue(response.getChanged().isEmpty());
+        assertTrue(response.getDeletedIds().isEmpty());
+        assertEquals(token(100, 12), response.getSyncToken());
+    }
+
+    @Test
+    void getChanges_ReportsMoreChanges() {
+        when(taskSyncUserStateRepository.findChangesAfter(2L, 0L, 0L, 2))
+                .thenReturn(List.of(state(10L, false), state(11L, false)));
+        when(taskRepository.findAllById(List.of())).thenReturn(List.of());
+
+        SyncResponse<Task> response = taskSyncService.getChanges(token(0, 0), 1);
+
+        assertEquals(List.of(10L), response.getDeletedIds());
+        assertTrue(response.isHasMore());
+        assertEquals(token(100, 10), response.getSyncToken());
+    }
+
+    @Test
+    void getChanges_WrongArguments() {
+        assertThrows(IllegalStateException.class, () -> taskSyncService.getChanges("not a token", 10));
+        assertThrows(IllegalStateException.class, () -> taskSyncService.getChanges(null, 0));
+        assertThrows(IllegalStateException.class, () -> taskSyncService.getChanges(null, 1001));
+
+        verifyNoInteractions(taskSyncUserStateRepository);
+    }
+
+    private static Task task(Long id, Long authorId, Long... performerIds) {
+        Task task = new Task();
+        task.setId(id);
+        User author = new User();
+        author.setId(authorId);
+        task.setAuthor(author);
+        for (Long performerId : performerIds){
+            User performer = new User();
+            performer.setId(performerId);
+            task.addPerformer(performer);
+        }
+        return task;
+    }
+
+    private static TaskSyncUserState state(Long taskId, boolean visible) {
+        return new TaskSyncUserState(2L, taskId, 100L, taskId, visible);
+    }
+
+    private static String token(long txid, long changeSeq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((txid + "." + changeSeq).getBytes(StandardCharsets.UTF_8));
+    }
+}
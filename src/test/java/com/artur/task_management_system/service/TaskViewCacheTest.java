@@ -0,0 +1,161 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.TaskViewDTO;
+import com.artur.task_management_system.dto.mappers.TaskMapper;
+import com.artur.task_management_system.exception.EntityNotFoundByIdException;
+import com.artur.task_management_system.model.Task;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.TaskRepository;
+import com.artur.task_management_system.service.impl.TaskViewCacheImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskViewCacheTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TaskViewCacheImpl taskViewCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskViewCache = new TaskViewCacheImpl(taskRepository, taskMapper, new ObjectMapper(),
+                transactionManager, meterRegistry, 100, Duration.ofMinutes(10));
+        lenient().when(taskMapper.taskToTaskViewDTO(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            TaskViewDTO taskViewDTO = new TaskViewDTO();
+            taskViewDTO.setId(task.getId());
+            taskViewDTO.setTitle(task.getTitle());
+            return taskViewDTO;
+        });
+    }
+
+    @Test
+    void testGetTaskView_SecondReadFromCache() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, 0, "Title")));
+
+        byte[] first = taskViewCache.getTaskView(1L);
+        byte[] second = taskViewCache.getTaskView(1L);
+
+        assertArrayEquals(first, second);
+        assertTrue(new String(second, StandardCharsets.UTF_8).contains("\"title\":\"Title\""));
+        verify(taskRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "taskView").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testOnInvalidation_NextReadReloads() {
+        when(taskRepository.findById(1L))
+                .thenReturn(Optional.of(task(1L, 0, "Old")))
+                .thenReturn(Optional.of(task(1L, 1, "New")));
+
+        taskViewCache.getTaskView(1L);
+        taskViewCache.onInvalidation(CacheEntityType.TASK, 1L, 1);
+        byte[] reloaded = taskViewCache.getTaskView(1L);
+
+        assertTrue(new String(reloaded, StandardCharsets.UTF_8).contains("\"title\":\"New\""));
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testGetTaskView_StaleLoadNotCached() {
+        when(taskRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    taskViewCache.onInvalidation(CacheEntityType.TASK, 1L, 1);
+                    return Optional.of(task(1L, 0, "Old"));
+                })
+                .thenReturn(Optional.of(task(1L, 1, "New")));
+
+        taskViewCache.getTaskView(1L);
+        byte[] reloaded = taskViewCache.getTaskView(1L);
+
+        assertTrue(new String(reloaded, StandardCharsets.UTF_8).contains("\"title\":\"New\""));
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testOnUserInvalidation_ReloadsOnlyViewsWithOlderUser() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, 0, "Title", user(5L, 1))));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task(2L, 0, "Other", user(6L, 1))));
+        taskViewCache.getTaskView(1L);
+        taskViewCache.getTaskView(2L);
+
+        taskViewCache.onInvalidation(CacheEntityType.USER, 5L, 2);
+        taskViewCache.getTaskView(1L);
+        taskViewCache.getTaskView(2L);
+
+        verify(taskRepository, times(2)).findById(1L);
+        verify(taskRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void testGetTaskView_LoadWithStaleUserNotCached() {
+        when(taskRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    taskViewCache.onInvalidation(CacheEntityType.USER, 5L, 2);
+                    return Optional.of(task(1L, 0, "Old", user(5L, 1)));
+                })
+                .thenReturn(Optional.of(task(1L, 0, "New", user(5L, 2))));
+
+        taskViewCache.getTaskView(1L);
+        byte[] reloaded = taskViewCache.getTaskView(1L);
+        taskViewCache.getTaskView(1L);
+
+        assertTrue(new String(reloaded, StandardCharsets.UTF_8).contains("\"title\":\"New\""));
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testGetTaskView_NotFound() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundByIdException.class, () -> taskViewCache.getTaskView(1L));
+    }
+
+    private Task task(Long id, int version, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(version);
+        task.setTitle(title);
+        return task;
+    }
+
+    private Task task(Long id, int version, String title, User author) {
+        Task task = task(id, version, title);
+        task.setAuthor(author);
+        return task;
+    }
+
+    private User user(Long id, int version) {
+        User user = new User();
+        user.setId(id);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -5,15 +5,17 @@ import com.artur.task_management_system.model.AuthenticationRequest;
 import com.artur.task_management_system.model.AuthenticationResponse;
 import com.artur.task_management_system.model.ConfirmationToken;
 import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.service.impl.UserConfirmationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -21,6 +23,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +31,7 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserConfirmationServiceTest {
+    private static final UUID TOKEN = UUID.fromString("3f2b8c1e-6d4a-4f7b-9a0c-2e5d8b1f7a64");
 
     @Mock
     private UserService userService;
@@ -44,8 +48,11 @@ class UserConfirmationServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private LoginAttemptService loginAttemptService;
+
     @InjectMocks
-    private UserConfirmationService userConfirmationService;
+    private UserConfirmationServiceImpl userConfirmationService;
 
     @Mock
     private Authentication authentication;
@@ -55,9 +62,13 @@ class UserConfirmationServiceTest {
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
         SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -70,7 +81,7 @@ class UserConfirmationServiceTest {
         updatedUser.setEmail("newemail@example.com");
 
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setToken("token");
+        confirmationToken.setToken(TOKEN);
 
         when(securityContext.getAuthentication().getName()).thenReturn("user@example.com");
         when(userService.getUserByEmail("user@example.com")).thenReturn(loggedInUser);
@@ -83,7 +94,7 @@ class UserConfirmationServiceTest {
         verify(emailService, times(1)).sendConfirmationEmail(
                 "newemail@example.com",
                 updatedUser.getName(),
-                "http://localhost:8080/api/auth/confirm?token=token"
+                "http://localhost:8080/api/auth/confirm?token=" + TOKEN
         );
     }
 
@@ -94,7 +105,7 @@ class UserConfirmationServiceTest {
         user.setName("User");
 
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setToken("token");
+        confirmationToken.setToken(TOKEN);
 
         when(userService.addUser(user)).thenReturn(confirmationToken);
         doNothing().when(confirmationTokenService).saveConfirmationToken(any(ConfirmationToken.class));
@@ -103,12 +114,12 @@ class UserConfirmationServiceTest {
         AuthenticationResponse response = userConfirmationService.registerUser(user);
 
         assertEquals("jwt", response.getJwt());
-        assertEquals("token", response.getEmailToken());
+        assertEquals(TOKEN.toString(), response.getEmailToken());
         verify(confirmationTokenService, times(1)).saveConfirmationToken(confirmationToken);
         verify(emailService, times(1)).sendConfirmationEmail(
                 "user@example.com",
                 "User",
-                "http://localhost:8080/api/auth/confirm?token=token"
+                "http://localhost:8080/api/auth/confirm?token=" + TOKEN
         );
     }
 
@@ -141,10 +152,38 @@ class UserConfirmationServiceTest {
         assertThrows(BadCredentialsException.class, () -> userConfirmationService.authenticate(request));
     }
 
+    @Test
+    void testAuthenticate_UnwrapsPasswordHashingOverloadedException() {
+        AuthenticationRequest request = new AuthenticationRequest();
+        request.setEmail("unknown@example.com");
+        request.setPassword("password");
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new InternalAuthenticationServiceException("Overloaded",
+                        new PasswordHashingOverloadedException()));
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> userConfirmationService.authenticate(request));
+        verify(loginAttemptService, never()).loginFailed(any());
+        verify(loginAttemptService, never()).loginSucceeded(any());
+    }
+
+    @Test
+    void testAuthenticate_RethrowsOtherInternalAuthenticationServiceException() {
+        AuthenticationRequest request = new AuthenticationRequest();
+        request.setEmail("user@example.com");
+        request.setPassword("password");
+        InternalAuthenticationServiceException exception = new InternalAuthenticationServiceException("Database is down");
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenThrow(exception);
+
+        assertSame(exception, assertThrows(InternalAuthenticationServiceException.class,
+                () -> userConfirmationService.authenticate(request)));
+    }
+
     @Test
     void testConfirmToken() {
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setToken("token");
+        confirmationToken.setToken(TOKEN);
         confirmationToken.setExpiresAt(LocalDateTime.now().plusMinutes(10));
         confirmationToken.setUser(User.builder().email("user@example.com").build());
         confirmationToken.setConfirmedAt(null);
@@ -168,7 +207,7 @@ class UserConfirmationServiceTest {
     @Test
     void testConfirmToken_ThrowsConfirmationTokenConfirmedException() {
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setToken("token");
+        confirmationToken.setToken(TOKEN);
         confirmationToken.setExpiresAt(LocalDateTime.now().plusMinutes(10));
         confirmationToken.setConfirmedAt(LocalDateTime.now());
 
@@ -180,7 +219,7 @@ class UserConfirmationServiceTest {
     @Test
     void testConfirmToken_ThrowsConfirmationTokenExpiredException() {
         ConfirmationToken confirmationToken = new ConfirmationToken();
-        confirmationToken.setToken("token");
+        confirmationToken.setToken(TOKEN);
         confirmationToken.setExpiresAt(LocalDateTime.now().minusMinutes(10));
         confirmationToken.setConfirmedAt(null);
 
@@ -0,0 +1,247 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.cache.SecondLevelCacheInvalidationListener;
+import com.artur.task_management_system.model.BackgroundJob;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
+import com.artur.task_management_system.repository.UserRepository;
+import com.artur.task_management_system.scheduling.BackgroundJobContext;
+import com.artur.task_management_system.service.impl.UserDeletionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDeletionServiceTest {
+    private static final int CHUNK_SIZE = 2;
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private SecondLevelCacheInvalidationListener secondLevelCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserDeletionServiceImpl userDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        userDeletionService = new UserDeletionServiceImpl(backgroundJobService, userRepository, userService,
+                cacheInvalidationBus, secondLevelCache, jdbcTemplate, transactionManager, CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRun_DeletesInChunksAndThenUser() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(4L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT email"), eq(String.class), eq(USER_ID)))
+                .thenReturn("user@mail.com");
+        List<List<Object[]>> taskChunks = List.of(
+                List.of(new Object[]{"task", 1L}, new Object[]{"task", 2L}, new Object[]{"performer", 20L}),
+                List.<Object[]>of(new Object[]{"task", 3L}));
+        List<List<Object[]>> assignmentChunks = List.<List<Object[]>>of(List.<Object[]>of(new Object[]{10L, 30L, 4}));
+        int[] calls = new int[3];
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            if (sql.startsWith("WITH doomed")){
+                for (Object[] row : chunk(taskChunks, calls[0]++)){
+                    ResultSet resultSet = mock(ResultSet.class);
+                    when(resultSet.getString("kind")).thenReturn((String) row[0]);
+                    when(resultSet.getLong("id")).thenReturn((Long) row[1]);
+                    handler.processRow(resultSet);
+                }
+            }else if (sql.contains("DELETE FROM task_performers")){
+                for (Object[] row : chunk(assignmentChunks, calls[1]++)){
+                    handler.processRow(touchedRow(row));
+                }
+            }else{
+                calls[2]++;
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        RecordingContext context = new RecordingContext(Map.of());
+
+        userDeletionService.run(context);
+
+        assertArrayEquals(new int[]{2, 2, 1}, calls);
+        assertEquals(4L, context.total);
+        assertEquals(4L, context.processed);
+        Map<String, Object> last = context.checkpoints.get(context.checkpoints.size() - 1);
+        assertEquals("USER", last.get("phase"));
+        assertEquals(3L, last.get("deletedTasks"));
+        assertEquals(1L, last.get("removedAssignments"));
+        verify(jdbcTemplate).update("DELETE FROM user_table WHERE id = ?", USER_ID);
+        verify(cacheInvalidationBus, times(3)).publishAfterCommit(eq(CacheEntityType.TASK), anyLong(),
+                argThat(version -> version.get() == CacheInvalidationBus.DELETED_VERSION));
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK), eq(10L),
+                argThat(version -> version.get() == 4));
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.TASK_LIST), eq(20L), any());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.USER), eq(USER_ID),
+                argThat(version -> version.get() == CacheInvalidationBus.DELETED_VERSION), eq("user@mail.com"));
+        verify(secondLevelCache).evictTaskCollections(20L);
+        verify(secondLevelCache).evictUser(USER_ID, "user@mail.com");
+    }
+
+    @Test
+    void testRun_ResumesFromCheckpointPhase() {
+        RecordingContext context = new RecordingContext(Map.of("phase", "COMMENTS", "deletedTasks", 5));
+
+        userDeletionService.run(context);
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        verify(jdbcTemplate, times(1)).query(argThat((String sql) -> sql.contains("task_comment_table")),
+                any(RowCallbackHandler.class), any(Object[].class));
+        verify(jdbcTemplate, never()).query(startsWith("WITH doomed"), any(RowCallbackHandler.class),
+                any(Object[].class));
+        assertEquals(5, context.checkpoints.get(0).get("deletedTasks"));
+        verify(jdbcTemplate).update("DELETE FROM user_table WHERE id = ?", USER_ID);
+    }
+
+    @Test
+    void testRun_RemovesLateAssignmentsBeforeDeletingUser() {
+        RecordingContext context = new RecordingContext(Map.of("phase", "USER"));
+
+        userDeletionService.run(context);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).query(argThat((String sql) -> sql.contains("DELETE FROM task_performers")),
+                any(RowCallbackHandler.class), eq(USER_ID), eq(USER_ID), eq(Integer.MAX_VALUE), eq(USER_ID));
+        order.verify(jdbcTemplate).update("DELETE FROM user_table WHERE id = ?", USER_ID);
+    }
+
+    @Test
+    void testRequestLoggedInUserDeletion_ReturnsUnfinishedJob() {
+        User user = new User();
+        user.setId(USER_ID);
+        BackgroundJob job = new BackgroundJob();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("user@mail.com", null));
+        when(userService.getUserByEmail("user@mail.com")).thenReturn(user);
+        when(backgroundJobService.findUnfinishedJob(UserDeletionServiceImpl.JOB_TYPE, USER_ID))
+                .thenReturn(Optional.of(job));
+
+        assertSame(job, userDeletionService.requestLoggedInUserDeletion());
+
+        verify(userRepository, never()).save(any());
+        verify(backgroundJobService, never()).submitJob(anyString(), anyLong(), anyMap());
+    }
+
+    @Test
+    void testRequestLoggedInUserDeletion_DisablesUserAndSubmitsJob() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEnabled(true);
+        BackgroundJob job = new BackgroundJob();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("user@mail.com", null));
+        when(userService.getUserByEmail("user@mail.com")).thenReturn(user);
+        when(backgroundJobService.findUnfinishedJob(UserDeletionServiceImpl.JOB_TYPE, USER_ID))
+                .thenReturn(Optional.empty());
+        when(backgroundJobService.submitJob(UserDeletionServiceImpl.JOB_TYPE, USER_ID, Map.of())).thenReturn(job);
+
+        assertSame(job, userDeletionService.requestLoggedInUserDeletion());
+
+        assertFalse(user.getEnabled());
+        verify(userRepository).save(user);
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.USER), eq(USER_ID), any());
+    }
+
+    private static List<Object[]> chunk(List<List<Object[]>> chunks, int index) {
+        return index < chunks.size() ? chunks.get(index) : new ArrayList<>();
+    }
+
+    private static ResultSet touchedRow(Object[] row) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn((Long) row[0]);
+        when(resultSet.getLong("author_id")).thenReturn((Long) row[1]);
+        when(resultSet.getInt("version")).thenReturn((Integer) row[2]);
+        return resultSet;
+    }
+
+    private static class RecordingContext implements BackgroundJobContext {
+        private final Map<String, Object> initialCheckpoint;
+        private final List<Map<String, Object>> checkpoints = new ArrayList<>();
+        private Long total;
+        private long processed;
+
+        private RecordingContext(Map<String, Object> initialCheckpoint) {
+            this.initialCheckpoint = initialCheckpoint;
+        }
+
+        @Override
+        public UUID getJobId() {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public Long getOwnerId() {
+            return USER_ID;
+        }
+
+        @Override
+        public Map<String, Object> getParameters() {
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, Object> getCheckpoint() {
+            return checkpoints.isEmpty() ? initialCheckpoint : checkpoints.get(checkpoints.size() - 1);
+        }
+
+        @Override
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        @Override
+        public void checkpoint(Map<String, Object> checkpoint, long processed) {
+            checkpoints.add(Map.copyOf(checkpoint));
+            this.processed += processed;
+        }
+
+        @Override
+        public boolean isCancellationRequested() {
+            return false;
+        }
+    }
+}
@@ -4,20 +4,31 @@ import com.artur.task_management_system.exception.EmailTakenException;
 import com.artur.task_management_system.exception.EntityNotFoundByIdException;
 import com.artur.task_management_system.exception.UserNotFoundByEmailException;
 import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.attributes.CacheEntityType;
 import com.artur.task_management_system.repository.UserRepository;
+import com.artur.task_management_system.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,13 +41,13 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private ConfirmationTokenService confirmationTokenService;
+    private PageablePlanner pageablePlanner;
 
     @Mock
-    private UserConfirmationService userConfirmationService;
+    private CacheInvalidationBus cacheInvalidationBus;
 
     @InjectMocks
-    private UserService userService;
+    private UserServiceImpl userService;
 
     private User user;
 
@@ -135,6 +146,38 @@ class UserServiceTest {
         var result = userService.updateUserById(1L, user);
 
         assertTrue(result.isEmpty());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.USER), eq(1L), any(), isNull());
+    }
+
+    @Test
+    void updateUserById_EmailChanged_DisablesUserAndReturnsToken() {
+        User update = new User();
+        update.setEmail("new@example.com");
+        update.setPassword("password123");
+        update.setName("Test User");
+        user.setEnabled(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        var result = userService.updateUserById(1L, update);
+
+        assertTrue(result.isPresent());
+        assertEquals(user, result.get().getUser());
+        assertEquals("new@example.com", user.getEmail());
+        assertFalse(user.isEnabled());
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.USER), eq(1L), any(),
+                eq("test@example.com"));
+    }
+
+    @Test
+    void getAllUsers_UsesPlannedPageable() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+        Page<User> users = new PageImpl<>(List.of(user));
+        when(pageablePlanner.makePageable(User.class, 0, 10, "id", "Asc")).thenReturn(pageable);
+        when(userRepository.findAll(pageable)).thenReturn(users);
+
+        assertEquals(users, userService.getAllUsers(0, 10, "id", "Asc"));
     }
 
     @Test
@@ -145,6 +188,7 @@ class UserServiceTest {
 
         assertTrue(user.isEnabled());
         verify(userRepository).save(user);
+        verify(cacheInvalidationBus).publishAfterCommit(eq(CacheEntityType.USER), eq(1L), any());
     }
 
     @Test
@@ -155,4 +199,28 @@ class UserServiceTest {
             userService.enableUser("test@example.com");
         });
     }
+
+    @Test
+    void getUsersByIds_ReportsMissingAndDeduplicates() {
+        User other = new User();
+        other.setId(4L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user, other));
+
+        var result = userService.getUsersByIds(List.of(4L, 1L, 9L, 4L));
+
+        assertEquals(List.of(other, user), result.getContent());
+        assertEquals(List.of(9L), result.getMissingIds());
+        verify(userRepository).findAllById(argThat(ids -> List.copyOf((Set<Long>) ids).equals(List.of(4L, 1L, 9L))));
+    }
+
+    @Test
+    void getUsersByIds_WrongNumberOfIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalStateException.class, () -> userService.getUsersByIds(List.of()));
+        assertThrows(IllegalStateException.class, () -> userService.getUsersByIds(null));
+        assertThrows(IllegalStateException.class, () -> userService.getUsersByIds(tooMany));
+
+        verifyNoInteractions(userRepository);
+    }
 }
@@ -0,0 +1,248 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.model.TaskEvent;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.WebhookDeadLetter;
+import com.artur.task_management_system.model.WebhookDelivery;
+import com.artur.task_management_system.model.WebhookSubscription;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.WebhookScope;
+import com.artur.task_management_system.repository.WebhookDeadLetterRepository;
+import com.artur.task_management_system.repository.WebhookDeliveryRepository;
+import com.artur.task_management_system.repository.WebhookSubscriptionRepository;
+import com.artur.task_management_system.security.WebhookUrlValidator;
+import com.artur.task_management_system.service.impl.WebhookDeliveryServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDeliveryServiceTest {
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookDeliveryRepository deliveryRepository;
+
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WebhookUrlValidator webhookUrlValidator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int responseStatus = 200;
+
+    private volatile CountDownLatch responseGate = new CountDownLatch(0);
+
+    private HttpServer receiver;
+
+    private WebhookDeliveryServiceImpl deliveryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.setExecutor(Executors.newCachedThreadPool());
+        receiver.createContext("/hook", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(new Request(body,
+                    exchange.getRequestHeaders().getFirst(WebhookDeliveryServiceImpl.TIMESTAMP_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookDeliveryServiceImpl.SIGNATURE_HEADER)));
+            try {
+                responseGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        receiver.start();
+        // Получатель слушает loopback адрес, который настоящая проверка отклоняет
+        lenient().when(webhookUrlValidator.validate(anyString()))
+                .thenAnswer(invocation -> URI.create(invocation.getArgument(0)));
+        deliveryService = deliveryService(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryService.shutdown();
+        receiver.stop(0);
+    }
+
+    @Test
+    void testOnTaskEvents_QueuesEventForMatchingSubscriptionsOnly() {
+        WebhookSubscription authored = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        WebhookSubscription statusOnly = subscription(2L, 2L, WebhookScope.ASSIGNED, Set.of(TaskEventType.STATUS_CHANGED));
+        WebhookSubscription notAssigned = subscription(3L, 3L, WebhookScope.ASSIGNED, Set.of());
+        when(subscriptionRepository.findAllByOwnerIds(Set.of(1L, 2L)))
+                .thenReturn(List.of(authored, statusOnly, notAssigned));
+
+        deliveryService.onTaskEvents(List.of(event(7L, TaskEventType.TASK_UPDATED, 1L, List.of(2L))));
+
+        ArgumentCaptor<List<WebhookDelivery>> deliveries = ArgumentCaptor.captor();
+        verify(deliveryRepository).saveAll(deliveries.capture());
+        assertEquals(1, deliveries.getValue().size());
+        assertEquals(authored, deliveries.getValue().get(0).getSubscription());
+        assertEquals(7L, deliveries.getValue().get(0).getEventId());
+    }
+
+    @Test
+    void testDeliverDueEvents_SendsSignedBatchPerSubscriptionAndDeletesDelivered() throws Exception {
+        WebhookSubscription subscription = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        List<WebhookDelivery> due = List.of(delivery(10L, subscription, 5L, 0), delivery(11L, subscription, 6L, 0));
+        when(deliveryRepository.lockDueDeliveries(any(), anyInt())).thenReturn(due);
+
+        assertEquals(2, deliveryService.deliverDueEvents());
+
+        assertEquals(1, requests.size());
+        Request request = requests.get(0);
+        assertEquals("sha256=" + sign(subscription.getSecret(), request.timestamp() + "." + request.body()),
+                request.signature());
+        JsonNode body = objectMapper.readTree(request.body());
+        assertEquals(1L, body.get("subscriptionId").asLong());
+        assertEquals(List.of(5L, 6L), body.get("events").findValues("id").stream().map(JsonNode::asLong).toList());
+        verify(deliveryRepository).deleteAllByIdInBatch(List.of(10L, 11L));
+        verify(deliveryRepository, never()).scheduleRetry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testDeliverDueEvents_FailedDeliveryIsRetriedWithBackoff() {
+        responseStatus = 500;
+        WebhookSubscription subscription = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        when(deliveryRepository.lockDueDeliveries(any(), anyInt()))
+                .thenReturn(List.of(delivery(10L, subscription, 5L, 1)));
+        LocalDateTime before = LocalDateTime.now();
+
+        deliveryService.deliverDueEvents();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(deliveryRepository).scheduleRetry(eq(10L), eq(2), nextAttemptAt.capture(), eq("HTTP status 500"));
+        assertFalse(nextAttemptAt.getValue().isBefore(before.plusSeconds(2)));
+        assertFalse(nextAttemptAt.getValue().isAfter(LocalDateTime.now().plusSeconds(4)));
+        verify(deliveryRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void testDeliverDueEvents_ExhaustedDeliveryMovesToDeadLetters() {
+        responseStatus = 503;
+        WebhookSubscription subscription = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        when(deliveryRepository.lockDueDeliveries(any(), anyInt()))
+                .thenReturn(List.of(delivery(10L, subscription, 5L, MAX_ATTEMPTS - 1)));
+
+        deliveryService.deliverDueEvents();
+
+        ArgumentCaptor<List<WebhookDeadLetter>> deadLetters = ArgumentCaptor.captor();
+        verify(deadLetterRepository).saveAll(deadLetters.capture());
+        assertEquals(5L, deadLetters.getValue().get(0).getEventId());
+        assertEquals(MAX_ATTEMPTS, deadLetters.getValue().get(0).getAttempts());
+        verify(deliveryRepository).deleteAllByIdInBatch(List.of(10L));
+    }
+
+    @Test
+    void testDeliverDueEvents_BlockedUrlIsNotRequested() {
+        WebhookSubscription subscription = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        when(webhookUrlValidator.validate(subscription.getUrl()))
+                .thenThrow(new IllegalStateException("Webhook url host 127.0.0.1 resolves to not public address"));
+        when(deliveryRepository.lockDueDeliveries(any(), anyInt()))
+                .thenReturn(List.of(delivery(10L, subscription, 5L, 0)));
+
+        deliveryService.deliverDueEvents();
+
+        assertTrue(requests.isEmpty());
+        verify(deliveryRepository).scheduleRetry(eq(10L), eq(1), any(),
+                eq("Webhook url host 127.0.0.1 resolves to not public address"));
+    }
+
+    @Test
+    void testDeliverDueEvents_LimitsConcurrentRequestsPerHost() {
+        deliveryService.shutdown();
+        deliveryService = deliveryService(1);
+        responseGate = new CountDownLatch(1);
+        CountDownLatch gate = responseGate;
+        WebhookSubscription first = subscription(1L, 1L, WebhookScope.AUTHORED, Set.of());
+        WebhookSubscription second = subscription(2L, 2L, WebhookScope.AUTHORED, Set.of());
+        when(deliveryRepository.lockDueDeliveries(any(), anyInt()))
+                .thenReturn(List.of(delivery(10L, first, 5L, 0), delivery(11L, second, 5L, 0)));
+        lenient().doAnswer(invocation -> {
+            gate.countDown();
+            return null;
+        }).when(deliveryRepository).reschedule(argThat(ids -> ids.size() == 1), any());
+
+        deliveryService.deliverDueEvents();
+
+        assertEquals(1, requests.size());
+        verify(deliveryRepository, times(2)).reschedule(any(), any());
+        verify(deliveryRepository).deleteAllByIdInBatch(any());
+    }
+
+    private WebhookDeliveryServiceImpl deliveryService(int maxConcurrentPerHost) {
+        return new WebhookDeliveryServiceImpl(subscriptionRepository, deliveryRepository, deadLetterRepository,
+                objectMapper, webhookUrlValidator, transactionManager, 100, 50, MAX_ATTEMPTS, Duration.ofSeconds(2),
+                Duration.ofMinutes(1), Duration.ofMinutes(1), maxConcurrentPerHost,
+                Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    private WebhookSubscription subscription(Long id, Long ownerId, WebhookScope scope, Set<TaskEventType> types) {
+        User owner = new User();
+        owner.setId(ownerId);
+        return new WebhookSubscription(id, owner, "http://127.0.0.1:" + receiver.getAddress().getPort() + "/hook",
+                "secret-" + id, scope, types, LocalDateTime.now());
+    }
+
+    private WebhookDelivery delivery(Long id, WebhookSubscription subscription, Long eventId, int attempts) {
+        String payload = String.format("{\"id\":%d,\"type\":\"TASK_UPDATED\"}", eventId);
+        return new WebhookDelivery(id, subscription, eventId, payload, attempts, LocalDateTime.now(), null,
+                LocalDateTime.now());
+    }
+
+    private TaskEvent event(Long id, TaskEventType type, Long authorId, List<Long> performerIds) {
+        return new TaskEvent(id, 1L, type, 100L, authorId, LocalDateTime.now(),
+                Map.of("authorId", authorId, "performerIds", performerIds));
+    }
+
+    private String sign(String secret, String content) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Request(String body, String timestamp, String signature) {
+    }
+}
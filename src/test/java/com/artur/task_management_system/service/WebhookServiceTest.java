@@ -0,0 +1,116 @@
+package com.artur.task_management_system.service;
+
+import com.artur.task_management_system.dto.WebhookSubscriptionCreationDTO;
+import com.artur.task_management_system.exception.NoRightsException;
+import com.artur.task_management_system.model.User;
+import com.artur.task_management_system.model.WebhookSubscription;
+import com.artur.task_management_system.model.attributes.TaskEventType;
+import com.artur.task_management_system.model.attributes.WebhookScope;
+import com.artur.task_management_system.repository.WebhookDeadLetterRepository;
+import com.artur.task_management_system.repository.WebhookSubscriptionRepository;
+import com.artur.task_management_system.security.WebhookUrlValidator;
+import com.artur.task_management_system.service.impl.WebhookServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceTest {
+    private static final String URL = "https://partner.example.com/hooks/tasks";
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private WebhookUrlValidator webhookUrlValidator;
+
+    @InjectMocks
+    private WebhookServiceImpl webhookService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        lenient().when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void addSubscription_SavesValidatedSubscription() {
+        when(webhookUrlValidator.validate(URL)).thenReturn(URI.create(URL));
+        when(subscriptionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WebhookSubscription subscription = webhookService.addSubscription(
+                new WebhookSubscriptionCreationDTO(URL, WebhookScope.AUTHORED, Set.of(TaskEventType.TASK_CREATED)));
+
+        assertEquals(user, subscription.getOwner());
+        assertEquals(URL, subscription.getUrl());
+        assertEquals(Set.of(TaskEventType.TASK_CREATED), subscription.getEventTypes());
+        assertNotNull(subscription.getSecret());
+    }
+
+    @Test
+    void addSubscription_RejectsNotPublicUrl() {
+        String url = "http://169.254.169.254/latest/meta-data";
+        when(webhookUrlValidator.validate(url)).thenThrow(new IllegalStateException("not public"));
+
+        assertThrows(IllegalStateException.class, () -> webhookService.addSubscription(
+                new WebhookSubscriptionCreationDTO(url, WebhookScope.AUTHORED, Set.of())));
+
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void addSubscription_LimitsSubscriptionsPerUser() {
+        when(subscriptionRepository.countByOwnerId(1L)).thenReturn(10L);
+
+        assertThrows(IllegalStateException.class, () -> webhookService.addSubscription(
+                new WebhookSubscriptionCreationDTO(URL, WebhookScope.AUTHORED, Set.of())));
+
+        verifyNoInteractions(webhookUrlValidator);
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteSubscription_RejectsNotOwnSubscription() {
+        User other = new User();
+        other.setId(2L);
+        WebhookSubscription subscription = new WebhookSubscription();
+        subscription.setId(5L);
+        subscription.setOwner(other);
+        when(subscriptionRepository.findById(5L)).thenReturn(Optional.of(subscription));
+
+        assertThrows(NoRightsException.class, () -> webhookService.deleteSubscription(5L));
+
+        verify(subscriptionRepository, never()).delete(any());
+    }
+}